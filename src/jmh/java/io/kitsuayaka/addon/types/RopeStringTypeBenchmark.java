@@ -0,0 +1,77 @@
+package io.kitsuayaka.addon.types;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of an edit of a large document, held by a {@link StringType} or a {@link RopeStringType}: a key is
+ * inserted at one scattered offset and as many chars are removed at another, so the size of the document stays the
+ * same.
+ * <blockquote>
+ * <pre>{@code mvn -P benchmarks test-compile exec:exec -Djmh.benchmarks=RopeStringTypeBenchmark}</pre>
+ * </blockquote>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RopeStringTypeBenchmark {
+    private static final String KEY = "inserted: value\n";
+
+    @Param({"65536", "1048576", "8388608", "33554432"})
+    public int size;
+
+    private StringType array;
+    private RopeStringType rope;
+    // the offsets edits are made at, in a random order
+    private int[] offsets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(size + 32);
+        for (int i = 0; builder.length() < size; i++) builder.append("key").append(i).append(": value\n");
+        builder.setLength(size);
+        array = new StringType(builder.toString());
+        rope = new RopeStringType(builder.toString());
+
+        Random random = new Random(0x2B);
+        offsets = new int[1024];
+        for (int i = 0; i < offsets.length; i++) offsets[i] = random.nextInt(size - KEY.length());
+    }
+
+    @Benchmark
+    public int stringType() {
+        int at = offset(), from = offset();
+        array.insert(KEY, at);
+        array.removeChars(from, from + KEY.length());
+        return array.length();
+    }
+
+    @Benchmark
+    public int ropeStringType() {
+        int at = offset(), from = offset();
+        rope.insert(KEY, at);
+        rope.removeChars(from, from + KEY.length());
+        return rope.length();
+    }
+
+    private int offset() {
+        return offsets[next++ & offsets.length - 1];
+    }
+}
@@ -0,0 +1,114 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code HashMap.get} keyed by {@link StringType}s equal to, but not the same as, the keys of the map, as a
+ * parser looking up keys it has just read does. {@code constantHash} stands in for the hash {@code BaseType} had
+ * before, the same for every instance, which puts all keys into a single bucket; {@code interned} looks up the keys
+ * {@link StringTypePool} returns, which are the keys of the map, and {@code string} is the baseline.
+ * <blockquote>
+ * <pre>{@code mvn -P benchmarks test-compile exec:exec -Djmh.benchmarks=StringTypeHashBenchmark}</pre>
+ * </blockquote>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringTypeHashBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private final Map<StringType, Integer> stringTypes = new HashMap<>();
+    private final Map<ConstantHash, Integer> constantHashes = new HashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final StringTypePool pool = new StringTypePool();
+    // the keys looked up, in a random order
+    private StringType[] keys;
+    private ConstantHash[] constantKeys;
+    private String[] stringKeys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(0x11);
+        keys = new StringType[size];
+        constantKeys = new ConstantHash[size];
+        stringKeys = new String[size];
+        for (int i = 0; i < size; i++) {
+            String key = "spec.containers." + Integer.toString(random.nextInt(1 << 20), 36) + "." + i + ".name";
+            stringTypes.put(pool.intern(key), i);
+            constantHashes.put(new ConstantHash(new StringType(key)), i);
+            strings.put(key, i);
+        }
+        int i = 0;
+        for (String key : strings.keySet()) { // in the order of their hashes
+            keys[i] = new StringType(key);
+            constantKeys[i] = new ConstantHash(new StringType(key));
+            stringKeys[i++] = new String(key.toCharArray());
+        }
+    }
+
+    @Benchmark
+    public Integer stringType() {
+        return stringTypes.get(keys[index()]);
+    }
+
+    @Benchmark
+    public Integer constantHash() {
+        return constantHashes.get(constantKeys[index()]);
+    }
+
+    @Benchmark
+    public Integer interned() {
+        return stringTypes.get(pool.intern(keys[index()]));
+    }
+
+    @Benchmark
+    public Integer string() {
+        return strings.get(stringKeys[index()]);
+    }
+
+    private int index() {
+        int i = next;
+        next = i + 1 == keys.length ? 0 : i + 1;
+        return i;
+    }
+
+    // a key hashed the way BaseType used to, and compared like a StringType, for HashMap to fall back on in its bins
+    private record ConstantHash(@NotNull StringType value) implements Comparable<ConstantHash> {
+        @Override
+        public int hashCode() {
+            return 31 * "StringType".length();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ConstantHash c && value.equals(c.value);
+        }
+
+        @Override
+        public int compareTo(@NotNull ConstantHash o) {
+            return value.compareTo(o.value);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sorting {@link StringType}s: {@code Arrays.sort} with the char by char comparison {@code compareTo} made
+ * before, and with the one it makes now, against {@link StringTypeSort#sort(StringType[])} and
+ * {@link StringTypeSort#parallelSort(StringType[])}. The keys are either configuration keys sharing long prefixes, or
+ * random words; every invocation sorts a fresh copy of them.
+ * <blockquote>
+ * <pre>{@code mvn -P benchmarks test-compile exec:exec -Djmh.benchmarks=StringTypeSortBenchmark}</pre>
+ * </blockquote>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringTypeSortBenchmark {
+    private static final String[] PREFIXES = {
+            "spring.datasource.hikari.", "spring.jpa.properties.hibernate.", "server.servlet.session.cookie.",
+            "management.endpoints.web.exposure.", "logging.level.org.springframework."
+    };
+    // compareTo as it was before StringTypeSort, one char at a time
+    private static final Comparator<StringType> CHAR_BY_CHAR = (a, b) -> {
+        int len = Math.min(a.length(), b.length());
+        for (int i = 0; i < len; i++) {
+            char x = a.charAt(i), y = b.charAt(i);
+            if (x != y) return x - y;
+        }
+        return a.length() - b.length();
+    };
+
+    @Param({"prefixed", "random"})
+    public String keys;
+
+    @Param({"200000"})
+    public int size;
+
+    private StringType[] source;
+    private StringType[] a;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(0x17);
+        source = new StringType[size];
+        for (int i = 0; i < size; i++) {
+            String word = word(random);
+            source[i] = new StringType(keys.equals("prefixed")
+                    ? PREFIXES[random.nextInt(PREFIXES.length)] + word + "." + word(random)
+                    : word);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        a = source.clone();
+    }
+
+    @Benchmark
+    public StringType[] arraysSortCharByChar() {
+        Arrays.sort(a, CHAR_BY_CHAR);
+        return a;
+    }
+
+    @Benchmark
+    public StringType[] arraysSort() {
+        Arrays.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public StringType[] sort() {
+        StringTypeSort.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public StringType[] parallelSort() {
+        StringTypeSort.parallelSort(a);
+        return a;
+    }
+
+    // a lowercase word of 3 to 12 letters
+    private static @NotNull String word(@NotNull Random random) {
+        char[] cs = new char[3 + random.nextInt(10)];
+        for (int i = 0; i < cs.length; i++) cs[i] = (char) ('a' + random.nextInt(26));
+        return new String(cs);
+    }
+}
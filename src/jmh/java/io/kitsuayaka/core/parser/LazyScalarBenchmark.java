@@ -0,0 +1,105 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.core.elements.BaseElement;
+import io.kitsuayaka.core.elements.ElementArena;
+import io.kitsuayaka.core.elements.MappingElement;
+import io.kitsuayaka.core.elements.SequenceElement;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.CharArrayReader;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a large document and then reading the values of every 100th of its top level entries, about 1% of
+ * them: into the object tree {@link YamlTreeBuilder#document(YamlReader)} builds, into an {@link ElementArena} read from
+ * a {@code Reader}, whose scalars are decoded while reading, and into one read from the array itself, whose scalars are
+ * only decoded when they are read. The entries either hold short plain scalars, many nodes in few chars,
+ * or long escaped and folded scalars.
+ * <blockquote>
+ * <pre>{@code mvn -P benchmarks test-compile exec:exec -Djmh.benchmarks=LazyScalarBenchmark}</pre>
+ * </blockquote>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazyScalarBenchmark {
+    private static final int STEP = 100;
+
+    @Param({"short", "long"})
+    public String scalars;
+
+    private char[] yaml;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        if (scalars.equals("short")) {
+            for (int i = 0; i < 200_000; i++) {
+                builder.append("entry").append(i).append(":\n  id: ").append(i).append("\n  name: item")
+                        .append(i).append("\n  ratio: 0.").append(i % 1000).append("\n  tags: [a, b, c]\n");
+            }
+        } else {
+            String words = "a fairly long line of words ".repeat(8);
+            for (int i = 0; i < 20_000; i++) {
+                builder.append("entry").append(i).append(":\n  escaped: \"").append(i).append("\\t")
+                        .append(words).append("\\u00e9\\n").append(words).append("\"\n  folded: >\n");
+                for (int line = 0; line < 6; line++) builder.append("    ").append(words).append('\n');
+            }
+        }
+        yaml = builder.toString().toCharArray();
+    }
+
+    @Benchmark
+    public long tree() {
+        return read(YamlTreeBuilder.document(new YamlReader(yaml)));
+    }
+
+    @Benchmark
+    public long eagerArena() {
+        return read(Objects.requireNonNull(YamlTreeBuilder.compact(new YamlReader(new CharArrayReader(yaml)))).root());
+    }
+
+    @Benchmark
+    public long lazyArena() {
+        return read(Objects.requireNonNull(YamlTreeBuilder.compact(new YamlReader(yaml))).root());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // reads the values of every 100th entry, walking the entries rather than looking them up, which an arena does by
+    // scanning the keys
+    private static long read(BaseElement<?> root) {
+        long hash = 0;
+        int i = 0;
+        for (BaseElement<?> entry : ((MappingElement) Objects.requireNonNull(root)).getValue().values()) {
+            if (i++ % STEP != 0) continue;
+            for (BaseElement<?> value : ((MappingElement) entry).getValue().values()) hash += value(value);
+        }
+        return hash;
+    }
+
+    // the hash of the contents of a scalar, or of the scalars of a sequence
+    private static int value(@NotNull BaseElement<?> element) {
+        if (!(element instanceof SequenceElement sequence)) return Objects.hashCode(element.getValue());
+        int hash = 0;
+        for (BaseElement<?> item : sequence) hash += value(item);
+        return hash;
+    }
+}
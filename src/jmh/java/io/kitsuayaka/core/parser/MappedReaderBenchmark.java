@@ -0,0 +1,109 @@
+package io.kitsuayaka.core.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a generated <em>UTF-8</em> file of 10 MB, 100 MB or 1 GB, mostly <em>ASCII</em>, through
+ * {@link Files#newBufferedReader(Path)} or a {@link MappedReader}: only decoding it into an 8K buffer, and reading it
+ * into events with a {@link YamlReader}. The file stays in the page cache between invocations, so this measures a warm
+ * cache; for a cold one, drop the page cache before every fork, e.g. with {@code sync; echo 3 > /proc/sys/vm/drop_caches}
+ * as root, and run single shots with {@code -bm ss -wi 0 -i 1 -f 1}, a fork per benchmark and size.
+ * <blockquote>
+ * <pre>{@code mvn -P benchmarks test-compile exec:exec -Djmh.benchmarks=MappedReaderBenchmark}</pre>
+ * </blockquote>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedReaderBenchmark {
+    @Param({"10", "100", "1024"})
+    public int megabytes;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("benchmark", ".yml");
+        long size = (long) megabytes << 20;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (long i = 0, written = 0; written < size; i++) {
+                String entry = "- id: " + i + "\n  name: \"entry\\t" + i + "\"\n  city: Zürich\n"
+                        + "  tags: [alpha, beta, γάμμα]\n  note: |\n    plain text of entry " + i + "\n";
+                writer.write(entry);
+                written += entry.length() + 6; // ü and γάμμα take two bytes per char
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long decodeReader() throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return decode(reader);
+        }
+    }
+
+    @Benchmark
+    public long decodeMapped() throws IOException {
+        try (Reader reader = new MappedReader(file)) {
+            return decode(reader);
+        }
+    }
+
+    @Benchmark
+    public long parseReader() throws IOException {
+        try (YamlReader reader = new YamlReader(Files.newBufferedReader(file))) {
+            return events(reader);
+        }
+    }
+
+    @Benchmark
+    public long parseMapped() throws IOException {
+        try (YamlReader reader = YamlReader.open(file)) {
+            return events(reader);
+        }
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static long decode(@NotNull Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        long chars = 0;
+        for (int n; (n = reader.read(buffer, 0, buffer.length)) >= 0; ) chars += n;
+        return chars;
+    }
+
+    private static long events(@NotNull YamlReader reader) {
+        long events = 0;
+        for (; reader.hasNext(); events++) reader.next();
+        return events;
+    }
+}
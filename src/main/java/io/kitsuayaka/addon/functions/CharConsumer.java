@@ -0,0 +1,19 @@
+package io.kitsuayaka.addon.functions;
+
+/**
+ * This interface is used to iterate through the characters of a {@link io.kitsuayaka.addon.types.StringType StringType}
+ * without boxing them, and specifically used in the method
+ * {@link io.kitsuayaka.addon.types.StringType#forEachChar(CharConsumer) StringType.forEachChar(CharConsumer)}. It is
+ * the primitive counterpart of {@link java.util.function.Consumer Consumer&lt;Character&gt;}.
+ *
+ * @since <code>1.7.0</code>
+ */
+@FunctionalInterface
+public interface CharConsumer {
+    /**
+     * This method is called on each character, in order.
+     *
+     * @param c The current character.
+     */
+    void accept(char c);
+}
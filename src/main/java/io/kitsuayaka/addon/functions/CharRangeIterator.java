@@ -0,0 +1,26 @@
+package io.kitsuayaka.addon.functions;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This interface is used to iterate through windows of a {@link io.kitsuayaka.addon.types.StringType StringType}
+ * without copying them, and specifically used in the methods
+ * {@link io.kitsuayaka.addon.types.StringType#forEachWindow(int, int, CharRangeIterator) StringType.forEachWindow(int, int, CharRangeIterator)}
+ * and {@link io.kitsuayaka.addon.types.StringType#forEachWindowParallel(int, int, CharRangeIterator) StringType.forEachWindowParallel(int, int, CharRangeIterator)}.
+ * It is the primitive-friendly counterpart of {@link StringRangeIterator}: instead of a new {@code String} per window, it
+ * is passed a read-only view on the characters of the window, which is reused for the next one.
+ *
+ * @since <code>1.7.0</code>
+ */
+@FunctionalInterface
+public interface CharRangeIterator {
+    /**
+     * This method is called on every window. The given {@code CharSequence} is only valid until this method returns,
+     * call {@link CharSequence#toString()} on it to keep its characters.
+     *
+     * @param window The characters of the current window.
+     * @param start  The index of the first character of the window.
+     * @return {@code true} to go on with the next window, {@code false} to stop.
+     */
+    boolean apply(@NotNull CharSequence window, int start);
+}
@@ -7,28 +7,23 @@ import org.jetbrains.annotations.NotNull;
 
 public interface Formatter {
     static @NotNull String numberFormat(double d, int rightFormat, int leftFormat) {
-        boolean neg = d < 0;
-        String _n = new NumberType(d).valueToString();
-        String n = neg ? _n.substring(1) : _n;
-
+        String n = new NumberType(d).valueToString();
+        int start = d < 0 ? 1 : 0;
         int di = n.indexOf('.');
-
-        String ip = di != -1 ? n.substring(0, di) : n;
-        String dp = di != -1 ? n.substring(di + 1) : "";
-
-        StringBuilder sb = new StringBuilder(neg ? "-" : "");
-
-        StringType t = new StringType(ip);
-        if (leftFormat > 0) {
-            while (t.isShorterThan(leftFormat)) t.push('0');
-        }
-        sb.append(ip);
-        t = new StringType(dp);
-        if (rightFormat > 0) {
-            while (t.isShorterThan(rightFormat)) t.append('0');
+        int ipEnd = di != -1 ? di : n.length();
+
+        try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+            StringType t = scratch.get();
+            if (start == 1) t.append('-');
+            for (int i = ipEnd - start; i < leftFormat; i++) t.append('0');
+            t.append(n, start, ipEnd);
+
+            if (di != -1) {
+                t.append('.');
+                t.append(n, di + 1, n.length());
+                for (int i = n.length() - di - 1; i < rightFormat; i++) t.append('0');
+            }
+            return t.getValue();
         }
-        sb.append(t);
-
-        return sb.toString();
     }
 }
@@ -86,8 +86,8 @@ public final class AnyType extends BaseType<Object> implements Serializable {
     public static AnyType castToAnyType(BaseType<?> baseType) {
         if (baseType instanceof AnyType a) return a;
 
-        AnyType a = new AnyType(baseType.value);
-        a.anyClass = baseType.value.getClass();
+        AnyType a = new AnyType(baseType.getValue());
+        a.anyClass = baseType.getValue().getClass();
         return a;
     }
 
@@ -224,13 +224,13 @@ public final class AnyType extends BaseType<Object> implements Serializable {
             }
 
             try {
-                return constructor.newInstance(baseType.value);
+                return constructor.newInstance(baseType.getValue());
             } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
                 throw new InternalError(String.format("Cannot cast value of %s to %s. Constructor error.",
                         baseType.getClass(), target));
             } catch (IllegalArgumentException e) {
                 throw new ClassCastException(String.format("Cannot cast value of %s to %s, as %s does not take %s as" +
-                        "parameter for constructor.", baseType.value.getClass(), target,
+                        "parameter for constructor.", baseType.getValue().getClass(), target,
                         target, baseType.getClassOfValue()));
 
         }
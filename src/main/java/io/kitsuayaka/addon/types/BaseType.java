@@ -16,6 +16,13 @@ abstract class BaseType<T> implements Serializable {
     @Serial
     private static final long serialVersionUID = 1;
 
+    private static final char[] HEX_DIGITS = {
+            '0', '1', '2', '3',
+            '4', '5', '6', '7',
+            '8', '9', 'A', 'B',
+            'C', 'D', 'E', 'F'
+    };
+
     protected T value;
     protected Class<T> tClass;
 
@@ -61,7 +68,7 @@ abstract class BaseType<T> implements Serializable {
      */
     public boolean isValue(@Nullable Object o) {
         if (o == null) return isNull();
-        return o.getClass() == tClass && Objects.equals(o, value);
+        return o.getClass() == tClass && Objects.equals(o, getValue());
     }
 
     /**
@@ -72,7 +79,7 @@ abstract class BaseType<T> implements Serializable {
      * @since <code>1.0.2</code>
      */
     public boolean isNull() {
-        return value == null;
+        return getValue() == null;
     }
 
     /**
@@ -103,7 +110,7 @@ abstract class BaseType<T> implements Serializable {
      * @since <code>1.0.0</code>
      */
     public String valueToString() {
-        return value.toString();
+        return getValue().toString();
     }
 
     // --------------------------------------------------------- Overrides
@@ -116,18 +123,19 @@ abstract class BaseType<T> implements Serializable {
      */
     @Override
     public @NotNull String toString() {
-        return String.format("%s { value: %s }", getClass().getSimpleName(), value);
+        return String.format("%s { value: %s }", getClass().getSimpleName(), getValue());
     }
 
     /**
-     * Returns the hash value of this object.
+     * Returns the hash value of this object, which is the hash value of its value, or {@code 0} if that is
+     * {@code null}, so that objects which are equal according to {@link #equals(Object)} have the same one.
      *
      * @return the hash value of this object.
      * @since <code>1.0.0</code>
      */
     @Override
     public int hashCode() {
-        return 31 * getClass().getSimpleName().length() << serialVersionUID;
+        return Objects.hashCode(getValue());
     }
 
     /**
@@ -168,7 +176,7 @@ abstract class BaseType<T> implements Serializable {
 
         if (tClass != otherTClass) return false;
 
-        return Objects.equals(value, baseType.value) &&
+        return Objects.equals(getValue(), baseType.getValue()) &&
                 hashCode() == baseType.hashCode();
     }
 
@@ -176,7 +184,7 @@ abstract class BaseType<T> implements Serializable {
 
     @Serial
     private void writeObject(@NotNull ObjectOutputStream objectOutputStream) throws IOException {
-        objectOutputStream.writeObject(value);
+        objectOutputStream.writeObject(getValue());
         objectOutputStream.writeObject(tClass);
     }
 
@@ -216,22 +224,22 @@ abstract class BaseType<T> implements Serializable {
     // --------------------------------------------------------- Helper methods
 
     protected static @NotNull String toHexString(long l) {
-        if (l < 0) l *= -1L;
-        int r;
-        StringBuilder h = new StringBuilder();
-        char[] hex = {
-                '0', '1', '2', '3',
-                '4', '5', '6', '7',
-                '8', '9', 'A', 'B',
-                'C', 'D', 'E', 'F'
-        };
-
-        while (l > 0) {
-            r = (int) (l % 16);
-            h.append(hex[r]);
-            l /= 16;
-        }
+        return toHexString(l, 0);
+    }
 
-        return h.toString();
+    // the digits of |l|, most significant first, padded with leading 0s to length
+    protected static @NotNull String toHexString(long l, int length) {
+        if (l < 0) l = -l; // Long.MIN_VALUE stays negative, its bits are read unsigned below
+
+        try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+            StringType h = scratch.get();
+            do {
+                h.push(HEX_DIGITS[(int) (l & 0xF)]);
+                l >>>= 4;
+            } while (l != 0);
+
+            if (h.length() < length) h.matchLengthFromEnd('0', length);
+            return h.getValue();
+        }
     }
 }
@@ -0,0 +1,454 @@
+package io.kitsuayaka.addon.types;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Objects of the class {@code FrozenStringType} are immutable snapshots of a {@link StringType}, made using
+ * {@link StringType#freeze()}. Once created, their contents never change, thus they can be handed to any number of
+ * threads without locking or copying them first, e.g. by a layer serving parsed values to concurrent requests:
+ * <blockquote>
+ * <pre>{@code FrozenStringType name = element.value().freeze(); // no copy, the buffer is shared
+ * cache.put(key, name);                                 // safe to publish as is}</pre>
+ * </blockquote>
+ * Freezing does not copy the buffer of the {@code StringType}, it is shared like a {@link StringType#substring(int, int)
+ * slice} is: whichever of the two would write over the frozen characters, which can only be the {@code StringType},
+ * copies its contents out first. All fields holding the contents are {@code final}, so the Java memory model guarantees every thread sees them
+ * fully initialized, however the {@code FrozenStringType} reached it. The {@code String} value and the hash are only
+ * computed once asked for; racing threads might compute them more than once, but always to the same result.
+ * <hr/>
+ * Operations which would modify a {@code StringType}, like {@link #append(CharSequence)} or
+ * {@link #replaceAll(String, String)}, return a new {@code FrozenStringType} instead. To edit the contents
+ * repeatedly, {@link #thaw()} them into a {@code StringType} and {@link StringType#freeze() freeze} the result again.
+ * Freezing a {@code FrozenStringType} returns itself.
+ *
+ * @version <code>1.0.0</code>
+ * @see StringType#freeze()
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Addon
+@StatusMarkers.Experimental
+public final class FrozenStringType extends BaseType<String> implements CharSequence, Comparable<FrozenStringType> {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final StringKernels KERNELS = StringKernels.INSTANCE;
+
+    private static final FrozenStringType EMPTY = new FrozenStringType(new byte[0], 0, 0);
+
+    // exactly one of the two is set, the contents live in [offset, offset + length) and are never written to again
+    private final transient byte[] latin1;
+    private final transient char[] chars;
+    private final transient int offset;
+    private final transient int length;
+    // 0 until computed, hashIsZero tells a computed 0 apart
+    private transient int hash;
+    private transient boolean hashIsZero;
+
+    // the buffer has to be marked as shared by its owner already, see StringType#freeze()
+    FrozenStringType(@NotNull Object buffer, int offset, int length) {
+        super(null); // the String value is only built once asked for, see getValue()
+        tClass = String.class;
+        if (buffer instanceof byte[] bs) {
+            latin1 = bs;
+            chars = null;
+        } else {
+            latin1 = null;
+            chars = (char[]) buffer;
+        }
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns a {@code FrozenStringType} holding the given characters. A {@code FrozenStringType} is returned as it
+     * is, a {@code StringType} is {@link StringType#freeze() frozen} without copying it, anything else is copied.
+     *
+     * @param cs the characters to hold.
+     * @return A {@code FrozenStringType} holding the given characters.
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull FrozenStringType of(@NotNull CharSequence cs) {
+        if (cs instanceof FrozenStringType f) return f;
+        if (cs instanceof StringType t) return t.freeze();
+        if (cs.isEmpty()) return EMPTY;
+        return new StringType(cs.toString()).freeze();
+    }
+
+    /**
+     * Returns this {@code FrozenStringType}, it is immutable already.
+     *
+     * @return This {@code FrozenStringType}.
+     * @see StringType#freeze()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public @NotNull FrozenStringType freeze() {
+        return this;
+    }
+
+    /**
+     * Returns a new {@code StringType} holding the contents of this {@code FrozenStringType}, which can be modified.
+     * It shares the buffer of this {@code FrozenStringType} until its first modification, which copies it out.
+     *
+     * @return A new, mutable {@code StringType} holding the same contents.
+     * @see StringType#freeze()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull StringType thaw() {
+        return StringType.view(buffer(), offset, offset + length);
+    }
+
+    // --------------------------------------------------------- Substrings
+
+    /**
+     * Returns the characters {@code [start, end)} of this {@code FrozenStringType}, sharing its buffer.
+     *
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @return A {@code FrozenStringType} holding the given range.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of this {@code FrozenStringType}.
+     * @see #substring(int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public @NotNull FrozenStringType substring(int start, int end) {
+        Objects.checkFromToIndex(start, end, length);
+        if (start == 0 && end == length) return this;
+        return new FrozenStringType(buffer(), offset + start, end - start);
+    }
+
+    /**
+     * Returns the characters of this {@code FrozenStringType} from {@code start} on, sharing its buffer.
+     *
+     * @param start The index of the first character, inclusive.
+     * @return A {@code FrozenStringType} holding the given range.
+     * @throws IndexOutOfBoundsException if {@code start} is out of the bounds of this {@code FrozenStringType}.
+     * @see #substring(int, int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public @NotNull FrozenStringType substring(int start) {
+        return substring(start, length);
+    }
+
+    /**
+     * Returns the contents of this {@code FrozenStringType} without any leading and trailing whitespaces, sharing
+     * its buffer.
+     *
+     * @return A {@code FrozenStringType} without leading and trailing whitespaces.
+     * @see StringType#strip()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public @NotNull FrozenStringType strip() {
+        int end = offset + length, start;
+        if (latin1 != null) {
+            start = KERNELS.skipWhitespace(latin1, offset, end);
+            end = KERNELS.skipWhitespaceBackward(latin1, start, end);
+        } else {
+            start = KERNELS.skipWhitespace(chars, offset, end);
+            end = KERNELS.skipWhitespaceBackward(chars, start, end);
+        }
+        return substring(start - offset, end - offset);
+    }
+
+    // --------------------------------------------------------- Copy-on-write
+
+    /**
+     * Returns a new {@code FrozenStringType} holding the contents of this one followed by the given characters.
+     *
+     * @param cs the characters to append.
+     * @return A new {@code FrozenStringType} holding both.
+     * @see StringType#append(CharSequence, int, int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull FrozenStringType append(@NotNull CharSequence cs) {
+        StringType t = thaw();
+        t.append(cs, 0, cs.length());
+        return t.freeze();
+    }
+
+    /**
+     * Returns a new {@code FrozenStringType} holding the contents of this one with the given {@code String} inserted
+     * at {@code index}.
+     *
+     * @param string the {@code String} to insert.
+     * @param index  the index to insert at.
+     * @return A new {@code FrozenStringType} holding both.
+     * @throws IndexOutOfBoundsException if {@code index} is out of the bounds of this {@code FrozenStringType}.
+     * @see StringType#insert(String, int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_, _ -> new")
+    public @NotNull FrozenStringType insert(@NotNull String string, int index) {
+        StringType t = thaw();
+        t.insert(string, index);
+        return t.freeze();
+    }
+
+    /**
+     * Returns a new {@code FrozenStringType} with the first occurrence of {@code oldString} replaced.
+     *
+     * @param oldString the {@code String} to be replaced.
+     * @param newString the {@code String} to replace with.
+     * @return A new {@code FrozenStringType} with the {@code String} replaced.
+     * @see StringType#replace(String, String)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_, _ -> new")
+    public @NotNull FrozenStringType replace(@NotNull String oldString, @NotNull String newString) {
+        return thaw().replace(oldString, newString).freeze();
+    }
+
+    /**
+     * Returns a new {@code FrozenStringType} with all occurrences of {@code oldString} replaced.
+     *
+     * @param oldString the {@code Strings} to be replaced.
+     * @param newString the {@code String} to replace with.
+     * @return A new {@code FrozenStringType} with all {@code Strings} replaced.
+     * @see StringType#replaceAll(String, String)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_, _ -> new")
+    public @NotNull FrozenStringType replaceAll(@NotNull String oldString, @NotNull String newString) {
+        return thaw().replaceAll(oldString, newString).freeze();
+    }
+
+    /**
+     * Returns a new {@code FrozenStringType} with all <em>ASCII</em> letters converted to uppercase.
+     *
+     * @return A new {@code FrozenStringType} in uppercase.
+     * @see StringType#toUpperCase()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull FrozenStringType toUpperCase() {
+        return thaw().toUpperCase().freeze();
+    }
+
+    /**
+     * Returns a new {@code FrozenStringType} with all <em>ASCII</em> letters converted to lowercase.
+     *
+     * @return A new {@code FrozenStringType} in lowercase.
+     * @see StringType#toLowerCase()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull FrozenStringType toLowerCase() {
+        return thaw().toLowerCase().freeze();
+    }
+
+    // --------------------------------------------------------- Comparison
+
+    /**
+     * Returns whether this {@code FrozenStringType} holds the same characters as the given {@code CharSequence}.
+     *
+     * @param cs the {@code CharSequence} to compare against.
+     * @return Whether both hold the same characters or not.
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public boolean contentEquals(@NotNull CharSequence cs) {
+        if (cs instanceof FrozenStringType f) return equals(f);
+        if (cs.length() != length) return false;
+        for (int i = 0; i < length; i++) if (charAt(i) != cs.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * Compares this {@code FrozenStringType} to the given one lexicographically, the same way
+     * {@link String#compareTo(String)} does.
+     *
+     * @param other the {@code FrozenStringType} to compare against.
+     * @return A negative number, zero, or a positive number if this {@code FrozenStringType} is less than, equal to,
+     * or greater than the given one.
+     * @see StringType#compareTo(StringType)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    @Override
+    public int compareTo(@NotNull FrozenStringType other) {
+        int n = Math.min(length, other.length), i;
+        if (latin1 != null && other.latin1 != null) {
+            i = Arrays.mismatch(latin1, offset, offset + n, other.latin1, other.offset, other.offset + n);
+        } else if (chars != null && other.chars != null) {
+            i = Arrays.mismatch(chars, offset, offset + n, other.chars, other.offset, other.offset + n);
+        } else {
+            for (i = 0; i < n && charAt(i) == other.charAt(i); i++) ;
+            if (i == n) i = -1;
+        }
+        return i < 0 ? length - other.length : charAt(i) - other.charAt(i);
+    }
+
+    /**
+     * Returns whether the given object is a {@code FrozenStringType} or {@link StringType} holding the same
+     * characters. Any other {@code BaseType} is compared the way {@link BaseType#equals(Object)} does, so a
+     * {@link RopeStringType} with the same contents is equal to this and this to it.
+     *
+     * @param o the object to compare against.
+     * @return Whether both hold the same characters or not.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof StringType t) return t.contentEquals(this);
+        if (!(o instanceof FrozenStringType f)) return super.equals(o);
+        if (f.length != length) return false;
+
+        int h = hash, oh = f.hash;
+        if (h != 0 && oh != 0 && h != oh) return false;
+        if (latin1 != null) {
+            return f.latin1 != null
+                    ? KERNELS.equals(latin1, offset, f.latin1, f.offset, length)
+                    : KERNELS.equals(latin1, offset, f.chars, f.offset, length);
+        }
+        return f.chars != null
+                ? KERNELS.equals(chars, offset, f.chars, f.offset, length)
+                : KERNELS.equals(f.latin1, f.offset, chars, offset, length);
+    }
+
+    /**
+     * Returns the hash of the contents, the same one {@link String#hashCode()} and {@link StringType#hashCode()}
+     * return for them. It is computed once.
+     *
+     * @return The hash of the contents.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = latin1 != null
+                    ? KERNELS.hash(latin1, offset, offset + length)
+                    : KERNELS.hash(chars, offset, offset + length);
+            if (h == 0) hashIsZero = true;
+            else hash = h;
+        }
+        return h;
+    }
+
+    // --------------------------------------------------------- Overrides
+
+    /**
+     * Always throws, a {@code FrozenStringType} cannot be modified. Use {@link #thaw()} to get a {@code StringType}
+     * which can.
+     *
+     * @param value ignored.
+     * @throws UnsupportedOperationException in any case.
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> fail")
+    @Override
+    public void set(String value) {
+        throw new UnsupportedOperationException("FrozenStringType is immutable, thaw() it first");
+    }
+
+    /**
+     * Returns the contents as a {@code String}, which is built on the first call and then kept.
+     *
+     * @return the value of this object.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @NotNull String getValue() {
+        String v = value;
+        if (v == null) {
+            value = v = latin1 != null
+                    ? new String(latin1, offset, length, StandardCharsets.ISO_8859_1)
+                    : new String(chars, offset, length);
+        }
+        return v;
+    }
+
+    @Override
+    public @NotNull String valueToString() {
+        return getValue();
+    }
+
+    /**
+     * Returns this {@code FrozenStringType}, it is immutable already.
+     *
+     * @return This {@code FrozenStringType}.
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    @Override
+    public @NotNull FrozenStringType copy() {
+        return this;
+    }
+
+    @Override
+    public char @NotNull [] toBuffer() {
+        if (chars != null) return Arrays.copyOfRange(chars, offset, offset + length);
+
+        char[] cs = new char[length];
+        KERNELS.inflate(latin1, offset, cs, 0, length);
+        return cs;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, length);
+        return latin1 != null ? (char) (latin1[offset + index] & 0xFF) : chars[offset + index];
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        return substring(start, end);
+    }
+
+    // --------------------------------------------------------- Serial stuff
+
+    // written as a StringType, which is frozen again when read, see Proxy
+    @Serial
+    private @NotNull Object writeReplace() {
+        return new Proxy(thaw());
+    }
+
+    @Serial
+    private void readObject(@NotNull ObjectInputStream objectInputStream) throws InvalidObjectException {
+        throw new InvalidObjectException("FrozenStringType is read through its proxy");
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    private @NotNull Object buffer() {
+        return latin1 != null ? latin1 : chars;
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    private static final class Proxy implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final StringType contents;
+
+        Proxy(@NotNull StringType contents) {
+            this.contents = contents;
+        }
+
+        @Serial
+        private @NotNull Object readResolve() {
+            return contents.freeze();
+        }
+    }
+}
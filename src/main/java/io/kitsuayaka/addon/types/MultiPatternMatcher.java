@@ -0,0 +1,431 @@
+package io.kitsuayaka.addon.types;
+
+import io.kitsuayaka.addon.tools.Range;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Objects of the class {@code MultiPatternMatcher} look for any number of {@code Strings} at once, passing over the
+ * input a single time. The patterns are compiled into an <em>Aho-Corasick</em> automaton whose transitions are stored
+ * in one dense table, so every input character costs one table lookup, no matter how many patterns there are. This
+ * is what a scanner needs to find the next of several indicators, where calling {@link StringType#indexOf(String)}
+ * once per indicator would pass over the input once per indicator:
+ * <blockquote>
+ * <pre>{@code MultiPatternMatcher indicators = MultiPatternMatcher.compile(": ", " #", "- ", "---", "...");
+ * for (Range r : indicators.findAll(line)) {
+ *     // ...
+ * }}</pre>
+ * </blockquote>
+ * Matches are reported in the order in which they <em>end</em>, matches ending at the same index longest first.
+ * Overlapping matches are all reported. Each match is reported as {@link Range}, with an exclusive
+ * {@link Range#end()}, the same way {@link StringType#find(String)} does.
+ * <hr/>
+ * Input which arrives in pieces, for example while reading a file, can be matched using a {@link Feed}, which carries
+ * the state of the automaton from one buffer to the next, so matches spanning two buffers are found as well.
+ * <hr/>
+ * Instances are immutable and can be shared between threads, a {@code Feed} can not.
+ *
+ * @version <code>1.0.0</code>
+ * @see StringType.Searcher
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Addon
+@StatusMarkers.Experimental
+public final class MultiPatternMatcher {
+    private final String[] patterns;
+
+    // chars below 256 are looked up directly, the others in a sorted array, class 0 is every char of no pattern
+    private final int[] latinClasses;
+    private final char[] wideChars;
+    private final int[] wideClasses;
+    private final int width;
+
+    // delta[state * width + class] is the next state, terminal[state] the longest pattern ending there (or -1),
+    // and next[state] the next shorter state which also ends a pattern (or -1)
+    private final int[] delta;
+    private final int[] terminal;
+    private final int[] next;
+
+    private MultiPatternMatcher(String @NotNull [] patterns) {
+        this.patterns = patterns;
+
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String p : patterns) {
+            if (p.isEmpty()) throw new IllegalArgumentException("Patterns can not be empty.");
+            for (int i = 0; i < p.length(); i++) alphabet.add(p.charAt(i));
+        }
+
+        latinClasses = new int[256];
+        int wide = 0;
+        for (char c : alphabet) if (c >= 256) wide++;
+        wideChars = new char[wide];
+        wideClasses = new int[wide];
+
+        int cls = 1, w = 0;
+        for (char c : alphabet) {
+            if (c < 256) latinClasses[c] = cls++;
+            else {
+                wideChars[w] = c;
+                wideClasses[w++] = cls++;
+            }
+        }
+        width = cls;
+
+        // trie
+        int maxStates = 1;
+        for (String p : patterns) maxStates += p.length();
+
+        int[] table = new int[maxStates * width];
+        int[] term = new int[maxStates];
+        Arrays.fill(table, -1);
+        Arrays.fill(term, -1);
+
+        int states = 1;
+        for (int id = 0; id < patterns.length; id++) {
+            String p = patterns[id];
+            int s = 0;
+            for (int i = 0; i < p.length(); i++) {
+                int t = s * width + classOf(p.charAt(i));
+                if (table[t] == -1) table[t] = states++;
+                s = table[t];
+            }
+            if (term[s] != -1)
+                throw new IllegalArgumentException(String.format("Pattern %d is the same as pattern %d.", id, term[s]));
+            term[s] = id;
+        }
+
+        // failure links, turning the trie into a complete automaton breadth first
+        int[] fail = new int[states];
+        int[] out = new int[states];
+        Arrays.fill(out, -1);
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+
+        for (int c = 0; c < width; c++) {
+            int t = table[c];
+            if (t == -1) table[c] = 0;
+            else {
+                fail[t] = 0;
+                queue[tail++] = t;
+            }
+        }
+
+        while (head < tail) {
+            int s = queue[head++];
+            int f = fail[s];
+            out[s] = term[f] != -1 ? f : out[f];
+
+            for (int c = 0; c < width; c++) {
+                int t = table[s * width + c];
+                if (t == -1) table[s * width + c] = table[f * width + c];
+                else {
+                    fail[t] = table[f * width + c];
+                    queue[tail++] = t;
+                }
+            }
+        }
+
+        delta = Arrays.copyOf(table, states * width);
+        terminal = Arrays.copyOf(term, states);
+        next = out;
+    }
+
+    // --------------------------------------------------------- Creation
+
+    /**
+     * Compiles the given patterns into a new {@code MultiPatternMatcher}. The index of a pattern in the given array is
+     * the {@code id} it gets reported with.
+     *
+     * @param patterns The patterns to look for, none of them may be empty or appear twice.
+     * @return A new {@code MultiPatternMatcher}.
+     * @throws IllegalArgumentException If one of the patterns is empty or appears twice.
+     * @see #compile(Collection)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public static @NotNull MultiPatternMatcher compile(String @NotNull ... patterns) {
+        return new MultiPatternMatcher(patterns.clone());
+    }
+
+    /**
+     * Compiles the given patterns into a new {@code MultiPatternMatcher}. The position of a pattern in the given
+     * collection is the {@code id} it gets reported with.
+     *
+     * @param patterns The patterns to look for, none of them may be empty or appear twice.
+     * @return A new {@code MultiPatternMatcher}.
+     * @throws IllegalArgumentException If one of the patterns is empty or appears twice.
+     * @see #compile(String...)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public static @NotNull MultiPatternMatcher compile(@NotNull Collection<String> patterns) {
+        return new MultiPatternMatcher(patterns.toArray(new String[0]));
+    }
+
+    /**
+     * Returns the amount of patterns this {@code MultiPatternMatcher} looks for.
+     *
+     * @return The amount of patterns.
+     * @since <code>1.7.0</code>
+     */
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * Returns the pattern with the given {@code id}.
+     *
+     * @param id The {@code id} of the pattern.
+     * @return The pattern with the given {@code id}.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull String pattern(int id) {
+        return patterns[id];
+    }
+
+    // --------------------------------------------------------- Matching
+
+    /**
+     * Scans through the given {@code StringType} once, calling the {@code handler} for every match, in the order
+     * described in the class description. Stops as soon as the {@code handler} returns {@code false}.
+     *
+     * @param stringType The {@code StringType} to scan through.
+     * @param handler    The handler to call for every match.
+     * @return Whether the scan ran until the end, {@code false} if the {@code handler} stopped it.
+     * @see #scan(char[], int, int, MatchHandler)
+     * @since <code>1.7.0</code>
+     */
+    public boolean scan(@NotNull StringType stringType, @NotNull MatchHandler handler) {
+        int base = stringType.arrayOffset();
+        return run(stringType, base, (id, start, end) -> handler.onMatch(id, start - base, end - base)) >= 0;
+    }
+
+    /**
+     * Scans through the given range of a {@code char[]} once, calling the {@code handler} for every match, in the order
+     * described in the class description. Stops as soon as the {@code handler} returns {@code false}. The indexes
+     * passed to the handler are relative to the start of the array.
+     *
+     * @param cs      The {@code char[]} to scan through.
+     * @param start   The {@code start} index, inclusive.
+     * @param end     The {@code end} index, exclusive.
+     * @param handler The handler to call for every match.
+     * @return Whether the scan ran until the end, {@code false} if the {@code handler} stopped it.
+     * @see #scan(StringType, MatchHandler)
+     * @since <code>1.7.0</code>
+     */
+    public boolean scan(char @NotNull [] cs, int start, int end, @NotNull MatchHandler handler) {
+        Objects.checkFromToIndex(start, end, cs.length);
+        return run(0, cs, start, end, handler) >= 0;
+    }
+
+    /**
+     * Returns the {@code Ranges} of all matches inside the given {@code StringType}.
+     *
+     * @param stringType The {@code StringType} to scan through.
+     * @return A list of all matches, in the order described in the class description.
+     * @see #findAll(char[], int, int)
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull List<Range> findAll(@NotNull StringType stringType) {
+        List<Range> ranges = new ArrayList<>();
+        scan(stringType, (id, start, end) -> ranges.add(new Range(start, end)));
+        return ranges;
+    }
+
+    /**
+     * Returns the {@code Ranges} of all matches inside the given range of a {@code char[]}, relative to the start of the
+     * array.
+     *
+     * @param cs    The {@code char[]} to scan through.
+     * @param start The {@code start} index, inclusive.
+     * @param end   The {@code end} index, exclusive.
+     * @return A list of all matches, in the order described in the class description.
+     * @see #findAll(StringType)
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull List<Range> findAll(char @NotNull [] cs, int start, int end) {
+        List<Range> ranges = new ArrayList<>();
+        scan(cs, start, end, (id, s, e) -> ranges.add(new Range(s, e)));
+        return ranges;
+    }
+
+    /**
+     * Returns the {@code Range} of the match which ends first after {@code fromIndex}, the longest one if several end
+     * at the same index. Only matches starting at or after {@code fromIndex} are considered.
+     *
+     * @param stringType The {@code StringType} to scan through.
+     * @param fromIndex  The index to start scanning from, inclusive.
+     * @return The {@link Range} of the match; if none is found, returns {@link Range#UNDEFINED}.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull Range findNext(@NotNull StringType stringType, int fromIndex) {
+        Objects.checkIndex(fromIndex, stringType.length() + 1);
+
+        int[] found = {-1, -1};
+        int base = stringType.arrayOffset();
+        run(stringType, base + fromIndex, (id, start, end) -> {
+            found[0] = start - base;
+            found[1] = end - base;
+            return false;
+        });
+        return found[0] == -1 ? Range.UNDEFINED : new Range(found[0], found[1]);
+    }
+
+    /**
+     * Creates a new {@link Feed}, which matches input arriving in several buffers.
+     *
+     * @return A new {@code Feed}, starting at position {@code 0}.
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull Feed feed() {
+        return new Feed();
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    private int classOf(char c) {
+        if (c < 256) return latinClasses[c];
+        int i = Arrays.binarySearch(wideChars, c);
+        return i < 0 ? 0 : wideClasses[i];
+    }
+
+    // runs from the given index into the buffer of the StringType to its end, in whichever encoding it is
+    private int run(@NotNull StringType stringType, int start, @NotNull MatchHandler handler) {
+        int end = stringType.arrayOffset() + stringType.length();
+        char[] cs = stringType.array();
+        return cs != null
+                ? run(0, cs, start, end, handler)
+                : run(0, Objects.requireNonNull(stringType.latin1Array()), start, end, handler);
+    }
+
+    // returns the state after the last char, or -1 if the handler stopped the run
+    private int run(int state, char @NotNull [] cs, int start, int end, @NotNull MatchHandler handler) {
+        final int[] delta = this.delta, terminal = this.terminal, next = this.next, latin = latinClasses;
+        final int width = this.width;
+        final boolean wide = wideChars.length > 0;
+
+        for (int i = start; i < end; i++) {
+            char c = cs[i];
+            int cls = c < 256 ? latin[c] : wide ? classOf(c) : 0;
+            state = delta[state * width + cls];
+
+            for (int s = terminal[state] != -1 ? state : next[state]; s != -1; s = next[s]) {
+                int id = terminal[s];
+                if (!handler.onMatch(id, i + 1 - patterns[id].length(), i + 1)) return -1;
+            }
+        }
+        return state;
+    }
+
+    private int run(int state, byte @NotNull [] bs, int start, int end, @NotNull MatchHandler handler) {
+        final int[] delta = this.delta, terminal = this.terminal, next = this.next, latin = latinClasses;
+        final int width = this.width;
+
+        for (int i = start; i < end; i++) {
+            state = delta[state * width + latin[bs[i] & 0xFF]];
+
+            for (int s = terminal[state] != -1 ? state : next[state]; s != -1; s = next[s]) {
+                int id = terminal[s];
+                if (!handler.onMatch(id, i + 1 - patterns[id].length(), i + 1)) return -1;
+            }
+        }
+        return state;
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    /**
+     * This interface is called by a {@link MultiPatternMatcher} for every match it finds.
+     *
+     * @since <code>1.7.0</code>
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Called for every match found.
+         *
+         * @param id    The {@code id} of the pattern which matched, see {@link #pattern(int)}.
+         * @param start The start index of the match, inclusive.
+         * @param end   The end index of the match, exclusive.
+         * @return {@code true} to continue scanning, {@code false} to stop.
+         */
+        boolean onMatch(int id, int start, int end);
+    }
+
+    /**
+     * A {@code Feed} matches input which arrives in several consecutive buffers, carrying the state of the automaton
+     * over from one call of {@link #scan(char[], int, int, MatchHandler)} to the next. The indexes passed to the
+     * handler are indexes into the array currently being scanned, just like the ones of
+     * {@link MultiPatternMatcher#scan(char[], int, int, MatchHandler)}, so the start index of a match which began in
+     * one of the previous buffers is smaller than the {@code start} of the scanned range, and may be negative. An index
+     * maps onto the whole input as {@code position() + (index - start)}, with {@link #position()} read inside the
+     * handler, where it still is the position of the first character of the scanned range.
+     * <blockquote>
+     * <pre>{@code MultiPatternMatcher.Feed feed = matcher.feed();
+     * while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+     *     feed.scan(buffer, 0, read, (id, start, end) -> {
+     *         long from = feed.position() + start; // start of the scanned range is 0
+     *         // ...
+     *         return true;
+     *     });
+     * }}</pre>
+     * </blockquote>
+     *
+     * @since <code>1.7.0</code>
+     */
+    public final class Feed {
+        private int state;
+        private long position;
+
+        private Feed() {
+        }
+
+        /**
+         * Scans through the given range of a {@code char[]}, continuing where the previous call stopped. If the
+         * {@code handler} stops the scan, the rest of the buffer is skipped and matches spanning the skipped part are
+         * lost; call {@link #reset()} before scanning unrelated input.
+         *
+         * @param cs      The {@code char[]} to scan through.
+         * @param start   The {@code start} index, inclusive.
+         * @param end     The {@code end} index, exclusive.
+         * @param handler The handler to call for every match.
+         * @return Whether the scan ran until the end, {@code false} if the {@code handler} stopped it.
+         * @since <code>1.7.0</code>
+         */
+        public boolean scan(char @NotNull [] cs, int start, int end, @NotNull MatchHandler handler) {
+            Objects.checkFromToIndex(start, end, cs.length);
+
+            int s = run(state, cs, start, end, handler);
+            position += end - start;
+            state = Math.max(s, 0);
+            return s >= 0;
+        }
+
+        /**
+         * Returns the amount of characters this {@code Feed} consumed so far, the position of the first character of
+         * the next buffer in the whole input. Inside a handler this is the position of the first character of the
+         * range being scanned, as the range only counts as consumed once the scan returns.
+         *
+         * @return The amount of characters consumed so far.
+         * @since <code>1.7.0</code>
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * Resets this {@code Feed} to the start of a new input.
+         *
+         * @since <code>1.7.0</code>
+         */
+        public void reset() {
+            state = 0;
+            position = 0;
+        }
+    }
+}
@@ -145,6 +145,7 @@ public final class NumberType extends BaseType<Number> implements Serializable {
 
     private NumberType(@NotNull Number n, boolean b) {
         super(zeroDivisionCheck(n.doubleValue(), b));
+        internalValue = value.doubleValue();
     }
 
     private NumberType(Number n) {
@@ -492,11 +493,7 @@ public final class NumberType extends BaseType<Number> implements Serializable {
      * @see #toHexadecimalString()
      */
     public @NotNull String toHexadecimalString(int length) {
-        String hex = toHexString(Math.longValue(this));
-        if (length <= hex.length()) return hex;
-        StringType t = new StringType(hex);
-        while (t.isShorterThan(length)) t.push('0');
-        return t.getValue();
+        return toHexString(Math.longValue(this), length);
     }
 
     /**
@@ -0,0 +1,714 @@
+package io.kitsuayaka.addon.types;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+
+import java.util.*;
+
+/**
+ * Objects of the class {@code RopeStringType} carry the same kind of value as a {@link StringType}, but keep it in a
+ * balanced tree of shared, immutable segments (a <em>rope</em>) instead of one contiguous {@code char[]}. Editing a
+ * {@code RopeStringType} &mdash; using {@link #insert(String, int)}, {@link #removeChars(int, int)},
+ * {@link #replaceRange(int, int, CharSequence)} or {@link #substring(int, int)} &mdash; costs {@code O(log n)} and
+ * only allocates the few segments along the edited path, every other segment is shared with the previous state. This
+ * makes it the better fit for large documents which get patched in place, where a {@code StringType} would copy the
+ * whole buffer on every edit.
+ * <hr/>
+ * Reading single characters through {@link #charAt(int)} walks the tree and is {@code O(log n)}, iterating through
+ * all of them, using {@code for (char c : rope)}, is amortized constant time per character. Once editing is done
+ * the contents can be flattened back into a contiguous buffer using {@link #toCharArray()} or
+ * {@link #toStringType()}:
+ * <blockquote>
+ * <pre>{@code RopeStringType document = new RopeStringType(source);
+ * document.insert("key: value\n", offset);
+ * StringType flat = document.toStringType();}</pre>
+ * </blockquote>
+ * Copies made through {@link #copy()} share the whole tree and cost {@code O(1)}, they can be edited independently
+ * of each other.
+ * <hr/>
+ * <strong>NOTE: This class serves as an {@code addon} to the core functionality as this program and might get exported
+ * into its own library.</strong>
+ *
+ * @version <code>1.0.0</code>
+ * @see StringType
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Addon
+@StatusMarkers.Experimental
+public final class RopeStringType extends BaseType<String> implements Serializable,
+        CharSequence,
+        Iterable<Character>,
+        Comparable<RopeStringType> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // segments up to this size get merged on concatenation, keeps the tree from fragmenting into single chars
+    private static final int LEAF_SIZE = 512;
+
+    private static final Node EMPTY = new Leaf(new char[0], 0, 0);
+
+    private transient Node root;
+
+    /**
+     * Creates a new, empty {@code RopeStringType}.
+     *
+     * @see #RopeStringType(String)
+     * @see #RopeStringType(char[])
+     * @see #RopeStringType(StringType)
+     * @since <code>1.7.0</code>
+     */
+    public RopeStringType() {
+        this(EMPTY);
+    }
+
+    /**
+     * Creates a new {@code RopeStringType} with the given {@code String} as value.
+     *
+     * @param string The value of a {@code RopeStringType}.
+     * @see #RopeStringType()
+     * @see #RopeStringType(char[])
+     * @see #RopeStringType(StringType)
+     * @since <code>1.7.0</code>
+     */
+    public RopeStringType(@NotNull String string) {
+        this(build(string.toCharArray()));
+    }
+
+    /**
+     * Creates a new {@code RopeStringType} with a copy of the given {@code char[]} as value.
+     *
+     * @param chars The value of a {@code RopeStringType}.
+     * @see #RopeStringType()
+     * @see #RopeStringType(String)
+     * @see #RopeStringType(StringType)
+     * @since <code>1.7.0</code>
+     */
+    public RopeStringType(char @NotNull [] chars) {
+        this(build(chars.clone()));
+    }
+
+    /**
+     * Creates a new {@code RopeStringType} with the contents of the given {@code StringType} as value.
+     *
+     * @param stringType The {@code StringType} to take the contents of.
+     * @see #RopeStringType()
+     * @see #RopeStringType(String)
+     * @see #RopeStringType(char[])
+     * @since <code>1.7.0</code>
+     */
+    public RopeStringType(@NotNull StringType stringType) {
+        this(build(stringType.toCharArray()));
+    }
+
+    private RopeStringType(@NotNull Node root) {
+        super(null);
+        tClass = String.class;
+        this.root = root;
+    }
+
+    // --------------------------------------------------------- Checks
+
+    /**
+     * Returns whether this {@code RopeStringType} is empty or not.
+     *
+     * @return Whether a {@code RopeStringType} is empty or not.
+     * @since <code>1.7.0</code>
+     */
+    public boolean isEmpty() {
+        return root.length == 0;
+    }
+
+    // --------------------------------------------------------- Indexing
+
+    /**
+     * Returns the length of this {@code RopeStringType}.
+     *
+     * @return The length of this {@code RopeStringType}.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public int length() {
+        return root.length;
+    }
+
+    /**
+     * Returns the {@code char} at the specified {@code index}, walking down the tree in {@code O(log n)}.
+     *
+     * @param index The index of the {@code char} to return.
+     * @return The {@code char} at the specified {@code index}.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, root.length);
+
+        Node n = root;
+        while (n instanceof Branch b) {
+            if (index < b.left.length) n = b.left;
+            else {
+                index -= b.left.length;
+                n = b.right;
+            }
+        }
+
+        Leaf l = (Leaf) n;
+        return l.chars[l.offset + index];
+    }
+
+    /**
+     * Returns the {@code index} of the first occurrence of the specified {@code character}.
+     *
+     * @param c The {@code char} to get the index of.
+     * @return The {@code index} of the first occurrence of the specified {@code character}, or {@code -1} if there is
+     * none.
+     * @since <code>1.7.0</code>
+     */
+    public int indexOf(char c) {
+        int base = 0;
+        for (LeafIterator it = new LeafIterator(root); it.hasNext(); ) {
+            Leaf l = it.next();
+            for (int i = l.offset, end = l.offset + l.length; i < end; i++)
+                if (l.chars[i] == c) return base + i - l.offset;
+            base += l.length;
+        }
+        return -1;
+    }
+
+    // --------------------------------------------------------- Basic modifications
+
+    /**
+     * Inserts the given {@code char} at the specified {@code index}.
+     *
+     * @param c     The {@code char} to insert.
+     * @param index The {@code index} to insert at.
+     * @return {@code true} in any case.
+     * @see #insert(String, int)
+     * @see #insert(CharSequence, int)
+     * @since <code>1.7.0</code>
+     */
+    public boolean insert(char c, int index) {
+        return insert(new Leaf(new char[]{c}, 0, 1), index);
+    }
+
+    /**
+     * Inserts the given {@code String} at the specified {@code index}.
+     *
+     * @param string The {@code String} to insert.
+     * @param index  The {@code index} to insert at.
+     * @return {@code true} in any case.
+     * @see #insert(char, int)
+     * @see #insert(CharSequence, int)
+     * @since <code>1.7.0</code>
+     */
+    public boolean insert(@NotNull String string, int index) {
+        return insert(build(string.toCharArray()), index);
+    }
+
+    /**
+     * Inserts the given {@code CharSequence} at the specified {@code index}. Inserting another
+     * {@code RopeStringType} shares its segments instead of copying them.
+     *
+     * @param sequence The {@code CharSequence} to insert.
+     * @param index    The {@code index} to insert at.
+     * @return {@code true} in any case.
+     * @see #insert(char, int)
+     * @see #insert(String, int)
+     * @since <code>1.7.0</code>
+     */
+    public boolean insert(@NotNull CharSequence sequence, int index) {
+        return insert(toNode(sequence), index);
+    }
+
+    /**
+     * Adds the given {@code String} at the end of this {@code RopeStringType}.
+     *
+     * @param string The {@code String} to append.
+     * @return {@code true} in any case.
+     * @see #append(CharSequence)
+     * @see #push(String)
+     * @since <code>1.7.0</code>
+     */
+    public boolean append(@NotNull String string) {
+        return insert(string, root.length);
+    }
+
+    /**
+     * Adds the given {@code CharSequence} at the end of this {@code RopeStringType}.
+     *
+     * @param sequence The {@code CharSequence} to append.
+     * @return {@code true} in any case.
+     * @see #append(String)
+     * @see #push(CharSequence)
+     * @since <code>1.7.0</code>
+     */
+    public boolean append(@NotNull CharSequence sequence) {
+        return insert(sequence, root.length);
+    }
+
+    /**
+     * Inserts the given {@code String} at the start of this {@code RopeStringType}.
+     *
+     * @param string The {@code String} to insert.
+     * @return {@code true} in any case.
+     * @see #push(CharSequence)
+     * @see #append(String)
+     * @since <code>1.7.0</code>
+     */
+    public boolean push(@NotNull String string) {
+        return insert(string, 0);
+    }
+
+    /**
+     * Inserts the given {@code CharSequence} at the start of this {@code RopeStringType}.
+     *
+     * @param sequence The {@code CharSequence} to insert.
+     * @return {@code true} in any case.
+     * @see #push(String)
+     * @see #append(CharSequence)
+     * @since <code>1.7.0</code>
+     */
+    public boolean push(@NotNull CharSequence sequence) {
+        return insert(sequence, 0);
+    }
+
+    /**
+     * Removes the {@code char} at the specified {@code index} and returns it.
+     *
+     * @param index The {@code index} of the {@code char} to remove.
+     * @return The {@code char} that was removed.
+     * @see #removeChars(int, int)
+     * @since <code>1.7.0</code>
+     */
+    public char remove(int index) {
+        char c = charAt(index);
+        removeChars(index, index + 1);
+        return c;
+    }
+
+    /**
+     * Removes all characters from this {@code RopeStringType} in the given range.
+     *
+     * @param start The starting index of the characters to remove, inclusive.
+     * @param end   The ending index of the characters to remove, exclusive.
+     * @return {@code true} in any case.
+     * @see #remove(int)
+     * @since <code>1.7.0</code>
+     */
+    public boolean removeChars(int start, int end) {
+        return replaceRange(start, end, EMPTY);
+    }
+
+    /**
+     * Replaces the characters in the given range with the given {@code CharSequence}, which does not need to have the
+     * same length as the range it replaces.
+     *
+     * @param start       The starting index of the characters to replace, inclusive.
+     * @param end         The ending index of the characters to replace, exclusive.
+     * @param replacement The {@code CharSequence} to put in their place.
+     * @return {@code true} in any case.
+     * @see #insert(CharSequence, int)
+     * @see #removeChars(int, int)
+     * @since <code>1.7.0</code>
+     */
+    public boolean replaceRange(int start, int end, @NotNull CharSequence replacement) {
+        return replaceRange(start, end, toNode(replacement));
+    }
+
+    /**
+     * Clears this {@code RopeStringType}'s value to be empty.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public void clear() {
+        modified(EMPTY);
+    }
+
+    // --------------------------------------------------------- Substrings
+
+    /**
+     * Returns a subsection of a {@code RopeStringType} starting with the {@code start} index and ending with the
+     * {@code end} index. The subsection shares its segments with this object and costs {@code O(log n)}.
+     *
+     * @param start The {@code start} index, inclusive.
+     * @param end   The {@code end} index, exclusive.
+     * @return A subsection of a {@code RopeStringType}.
+     * @see #substring(int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_, _ -> new")
+    public @NotNull RopeStringType substring(int start, int end) {
+        Objects.checkFromToIndex(start, end, root.length);
+        return new RopeStringType(slice(root, start, end));
+    }
+
+    /**
+     * Returns a subsection of a {@code RopeStringType} starting at the specified {@code index}.
+     *
+     * @param start The {@code index} at which the specified subsection should start, inclusive.
+     * @return A subsection of a {@code RopeStringType}.
+     * @see #substring(int, int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull RopeStringType substring(int start) {
+        return substring(start, root.length);
+    }
+
+    // --------------------------------------------------------- Flattening
+
+    /**
+     * Flattens this {@code RopeStringType} into a new, contiguous {@code char[]}.
+     *
+     * @return The contents of this {@code RopeStringType} as {@code char[]}.
+     * @see #toCharArray(int, int)
+     * @see #toStringType()
+     * @since <code>1.7.0</code>
+     */
+    public char @NotNull [] toCharArray() {
+        char[] cs = new char[root.length];
+        root.getChars(0, root.length, cs, 0);
+        return cs;
+    }
+
+    /**
+     * Flattens a subsection of this {@code RopeStringType} into a new, contiguous {@code char[]}.
+     *
+     * @param start The {@code start} index, inclusive.
+     * @param end   The {@code end} index, exclusive.
+     * @return The given subsection as {@code char[]}.
+     * @see #toCharArray()
+     * @since <code>1.7.0</code>
+     */
+    public char @NotNull [] toCharArray(int start, int end) {
+        Objects.checkFromToIndex(start, end, root.length);
+        char[] cs = new char[end - start];
+        root.getChars(start, end, cs, 0);
+        return cs;
+    }
+
+    /**
+     * Flattens this {@code RopeStringType} into a new {@code StringType}.
+     *
+     * @return A new {@code StringType} with the contents of this {@code RopeStringType}.
+     * @see #toCharArray()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull StringType toStringType() {
+        return new StringType(toCharArray());
+    }
+
+    // --------------------------------------------------------- Serial stuff
+
+    // written as its flattened chars, the tree is rebuilt from them when read, see Proxy
+    @Serial
+    private @NotNull Object writeReplace() {
+        return new Proxy(toCharArray());
+    }
+
+    @Serial
+    private void readObject(@NotNull ObjectInputStream objectInputStream) throws InvalidObjectException {
+        throw new InvalidObjectException("RopeStringType is read through its proxy");
+    }
+
+    // --------------------------------------------------------- Overrides
+
+    /**
+     * Replaces the contents of this {@code RopeStringType} with the given {@code String}.
+     *
+     * @param value the new value to set.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public void set(@NotNull String value) {
+        modified(build(value.toCharArray()));
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of this object as a {@code String}, it is built on the first call after a modification and
+     * then kept until the next.
+     *
+     * @return the value of this object.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @NotNull String getValue() {
+        String v = value;
+        if (v == null) value = v = String.valueOf(toCharArray());
+        return v;
+    }
+
+    @Override
+    public @NotNull String valueToString() {
+        return getValue();
+    }
+
+    /**
+     * A copy of this object, sharing all segments with it. Both can be edited independently afterward.
+     *
+     * @return a copy of this object
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    @Override
+    public @NotNull RopeStringType copy() {
+        return new RopeStringType(root);
+    }
+
+    @Override
+    public @NotNull RopeStringType clone() throws CloneNotSupportedException {
+        RopeStringType t = (RopeStringType) super.clone();
+        t.root = root;
+        return t;
+    }
+
+    @Override
+    public char @NotNull [] toBuffer() {
+        return toCharArray();
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        return substring(start, end);
+    }
+
+    @Override
+    public @NotNull Iterator<Character> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public int compareTo(@NotNull RopeStringType type) {
+        Itr a = new Itr(), b = type.new Itr();
+        while (a.hasNext() && b.hasNext()) {
+            char x = a.nextChar(), y = b.nextChar();
+            if (x != y) return x - y;
+        }
+
+        return root.length - type.root.length;
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    private void modified(@NotNull Node root) {
+        this.root = root;
+        value = null;
+    }
+
+    private boolean insert(@NotNull Node node, int index) {
+        Objects.checkIndex(index, root.length + 1);
+        return replaceRange(index, index, node);
+    }
+
+    private boolean replaceRange(int start, int end, @NotNull Node node) {
+        Objects.checkFromToIndex(start, end, root.length);
+        modified(concat(concat(slice(root, 0, start), node), slice(root, end, root.length)));
+        return true;
+    }
+
+    private static @NotNull Node toNode(@NotNull CharSequence sequence) {
+        if (sequence instanceof RopeStringType r) return r.root;
+
+        char[] cs = new char[sequence.length()];
+        if (sequence instanceof String s) s.getChars(0, cs.length, cs, 0);
+        else for (int i = 0; i < cs.length; i++) cs[i] = sequence.charAt(i);
+        return build(cs);
+    }
+
+    // takes ownership of the array, the leaves point into it instead of copying
+    private static @NotNull Node build(char @NotNull [] cs) {
+        if (cs.length == 0) return EMPTY;
+        return build(cs, 0, cs.length);
+    }
+
+    private static @NotNull Node build(char @NotNull [] cs, int start, int end) {
+        if (end - start <= LEAF_SIZE) return new Leaf(cs, start, end - start);
+
+        // split on a leaf boundary, so every leaf but the last one is full
+        int leaves = Math.ceilDiv(end - start, LEAF_SIZE);
+        int middle = start + (leaves / 2) * LEAF_SIZE;
+        return new Branch(build(cs, start, middle), build(cs, middle, end));
+    }
+
+    private static @NotNull Node slice(@NotNull Node n, int start, int end) {
+        if (start == 0 && end == n.length) return n;
+        if (start == end) return EMPTY;
+
+        if (n instanceof Leaf l) return new Leaf(l.chars, l.offset + start, end - start);
+
+        Branch b = (Branch) n;
+        int split = b.left.length;
+        if (end <= split) return slice(b.left, start, end);
+        if (start >= split) return slice(b.right, start - split, end - split);
+        return concat(slice(b.left, start, split), slice(b.right, 0, end - split));
+    }
+
+    /*
+     * Joins two balanced trees into one, descending along the spine of the deeper one until the depths match and
+     * rotating on the way back up, which is O(|depth(a) - depth(b)|). Small neighbours get merged into one leaf.
+     */
+    private static @NotNull Node concat(@NotNull Node a, @NotNull Node b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+
+        if (a.length + b.length <= LEAF_SIZE) {
+            char[] cs = new char[a.length + b.length];
+            a.getChars(0, a.length, cs, 0);
+            b.getChars(0, b.length, cs, a.length);
+            return new Leaf(cs, 0, cs.length);
+        }
+
+        if (a.depth > b.depth + 1) {
+            Branch l = (Branch) a;
+            return balance(l.left, concat(l.right, b));
+        }
+        if (b.depth > a.depth + 1) {
+            Branch r = (Branch) b;
+            return balance(concat(a, r.left), r.right);
+        }
+        return new Branch(a, b);
+    }
+
+    private static @NotNull Node balance(@NotNull Node l, @NotNull Node r) {
+        if (l.depth > r.depth + 1) {
+            Branch b = (Branch) l;
+            if (b.left.depth >= b.right.depth) return new Branch(b.left, new Branch(b.right, r));
+
+            Branch c = (Branch) b.right;
+            return new Branch(new Branch(b.left, c.left), new Branch(c.right, r));
+        }
+        if (r.depth > l.depth + 1) {
+            Branch b = (Branch) r;
+            if (b.right.depth >= b.left.depth) return new Branch(new Branch(l, b.left), b.right);
+
+            Branch c = (Branch) b.left;
+            return new Branch(new Branch(l, c.left), new Branch(c.right, b.right));
+        }
+        return new Branch(l, r);
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    private abstract static sealed class Node permits Leaf, Branch {
+        final int length;
+        final int depth;
+
+        Node(int length, int depth) {
+            this.length = length;
+            this.depth = depth;
+        }
+
+        abstract void getChars(int start, int end, char[] dst, int dstBegin);
+    }
+
+    private static final class Leaf extends Node {
+        final char[] chars;
+        final int offset;
+
+        Leaf(char[] chars, int offset, int length) {
+            super(length, 0);
+            this.chars = chars;
+            this.offset = offset;
+        }
+
+        @Override
+        void getChars(int start, int end, char[] dst, int dstBegin) {
+            System.arraycopy(chars, offset + start, dst, dstBegin, end - start);
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node left;
+        final Node right;
+
+        Branch(Node left, Node right) {
+            super(left.length + right.length, Math.max(left.depth, right.depth) + 1);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void getChars(int start, int end, char[] dst, int dstBegin) {
+            int split = left.length;
+            if (start < split) left.getChars(start, Math.min(end, split), dst, dstBegin);
+            if (end > split) right.getChars(Math.max(start, split) - split, end - split, dst,
+                    dstBegin + Math.max(0, split - start));
+        }
+    }
+
+    private static final class LeafIterator implements Iterator<Leaf> {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        LeafIterator(Node root) {
+            if (root.length > 0) stack.push(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Leaf next() {
+            if (stack.isEmpty()) throw new NoSuchElementException();
+
+            Node n = stack.pop();
+            while (n instanceof Branch b) {
+                stack.push(b.right);
+                n = b.left;
+            }
+            return (Leaf) n;
+        }
+    }
+
+    private class Itr implements Iterator<Character> {
+        private final Node snapshot = root;
+        private final LeafIterator leaves = new LeafIterator(snapshot);
+        private @Nullable Leaf leaf;
+        private int cursor;
+
+        @Override
+        public boolean hasNext() {
+            if (root != snapshot) throw new ConcurrentModificationException();
+            return (leaf != null && cursor < leaf.offset + leaf.length) || leaves.hasNext();
+        }
+
+        @Override
+        public Character next() {
+            return nextChar();
+        }
+
+        char nextChar() {
+            if (!hasNext()) throw new NoSuchElementException();
+
+            if (leaf == null || cursor == leaf.offset + leaf.length) {
+                leaf = leaves.next();
+                cursor = leaf.offset;
+            }
+            return leaf.chars[cursor++];
+        }
+    }
+
+    private static final class Proxy implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final char[] chars;
+
+        Proxy(char @NotNull [] chars) {
+            this.chars = chars;
+        }
+
+        @Serial
+        private @NotNull Object readResolve() {
+            return new RopeStringType(build(chars));
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The per-character loops behind {@link StringType}, all of them working on a range of a {@code char[]}. This class
+ * is the plain scalar implementation, {@link #INSTANCE} holds the implementation picked once at startup:
+ * {@link VectorStringKernels}, if the {@code jdk.incubator.vector} module was added to the running JVM
+ * ({@code --add-modules jdk.incubator.vector}) and the system property {@value #VECTOR_PROPERTY} is not
+ * {@code false}, otherwise this one. Both have to return the exact same results for every input.
+ */
+class StringKernels {
+    static final String VECTOR_PROPERTY = "ayml.vectorize";
+
+    static final StringKernels INSTANCE = select();
+
+    // fold(c) of every Latin-1 char, the one wider result is U+00B5 (micro sign) folding to U+03BC
+    private static final char[] LATIN1_FOLD = new char[256];
+
+    // bit c is set for every char c that Character.isWhitespace accepts, U+3000 (ideographic space) being the largest
+    private static final long[] WHITESPACE = new long[(0x3000 >>> 6) + 1];
+
+    static {
+        for (int c = 0; c < 256; c++) LATIN1_FOLD[c] = (char) foldWide(c);
+
+        for (char c = 0; c <= 0x3000; c++) if (Character.isWhitespace(c)) WHITESPACE[c >>> 6] |= 1L << c;
+    }
+
+    StringKernels() {
+    }
+
+    @Contract(pure = true)
+    int indexOf(char @NotNull [] cs, char c, int start, int end) {
+        for (int i = start; i < end; i++) if (cs[i] == c) return i;
+        return -1;
+    }
+
+    @Contract(pure = true)
+    int count(char @NotNull [] cs, char c, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) if (cs[i] == c) count++;
+        return count;
+    }
+
+    @Contract(pure = true)
+    boolean isDigits(char @NotNull [] cs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = cs[i];
+            if (c < 0x30 || 0x39 < c) return false;
+        }
+        return true;
+    }
+
+    @Contract(mutates = "param1")
+    void toUpperCase(char @NotNull [] cs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = cs[i];
+            if (0x61 <= c && c <= 0x7A) cs[i] = (char) (c - 0x20);
+        }
+    }
+
+    @Contract(mutates = "param1")
+    void toLowerCase(char @NotNull [] cs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = cs[i];
+            if (0x41 <= c && c <= 0x5A) cs[i] = (char) (c + 0x20);
+        }
+    }
+
+    @Contract(pure = true)
+    boolean equals(char @NotNull [] a, int aFrom, char @NotNull [] b, int bFrom, int length) {
+        return Arrays.equals(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    // the same hash String.hashCode() computes for the range
+    @Contract(pure = true)
+    int hash(char @NotNull [] cs, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) h = 31 * h + cs[i];
+        return h;
+    }
+
+    // index of the first char in the range that is not whitespace, end if there is none
+    @Contract(pure = true)
+    int skipWhitespace(char @NotNull [] cs, int start, int end) {
+        while (start < end && isWhitespace(cs[start])) start++;
+        return start;
+    }
+
+    // index after the last char in the range that is not whitespace, start if there is none
+    @Contract(pure = true)
+    int skipWhitespaceBackward(char @NotNull [] cs, int start, int end) {
+        while (end > start && isWhitespace(cs[end - 1])) end--;
+        return end;
+    }
+
+    // --------------------------------------------------------- Latin-1
+
+    @Contract(pure = true)
+    int indexOf(byte @NotNull [] bs, byte b, int start, int end) {
+        for (int i = start; i < end; i++) if (bs[i] == b) return i;
+        return -1;
+    }
+
+    @Contract(pure = true)
+    int count(byte @NotNull [] bs, byte b, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) if (bs[i] == b) count++;
+        return count;
+    }
+
+    @Contract(pure = true)
+    boolean isDigits(byte @NotNull [] bs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = bs[i];
+            if (b < 0x30 || 0x39 < b) return false;
+        }
+        return true;
+    }
+
+    @Contract(mutates = "param1")
+    void toUpperCase(byte @NotNull [] bs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = bs[i];
+            if (0x61 <= b && b <= 0x7A) bs[i] = (byte) (b - 0x20);
+        }
+    }
+
+    @Contract(mutates = "param1")
+    void toLowerCase(byte @NotNull [] bs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = bs[i];
+            if (0x41 <= b && b <= 0x5A) bs[i] = (byte) (b + 0x20);
+        }
+    }
+
+    @Contract(pure = true)
+    boolean equals(byte @NotNull [] a, int aFrom, byte @NotNull [] b, int bFrom, int length) {
+        return Arrays.equals(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    @Contract(pure = true)
+    boolean equals(byte @NotNull [] a, int aFrom, char @NotNull [] b, int bFrom, int length) {
+        for (int i = 0; i < length; i++) if ((a[aFrom + i] & 0xFF) != b[bFrom + i]) return false;
+        return true;
+    }
+
+    @Contract(pure = true)
+    int skipWhitespace(byte @NotNull [] bs, int start, int end) {
+        while (start < end && isWhitespace((char) (bs[start] & 0xFF))) start++;
+        return start;
+    }
+
+    @Contract(pure = true)
+    int skipWhitespaceBackward(byte @NotNull [] bs, int start, int end) {
+        while (end > start && isWhitespace((char) (bs[end - 1] & 0xFF))) end--;
+        return end;
+    }
+
+    @Contract(pure = true)
+    int hash(byte @NotNull [] bs, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) h = 31 * h + (bs[i] & 0xFF);
+        return h;
+    }
+
+    // whether both ranges are equal after case folding, ASCII letters are compared without a lookup
+    @Contract(pure = true)
+    boolean equalsIgnoreCase(byte @NotNull [] a, int aFrom, byte @NotNull [] b, int bFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            int x = a[aFrom + i], y = b[bFrom + i];
+            if (x == y) continue;
+            if ((x | y) >= 0) {
+                int lx = x | 0x20;
+                if (lx != (y | 0x20) || lx < 'a' || lx > 'z') return false;
+            } else if (LATIN1_FOLD[x & 0xFF] != LATIN1_FOLD[y & 0xFF]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the same as hash, but over the case folded chars
+    @Contract(pure = true)
+    int hashIgnoreCase(byte @NotNull [] bs, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) h = 31 * h + LATIN1_FOLD[bs[i] & 0xFF];
+        return h;
+    }
+
+    // whether every char in the range fits into Latin-1
+    @Contract(pure = true)
+    boolean canEncode(char @NotNull [] cs, int start, int end) {
+        for (int i = start; i < end; i++) if (cs[i] > 0xFF) return false;
+        return true;
+    }
+
+    // the chars have to fit into Latin-1, see canEncode
+    @Contract(mutates = "param3")
+    void compress(char @NotNull [] src, int srcPos, byte @NotNull [] dst, int dstPos, int length) {
+        for (int i = 0; i < length; i++) dst[dstPos + i] = (byte) src[srcPos + i];
+    }
+
+    @Contract(mutates = "param3")
+    void inflate(byte @NotNull [] src, int srcPos, char @NotNull [] dst, int dstPos, int length) {
+        for (int i = 0; i < length; i++) dst[dstPos + i] = (char) (src[srcPos + i] & 0xFF);
+    }
+
+    /*
+     * The simple case folding of a code point: Character.toLowerCase(Character.toUpperCase(cp)), which is what
+     * String.equalsIgnoreCase compares, except for the Turkish dotted and dotless i, which simple folding keeps apart
+     * from i. ASCII is mapped without a lookup, the rest of Latin-1 through a table.
+     */
+    @Contract(pure = true)
+    static int fold(int cp) {
+        if (cp < 0x80) return 'A' <= cp && cp <= 'Z' ? cp + 0x20 : cp;
+        if (cp < 0x100) return LATIN1_FOLD[cp];
+        return foldWide(cp);
+    }
+
+    @Contract(pure = true)
+    private static int foldWide(int cp) {
+        if (cp == 0x0130 || cp == 0x0131) return cp;
+        return Character.toLowerCase(Character.toUpperCase(cp));
+    }
+
+    // a single lookup in the WHITESPACE table, instead of comparing against every whitespace char in turn
+    @Contract(pure = true)
+    static boolean isWhitespace(char c) {
+        return c <= 0x3000 && (WHITESPACE[c >>> 6] & 1L << c) != 0;
+    }
+
+    // the line terminators out of the whitespace chars, a line ends at LF, CR or both
+    @Contract(pure = true)
+    static boolean isLineTerminator(char c) {
+        return c == 0x000A || c == 0x000D;
+    }
+
+    private static @NotNull StringKernels select() {
+        if ("false".equalsIgnoreCase(System.getProperty(VECTOR_PROPERTY))) return new StringKernels();
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return new StringKernels();
+
+        try {
+            return (StringKernels) Class.forName("io.kitsuayaka.addon.types.VectorStringKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new StringKernels();
+        }
+    }
+}
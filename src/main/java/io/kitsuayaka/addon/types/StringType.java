@@ -1,6 +1,8 @@
 package io.kitsuayaka.addon.types;
 
 import io.kitsuayaka.addon.functions.ArrayTools;
+import io.kitsuayaka.addon.functions.CharConsumer;
+import io.kitsuayaka.addon.functions.CharRangeIterator;
 import io.kitsuayaka.addon.functions.StringRangeIterator;
 import io.kitsuayaka.addon.tools.Range;
 
@@ -12,7 +14,17 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Objects of the class {@code StringType} behave similarly to the built-in {@link java.lang.String}, although, it cannot
@@ -28,6 +40,12 @@ import java.util.*;
  * StringType u = new StringType("Some other value");
  * StringType v = t.append(u);}</pre>
  * </blockquote>
+ * The characters are kept in a growable buffer with spare room in front of and behind the contents, so repeated calls
+ * to {@code append} or {@code push} are amortized constant time. See {@link #withCapacity(int)},
+ * {@link #ensureCapacity(int)} and {@link #trimToSize()} for controlling that buffer. Like {@code String} itself, the
+ * buffer holds a single byte per character as long as all of them fit into <em>Latin-1</em>, and only switches to two
+ * once a wider one is added; {@link #compact()} switches back.
+ * <hr/>
  * Other functionality of this class comes from implementing the interface {@link Iterable}, thus allowing for it to be
  * used in {@code for-loops}, e.g. iteration through all characters without having to cast it to a {@code char[]}.
  * Iteration of this object means iteration through this object's contained {@code char[]}, e.g.
@@ -40,8 +58,11 @@ import java.util.*;
  * It can also be used with {@link io.kitsuayaka.addon.tools.ComplexStringType ComplexStringType}, which allows for
  * formatting, similar to {@link String#format(String, Object...)}, which does use similar definitions, using {@code $}
  * as the prefix. In addition to that, it allows for other handling of iteration,
- * using {@link #forEachChar(StringRangeIterator)}. Which will do the same as {@code for (char c : o)}, iterating through
- * all {@code char}. It also allows for iterating through a specific range using {@link #forRangeRange(int, StringRangeIterator)}.
+ * using {@link #forEachChar(CharConsumer)}. Which will do the same as {@code for (char c : o)}, iterating through
+ * all {@code char}, without boxing any of them. It also allows for iterating through a specific range using
+ * {@link #forRangeRange(int, StringRangeIterator)} or, without copying, {@link #forEachWindow(int, int, CharRangeIterator)},
+ * and for reading the characters one by one using a reusable
+ * {@link Cursor}, see {@link #cursor()}.
  * <hr/>
  * General checks that can be performed using this class also extend to {@code length}, allowing to compare the length of
  * the contained {@code String} against specific {@code lengths}, without having to use {@code if (t.length() == x)} or
@@ -57,22 +78,57 @@ import java.util.*;
  * into its own library.</strong>
  *
  * @author Ayaka (<a href="https://github.com/shy-fox">GitHub</a>)
- * @version <code>1.6.2</code>
+ * @version <code>1.7.0</code>
  * @since <code>1.0.0</code>
  */
 @StatusMarkers.Addon
-public final class StringType extends BaseType<String> implements Serializable,
+public final class StringType extends BaseType<String> implements Externalizable,
         CharSequence,
         Iterable<Character>,
         Comparable<StringType> {
 
     @Serial
-    private static final long serialVersionUID = 102L;
+    private static final long serialVersionUID = 103L;
+
+    /**
+     * A {@code Comparator} ordering {@code StringTypes} by {@link #compareToIgnoreCase(StringType)}, e.g. for a
+     * {@link TreeMap} looking up keys regardless of their casing.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final Comparator<StringType> CASE_INSENSITIVE_ORDER = StringType::compareToIgnoreCase;
+
+    private static final int SOFT_MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    // needles up to this length are searched for with a first/last char filter, longer ones with a skip table
+    private static final int SHORT_NEEDLE = 16;
+
+    // one-shot searches build that table only for contents at least this long, below it the filter is faster anyway
+    private static final int SKIP_TABLE_MIN_LENGTH = 1 << 10;
+
+    // scalar or vectorized loops, see StringKernels
+    private static final StringKernels KERNELS = StringKernels.INSTANCE;
 
     private int lastIndex;
     private int length;
 
+    // the contents live in chars[offset, offset + length), anything around it is spare capacity; as long as every one
+    // of them fits into a byte they live at the same positions in latin1 instead, exactly one of the two is set
     private transient char[] chars;
+    private transient byte[] latin1;
+    private transient int offset;
+    /*
+     * buffer[pinnedFrom, pinnedTo) is seen by slices, snapshots or splitters taken from this StringType, anything
+     * writing into it copies the buffer first; writes around it, like appends into spare capacity, go ahead in place
+     */
+    private transient int pinnedFrom, pinnedTo;
+    // set on a slice, whose buffer belongs to the StringType it was taken from, so its first write copies its contents
+    private transient boolean borrowed;
+    // the hash of the contents, 0 until computed; hashIsZero tells a computed 0 apart, both are reset by modified()
+    private transient int hash;
+    private transient boolean hashIsZero;
+    // counted up by modified(), so chars() and Cursor can fail fast instead of pinning the buffer they read
+    private transient int modCount;
 
     /**
      * Creates a new instance of a {@code StringType} using another one as a template.
@@ -88,7 +144,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.3</code>
      */
     public StringType(@NotNull StringType stringType) {
-        this(stringType.chars);
+        this(stringType.rawContents(), 0, stringType.length);
     }
 
     /**
@@ -121,7 +177,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public StringType(@NotNull String string) {
-        this(string.toCharArray());
+        this(encode(string), 0, string.length());
     }
 
     /**
@@ -171,9 +227,22 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public StringType(char[] chars) {
-        super(String.valueOf(chars));
-        length = chars.length;
-        lastIndex = Math.max(0, length - 1); // range checking, making sure it is never oob
+        this(encode(chars, 0, chars.length), 0, chars.length);
+    }
+
+    /**
+     * Creates a new instance of a {@code StringType} holding the characters {@code chars[start, end)}, which are
+     * copied; e.g. for a parser taking scalars out of its input buffer.
+     *
+     * @param chars The array holding the value of a {@code StringType}.
+     * @param start The index of the first character, inclusive.
+     * @param end   The index of the last character, exclusive.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of {@code chars}.
+     * @see #StringType(char[])
+     * @since <code>1.7.0</code>
+     */
+    public StringType(char @NotNull [] chars, int start, int end) {
+        this(encode(chars, Objects.checkFromToIndex(start, end, chars.length), end), 0, end - start);
     }
 
     /**
@@ -212,6 +281,19 @@ public final class StringType extends BaseType<String> implements Serializable,
         this(Double.toString(d));
     }
 
+    /*
+     * takes ownership of the given byte[] or char[] buffer, callers have to make sure it is not referenced anywhere
+     * else; a char[] has to be passed as an Object, otherwise the public constructor copying chars[start, end) is picked
+     */
+    private StringType(@NotNull Object buffer, int offset, int length) {
+        super(null); // the String value is only built once asked for, see getValue()
+        tClass = String.class;
+        setBuffer(buffer);
+        this.offset = offset;
+        this.length = length;
+        lastIndex = Math.max(0, length - 1); // range checking, making sure it is never oob
+    }
+
     // --------------------------------------------------------- Casings
 
     /**
@@ -224,12 +306,10 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract(" -> new")
     public @NotNull StringType toUpperCase() {
-        char[] cs = chars;
-        for (int i = 0; i < cs.length; i++) {
-            char c = cs[i];
-            if (0x61 <= c && c <= 0x7A) cs[i] = (char) (c - 0x20);
-        }
-        return new StringType(cs);
+        Object buffer = rawContents();
+        if (buffer instanceof byte[] bs) KERNELS.toUpperCase(bs, 0, length);
+        else KERNELS.toUpperCase((char[]) buffer, 0, length);
+        return new StringType(buffer, 0, length);
     }
 
     /**
@@ -242,12 +322,10 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract(" -> new")
     public @NotNull StringType toLowerCase() {
-        char[] cs = chars;
-        for (int i = 0; i < cs.length; i++) {
-            char c = cs[i];
-            if (0x41 <= c && c <= 0x5A) cs[i] = (char) (c + 0x20);
-        }
-        return new StringType(cs);
+        Object buffer = rawContents();
+        if (buffer instanceof byte[] bs) KERNELS.toLowerCase(bs, 0, length);
+        else KERNELS.toLowerCase((char[]) buffer, 0, length);
+        return new StringType(buffer, 0, length);
     }
 
     /**
@@ -261,10 +339,11 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract(" -> new")
     public @NotNull StringType capitalize() {
-        char[] cs = chars;
-        char c = cs[0];
-        if (0x41 <= c && c <= 0x5A) cs[0] = (char) (c + 0x20);
-        return new StringType(cs);
+        Object buffer = rawContents();
+        int end = Math.min(1, length);
+        if (buffer instanceof byte[] bs) KERNELS.toUpperCase(bs, 0, end);
+        else KERNELS.toUpperCase((char[]) buffer, 0, end);
+        return new StringType(buffer, 0, length);
     }
 
     // --------------------------------------------------------- Checks
@@ -276,7 +355,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean isEmpty() {
-        return length == 0 && chars.length == 0;
+        return length == 0;
     }
 
     /**
@@ -288,7 +367,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean isCharAt(int index, char c) {
-        return charAt(chars, index) == c;
+        return charAt(index) == c;
     }
 
     /**
@@ -339,8 +418,9 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean isDigits() {
-        for (char c : chars) if (c < 0x30 || 0x39 < c) return false;
-        return true;
+        return latin1 != null
+                ? KERNELS.isDigits(latin1, offset, offset + length)
+                : KERNELS.isDigits(chars, offset, offset + length);
     }
 
     /**
@@ -352,7 +432,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean contains(@NotNull String substring) {
-        return indexOf(chars, substring.toCharArray(), 0, length) > -1;
+        return indexOf(substring) > -1;
     }
 
     /**
@@ -364,7 +444,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean contains(char c) {
-        return quickFind(chars, c) > -1;
+        return indexOf(c) > -1;
     }
 
     /**
@@ -378,7 +458,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean startsWith(char c) {
-        return chars[0] == c;
+        return length > 0 && at(offset) == c;
     }
 
     /**
@@ -394,7 +474,7 @@ public final class StringType extends BaseType<String> implements Serializable,
     public boolean startsWith(@NotNull String string) {
         if (string.length() > length) return false;
         for (int i = 0; i < string.length(); i++)
-            if (string.charAt(i) != chars[i]) return false;
+            if (string.charAt(i) != at(offset + i)) return false;
         return true;
     }
 
@@ -409,7 +489,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean endsWith(char c) {
-        return chars[lastIndex] == c;
+        return length > 0 && at(offset + lastIndex) == c;
     }
 
     /**
@@ -426,7 +506,7 @@ public final class StringType extends BaseType<String> implements Serializable,
         int startingIndex = length - string.length();
         if (startingIndex < 0) return false;
         for (int i = startingIndex, j = 0; i < length; i++, j++)
-            if (string.charAt(j) != chars[i]) return false;
+            if (string.charAt(j) != at(offset + i)) return false;
         return true;
     }
 
@@ -440,7 +520,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public @NotNull Range find(@NotNull String string) {
-        int start = indexOf(chars, string.toCharArray(), 0, length);
+        int start = indexOf(string);
         return start == -1 ? Range.UNDEFINED : new Range(start, start + string.length());
     }
 
@@ -452,7 +532,8 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public char charAt(int index) {
-        return charAt(chars, index);
+        Objects.checkIndex(index, length);
+        return at(offset + index);
     }
 
     /**
@@ -463,7 +544,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public int indexOf(char c) {
-        return index(chars, c);
+        return indexOf(c, 0);
     }
 
     /**
@@ -474,7 +555,9 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public int lastIndexOf(char c) {
-        return lastIndexOfRange(chars, c, 0, length);
+        return relative(latin1 != null
+                ? lastIndexOfRange(latin1, c, offset, offset + length)
+                : lastIndexOfRange(chars, c, offset, offset + length));
     }
 
     /**
@@ -485,7 +568,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.9</code>
      */
     public int indexOf(@NotNull String string) {
-        return indexOf(chars, string.toCharArray(), 0, length);
+        return relative(search(string, skipTable(string), offset));
     }
 
     /**
@@ -496,7 +579,10 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.9</code>
      */
     public int lastIndexOf(@NotNull String string) {
-        return lastIndexOf(chars, string.toCharArray(), 0, length);
+        char[] needle = string.toCharArray();
+        return relative(latin1 != null
+                ? lastIndexOf(latin1, offset, offset + length, needle)
+                : lastIndexOf(chars, offset, offset + length, needle));
     }
 
     /**
@@ -508,7 +594,88 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public int[] indexesOf(char c) {
-        return indexesOf(chars, c);
+        int[] indexes = latin1 != null
+                ? indexesOf(latin1, c, offset, offset + length)
+                : indexesOf(chars, c, offset, offset + length);
+        for (int i = 0; i < indexes.length; i++) indexes[i] -= offset;
+        return indexes;
+    }
+
+    /**
+     * Precompiles the given {@code String} into a {@link Searcher}, which can then be used to look for it in any number
+     * of {@code StringTypes} without any further allocations, see {@link #indexOf(Searcher)}. Worth it if the same
+     * {@code String} is searched for repeatedly.
+     *
+     * @param string The {@code String} to search for.
+     * @return A new {@code Searcher} for the given {@code String}.
+     * @see #indexOf(Searcher)
+     * @see #indexOf(Searcher, int)
+     * @see #find(Searcher)
+     * @see #contains(Searcher)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public static @NotNull Searcher searcher(@NotNull String string) {
+        return new Searcher(string);
+    }
+
+    /**
+     * Returns the {@code index} of the first occurrence of the {@code String} compiled into the given {@code Searcher}.
+     *
+     * @param searcher The {@code Searcher} to use.
+     * @return The {@code index} of the first occurrence, or {@code -1} if there is none.
+     * @see #searcher(String)
+     * @see #indexOf(Searcher, int)
+     * @since <code>1.7.0</code>
+     */
+    public int indexOf(@NotNull Searcher searcher) {
+        return indexOf(searcher, 0);
+    }
+
+    /**
+     * Returns the {@code index} of the first occurrence of the {@code String} compiled into the given {@code Searcher},
+     * starting the search at {@code fromIndex}.
+     *
+     * @param searcher  The {@code Searcher} to use.
+     * @param fromIndex The {@code index} to start searching from, inclusive.
+     * @return The {@code index} of the first occurrence, or {@code -1} if there is none.
+     * @see #searcher(String)
+     * @see #indexOf(Searcher)
+     * @since <code>1.7.0</code>
+     */
+    public int indexOf(@NotNull Searcher searcher, int fromIndex) {
+        Objects.checkIndex(fromIndex, length + 1);
+        return relative(latin1 != null
+                ? searcher.indexIn(latin1, offset + fromIndex, offset + length)
+                : searcher.indexIn(chars, offset + fromIndex, offset + length));
+    }
+
+    /**
+     * Finds and returns the {@code Range} of the first match of the {@code String} compiled into the given
+     * {@code Searcher}.
+     *
+     * @param searcher The {@code Searcher} to use.
+     * @return The {@link Range} of the first match; if none is found, returns {@link Range#UNDEFINED}
+     * @see #searcher(String)
+     * @see #find(String)
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull Range find(@NotNull Searcher searcher) {
+        int start = indexOf(searcher);
+        return start == -1 ? Range.UNDEFINED : new Range(start, start + searcher.length());
+    }
+
+    /**
+     * Returns whether this {@code StringType} contains the {@code String} compiled into the given {@code Searcher}.
+     *
+     * @param searcher The {@code Searcher} to use.
+     * @return Whether a {@code StringType} contains the {@code String} or not.
+     * @see #searcher(String)
+     * @see #contains(String)
+     * @since <code>1.7.0</code>
+     */
+    public boolean contains(@NotNull Searcher searcher) {
+        return indexOf(searcher) > -1;
     }
 
     /**
@@ -519,7 +686,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public char getFirst() {
-        return chars[0];
+        return charAt(0);
     }
 
     /**
@@ -530,7 +697,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public char getLast() {
-        return chars[lastIndex];
+        return charAt(lastIndex);
     }
 
     /**
@@ -543,6 +710,100 @@ public final class StringType extends BaseType<String> implements Serializable,
         return length;
     }
 
+    // --------------------------------------------------------- Capacity
+
+    /**
+     * Creates a new, empty {@code StringType} whose buffer can hold at least {@code capacity} characters before it has
+     * to grow. Useful when the final size of a {@code StringType} built through {@link #append(String)} and
+     * {@link #push(String)} is roughly known upfront.
+     *
+     * @param capacity The initial capacity of the buffer.
+     * @return A new, empty {@code StringType} with the given capacity.
+     * @throws NegativeArraySizeException If {@code capacity} is negative.
+     * @see #ensureCapacity(int)
+     * @see #capacity()
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public static @NotNull StringType withCapacity(int capacity) {
+        return new StringType((Object) new char[capacity], 0, 0);
+    }
+
+    /**
+     * Returns the amount of characters this {@code StringType} can hold before its buffer has to grow while appending.
+     * This is always at least equal to {@link #length()}.
+     *
+     * @return The current capacity of this {@code StringType}.
+     * @see #ensureCapacity(int)
+     * @see #trimToSize()
+     * @since <code>1.7.0</code>
+     */
+    public int capacity() {
+        return borrowed ? length : bufferLength() - offset;
+    }
+
+    /**
+     * Makes sure this {@code StringType} can hold at least {@code minimumCapacity} characters before its buffer has to
+     * grow again while appending. If the current capacity is smaller, the buffer grows to either
+     * {@code minimumCapacity} or twice its size, whichever is larger. Does nothing if {@code minimumCapacity} is not
+     * positive.
+     *
+     * @param minimumCapacity The minimum capacity to ensure.
+     * @see #capacity()
+     * @see #trimToSize()
+     * @since <code>1.7.0</code>
+     */
+    public void ensureCapacity(int minimumCapacity) {
+        if (minimumCapacity <= capacity()) return;
+
+        // the room in front of a slice belongs to the buffer it was taken from
+        int head = borrowed ? 0 : offset;
+        Object buffer = newBuffer(head + newCapacity(capacity(), minimumCapacity));
+        System.arraycopy(buffer(), offset, buffer, head, length);
+        setBuffer(buffer);
+        offset = head;
+    }
+
+    /**
+     * Shrinks the buffer of this {@code StringType} to its {@link #length()}, releasing any spare capacity, both in
+     * front of and behind the contents.
+     *
+     * @see #capacity()
+     * @see #ensureCapacity(int)
+     * @since <code>1.7.0</code>
+     */
+    public void trimToSize() {
+        if (offset == 0 && bufferLength() == length) return;
+
+        setBuffer(rawContents());
+        offset = 0;
+    }
+
+    /**
+     * Copies the contents of this {@code StringType} into a buffer of its own, exactly {@link #length()} characters
+     * long. A {@code StringType} returned by {@link #substring(int, int)}, {@link #subSequence(int, int)} or
+     * {@link #split(String)} is a view on the buffer of the one it was taken from and keeps that buffer reachable for as
+     * long as it lives; compacting it lets a small slice outlive a large parent without holding on to all of it.
+     * <p/>
+     * Contents which had to switch to two bytes per character because a wider character was added once are stored
+     * with a single byte per character again, if all of them fit into <em>Latin-1</em> by now.
+     *
+     * @return This {@code StringType}.
+     * @see #trimToSize()
+     * @see #substring(int, int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(value = " -> this", mutates = "this")
+    public @NotNull StringType compact() {
+        if (latin1 == null && KERNELS.canEncode(chars, offset, offset + length)) {
+            setBuffer(encode(chars, offset, offset + length));
+            offset = 0;
+        } else {
+            trimToSize();
+        }
+        return this;
+    }
+
     // --------------------------------------------------------- Basic modifications
 
     /**
@@ -555,8 +816,8 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public char remove(int index) {
-        char c = charAt(chars, index);
-        chars = fastRemove(chars, index, 1);
+        char c = charAt(index);
+        delete(index, 1);
         return c;
     }
 
@@ -570,8 +831,8 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean remove(char c) {
-        int index = index(chars, c);
-        chars = fastRemove(chars, index, 1);
+        int index = indexOf(c);
+        if (index > -1) delete(index, 1);
         return true;
     }
 
@@ -585,8 +846,8 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.9</code>
      */
     public boolean remove(@NotNull String string) {
-        int i = indexOf(chars, string.toCharArray(), 0, length);
-        if (i > -1) chars = fastRemove(chars, i, string.length());
+        int i = indexOf(string);
+        if (i > -1) delete(i, string.length());
         return i > -1;
     }
 
@@ -600,8 +861,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.6.1</code>
      */
     public boolean removeChars(int start, int end) {
-        int length = end - start;
-        chars = fastRemove(chars, start, length);
+        delete(start, end - start);
         return true;
     }
 
@@ -613,15 +873,18 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @see #removeChars(int, int)
      * @since <code>1.6.1</code>
      */
-    @Contract(pure = true)
+    @Contract(mutates = "this")
     public boolean removeChars(char @NotNull ... chars) {
-        char[] cs = this.chars;
-        for (char c : chars) {
-            int i;
-            while ((i = quickFind(cs, c)) != -1) {
-                cs = fastRemove(cs, i, 1);
-            }
+        unshare(offset, offset + length);
+        int j = offset;
+        outer:
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = at(i);
+            for (char r : chars) if (c == r) continue outer;
+            put(j++, c);
         }
+        length = j - offset;
+        modified();
         return true;
     }
 
@@ -641,8 +904,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean insert(char c, int index) {
-        char[] cs = chars;
-        chars = fastAdd(cs, new char[]{c}, index);
+        add(index, c);
         return true;
     }
 
@@ -662,8 +924,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.1.0</code>
      */
     public boolean insert(@NotNull String string, int index) {
-        char[] cs = chars;
-        chars = fastAdd(cs, string.toCharArray(), index);
+        add(index, string);
         return true;
     }
 
@@ -683,8 +944,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.1.0</code>
      */
     public boolean insert(Object o, int index) {
-        char[] cs = chars;
-        chars = fastAdd(cs, Objects.toString(o).toCharArray(), index);
+        add(index, Objects.toString(o));
         return true;
     }
 
@@ -704,8 +964,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.1.0</code>
      */
     public boolean insert(@NotNull StringType stringType, int index) {
-        char[] cs = chars;
-        chars = fastAdd(cs, stringType.chars, index);
+        add(index, stringType);
         return true;
     }
 
@@ -728,8 +987,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.6.0</code>
      */
     public boolean push(char c) {
-        char[] cs = chars;
-        chars = fastAdd(cs, new char[]{c}, 0);
+        add(0, c);
         return true;
     }
 
@@ -752,8 +1010,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.6.0</code>
      */
     public boolean push(@NotNull String string) {
-        char[] cs = chars;
-        chars = fastAdd(cs, string.toCharArray(), 0);
+        add(0, string);
         return true;
     }
 
@@ -776,8 +1033,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.6.0</code>
      */
     public boolean push(Object o) {
-        char[] cs = chars;
-        chars = fastAdd(cs, Objects.toString(o).toCharArray(), 0);
+        add(0, Objects.toString(o));
         return true;
     }
 
@@ -800,8 +1056,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.6.0</code>
      */
     public boolean push(@NotNull StringType stringType) {
-        char[] cs = chars;
-        chars = fastAdd(cs, stringType.chars, 0);
+        add(0, stringType);
         return true;
     }
 
@@ -818,8 +1073,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean append(char c) {
-        char[] cs = chars;
-        chars = fastAdd(cs, new char[]{c}, length);
+        add(length, c);
         return true;
     }
 
@@ -836,8 +1090,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean append(@NotNull String string) {
-        char[] cs = chars;
-        chars = fastAdd(cs, string.toCharArray(), length);
+        add(length, string);
         return true;
     }
 
@@ -854,8 +1107,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean append(Object o) {
-        char[] cs = chars;
-        chars = fastAdd(cs, Objects.toString(o).toCharArray(), length);
+        add(length, Objects.toString(o));
         return true;
     }
 
@@ -872,8 +1124,30 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public boolean append(@NotNull StringType stringType) {
-        char[] cs = chars;
-        chars = fastAdd(cs, stringType.chars, length);
+        add(length, stringType);
+        return true;
+    }
+
+    /**
+     * Adds the characters {@code cs[start, end)} at the end of this {@code StringType}, without building a
+     * {@code String} of them first.
+     *
+     * @param cs    The {@code CharSequence} holding the characters to append.
+     * @param start The index of the first character to append, inclusive.
+     * @param end   The index of the last character to append, exclusive.
+     * @return {@code true} in any case.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of {@code cs}.
+     * @see #append(String)
+     * @see #append(StringType)
+     * @since <code>1.7.0</code>
+     */
+    public boolean append(@NotNull CharSequence cs, int start, int end) {
+        Objects.checkFromToIndex(start, end, cs.length());
+        if (latin1 != null && !canEncode(cs, start, end)) inflate();
+        // a StringType is read in place after the gap is opened, even this one, whose contents end where the gap starts
+        int at = openGap(length, end - start);
+        write(cs, start, end, buffer(), at);
+        modified();
         return true;
     }
 
@@ -886,9 +1160,10 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_ -> new")
     public @NotNull StringType repeat(int count) {
-        char[] chars1 = new char[length * count];
-        for (int i = 0; i < chars1.length; i++) chars1[i] = chars[i % length];
-        return new StringType(chars1);
+        int size = Math.multiplyExact(length, count);
+        Object buffer = newBuffer(size);
+        for (int i = 0; i < size; i += length) System.arraycopy(buffer(), offset, buffer, i, length);
+        return new StringType(buffer, 0, size);
     }
 
     /**
@@ -902,9 +1177,15 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_, _ -> new")
     public @NotNull StringType repeatAppend(char c, int count) {
-        char[] cs = new char[count];
-        Arrays.fill(cs, c);
-        return new StringType(fastAdd(chars, cs, length));
+        if (latin1 != null && c <= 0xFF) {
+            byte[] bs = Arrays.copyOfRange(latin1, offset, offset + length + count);
+            Arrays.fill(bs, length, bs.length, (byte) c);
+            return new StringType(bs, 0, bs.length);
+        }
+
+        char[] cs = contents(length + count);
+        Arrays.fill(cs, length, cs.length, c);
+        return new StringType((Object) cs, 0, cs.length);
     }
 
     /**
@@ -918,9 +1199,18 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_, _ -> new")
     public @NotNull StringType repeatAppend(@NotNull String string, int count) {
-        char[] cs = new char[string.length() * count];
-        for (int i = 0; i < cs.length; i++) cs[i] = string.charAt(i % string.length());
-        return new StringType(fastAdd(chars, cs, length));
+        int size = string.length();
+        int total = length + Math.multiplyExact(size, count);
+        if (latin1 != null && canEncode(string)) {
+            byte[] bs = Arrays.copyOfRange(latin1, offset, offset + total);
+            byte[] repeated = string.getBytes(StandardCharsets.ISO_8859_1);
+            for (int i = length; i < total; i += size) System.arraycopy(repeated, 0, bs, i, size);
+            return new StringType(bs, 0, total);
+        }
+
+        char[] cs = contents(total);
+        for (int i = length; i < total; i += size) string.getChars(0, size, cs, i);
+        return new StringType((Object) cs, 0, total);
     }
 
     /**
@@ -1012,10 +1302,7 @@ public final class StringType extends BaseType<String> implements Serializable,
     @StatusMarkers.Experimental
     @Contract(mutates = "this")
     public StringType matchLengthFromStart(char filler, int length) {
-        chars = matchLength(chars, filler, length, true);
-        this.length = length;
-        lastIndex = length - 1;
-        value = String.valueOf(chars);
+        matchLength(filler, length, true);
         return this;
     }
 
@@ -1034,10 +1321,7 @@ public final class StringType extends BaseType<String> implements Serializable,
     @StatusMarkers.Experimental
     @Contract(mutates = "this")
     public StringType matchLengthFromEnd(char filler, int length) {
-        chars = matchLength(chars, filler, length, false);
-        this.length = length;
-        lastIndex = length - 1;
-        value = String.valueOf(chars);
+        matchLength(filler, length, false);
         return this;
     }
 
@@ -1055,10 +1339,7 @@ public final class StringType extends BaseType<String> implements Serializable,
     @StatusMarkers.Experimental
     @Contract(mutates = "this")
     public StringType padLengthFromStart(int length) {
-        chars = matchLength(chars, ' ', length, true);
-        this.length = length;
-        lastIndex = length - 1;
-        value = String.valueOf(chars);
+        matchLength(' ', length, true);
         return this;
     }
 
@@ -1076,10 +1357,7 @@ public final class StringType extends BaseType<String> implements Serializable,
     @StatusMarkers.Experimental
     @Contract(mutates = "this")
     public StringType padLengthFromEnd(int length) {
-        chars = matchLength(chars, ' ', length, false);
-        this.length = length;
-        lastIndex = length - 1;
-        value = String.valueOf(chars);
+        matchLength(' ', length, false);
         return this;
     }
 
@@ -1096,9 +1374,10 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_, _ -> new")
     public @NotNull StringType replace(char oldChar, char newChar) {
-        int index = indexOfRange(chars, oldChar, 0, length);
-        chars = replaceValueAt(chars, index, newChar);
-        return new StringType(chars);
+        StringType t = new StringType(this);
+        int index = t.indexOf(oldChar, 0);
+        if (index > -1) t.replaceAt(index, newChar);
+        return t;
     }
 
     /**
@@ -1114,11 +1393,12 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_, _ -> new")
     public @NotNull StringType replaceAll(char oldChar, char newChar) {
+        StringType t = new StringType(this);
         int index = 0;
-        while ((index = indexOfRange(chars, oldChar, index, length)) != -1 || index == length - 1) {
-            chars = replaceValueAt(chars, index, newChar);
+        while ((index = t.indexOf(oldChar, index)) != -1) {
+            t.replaceAt(index++, newChar);
         }
-        return new StringType(chars);
+        return t;
     }
 
     /**
@@ -1134,13 +1414,16 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_, _ -> new")
     public @NotNull StringType replace(@NotNull String oldString, @NotNull String newString) {
-        int index = indexOf(chars, oldString.toCharArray(), 0, length);
-        chars = replaceValuesAt(chars, index, newString.toCharArray());
-        return new StringType(chars);
+        int index = search(oldString, skipTable(oldString), offset);
+        if (index == -1) return new StringType(this);
+
+        return rebuild(new int[]{index}, null, 1, new int[]{oldString.length()}, new String[]{newString});
     }
 
     /**
-     * Replaces all the target {@code String} occurrences with the given {@code String}.
+     * Replaces all the target {@code String} occurrences with the given {@code String}. Occurrences are searched for
+     * from left to right without overlapping, and the result is written in a single pass into a buffer of its final
+     * size.
      *
      * @param oldString The {@code Strings} to be replaced.
      * @param newString The {@code String} to replace with.
@@ -1152,11 +1435,106 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract("_, _ -> new")
     public @NotNull StringType replaceAll(@NotNull String oldString, @NotNull String newString) {
-        int index = 0;
-        while ((index = indexOf(chars, oldString.toCharArray(), index, length)) != -1 || index == length - 1) {
-            chars = replaceValuesAt(chars, index, newString.toCharArray());
+        if (oldString.isEmpty()) return new StringType(this);
+
+        Searcher needle = new Searcher(oldString);
+        int m = needle.length();
+        int[] hits = new int[8];
+        int count = 0;
+        for (int i = search(needle, offset); i != -1; i = search(needle, i + m)) {
+            if (count == hits.length) hits = Arrays.copyOf(hits, count * 2);
+            hits[count++] = i;
+        }
+
+        if (count == 0) return new StringType(this);
+        return rebuild(hits, null, count, new int[]{m}, new String[]{newString});
+    }
+
+    /**
+     * Replaces all occurrences of every key of the given {@code Map} with its value, all in one pass over this
+     * {@code StringType}. Where occurrences overlap, the one starting first wins, and of those starting at the same
+     * index the longest one, e.g. for keys {@code "$"} and {@code "${HOME}"} the latter is replaced as a whole. Replaced
+     * text is never searched through again and empty keys are ignored.
+     * <blockquote>
+     * <pre>{@code Map<String, String> escapes = Map.of("\\n", "\n", "\\t", "\t", "${HOME}", "/home/ayaka");
+     * StringType expanded = raw.replaceAll(escapes);}</pre>
+     * </blockquote>
+     * All keys are searched for at once with a {@link MultiPatternMatcher}, so the cost does not grow with the amount
+     * of keys; callers replacing the same set over and over can keep one around and use
+     * {@link #replaceAll(MultiPatternMatcher, String...)}.
+     *
+     * @param replacements The {@code Strings} to replace, mapped to the {@code Strings} to replace them with.
+     * @return A new {@code StringType} with all keys replaced.
+     * @see #replaceAll(String, String)
+     * @see #replaceAll(MultiPatternMatcher, String...)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull StringType replaceAll(@NotNull Map<String, String> replacements) {
+        List<String> keys = new ArrayList<>(replacements.size());
+        for (String key : replacements.keySet()) if (!key.isEmpty()) keys.add(key);
+        if (keys.isEmpty()) return new StringType(this);
+
+        String[] values = new String[keys.size()];
+        for (int i = 0; i < values.length; i++) values[i] = replacements.get(keys.get(i));
+        return replaceAll(MultiPatternMatcher.compile(keys), values);
+    }
+
+    /**
+     * Replaces all matches of the given {@link MultiPatternMatcher} with the {@code String} at the same index as the
+     * pattern, see {@link MultiPatternMatcher#pattern(int)}, all in one pass over this {@code StringType}. Overlapping
+     * matches are resolved as described in {@link #replaceAll(Map)}.
+     *
+     * @param matcher      The patterns to replace.
+     * @param replacements The {@code Strings} to replace them with, one for every pattern.
+     * @return A new {@code StringType} with all matches replaced.
+     * @throws IllegalArgumentException If there is not exactly one replacement for every pattern.
+     * @see #replaceAll(Map)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_, _ -> new")
+    public @NotNull StringType replaceAll(@NotNull MultiPatternMatcher matcher, @NotNull String @NotNull ... replacements) {
+        int patterns = matcher.patternCount();
+        if (replacements.length != patterns)
+            throw new IllegalArgumentException(String.format("Expected %d replacements, got %d.", patterns, replacements.length));
+
+        // start in the upper half, the id in the lower, so sorting puts them in order of their start
+        long[][] found = {new long[16]};
+        int[] count = {0};
+        matcher.scan(this, (id, start, end) -> {
+            if (end == start) return true;
+
+            long[] f = found[0];
+            if (count[0] == f.length) found[0] = f = Arrays.copyOf(f, f.length * 2);
+            f[count[0]++] = (long) start << 32 | id;
+            return true;
+        });
+
+        long[] matches = found[0];
+        int n = count[0];
+        Arrays.sort(matches, 0, n);
+
+        int[] lengths = new int[patterns];
+        for (int i = 0; i < patterns; i++) lengths[i] = matcher.pattern(i).length();
+
+        // of all matches starting at the same index keep the longest, unless it overlaps the last one kept
+        int[] hits = new int[n], ids = new int[n];
+        int kept = 0, cursor = 0;
+        for (int i = 0; i < n; ) {
+            int start = (int) (matches[i] >>> 32), best = (int) matches[i];
+            for (i++; i < n && (int) (matches[i] >>> 32) == start; i++) {
+                int id = (int) matches[i];
+                if (lengths[id] > lengths[best]) best = id;
+            }
+            if (start < cursor) continue;
+
+            hits[kept] = offset + start;
+            ids[kept++] = best;
+            cursor = start + lengths[best];
         }
-        return new StringType(chars);
+
+        if (kept == 0) return new StringType(this);
+        return rebuild(hits, ids, kept, lengths, replacements);
     }
 
     /**
@@ -1165,29 +1543,157 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.0.0</code>
      */
     public void clear() {
-        chars = new char[0];
+        offset = 0;
         length = 0;
-        lastIndex = 0;
+        modified();
     }
 
     /**
-     * Removes all leading and trailing whitespaces.
+     * Removes all leading and trailing whitespaces, by moving the bounds of the contents inside the buffer; nothing is
+     * copied. Whitespaces are the chars {@link Character#isWhitespace(char)} accepts, the same ones
+     * {@link String#strip()} removes: the blank chars of {@code Unicode} but the no-break spaces, and the control chars
+     * {@code \t}, {@code \n}, {@code \u000B}, {@code \f}, {@code \r} and the information separators {@code U+001C} to {@code U+001F}.
      *
      * @return a {@code StringType}, but with all leading and trailing whitespaces removed.
+     * @see #strip()
      * @since <code>1.0.0</code>
      */
+    @Contract(mutates = "this")
     public StringType trim() {
-        trimSize(chars);
-        length = chars.length;
-        lastIndex = length - 1;
-        value = String.valueOf(chars);
+        int start = skipWhitespace(offset, offset + length);
+        int end = skipWhitespaceBackward(start, offset + length);
+        offset = start;
+        length = end - start;
+        modified();
         return this;
     }
 
+    /**
+     * Returns the contents of this {@code StringType} without any leading and trailing whitespaces, the same ones
+     * {@link #trim()} removes. Unlike {@code trim()}, this {@code StringType} is left untouched; the result is a slice
+     * sharing its buffer, like the ones {@link #substring(int, int)} returns.
+     *
+     * @return A {@code StringType} holding the contents without leading and trailing whitespaces.
+     * @see #stripLeading()
+     * @see #stripTrailing()
+     * @see #trim()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull StringType strip() {
+        int start = skipWhitespace(offset, offset + length);
+        return slice(start, skipWhitespaceBackward(start, offset + length));
+    }
+
+    /**
+     * Returns the contents of this {@code StringType} without any leading whitespaces, as a slice sharing its buffer.
+     *
+     * @return A {@code StringType} holding the contents without leading whitespaces.
+     * @see #strip()
+     * @see #stripTrailing()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull StringType stripLeading() {
+        return slice(skipWhitespace(offset, offset + length), offset + length);
+    }
+
+    /**
+     * Returns the contents of this {@code StringType} without any trailing whitespaces, as a slice sharing its buffer.
+     *
+     * @return A {@code StringType} holding the contents without trailing whitespaces.
+     * @see #strip()
+     * @see #stripLeading()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull StringType stripTrailing() {
+        return slice(offset, skipWhitespaceBackward(offset, offset + length));
+    }
+
+    /**
+     * Returns the contents of this {@code StringType} with the incidental indentation removed from every line, the
+     * same way {@link String#stripIndent()} does: the smallest indentation of all lines which are not blank is removed
+     * from each of them, together with their trailing whitespaces, and every line terminator is replaced by
+     * {@code \n}. If the last line is blank its indentation counts as well, if the contents end with a line terminator
+     * nothing is removed from the start of the lines at all.
+     * <p/>
+     * The lines are scanned once for their indentation and once more while writing the result into a buffer of the
+     * final size. To remove a known indentation, e.g. the one of a {@code YAML} block scalar, use
+     * {@link #stripIndent(int)} instead.
+     *
+     * @return A new {@code StringType} holding the contents without their incidental indentation.
+     * @see #stripIndent(int)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull StringType stripIndent() {
+        int end = offset + length;
+        if (length == 0) return slice(offset, end);
+
+        boolean terminated = StringKernels.isLineTerminator(at(end - 1));
+        int outdent = terminated ? 0 : Integer.MAX_VALUE, size = 0;
+        for (int start = offset, eol; !terminated && start < end; start = nextLine(eol, end)) {
+            eol = lineEnd(start, end);
+            int text = skipWhitespace(start, eol);
+            if (text < eol || eol == end) outdent = Math.min(outdent, text - start);
+        }
+
+        Object src = buffer(), dst = newBuffer(length);
+        for (int start = offset; start < end; ) {
+            int eol = lineEnd(start, end), text = skipWhitespace(start, eol);
+            int last = skipWhitespaceBackward(text, eol);
+            if (text < last) {
+                int from = start + Math.min(outdent, text - start);
+                System.arraycopy(src, from, dst, size, last - from);
+                size += last - from;
+            }
+
+            start = nextLine(eol, end);
+            if (eol == end) continue;
+            if (dst instanceof byte[] bs) bs[size++] = '\n';
+            else ((char[]) dst)[size++] = '\n';
+        }
+        return new StringType(dst, 0, size);
+    }
+
+    /**
+     * Returns the contents of this {@code StringType} with up to {@code indentation} leading spaces removed from every
+     * line, which is how the lines of a {@code YAML} block scalar lose the indentation of the block. Only spaces count
+     * as indentation, a tab or any other char ends it; everything else, including the line terminators, is kept as
+     * it is. If no line starts with a space, the result is a slice sharing the buffer of this {@code StringType}.
+     *
+     * @param indentation the largest number of spaces to remove from the start of a line.
+     * @return A {@code StringType} holding the contents without their indentation.
+     * @throws IllegalArgumentException if {@code indentation} is negative.
+     * @see #stripIndent()
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull StringType stripIndent(int indentation) {
+        if (indentation < 0) throw new IllegalArgumentException("Negative indentation: " + indentation);
+
+        int end = offset + length, removed = 0;
+        for (int start = offset; start < end; start = nextLine(lineEnd(start, end), end))
+            removed += indent(start, end, indentation);
+        if (removed == 0) return slice(offset, end);
+
+        Object src = buffer(), dst = newBuffer(length - removed);
+        int size = 0;
+        for (int start = offset; start < end; ) {
+            int from = start + indent(start, end, indentation), next = nextLine(lineEnd(from, end), end);
+            System.arraycopy(src, from, dst, size, next - from);
+            size += next - from;
+            start = next;
+        }
+        return new StringType(dst, 0, size);
+    }
+
     // --------------------------------------------------------- Array interactions
 
     /**
      * Creates a new {@code StringType} based on a {@code String[]}, joined together with a given {@code delimiter}.
+     * The length of the result is computed first, so its buffer is allocated exactly once.
      *
      * @param delimiter The delimiter to join the {@code array} with.
      * @param strings   An array of {@code Strings}.
@@ -1200,16 +1706,12 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public static @NotNull StringType join(char delimiter, String @NotNull ... strings) {
-        StringType tmp = new StringType();
-        for (int i = 0; ; i++) {
-            tmp.append(strings[i]);
-            if (i == strings.length - 1) return tmp;
-            tmp.append(delimiter);
-        }
+        return join(String.valueOf(delimiter), "", "", strings, strings.length);
     }
 
     /**
      * Creates a new {@code StringType} based on a {@code StringType[]}, joined together with a given {@code delimiter}.
+     * The length of the result is computed first, so its buffer is allocated exactly once.
      *
      * @param delimiter   The delimiter to join the {@code array} with.
      * @param stringTypes An array of {@code StringTypes}.
@@ -1222,16 +1724,12 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public static @NotNull StringType join(char delimiter, StringType @NotNull ... stringTypes) {
-        StringType tmp = new StringType();
-        for (int i = 0; ; i++) {
-            tmp.append(stringTypes[i]);
-            if (i == stringTypes.length - 1) return tmp;
-            tmp.append(delimiter);
-        }
+        return join(String.valueOf(delimiter), "", "", stringTypes, stringTypes.length);
     }
 
     /**
      * Creates a new {@code StringType} based on a {@code String[]}, joined together with a given {@code delimiter}.
+     * The length of the result is computed first, so its buffer is allocated exactly once.
      *
      * @param delimiter The delimiter to join the {@code array} with.
      * @param strings   An array of {@code Strings}.
@@ -1244,16 +1742,12 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public static @NotNull StringType join(String delimiter, String @NotNull ... strings) {
-        StringType tmp = new StringType();
-        for (int i = 0; ; i++) {
-            tmp.append(strings[i]);
-            if (i == strings.length - 1) return tmp;
-            tmp.append(delimiter);
-        }
+        return join(delimiter, "", "", strings, strings.length);
     }
 
     /**
      * Creates a new {@code StringType} based on a {@code StringType[]}, joined together with a given {@code delimiter}.
+     * The length of the result is computed first, so its buffer is allocated exactly once.
      *
      * @param delimiter   The delimiter to join the {@code array} with.
      * @param stringTypes An array of {@code StringTypes}.
@@ -1266,16 +1760,12 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public static @NotNull StringType join(String delimiter, StringType @NotNull ... stringTypes) {
-        StringType tmp = new StringType();
-        for (int i = 0; ; i++) {
-            tmp.append(stringTypes[i]);
-            if (i == stringTypes.length - 1) return tmp;
-            tmp.append(delimiter);
-        }
+        return join(delimiter, "", "", stringTypes, stringTypes.length);
     }
 
     /**
      * Creates a new {@code StringType} based on a {@code String[]}, joined together with a given {@code delimiter}.
+     * The length of the result is computed first, so its buffer is allocated exactly once.
      *
      * @param delimiter The delimiter to join the {@code array} with.
      * @param strings   An array of {@code Strings}.
@@ -1288,16 +1778,12 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public static @NotNull StringType join(StringType delimiter, String @NotNull ... strings) {
-        StringType tmp = new StringType();
-        for (int i = 0; ; i++) {
-            tmp.append(strings[i]);
-            if (i == strings.length - 1) return tmp;
-            tmp.append(delimiter);
-        }
+        return join(delimiter, "", "", strings, strings.length);
     }
 
     /**
      * Creates a new {@code StringType} based on a {@code StringType[]}, joined together with a given {@code delimiter}.
+     * The length of the result is computed first, so its buffer is allocated exactly once.
      *
      * @param delimiter   The delimiter to join the {@code array} with.
      * @param stringTypes An array of {@code StringTypes}.
@@ -1309,37 +1795,233 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public static @NotNull StringType join(StringType delimiter, StringType @NotNull ... stringTypes) {
-        StringType tmp = new StringType();
-        for (int i = 0; ; i++) {
-            tmp.append(stringTypes[i]);
-            if (i == stringTypes.length - 1) return tmp;
-            tmp.append(delimiter);
-        }
+        return join(delimiter, "", "", stringTypes, stringTypes.length);
+    }
+
+    /**
+     * Creates a new {@code StringType} of the given elements, joined together with a given {@code delimiter} and put
+     * between {@code prefix} and {@code suffix}, the same as {@link String#join(CharSequence, Iterable)} does, e.g.
+     * building a flow sequence:
+     * <blockquote>
+     * <pre>{@code StringType.concat(List.of("a", "b", "c"), ", ", "[", "]"); // [a, b, c]}</pre>
+     * </blockquote>
+     * The length of the result is computed first, so its buffer is allocated exactly once, with a single byte per
+     * character if every character fits into <em>Latin-1</em>. The elements are read twice, once for their lengths and
+     * once for their characters, and must not change in between.
+     *
+     * @param elements  The elements to join.
+     * @param delimiter The delimiter to put between two elements.
+     * @param prefix    The characters to put before the first element.
+     * @param suffix    The characters to put after the last element.
+     * @return A new {@code StringType} of the joined elements.
+     * @throws OutOfMemoryError if the result would be too long for a single array.
+     * @see #join(String, String...)
+     * @see #joining(CharSequence, CharSequence, CharSequence)
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull StringType concat(@NotNull Iterable<? extends CharSequence> elements,
+                                             @NotNull CharSequence delimiter, @NotNull CharSequence prefix,
+                                             @NotNull CharSequence suffix) {
+        Parts parts = new Parts();
+        for (CharSequence element : elements) parts.add(element);
+        return parts.join(delimiter, prefix, suffix);
+    }
+
+    /**
+     * Returns a {@code Collector} joining {@code CharSequences} into a new {@code StringType}, the same as
+     * {@link #concat(Iterable, CharSequence, CharSequence, CharSequence)} with no prefix and suffix.
+     *
+     * @param delimiter The delimiter to put between two elements.
+     * @return A {@code Collector} joining the elements into a {@code StringType}.
+     * @see #joining(CharSequence, CharSequence, CharSequence)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public static @NotNull Collector<CharSequence, ?, StringType> joining(@NotNull CharSequence delimiter) {
+        return joining(delimiter, "", "");
+    }
+
+    /**
+     * Returns a {@code Collector} joining {@code CharSequences} into a new {@code StringType}, the same as
+     * {@link #concat(Iterable, CharSequence, CharSequence, CharSequence)} does. The elements are only collected until
+     * the stream ends, the result is then built in a single buffer, so they must not change before that.
+     *
+     * @param delimiter The delimiter to put between two elements.
+     * @param prefix    The characters to put before the first element.
+     * @param suffix    The characters to put after the last element.
+     * @return A {@code Collector} joining the elements into a {@code StringType}.
+     * @see java.util.stream.Collectors#joining(CharSequence, CharSequence, CharSequence)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_, _, _ -> new")
+    public static @NotNull Collector<CharSequence, ?, StringType> joining(@NotNull CharSequence delimiter,
+                                                                         @NotNull CharSequence prefix,
+                                                                         @NotNull CharSequence suffix) {
+        Objects.requireNonNull(delimiter);
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(suffix);
+        return Collector.of(Parts::new, Parts::add, Parts::merge, parts -> parts.join(delimiter, prefix, suffix));
     }
 
     // --------------------------------------------------------- Interactions
 
     /**
-     * Applies the specified function passed in for the {@code substring}.
+     * Applies the specified function passed in for the {@code substring}. Each substring is built right before it is
+     * passed on, use {@link #forEachWindow(int, CharRangeIterator)} to not build any.
      *
      * @param range    The {@code length} of the substring.
      * @param iterator The {@code function} to apply to the substring.
-     * @see #forEachChar(StringRangeIterator)
+     * @throws IllegalArgumentException if {@code range} is not positive.
+     * @see #forEachChar(CharConsumer)
+     * @see #forEachWindow(int, CharRangeIterator)
      * @since <code>1.0.2</code>
      */
     public void forRangeRange(int range, StringRangeIterator iterator) {
-        for (String s : charRange(chars, range)) iterator.apply(s);
+        checkWindow(range, range);
+        Object buffer = pin();
+        int from = offset, length = this.length; // the iterator may modify this StringType
+        for (int i = 0; i < length; i += range) {
+            int start = from + i;
+            iterator.apply(string(buffer, start, start + Math.min(range, length - i)));
+        }
+    }
+
+    /**
+     * Applies the specified function passed in for every window of {@code size} characters, the same ones
+     * {@link #forRangeRange(int, StringRangeIterator)} visits, without copying any of them.
+     *
+     * @param size     The {@code length} of a window.
+     * @param iterator The {@code function} to apply to every window, returns {@code false} to stop.
+     * @return {@code true} if every window was visited, {@code false} if {@code iterator} stopped early.
+     * @throws IllegalArgumentException if {@code size} is not positive.
+     * @see #forEachWindow(int, int, CharRangeIterator)
+     * @since <code>1.7.0</code>
+     */
+    public boolean forEachWindow(int size, @NotNull CharRangeIterator iterator) {
+        return forEachWindow(size, size, iterator);
+    }
+
+    /**
+     * Applies the specified function passed in for every window of {@code size} characters, starting a new one every
+     * {@code step} characters, so windows overlap if {@code step < size}, and skip characters if {@code step > size}:
+     * <blockquote>
+     * <pre>{@code new StringType("abcdef").forEachWindow(3, 1, (w, i) -> ...); // abc, bcd, cde, def
+     * new StringType("abcdef").forEachWindow(4, 2, (w, i) -> ...); // abcd, cdef
+     * new StringType("abcdefg").forEachWindow(4, 2, (w, i) -> ...); // abcd, cdef, efg}</pre>
+     * </blockquote>
+     * The windows stop at the first one that reaches the end, which is shorter than {@code size} if the end is not
+     * aligned. The function is passed a read-only {@code CharSequence} view on the window, which is reused for the next
+     * one, so nothing is allocated per window. The windows are taken from the contents as they are when this method
+     * is called, modifications made meanwhile copy the buffer first and are not seen.
+     *
+     * @param size     The {@code length} of a window.
+     * @param step     The distance between the starts of two windows.
+     * @param iterator The {@code function} to apply to every window, returns {@code false} to stop.
+     * @return {@code true} if every window was visited, {@code false} if {@code iterator} stopped early.
+     * @throws IllegalArgumentException if {@code size} or {@code step} is not positive.
+     * @see #forEachWindowParallel(int, int, CharRangeIterator)
+     * @since <code>1.7.0</code>
+     */
+    public boolean forEachWindow(int size, int step, @NotNull CharRangeIterator iterator) {
+        checkWindow(size, step);
+        Objects.requireNonNull(iterator);
+        Window window = new Window(pin());
+        int from = offset, length = this.length; // the iterator may modify this StringType
+        for (int k = 0, count = windowCount(length, size, step); k < count; k++) {
+            int start = k * step;
+            if (!iterator.apply(window.moveTo(from + start, Math.min(size, length - start)), start)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The same as {@link #forEachWindow(int, int, CharRangeIterator)}, but visiting the windows in parallel, in the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param size     The {@code length} of a window.
+     * @param step     The distance between the starts of two windows.
+     * @param iterator The {@code function} to apply to every window, returns {@code false} to stop.
+     * @return {@code true} if every window was visited, {@code false} if {@code iterator} stopped early.
+     * @throws IllegalArgumentException if {@code size} or {@code step} is not positive.
+     * @see #forEachWindowParallel(int, int, ForkJoinPool, CharRangeIterator)
+     * @since <code>1.7.0</code>
+     */
+    public boolean forEachWindowParallel(int size, int step, @NotNull CharRangeIterator iterator) {
+        return forEachWindowParallel(size, step, ForkJoinPool.commonPool(), iterator);
+    }
+
+    /**
+     * The same as {@link #forEachWindow(int, int, CharRangeIterator)}, but visiting the windows in parallel, in the
+     * given {@code ForkJoinPool}. The windows are split into runs of consecutive ones, each visited in order by one
+     * thread with a view of its own, but there is no order between the runs, so {@code iterator} has to be thread-safe.
+     * Once {@code iterator} returns {@code false}, no further windows are started, those being visited by other
+     * threads at that moment still finish.
+     *
+     * @param size     The {@code length} of a window.
+     * @param step     The distance between the starts of two windows.
+     * @param pool     The {@code ForkJoinPool} to run in.
+     * @param iterator The {@code function} to apply to every window, returns {@code false} to stop.
+     * @return {@code true} if every window was visited, {@code false} if {@code iterator} stopped early.
+     * @throws IllegalArgumentException if {@code size} or {@code step} is not positive.
+     * @since <code>1.7.0</code>
+     */
+    public boolean forEachWindowParallel(int size, int step, @NotNull ForkJoinPool pool,
+                                         @NotNull CharRangeIterator iterator) {
+        checkWindow(size, step);
+        Objects.requireNonNull(iterator);
+        WindowTask task = new WindowTask(pin(), offset, length, size, step, iterator, new AtomicBoolean(),
+                0, windowCount(length, size, step));
+        pool.invoke(task);
+        return !task.stopped.get();
     }
 
     /**
-     * Applies the specified function passed in for every {@code char} of a {@code StringType}.
+     * Applies the specified function passed in for every {@code char} of a {@code StringType}, in order. The
+     * characters are read straight from the buffer, nothing is allocated per character.
      *
-     * @param iterator The {@code function} to apply to every {@code char}.
+     * @param consumer The {@code function} to apply to every {@code char}.
      * @see #forRangeRange(int, StringRangeIterator)
+     * @see #chars()
+     * @see #cursor()
      * @since <code>1.0.2</code>
      */
-    public void forEachChar(StringRangeIterator iterator) {
-        for (String s : charRange(chars, 1)) iterator.apply(s);
+    public void forEachChar(@NotNull CharConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        int end = offset + length;
+        if (latin1 != null) {
+            byte[] bs = latin1;
+            for (int i = offset; i < end; i++) consumer.accept((char) (bs[i] & 0xFF));
+        } else {
+            char[] cs = chars;
+            for (int i = offset; i < end; i++) consumer.accept(cs[i]);
+        }
+    }
+
+    /**
+     * Returns a stream of the {@code char} values of this {@code StringType}, zero-extended to {@code int}. The
+     * stream binds to the contents once its terminal operation starts and reads them in place, nothing is copied.
+     * Modifying this {@code StringType} while the stream runs makes it throw a
+     * {@link ConcurrentModificationException}. It splits evenly, so it can be run in parallel.
+     *
+     * @return An {@code IntStream} of the {@code char} values of this {@code StringType}.
+     * @see #forEachChar(CharConsumer)
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @NotNull IntStream chars() {
+        return StreamSupport.intStream(() -> new CharSpliterator(this), CharSpliterator.CHARACTERISTICS, false);
+    }
+
+    /**
+     * Returns a new {@link Cursor} positioned at the start of this {@code StringType}.
+     *
+     * @return A new {@code Cursor} over this {@code StringType}.
+     * @see Cursor#reset(StringType)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull Cursor cursor() {
+        return new Cursor().reset(this);
     }
 
     /**
@@ -1363,10 +2045,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract(pure = true)
     public StringType @NotNull [] split(@NotNull String delimiter, int limit) {
-        char[][] tmp = split(chars, delimiter.toCharArray(), limit);
-        StringType[] split = new StringType[tmp.length];
-        for (int i = 0; i < tmp.length; i++) split[i] = new StringType(tmp[i]);
-        return split;
+        return slices(splitBounds(delimiter, limit));
     }
 
     /**
@@ -1389,10 +2068,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.0</code>
      */
     public StringType @NotNull [] split(char delimiter, int limit) {
-        char[][] tmp = split(chars, new char[]{delimiter}, limit);
-        StringType[] split = new StringType[tmp.length];
-        for (int i = 0; i < tmp.length; i++) split[i] = new StringType(tmp[i]);
-        return split;
+        return slices(splitBounds(String.valueOf(delimiter), limit));
     }
 
     /**
@@ -1407,10 +2083,7 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public StringType @NotNull [] split(@NotNull String delimiter) {
-        char[][] tmp = split(chars, delimiter.toCharArray(), 0);
-        StringType[] split = new StringType[tmp.length];
-        for (int i = 0; i < tmp.length; i++) split[i] = new StringType(tmp[i]);
-        return split;
+        return slices(splitBounds(delimiter, 0));
     }
 
     /**
@@ -1425,51 +2098,128 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.2.1</code>
      */
     public StringType @NotNull [] split(char delimiter) {
-        char[][] tmp = split(chars, new char[]{delimiter}, 0);
-        StringType[] split = new StringType[tmp.length];
-        for (int i = 0; i < tmp.length; i++) split[i] = new StringType(tmp[i]);
-        return split;
+        return slices(splitBounds(String.valueOf(delimiter), 0));
     }
 
-    // --------------------------------------------------------- Substrings
-
     /**
-     * Returns a subsection of a {@code StringType} starting with the {@code start} index and ending with the {@code end} index.
+     * Splits a {@code StringType} at the given {@code delimiter} lazily, each piece is only searched for once the
+     * returned {@code Iterator} gets to it. Yields the same pieces as {@link #split(String, int) split(delimiter, -1)},
+     * trailing empty ones included, as finding out whether only empty pieces follow would mean searching through the
+     * rest of the input up front.
+     * <p/>
+     * The pieces share the buffer of this {@code StringType}, just like the ones of {@link #split(String)}, and the
+     * iteration always sees the contents as they were when this method was called, even if this {@code StringType} is
+     * modified in between.
      *
-     * @param start The {@code start} index, inclusive.
-     * @param end   The {@code end} index, exclusive.
-     * @return A subsection of a {@code StringType}.
-     * @see #substring(int)
-     * @since <code>1.0.0</code>
+     * @param delimiter The {@code String} to use as the delimiter.
+     * @return An {@code Iterator} over the substrings split by the {@code delimiter}.
+     * @see #splitIterator(char)
+     * @see #splitStream(String)
+     * @since <code>1.7.0</code>
      */
-    @Contract("_, _ -> new")
-    public @NotNull StringType substring(int start, int end) {
-        return new StringType(subCharArray(chars, start, end));
+    @Contract("_ -> new")
+    public @NotNull Iterator<StringType> splitIterator(@NotNull String delimiter) {
+        return Spliterators.iterator(splitSpliterator(new Searcher(delimiter)));
     }
 
     /**
-     * Returns a subsection of a {@code StringType} starting at the specified {@code index}.
+     * Splits a {@code StringType} at the given {@code delimiter} lazily, as described in
+     * {@link #splitIterator(String)}.
      *
-     * @param start The {@code index} at which the specified subsection should start, inclusive.
-     * @return A subsection of a {@code StringType}
-     * @see #substring(int, int)
-     * @since <code>1.0.0</code>
+     * @param delimiter The {@code char} to use as the delimiter.
+     * @return An {@code Iterator} over the substrings split by the {@code delimiter}.
+     * @see #splitIterator(String)
+     * @see #splitStream(char)
+     * @since <code>1.7.0</code>
      */
     @Contract("_ -> new")
-    public @NotNull StringType substring(int start) {
-        return new StringType(subCharArray(chars, start, length));
+    public @NotNull Iterator<StringType> splitIterator(char delimiter) {
+        return Spliterators.iterator(splitSpliterator(new Searcher(String.valueOf(delimiter))));
     }
 
-    // --------------------------------------------------------- Array Stuff
-
     /**
-     * Returns the {@code char[]} a {@code StringType} contains.
+     * Splits a {@code StringType} at the given {@code delimiter} lazily and returns the pieces as an ordered
+     * {@code Stream}, with the same pieces as {@link #splitIterator(String)}. A {@link Stream#parallel() parallel}
+     * stream divides the input at occurrences of the {@code delimiter} near the middle of each part, so large inputs,
+     * e.g. a whole file split into lines, are searched through by several threads at once.
+     * <blockquote>
+     * <pre>{@code long count = document.splitStream("\n")
+     *         .parallel()
+     *         .filter(line -> line.startsWith("- "))
+     *         .count();}</pre>
+     * </blockquote>
      *
-     * @return The {@code char[]} a {@code StringType} contains.
-     * @since <code>1.0.0</code>
+     * @param delimiter The {@code String} to use as the delimiter.
+     * @return A sequential {@code Stream} of the substrings split by the {@code delimiter}.
+     * @see #splitStream(char)
+     * @see #splitIterator(String)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull Stream<StringType> splitStream(@NotNull String delimiter) {
+        return StreamSupport.stream(splitSpliterator(new Searcher(delimiter)), false);
+    }
+
+    /**
+     * Splits a {@code StringType} at the given {@code delimiter} lazily and returns the pieces as an ordered
+     * {@code Stream}, as described in {@link #splitStream(String)}.
+     *
+     * @param delimiter The {@code char} to use as the delimiter.
+     * @return A sequential {@code Stream} of the substrings split by the {@code delimiter}.
+     * @see #splitStream(String)
+     * @see #splitIterator(char)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull Stream<StringType> splitStream(char delimiter) {
+        return StreamSupport.stream(splitSpliterator(new Searcher(String.valueOf(delimiter))), false);
+    }
+
+    // --------------------------------------------------------- Substrings
+
+    /**
+     * Returns a subsection of a {@code StringType} starting with the {@code start} index and ending with the {@code end} index.
+     * <p/>
+     * The subsection shares the buffer of this {@code StringType} instead of copying it; whichever of the two would
+     * write over the shared characters first copies its contents out, so they never see each other's changes. Appending
+     * to this {@code StringType} afterward writes into its spare capacity as before. Use {@link #compact()} to let go of
+     * the shared buffer.
+     *
+     * @param start The {@code start} index, inclusive.
+     * @param end   The {@code end} index, exclusive.
+     * @return A subsection of a {@code StringType}.
+     * @see #substring(int)
+     * @since <code>1.0.0</code>
+     */
+    @Contract("_, _ -> new")
+    public @NotNull StringType substring(int start, int end) {
+        Objects.checkFromToIndex(start, end, length);
+        return slice(offset + start, offset + end);
+    }
+
+    /**
+     * Returns a subsection of a {@code StringType} starting at the specified {@code index}.
+     *
+     * @param start The {@code index} at which the specified subsection should start, inclusive.
+     * @return A subsection of a {@code StringType}
+     * @see #substring(int, int)
+     * @since <code>1.0.0</code>
+     */
+    @Contract("_ -> new")
+    public @NotNull StringType substring(int start) {
+        return substring(start, length);
+    }
+
+    // --------------------------------------------------------- Array Stuff
+
+    /**
+     * Returns a copy of the {@code char[]} a {@code StringType} contains, trimmed to its {@code length}.
+     *
+     * @return The {@code char[]} a {@code StringType} contains.
+     * @since <code>1.0.0</code>
      */
     public char[] toCharArray() {
-        return chars;
+        return contents();
     }
 
     /**
@@ -1483,7 +2233,8 @@ public final class StringType extends BaseType<String> implements Serializable,
      * @since <code>1.6.1</code>
      */
     public char @NotNull [] toCharArray(int start, int end) {
-        return subCharArray(chars, start, end);
+        Objects.checkFromToIndex(start, end, length);
+        return copy(offset + start, offset + end, end - start);
     }
 
     // --------------------------------------------------------- Equals
@@ -1500,20 +2251,194 @@ public final class StringType extends BaseType<String> implements Serializable,
      */
     @Contract(pure = true)
     public boolean equals(@NotNull StringType other) {
-        return quickCompare(chars, other.chars);
+        if (length != other.length) return false;
+        if (latin1 != null) {
+            return other.latin1 != null
+                    ? quickCompare(latin1, offset, other.latin1, other.offset, length)
+                    : KERNELS.equals(latin1, offset, other.chars, other.offset, length);
+        }
+        return other.latin1 != null
+                ? KERNELS.equals(other.latin1, other.offset, chars, offset, length)
+                : quickCompare(chars, offset, other.chars, other.offset, length);
+    }
+
+    /**
+     * Checks if the given object is a {@code StringType} with the same contents as this one. Once both hash values
+     * have been computed, two {@code StringType}s with different ones are told apart without comparing any character.
+     *
+     * @param other the object to check against.
+     * @return Whether the given object is a {@code StringType} equal to this one or not.
+     * @see #equals(StringType)
+     * @see #hashCode()
+     * @since <code>1.0.0</code>
+     */
+    @Contract(value = "null -> false", pure = true)
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof StringType t)) return super.equals(other);
+        if (length != t.length) return false;
+
+        int h = hash, oh = t.hash;
+        if (h != 0 && oh != 0 && h != oh) return false;
+        return equals(t);
+    }
+
+    /**
+     * Returns the hash value of the contents of this {@code StringType}, which is the same one
+     * {@link String#hashCode()} returns for {@link #getValue()}, without building that {@code String}. It is computed on
+     * the first call and then kept until the next modification.
+     *
+     * @return the hash value of this {@code StringType}.
+     * @see #equals(Object)
+     * @since <code>1.0.0</code>
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = latin1 != null
+                    ? KERNELS.hash(latin1, offset, offset + length)
+                    : KERNELS.hash(chars, offset, offset + length);
+            if (h == 0) hashIsZero = true;
+            else hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Checks if this {@code StringType} holds the same characters as the given {@code CharSequence}, without
+     * building the {@code String} value of this {@code StringType}.
+     *
+     * @param cs the {@code CharSequence} to check against.
+     * @return Whether both hold the same characters or not.
+     * @see #equals(StringType)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public boolean contentEquals(@NotNull CharSequence cs) {
+        if (cs instanceof StringType t) return equals(t);
+        if (cs.length() != length) return false;
+        for (int i = 0; i < length; i++) if (at(offset + i) != cs.charAt(i)) return false;
+        return true;
+    }
+
+    // whether the contents are cs[start, end), for lookups that do not want to wrap the chars first
+    @Contract(pure = true)
+    boolean contentEquals(char @NotNull [] cs, int start, int end) {
+        if (end - start != length) return false;
+        return latin1 != null
+                ? KERNELS.equals(latin1, offset, cs, start, length)
+                : KERNELS.equals(chars, offset, cs, start, length);
+    }
+
+    /**
+     * Returns the {@code StringType} with the same contents as this one held by {@link StringTypePool#shared()},
+     * adding a copy of this one to the pool if there is none yet. Interned instances are shared by everyone who interns
+     * equal contents, so the returned one must not be modified; this one is never pooled itself and stays free to
+     * modify.
+     *
+     * @return The pooled {@code StringType} equal to this one.
+     * @see StringTypePool#intern(StringType)
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull StringType intern() {
+        return StringTypePool.shared().intern(this);
+    }
+
+    /**
+     * Returns an immutable snapshot of the current contents, which can be shared between threads without locking or
+     * copying. The buffer is not copied, it is shared with the snapshot like it is with a {@link #substring(int, int)
+     * slice}: the first modification of this {@code StringType} writing over the frozen characters copies its
+     * contents out first, the snapshot never changes. Use {@link #compact()} before freezing a small part of a large
+     * buffer, otherwise the snapshot keeps all of it alive.
+     *
+     * @return A {@code FrozenStringType} holding the current contents.
+     * @see FrozenStringType#thaw()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(" -> new")
+    public @NotNull FrozenStringType freeze() {
+        return new FrozenStringType(pin(), offset, length);
     }
 
     /**
-     * Checks if this {@code StringType} is equal to the given {@code StringType}, ignoring casing.
+     * Checks if this {@code StringType} is equal to the given {@code StringType}, ignoring casing. Characters are
+     * compared after <em>simple case folding</em>, the way {@link String#equalsIgnoreCase(String)} compares them, but
+     * by code point, and without treating the Turkish {@code \u0130} and {@code \u0131} as {@code i}. Nothing is
+     * allocated, contents which are both in <em>Latin-1</em> are compared without looking up any ASCII letter.
      *
      * @param other the {@code StringType} to check against.
      * @return Whether a {@code StringType} is equal to the given {@code StringType} or not.
      * @see #equals(Object)
-     * @see #equalsIgnoreCase(StringType)
+     * @see #equalsIgnoreCase(CharSequence)
+     * @see #compareToIgnoreCase(StringType)
+     * @see #hashCodeIgnoreCase()
      * @since <code>1.6.1</code>
      */
+    @Contract(pure = true)
     public boolean equalsIgnoreCase(@NotNull StringType other) {
-        return quickCompare(toUpperCase().chars, other.toUpperCase().chars);
+        if (length != other.length) return false;
+        if (latin1 != null && other.latin1 != null) {
+            return KERNELS.equalsIgnoreCase(latin1, offset, other.latin1, other.offset, length);
+        }
+        return compareFolded(other) == 0;
+    }
+
+    /**
+     * Checks if this {@code StringType} holds the same characters as the given {@code CharSequence}, ignoring casing,
+     * the same way {@link #equalsIgnoreCase(StringType)} does.
+     *
+     * @param cs the {@code CharSequence} to check against.
+     * @return Whether both hold the same characters, ignoring casing, or not.
+     * @see #equalsIgnoreCase(StringType)
+     * @see #contentEquals(CharSequence)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public boolean equalsIgnoreCase(@NotNull CharSequence cs) {
+        if (cs instanceof StringType t) return equalsIgnoreCase(t);
+        return length == cs.length() && compareFolded(cs) == 0;
+    }
+
+    /**
+     * Compares this {@code StringType} to the given one lexicographically, ignoring casing, the same way
+     * {@link #equalsIgnoreCase(StringType)} compares characters. Returns {@code 0} exactly if
+     * {@code equalsIgnoreCase} returns {@code true}.
+     *
+     * @param other the {@code StringType} to compare against.
+     * @return A negative number, zero, or a positive number if this {@code StringType} is less than, equal to, or
+     * greater than the given one, ignoring casing.
+     * @see #CASE_INSENSITIVE_ORDER
+     * @see #compareTo(StringType)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public int compareToIgnoreCase(@NotNull StringType other) {
+        return compareFolded(other);
+    }
+
+    /**
+     * Returns a hash value of the contents of this {@code StringType} which ignores casing: two {@code StringType}s
+     * which are {@link #equalsIgnoreCase(StringType) equal ignoring casing} have the same one. Use it together with
+     * {@code equalsIgnoreCase} to look up keys regardless of their casing. It is computed on every call, without
+     * allocating anything.
+     *
+     * @return A hash value of the case folded contents of this {@code StringType}.
+     * @see #hashCode()
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public int hashCodeIgnoreCase() {
+        if (latin1 != null) return KERNELS.hashIgnoreCase(latin1, offset, offset + length);
+
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; ) {
+            int cp = Character.codePointAt(chars, i, end);
+            h = 31 * h + StringKernels.fold(cp);
+            i += Character.charCount(cp);
+        }
+        return h;
     }
 
     /**
@@ -1543,38 +2468,159 @@ public final class StringType extends BaseType<String> implements Serializable,
 
     // --------------------------------------------------------- Serial Stuff
 
-    @Serial
-    private void writeObject(@NotNull ObjectOutputStream objectOutputStream) throws IOException {
-        objectOutputStream.writeObject(value);
-        objectOutputStream.writeObject(chars);
-        objectOutputStream.writeObject(length);
-        objectOutputStream.writeObject(lastIndex);
+    /**
+     * Returns the number of bytes {@link #writeTo(ByteBuffer)} writes for this {@code StringType}, e.g. to size the
+     * {@code ByteBuffer} up front.
+     *
+     * @return The size of the encoded contents in bytes.
+     * @see #writeTo(ByteBuffer)
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public int encodedSize() {
+        return StringTypeCodec.encodedSize(buffer(), offset, offset + length);
     }
 
-    @Serial
-    private void readObject(@NotNull ObjectInputStream objectInputStream)
-            throws IOException, ClassNotFoundException {
-        objectInputStream.defaultReadObject();
+    /**
+     * Writes the contents of this {@code StringType} into the given {@code ByteBuffer}, in the same compact format
+     * {@link #writeExternal(ObjectOutput)} uses: a varint header holding the length, followed by the contents in
+     * <em>UTF-8</em>. Nothing is written if the {@code ByteBuffer} does not have {@link #encodedSize()} bytes left.
+     * <blockquote>
+     * <pre>{@code ByteBuffer b = ByteBuffer.allocate(keys.stream().mapToInt(StringType::encodedSize).sum());
+     * for (StringType key : keys) key.writeTo(b);
+     * channel.write(b.flip());}</pre>
+     * </blockquote>
+     * The format is made of single bytes only, the {@link ByteBuffer#order() byte order} does not matter.
+     *
+     * @param dst the {@code ByteBuffer} to write into.
+     * @return The given {@code ByteBuffer}, its position moved past the written bytes.
+     * @throws java.nio.BufferOverflowException if the {@code ByteBuffer} has not enough bytes left.
+     * @throws java.nio.ReadOnlyBufferException if the {@code ByteBuffer} is read-only.
+     * @see #readFrom(ByteBuffer)
+     * @see #encodedSize()
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> param1")
+    public @NotNull ByteBuffer writeTo(@NotNull ByteBuffer dst) {
+        StringTypeCodec.write(dst, buffer(), offset, offset + length);
+        return dst;
+    }
+
+    /**
+     * Reads a {@code StringType} written by {@link #writeTo(ByteBuffer)} from the given {@code ByteBuffer}. The
+     * position of the {@code ByteBuffer} is moved past it once it has been read completely, and left untouched if an
+     * exception is thrown.
+     *
+     * @param src the {@code ByteBuffer} to read from.
+     * @return A new {@code StringType} holding the read contents.
+     * @throws java.nio.BufferUnderflowException if the {@code ByteBuffer} ends before the {@code StringType} does.
+     * @throws IllegalArgumentException          if the bytes are not a {@code StringType} in this format.
+     * @see #writeTo(ByteBuffer)
+     * @since <code>1.7.0</code>
+     */
+    @Contract("_ -> new")
+    public static @NotNull StringType readFrom(@NotNull ByteBuffer src) {
+        Object buffer = StringTypeCodec.read(src);
+        return new StringType(buffer, 0, buffer instanceof byte[] bs ? bs.length : ((char[]) buffer).length);
+    }
+
+    /**
+     * Writes the contents of this {@code StringType} in a compact format, instead of the reflective one
+     * {@link Serializable} objects use: a varint header holding the length, followed by the contents in
+     * <em>UTF-8</em>, so most keys take only a single byte more than their characters. The lazily built {@code String}
+     * value, the spare capacity and anything derived from the contents are not written.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if writing to the stream fails.
+     * @see #readExternal(ObjectInput)
+     * @see #writeTo(ByteBuffer)
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public void writeExternal(@NotNull ObjectOutput out) throws IOException {
+        StringTypeCodec.write(out, buffer(), offset, offset + length);
+    }
 
-        value = (String) objectInputStream.readObject();
-        chars = (char[]) objectInputStream.readObject();
-        length = (int) objectInputStream.readObject();
-        lastIndex = (int) objectInputStream.readObject();
+    /**
+     * Replaces the contents of this {@code StringType} with the ones written by {@link #writeExternal(ObjectOutput)}.
+     *
+     * @param in the stream to read from.
+     * @throws IOException if reading from the stream fails, or it does not hold a {@code StringType} in this format.
+     * @see #writeExternal(ObjectOutput)
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    @Contract(mutates = "this")
+    public void readExternal(@NotNull ObjectInput in) throws IOException {
+        Object buffer = StringTypeCodec.read(in);
+        setBuffer(buffer);
+        offset = 0;
+        length = bufferLength();
+        modified();
     }
 
     // --------------------------------------------------------- Overrides
 
+    /**
+     * Replaces the contents of this {@code StringType} with the given {@code String}, reusing the current buffer if it
+     * is large enough.
+     *
+     * @param value the new value to set.
+     * @since <code>1.0.0</code>
+     */
+    @Override
+    public void set(@NotNull String value) {
+        int size = value.length();
+        if (pinned(0, size) || canEncode(value) != (latin1 != null) || bufferLength() < size) setBuffer(encode(value));
+        else if (latin1 != null) putAll(0, value);
+        else value.getChars(0, size, chars, 0);
+
+        offset = 0;
+        length = size;
+        modified();
+        this.value = value;
+    }
+
+    /**
+     * Returns the value of this object as a {@code String}. A {@code StringType} only holds its buffer, the
+     * {@code String} is built on the first call and then kept until the next modification, which drops it again.
+     *
+     * @return the value of this object.
+     * @since <code>1.0.0</code>
+     */
+    @Override
+    public @NotNull String getValue() {
+        String v = value;
+        if (v == null) value = v = string(offset, offset + length);
+        return v;
+    }
+
+    @Override
+    public @NotNull String valueToString() {
+        return getValue();
+    }
+
+    /**
+     * A copy of this object, sharing the buffer with it like a {@link #substring(int, int) slice} does, so copying
+     * costs {@code O(1)}. Whichever of the two would write over the shared characters first copies its contents out,
+     * both can be edited independently of each other.
+     *
+     * @return a copy of this object.
+     * @see #freeze()
+     * @since <code>1.0.0</code>
+     */
     @Contract(" -> new")
     @Override
     public @NotNull StringType copy() {
-        return this;
+        return slice(offset, offset + length);
     }
 
     @Override
     public @NotNull StringType clone() throws CloneNotSupportedException {
         StringType t = (StringType) super.clone();
         t.value = value;
-        t.chars = chars;
+        t.setBuffer(rawContents());
+        t.offset = 0;
         t.lastIndex = lastIndex;
         t.length = length;
 
@@ -1583,12 +2629,12 @@ public final class StringType extends BaseType<String> implements Serializable,
 
     @Override
     public char[] toBuffer() {
-        return chars;
+        return contents();
     }
 
     @Override
     public @NotNull CharSequence subSequence(int start, int end) {
-        return java.nio.CharBuffer.wrap(subCharArray(chars, start, end));
+        return substring(start, end);
     }
 
     @Override
@@ -1596,339 +2642,844 @@ public final class StringType extends BaseType<String> implements Serializable,
         return new Itr();
     }
 
+    /**
+     * Compares this {@code StringType} to the given one lexicographically, by the values of their {@code chars}, the
+     * same way {@link String#compareTo(String)} does. Contents in the same encoding are compared using
+     * {@link Arrays#mismatch(char[], int, int, char[], int, int)}.
+     *
+     * @param type the {@code StringType} to compare against.
+     * @return A negative number, zero, or a positive number if this {@code StringType} is less than, equal to, or
+     * greater than the given one.
+     * @see #compareToIgnoreCase(StringType)
+     * @see StringTypeSort
+     * @since <code>1.0.0</code>
+     */
+    @Contract(pure = true)
     @Override
     public int compareTo(@NotNull StringType type) {
-        int i = 0;
-        int len = Math.max(length, type.length);
-        boolean thisLonger = length > type.length;
-        while (i < len) {
-            if (chars[i] == type.chars[i]) {
-                i++;
-                continue;
-            }
-            if (thisLonger && i == type.length) return 1;
-            if (!thisLonger && i == length) return -1;
-            return chars[i] > type.chars[i] ? -1 : 1;
-        }
-
-        return 0;
+        return compareFrom(type, 0);
     }
 
     // --------------------------------------------------------- Helper stuff
 
-    @Contract(pure = true)
-    private static int indexOfRange(char @NotNull [] cs, char c, int start, int end) {
-        Objects.checkFromToIndex(start, end, cs.length);
-        for (int i = start; i < end; i++) if (cs[i] == c) return i;
-        return -1;
+    private char @NotNull [] contents() {
+        return copy(offset, offset + length, length);
     }
 
-    @Contract(pure = true)
-    private int lastIndexOfRange(char @NotNull [] cs, char c, int start, int end) {
-        Objects.checkFromToIndex(start, end, cs.length);
-        for (int i = end - 1; i > start; i--) if (cs[i] == c) return i;
-        return -1;
+    private char @NotNull [] contents(int capacity) {
+        return copy(offset, offset + length, capacity);
     }
 
-    @Contract(pure = true)
-    private static int quickFind(char @NotNull [] cs, char c) {
-        return indexOfRange(cs, c, 0, cs.length - 1);
+    // chars[from, to) as a char[] of the given capacity, inflated if this StringType is in Latin-1
+    private char @NotNull [] copy(int from, int to, int capacity) {
+        if (latin1 == null) return Arrays.copyOfRange(chars, from, from + capacity);
+
+        char[] cs = new char[capacity];
+        KERNELS.inflate(latin1, from, cs, 0, to - from);
+        return cs;
     }
 
-    @Contract(pure = true)
-    private static boolean quickCompare(char @NotNull [] a, char @NotNull [] b) {
-        if (a.length != b.length) return false;
-        for (int i = 0; i < a.length; i++) if (a[i] != b[i]) return false;
-        return true;
+    // a copy of the contents in whichever encoding they are in
+    private @NotNull Object rawContents() {
+        return latin1 != null
+                ? Arrays.copyOfRange(latin1, offset, offset + length)
+                : Arrays.copyOfRange(chars, offset, offset + length);
     }
 
-    @Contract(pure = true)
-    private static char charAt(char @NotNull [] cs, int index) {
-        Objects.checkIndex(index, cs.length);
-        return cs[index];
+    private @NotNull String string(int from, int to) {
+        return string(buffer(), from, to);
     }
 
-    @Contract(pure = true)
-    private static int index(char @NotNull [] cs, char c) {
-        for (int i = 0; i < cs.length; i++) if (cs[i] == c) return i;
-        return -1;
+    // the char at the given index into the buffer, not into the contents
+    private char at(int index) {
+        return latin1 != null ? (char) (latin1[index] & 0xFF) : chars[index];
     }
 
-    @Contract(pure = true)
-    private static int[] indexesOf(char @NotNull [] cs, char c) {
-        int lastIndexOf = 0;
+    // the char has to fit, see fit(char)
+    private void put(int index, char c) {
+        if (latin1 != null) latin1[index] = (byte) c;
+        else chars[index] = c;
+    }
 
-        int[] indexes = new int[0];
-        int i;
+    // the String has to fit, see fit(String)
+    private void putAll(int index, @NotNull String string) {
+        write(string, buffer(), index);
+    }
 
-        while ((i = indexOfRange(cs, c, lastIndexOf, cs.length)) != -1) {
-            indexes = grow(indexes, i);
-            lastIndexOf = i + 1;
-        }
+    private @NotNull Object buffer() {
+        return latin1 != null ? latin1 : chars;
+    }
 
-        return indexes;
+    private int bufferLength() {
+        return latin1 != null ? latin1.length : chars.length;
     }
 
-    @Contract(pure = true)
-    private static int[][] indexesOf(char[] cs, char[] cs1) {
-        int[][] indexes = {{-1, -1}};
+    private @NotNull Object newBuffer(int capacity) {
+        return latin1 != null ? new byte[capacity] : new char[capacity];
+    }
 
-        int index;
-        int lastIndex = 0;
-        while ((index = indexOf(cs, cs1, lastIndex, cs.length)) != -1) {
-            int[] range = {index, (index + cs.length) - 1};
-            int[][] nIndexes = new int[indexes.length + 1][2];
-            System.arraycopy(indexes, 0, nIndexes, 0, indexes.length);
-            nIndexes[indexes.length] = range;
-            indexes = nIndexes;
-            lastIndex = index + cs.length;
+    // the buffer has to be a new one, owned by this StringType and not seen by anyone else yet
+    private void setBuffer(@NotNull Object buffer) {
+        if (buffer instanceof byte[] bs) {
+            latin1 = bs;
+            chars = null;
+        } else {
+            chars = (char[]) buffer;
+            latin1 = null;
         }
-
-        return indexes;
+        pinnedFrom = pinnedTo = 0;
+        borrowed = false;
     }
 
-    private static int indexOf(char[] cs, char @NotNull [] cs1, int start, int end) {
-        int[] groupAll = indexesOf(cs, cs1[0]);
-
-        if (groupAll.length == 0 ||
-                start == cs.length - 1 ||
-                start == end ||
-                start + cs1.length > cs.length) return -1;
+    // index of the char, relative to the contents, searching from the given relative index on
+    private int indexOf(char c, int fromIndex) {
+        return relative(latin1 != null
+                ? indexOfRange(latin1, c, offset + fromIndex, offset + length)
+                : indexOfRange(chars, c, offset + fromIndex, offset + length));
+    }
 
-        if (groupAll.length == 1 && groupAll[0] < start) return -1;
+    // index of the needle inside the buffer, searching from the given index into the buffer on
+    private int search(@NotNull Searcher needle, int from) {
+        return latin1 != null
+                ? needle.indexIn(latin1, from, offset + length)
+                : needle.indexIn(chars, from, offset + length);
+    }
 
-        int countToRemove = 0, j = groupAll.length - 1, i;
+    /*
+     * The same for a needle only searched for once or a few times, which is matched against the String itself, unless
+     * a Searcher with a skip table is handed in, see skipTable(String).
+     */
+    private int search(@NotNull String needle, @Nullable Searcher table, int from) {
+        if (table != null) return search(table, from);
 
-        while (groupAll[countToRemove] < start) {
-            if (countToRemove == j) return -1;
-            countToRemove++;
+        int end = offset + length, m = needle.length();
+        if (m == 0) return from;
+        if (m == 1) {
+            return latin1 != null ? indexOfRange(latin1, needle.charAt(0), from, end) : indexOfRange(chars, needle.charAt(0), from, end);
         }
+        return latin1 != null ? filterIndexOf(latin1, from, end, needle) : filterIndexOf(chars, from, end, needle);
+    }
 
-        i = countToRemove;
+    // a Searcher only pays for its copies and its table when the needle is long and so are the contents
+    private @Nullable Searcher skipTable(@NotNull String needle) {
+        return needle.length() > SHORT_NEEDLE && length >= SKIP_TABLE_MIN_LENGTH ? new Searcher(needle) : null;
+    }
 
-        while (groupAll[j] > end) {
-            countToRemove++;
-            j--;
-        }
+    @Contract(mutates = "this")
+    private void replaceAt(int index, char c) {
+        fit(c);
+        unshare(offset + index, offset + index + 1);
+        put(offset + index, c);
+        modified();
+    }
+
+    // switches to UTF-16 if the char does not fit into Latin-1
+    @Contract(mutates = "this")
+    private void fit(char c) {
+        if (latin1 != null && c > 0xFF) inflate();
+    }
 
-        int[] all = new int[groupAll.length - countToRemove];
-        System.arraycopy(groupAll, i, all, 0, all.length);
+    @Contract(mutates = "this")
+    private void fit(@NotNull String string) {
+        if (latin1 != null && !canEncode(string)) inflate();
+    }
 
-        for (int idx : all) if (idx + cs1.length <= cs.length && isMatch(cs1, cs, idx)) return idx;
-        return -1;
+    // keeps offset and length, so the contents stay where they are
+    @Contract(mutates = "this")
+    private void inflate() {
+        char[] cs = new char[latin1.length];
+        KERNELS.inflate(latin1, offset, cs, offset, length);
+        setBuffer(cs);
     }
 
-    private static int lastIndexOf(char[] cs, char @NotNull [] cs1, int start, int end) {
-        int[] groupAll = indexesOf(cs, cs1[0]);
+    @Contract(pure = true)
+    private static boolean canEncode(@NotNull String string) {
+        for (int i = 0, n = string.length(); i < n; i++) if (string.charAt(i) > 0xFF) return false;
+        return true;
+    }
 
-        if (groupAll.length == 0 ||
-                start == cs.length - 1 ||
-                start == end ||
-                start + cs1.length > cs.length) return -1;
+    // a new byte[] if all chars fit into Latin-1, a new char[] otherwise
+    private static @NotNull Object encode(@NotNull String string) {
+        return canEncode(string) ? string.getBytes(StandardCharsets.ISO_8859_1) : string.toCharArray();
+    }
 
-        int[] rGroupAll = new int[groupAll.length];
-        for (int i = 0, j = groupAll.length - 1; i < groupAll.length; i++, j--) rGroupAll[i] = groupAll[i];
+    private static @NotNull Object encode(char @NotNull [] cs, int start, int end) {
+        if (!KERNELS.canEncode(cs, start, end)) return Arrays.copyOfRange(cs, start, end);
 
-        System.arraycopy(rGroupAll, 0, groupAll, 0, groupAll.length);
+        byte[] bs = new byte[end - start];
+        KERNELS.compress(cs, start, bs, 0, bs.length);
+        return bs;
+    }
 
-        if (groupAll.length == 1 && groupAll[0] < start) return -1;
+    // chars written into a byte[] have to fit into Latin-1
+    private static void write(@NotNull String string, @NotNull Object dst, int dstPos) {
+        if (dst instanceof char[] cs) {
+            string.getChars(0, string.length(), cs, dstPos);
+            return;
+        }
 
-        int countToRemove = 0, j = groupAll.length - 1, i;
+        byte[] bs = (byte[]) dst;
+        for (int i = 0, n = string.length(); i < n; i++) bs[dstPos + i] = (byte) string.charAt(i);
+    }
 
-        while (groupAll[countToRemove] > end) {
-            if (countToRemove == j) return -1;
-            countToRemove++;
+    /*
+     * A new StringType with count needles replaced; hits holds their positions inside the buffer in ascending order,
+     * ids the index into lengths and replacements for each one, or null if that is always 0. Everything in between is
+     * copied over once, into a buffer of exactly the final size, which stays in Latin-1 if the replacements allow it.
+     */
+    private @NotNull StringType rebuild(int @NotNull [] hits, int @Nullable [] ids, int count,
+                                        int @NotNull [] lengths, @NotNull String @NotNull [] replacements) {
+        long size = length;
+        boolean compact = latin1 != null;
+        for (int i = 0; i < count; i++) {
+            String replacement = replacements[ids == null ? 0 : ids[i]];
+            size += replacement.length() - lengths[ids == null ? 0 : ids[i]];
+            compact = compact && canEncode(replacement);
+        }
+        if (size > SOFT_MAX_CAPACITY) throw new OutOfMemoryError("Required length exceeds implementation limit");
+
+        Object src = buffer(), dst = compact ? new byte[(int) size] : new char[(int) size];
+        int from = offset, at = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids == null ? 0 : ids[i];
+            copy(src, from, dst, at, hits[i] - from);
+            at += hits[i] - from;
+            write(replacements[id], dst, at);
+            at += replacements[id].length();
+            from = hits[i] + lengths[id];
         }
+        copy(src, from, dst, at, offset + length - from);
 
-        i = countToRemove;
+        return new StringType(dst, 0, (int) size);
+    }
 
-        while (groupAll[j] < start) {
-            countToRemove++;
-            j--;
+    /*
+     * prefix, the first count parts with delimiter in between, and suffix, in a buffer allocated once at its final
+     * size, which is a byte[] if all of them fit into Latin-1
+     */
+    private static @NotNull StringType join(@NotNull CharSequence delimiter, @NotNull CharSequence prefix,
+                                            @NotNull CharSequence suffix, CharSequence @NotNull [] parts, int count) {
+        long size = prefix.length() + suffix.length() + (long) Math.max(0, count - 1) * delimiter.length();
+        boolean compact = canEncode(prefix) && canEncode(suffix) && (count < 2 || canEncode(delimiter));
+        for (int i = 0; i < count; i++) {
+            size += parts[i].length();
+            compact = compact && canEncode(parts[i]);
         }
+        if (size > SOFT_MAX_CAPACITY) throw new OutOfMemoryError("Required length exceeds implementation limit");
 
-        int[] all = new int[groupAll.length - countToRemove];
-        System.arraycopy(groupAll, i, all, 0, all.length);
+        Object dst = compact ? new byte[(int) size] : new char[(int) size];
+        int at = write(prefix, dst, 0);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) at = write(delimiter, dst, at);
+            at = write(parts[i], dst, at);
+        }
+        write(suffix, dst, at);
 
-        for (int idx : all) if (idx + cs1.length <= cs.length && isMatch(cs1, cs, idx)) return idx;
-        return -1;
+        return new StringType(dst, 0, (int) size);
     }
 
-    @Contract(pure = true)
-    private static int @NotNull [] grow(int @NotNull [] is, int i) {
-        int[] newIs = new int[is.length + 1];
-        System.arraycopy(is, 0, newIs, 0, is.length);
-        newIs[is.length] = i;
-        return newIs;
+    private static boolean canEncode(@NotNull CharSequence cs) {
+        return canEncode(cs, 0, cs.length());
     }
 
-    private static char @NotNull [] fastAdd(char @NotNull [] cs, char @NotNull [] cs1, int i) {
-        int range = cs1.length;
-        Objects.checkIndex(i, cs.length);
-
-        char[] cpy = new char[cs.length + range];
-
-        if (i >= 0) System.arraycopy(cs, 0, cpy, 0, i);
-        for (int j = i, k = 0; k < range; j++, k++) cpy[j] = cs1[k];
-        for (int j = i + range, k = i; k < cs.length; j++, k++) cpy[j] = cs[k];
-
-        return cpy;
-    }
-
-    private static char @NotNull [] fastRemove(char @NotNull [] cs, int index, int length) {
-        if (index + length > cs.length) throw new IndexOutOfBoundsException("Length for removal ia out of bounds.");
-        Objects.checkIndex(index, cs.length);
-
-        char[] newCs = new char[cs.length - length - 1];
-        int j = 0;
-
-        for (int i = 0; i < cs.length; i++) {
-            if (i >= index && i < cs.length + length) continue;
-            newCs[j++] = cs[i];
+    private static boolean canEncode(@NotNull CharSequence cs, int start, int end) {
+        if (cs instanceof StringType t) {
+            return t.latin1 != null || KERNELS.canEncode(t.chars, t.offset + start, t.offset + end);
         }
-
-        return newCs;
+        for (int i = start; i < end; i++) if (cs.charAt(i) > 0xFF) return false;
+        return true;
     }
 
-    private static String @NotNull [] charRange(char @NotNull [] chars, int range) {
-        int length = chars.length;
-        int segmentCount = Math.ceilDiv(length, range);
-
-        int current = 0;
+    private static int write(@NotNull CharSequence cs, @NotNull Object dst, int dstPos) {
+        return write(cs, 0, cs.length(), dst, dstPos);
+    }
 
-        String[] segments = new String[segmentCount];
-        int cursor = 0;
+    // dst has to be a byte[] only if cs[start, end) fits into Latin-1, returns the position after the written chars
+    private static int write(@NotNull CharSequence cs, int start, int end, @NotNull Object dst, int dstPos) {
+        int n = end - start;
+        if (cs instanceof StringType t) copy(t.buffer(), t.offset + start, dst, dstPos, n);
+        else if (cs instanceof String s && dst instanceof char[] chars) s.getChars(start, end, chars, dstPos);
+        else if (dst instanceof char[] chars) for (int i = 0; i < n; i++) chars[dstPos + i] = cs.charAt(start + i);
+        else for (int i = 0; i < n; i++) ((byte[]) dst)[dstPos + i] = (byte) cs.charAt(start + i);
+        return dstPos + n;
+    }
 
-        while (cursor < segmentCount) {
-            int remainder = length - current;
-            int result = Math.min(remainder, range);
+    // copies between buffers of either encoding, chars copied into a byte[] have to fit into Latin-1
+    private static void copy(@NotNull Object src, int srcPos, @NotNull Object dst, int dstPos, int count) {
+        if (src.getClass() == dst.getClass()) System.arraycopy(src, srcPos, dst, dstPos, count);
+        else if (src instanceof byte[] bs) KERNELS.inflate(bs, srcPos, (char[]) dst, dstPos, count);
+        else KERNELS.compress((char[]) src, srcPos, (byte[]) dst, dstPos, count);
+    }
 
-            char[] segment = new char[result];
-            System.arraycopy(chars, current, segment, 0, result);
+    // compares the case folded code points of this StringType and cs, the same way compareTo compares the chars
+    @Contract(pure = true)
+    private int compareFolded(@NotNull CharSequence cs) {
+        int n = cs.length(), i = 0, j = 0;
+        while (i < length && j < n) {
+            char a = at(offset + i), b = cs.charAt(j);
+            if (a == b && !Character.isSurrogate(a)) {
+                i++;
+                j++;
+                continue;
+            }
 
-            current += range;
-            current = Math.min(current, length);
+            int x = a, y = b;
+            if (Character.isHighSurrogate(a) && i + 1 < length && Character.isLowSurrogate(at(offset + i + 1))) {
+                x = Character.toCodePoint(a, at(offset + i + 1));
+            }
+            if (Character.isHighSurrogate(b) && j + 1 < n && Character.isLowSurrogate(cs.charAt(j + 1))) {
+                y = Character.toCodePoint(b, cs.charAt(j + 1));
+            }
 
-            segments[cursor++] = String.valueOf(segment);
+            int fx = StringKernels.fold(x), fy = StringKernels.fold(y);
+            if (fx != fy) return fx - fy;
+            i += Character.charCount(x);
+            j += Character.charCount(y);
         }
-
-        return segments;
+        return (length - i) - (n - j);
     }
 
-    @Contract(mutates = "param")
-    private static void trimSize(char @NotNull [] cs) {
-        char c = cs[0];
-        while ((c == 0x000) ||
-                (c == 0x0009) ||
-                (c == 0x0020) ||
-                (c == 0x00A0) ||
-                (c == 0x00B0) ||
-                (c == 0x1680) ||
-                (c == 0x2000) ||
-                (c == 0x2001) ||
-                (c == 0x2002) ||
-                (c == 0x2003) ||
-                (c == 0x2004) ||
-                (c == 0x2005) ||
-                (c == 0x2006) ||
-                (c == 0x2007) ||
-                (c == 0x2008) ||
-                (c == 0x2009) ||
-                (c == 0x200A) ||
-                (c == 0x202F) ||
-                (c == 0x205F) ||
-                (c == 0x3000)) {
-            char[] content = new char[cs.length - 1];
-            System.arraycopy(cs, 1, content, 0, content.length);
-            cs = content;
-            c = cs[0];
-        }
-
-        ArrayTools.reverse(cs);
-
-        c = cs[0];
-        while ((c == 0x000) ||
-                (c == 0x0009) ||
-                (c == 0x0020) ||
-                (c == 0x00A0) ||
-                (c == 0x00B0) ||
-                (c == 0x1680) ||
-                (c == 0x2000) ||
-                (c == 0x2001) ||
-                (c == 0x2002) ||
-                (c == 0x2003) ||
-                (c == 0x2004) ||
-                (c == 0x2005) ||
-                (c == 0x2006) ||
-                (c == 0x2007) ||
-                (c == 0x2008) ||
-                (c == 0x2009) ||
-                (c == 0x200A) ||
-                (c == 0x202F) ||
-                (c == 0x205F) ||
-                (c == 0x3000)) {
-            char[] content = new char[cs.length - 1];
-            System.arraycopy(cs, 1, content, 0, content.length);
-            cs = content;
-            c = cs[0];
+    // compareTo for contents known to be equal before index from
+    @Contract(pure = true)
+    int compareFrom(@NotNull StringType other, int from) {
+        int len = Math.min(length, other.length);
+        if (from < len) {
+            int a = offset + from, b = other.offset + from, n = len - from, i;
+            if (latin1 != null && other.latin1 != null) {
+                i = Arrays.mismatch(latin1, a, a + n, other.latin1, b, b + n);
+            } else if (latin1 == null && other.latin1 == null) {
+                i = Arrays.mismatch(chars, a, a + n, other.chars, b, b + n);
+            } else {
+                i = -1;
+                for (int k = 0; k < n; k++) {
+                    if (at(a + k) != other.at(b + k)) {
+                        i = k;
+                        break;
+                    }
+                }
+            }
+            if (i >= 0) return at(a + i) - other.at(b + i);
         }
-
-        ArrayTools.reverse(cs);
-    }
-
-    private static char @NotNull [] subCharArray(char @NotNull [] cs, int start, int end) {
-        Objects.checkFromToIndex(start, end, cs.length);
-        char[] cs1 = new char[end - start];
-        System.arraycopy(cs, start, cs1, 0, cs1.length);
-        return cs1;
+        return length - other.length;
     }
 
+    // the char at index as key for radix sorting, -1 past the end so shorter contents come first
     @Contract(pure = true)
-    private static boolean isMatch(char @NotNull [] cs, char[] cs1, int i) {
-        for (int j = 1; j < cs.length; j++) if (cs[i] != cs1[i + j]) return false;
-        return true;
+    int keyAt(int index) {
+        return index < length ? at(offset + index) : -1;
     }
 
-    private static char @NotNull [][] split(char @NotNull [] cs, char @NotNull [] del, int count) {
-        if (indexOf(cs, del, 0, cs.length) == -1) return new char[][]{cs};
+    // index of the first char in buffer[from, to) that is not whitespace, to if there is none
+    private int skipWhitespace(int from, int to) {
+        return latin1 != null ? KERNELS.skipWhitespace(latin1, from, to) : KERNELS.skipWhitespace(chars, from, to);
+    }
 
-        Range[] ranges = Range.fromIntArray(indexesOf(cs, del));
+    // index after the last char in buffer[from, to) that is not whitespace, from if there is none
+    private int skipWhitespaceBackward(int from, int to) {
+        return latin1 != null
+                ? KERNELS.skipWhitespaceBackward(latin1, from, to)
+                : KERNELS.skipWhitespaceBackward(chars, from, to);
+    }
 
-        int total = count < 0 ? ranges.length + Math.abs(count) : count == 0 ? ranges.length : Math.max(ranges.length - count, 0);
-        int lastIndex = -1;
+    // index of the line terminator ending the line starting at the given index into the buffer, end if there is none
+    private int lineEnd(int start, int end) {
+        if (latin1 != null) while (start < end && latin1[start] != '\n' && latin1[start] != '\r') start++;
+        else while (start < end && chars[start] != '\n' && chars[start] != '\r') start++;
+        return start;
+    }
 
-        if (total < count) lastIndex = ranges[total].end() + 1;
+    // index after the line terminator at eol, counting CR LF as one
+    private int nextLine(int eol, int end) {
+        if (eol == end) return end;
+        return at(eol) == '\r' && eol + 1 < end && at(eol + 1) == '\n' ? eol + 2 : eol + 1;
+    }
 
-        char[][] container = new char[total][0];
+    // the number of leading spaces, at most max, of the line starting at the given index
+    private int indent(int start, int end, int max) {
+        int i = start, limit = (int) Math.min(end, (long) start + max);
+        if (latin1 != null) while (i < limit && latin1[i] == ' ') i++;
+        else while (i < limit && chars[i] == ' ') i++;
+        return i - start;
+    }
 
-        boolean endReached = false;
-        for (int i = 0; i < total - 1; i++) {
-            if (i == ranges.length) endReached = true;
-            if (endReached) container[i] = new char[]{0x200B};
+    private int relative(int index) {
+        return index < 0 ? -1 : index - offset;
+    }
 
-            container[i] = subCharArray(cs, ranges[i].end(), ranges[i + 1].start());
-        }
+    // raw access for the other kernels of this package, the contents live in array()[arrayOffset(), + length), or in
+    // latin1Array() at the same positions if array() is null
+    char @Nullable [] array() {
+        return chars;
+    }
 
-        if (lastIndex != -1 || ranges.length - count == 0)
-            container[total - 1] = subCharArray(cs, lastIndex, cs.length);
+    byte @Nullable [] latin1Array() {
+        return latin1;
+    }
 
-        return container;
+    int arrayOffset() {
+        return offset;
     }
 
-    @Contract(mutates = "param1")
-    private static char @NotNull [] replaceValueAt(char @NotNull [] cs, int index, char replacement) {
-        Objects.checkIndex(index, cs.length);
-        cs[index] = replacement;
-        return cs;
+    // a view on chars[start, end), sharing the buffer until either side writes to that range
+    private @NotNull StringType slice(int start, int end) {
+        return view(pin(start, end), start, end);
     }
 
-    @Contract(mutates = "param1")
-    private static char @NotNull [] replaceValuesAt(char @NotNull [] cs, int index, char @NotNull [] replacement) {
-        Objects.checkIndex(index, cs.length);
-        Objects.checkIndex(index + replacement.length, cs.length);
+    // the current buffer, with the contents pinned so later writes to them copy it first
+    private @NotNull Object pin() {
+        return pin(offset, offset + length);
+    }
 
-        for (int i = 0; i < replacement.length; i++, index++) cs[index] = replacement[i];
-        return cs;
+    // the current buffer, with buffer[from, to) added to the pinned range
+    private @NotNull Object pin(int from, int to) {
+        if (from < to) {
+            boolean none = pinnedFrom >= pinnedTo;
+            pinnedFrom = none ? from : Math.min(pinnedFrom, from);
+            pinnedTo = none ? to : Math.max(pinnedTo, to);
+        }
+        return buffer();
+    }
+
+    // the range of the buffer has to be pinned by its owner already
+    static @NotNull StringType view(@NotNull Object buffer, int start, int end) {
+        StringType view = new StringType(buffer, start, end - start);
+        view.borrowed = true;
+        return view;
+    }
+
+    // whether anything else sees the buffer, so writes may have to copy it first
+    private boolean shared() {
+        return borrowed || pinnedFrom < pinnedTo;
+    }
+
+    // whether writing to buffer[from, to) has to copy the buffer first
+    private boolean pinned(int from, int to) {
+        return from < to && (borrowed || from < pinnedTo && pinnedFrom < to);
+    }
+
+    private @NotNull Spliterator<StringType> splitSpliterator(@NotNull Searcher delimiter) {
+        return new SplitSpliterator(pin(), offset, offset + length, delimiter);
+    }
+
+    private StringType @NotNull [] slices(int @NotNull [] bounds) {
+        StringType[] slices = new StringType[bounds.length / 2];
+        for (int i = 0; i < slices.length; i++) slices[i] = slice(bounds[i * 2], bounds[i * 2 + 1]);
+        return slices;
+    }
+
+    // has to run before anything writes to buffer[from, to), which may move the contents of a slice to offset 0
+    @Contract(mutates = "this")
+    private void unshare(int from, int to) {
+        if (!pinned(from, to)) return;
+
+        // a slice copies only its contents, never the rest of a borrowed buffer; an owner keeps its spare capacity
+        if (borrowed) {
+            setBuffer(rawContents());
+            offset = 0;
+        } else {
+            Object buffer = newBuffer(bufferLength());
+            System.arraycopy(buffer(), offset, buffer, offset, length);
+            setBuffer(buffer);
+        }
+    }
+
+    @Contract(mutates = "this")
+    private void modified() {
+        lastIndex = Math.max(0, length - 1); // range checking, making sure it is never oob
+        value = null;
+        hash = 0;
+        hashIsZero = false;
+        modCount++;
+    }
+
+    @Contract(mutates = "this")
+    private void add(int index, char c) {
+        fit(c);
+        int at = openGap(index, 1);
+        put(at, c);
+        modified();
+    }
+
+    @Contract(mutates = "this")
+    private void add(int index, @NotNull String string) {
+        fit(string);
+        int at = openGap(index, string.length());
+        putAll(at, string);
+        modified();
+    }
+
+    @Contract(mutates = "this")
+    private void add(int index, @NotNull StringType stringType) {
+        Object src = stringType.buffer();
+        int from = stringType.offset, count = stringType.length;
+        if (latin1 != null && stringType.latin1 == null && !KERNELS.canEncode(stringType.chars, from, from + count))
+            inflate();
+
+        // opening the gap may move the source around if it shares this buffer
+        if (src == buffer()) {
+            src = stringType.rawContents();
+            from = 0;
+        }
+
+        int at = openGap(index, count);
+        copy(src, from, buffer(), at, count);
+        modified();
+    }
+
+    @Contract(mutates = "this")
+    private void delete(int index, int count) {
+        Objects.checkFromIndexSize(index, count, length);
+
+        // close the gap by moving whichever side is shorter
+        if (index < length - index - count) {
+            unshare(offset + count, offset + index + count);
+            System.arraycopy(buffer(), offset, buffer(), offset + count, index);
+            offset += count;
+        } else {
+            unshare(offset + index, offset + length - count);
+            System.arraycopy(buffer(), offset + index + count, buffer(), offset + index, length - index - count);
+        }
+
+        length -= count;
+        modified();
+    }
+
+    @Contract(mutates = "this")
+    private void matchLength(char filler, int targetLength, boolean start) {
+        if (length > targetLength) throw new IllegalStateException("Target length shorter than actual length.");
+
+        int count = targetLength - length;
+        fit(filler);
+        int at = openGap(start ? length : 0, count);
+        if (latin1 != null) Arrays.fill(latin1, at, at + count, (byte) filler);
+        else Arrays.fill(chars, at, at + count, filler);
+        modified();
+    }
+
+    /*
+     * Makes room for count chars at the given logical index and returns the physical index the caller has to write
+     * them to. Prepends eat into the front gap, appends into the tail, inserts move the shorter side. Once that side
+     * runs out of room, the contents are re-centered while at least a quarter of the new length is spare, so mixed
+     * prepends and appends get half of it each; otherwise the buffer grows geometrically. That keeps all of them
+     * amortized O(1) at the ends, in any order. Only writes into the pinned range copy the buffer, so appends after
+     * taking a slice stay amortized O(1) as well.
+     */
+    @Contract(mutates = "this")
+    private int openGap(int index, int count) {
+        Objects.checkIndex(index, length + 1);
+        int newLength = length + count;
+        if (newLength < 0) throw new OutOfMemoryError("Required length exceeds implementation limit");
+
+        // a slice has no spare room of its own, everything around its contents belongs to someone else
+        int head = borrowed ? 0 : offset, tail = borrowed ? 0 : bufferLength() - offset - length;
+        boolean front = index < length - index;
+
+        if (front && head >= count) {
+            unshare(offset - count, offset + index);
+            Object cs = buffer();
+            System.arraycopy(cs, offset, cs, offset - count, index);
+            offset -= count;
+        } else if (!front && tail >= count) {
+            unshare(offset + index, offset + length + count);
+            Object cs = buffer();
+            System.arraycopy(cs, offset + index, cs, offset + index + count, length - index);
+        } else {
+            int spare = head + tail - count;
+            boolean grow = spare < newLength >> 2;
+            int capacity = grow ? newCapacity(head + length + tail, newLength) : head + length + tail;
+            int slack = capacity - newLength;
+            // prepends keep their spare room in front, everything else at the end, re-centering splits it evenly
+            int newOffset = !grow ? slack >> 1 : index == 0 ? slack - Math.min(tail, slack) : Math.min(head, slack);
+
+            // within the same buffer, whichever part moves right goes first, so neither overwrites the other
+            Object cs = buffer(), buffer = grow || shared() ? newBuffer(capacity) : cs;
+            if (newOffset + count >= offset) {
+                System.arraycopy(cs, offset + index, buffer, newOffset + index + count, length - index);
+                System.arraycopy(cs, offset, buffer, newOffset, index);
+            } else {
+                System.arraycopy(cs, offset, buffer, newOffset, index);
+                System.arraycopy(cs, offset + index, buffer, newOffset + index + count, length - index);
+            }
+
+            if (buffer != cs) setBuffer(buffer);
+            offset = newOffset;
+        }
+
+        length = newLength;
+        return offset + index;
+    }
+
+    @Contract(pure = true)
+    private static int newCapacity(int oldCapacity, int minCapacity) {
+        int preferred = oldCapacity + Math.max(minCapacity - oldCapacity, oldCapacity + 2);
+        if (0 < preferred && preferred <= SOFT_MAX_CAPACITY) return preferred;
+        if (minCapacity < 0) throw new OutOfMemoryError("Required length exceeds implementation limit");
+        return Math.max(minCapacity, SOFT_MAX_CAPACITY);
+    }
+
+    @Contract(pure = true)
+    private static int indexOfRange(char @NotNull [] cs, char c, int start, int end) {
+        Objects.checkFromToIndex(start, end, cs.length);
+        return KERNELS.indexOf(cs, c, start, end);
+    }
+
+    @Contract(pure = true)
+    private static int lastIndexOfRange(char @NotNull [] cs, char c, int start, int end) {
+        Objects.checkFromToIndex(start, end, cs.length);
+        for (int i = end - 1; i >= start; i--) if (cs[i] == c) return i;
+        return -1;
+    }
+
+    @Contract(pure = true)
+    private static boolean quickCompare(char @NotNull [] a, int aFrom, char @NotNull [] b, int bFrom, int length) {
+        return length <= 0 || KERNELS.equals(a, aFrom, b, bFrom, length);
+    }
+
+    @Contract(pure = true)
+    private static int[] indexesOf(char @NotNull [] cs, char c, int start, int end) {
+        int count = KERNELS.count(cs, c, start, end);
+
+        int[] indexes = new int[count];
+        for (int i = start, j = 0; j < count; i++) indexes[j++] = i = KERNELS.indexOf(cs, c, i, end);
+
+        return indexes;
+    }
+
+    @Contract(pure = true)
+    private static int lastIndexOf(char @NotNull [] cs, int start, int end, char @NotNull [] cs1) {
+        int m = cs1.length;
+        if (m == 0) return end;
+        if (m == 1) return lastIndexOfRange(cs, cs1[0], start, end);
+
+        char first = cs1[0], last = cs1[m - 1];
+
+        for (int i = end - m; i >= start; i--) {
+            if (cs[i] == first && cs[i + m - 1] == last && quickCompare(cs, i + 1, cs1, 1, m - 2)) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Checks the first and the last char of every window before comparing the rest, a branch-light loop over two
+     * independent loads, which rejects nearly every position of real text and vectorizes well.
+     */
+    @Contract(pure = true)
+    private static int filterIndexOf(char @NotNull [] cs, int start, int end, char @NotNull [] cs1) {
+        int m = cs1.length;
+        char first = cs1[0], last = cs1[m - 1];
+
+        for (int i = start, max = end - m; i <= max; i++) {
+            if (cs[i] == first && cs[i + m - 1] == last && quickCompare(cs, i + 1, cs1, 1, m - 2)) return i;
+        }
+        return -1;
+    }
+
+    /*
+     * Boyer-Moore-Horspool, the table is indexed by the low byte of a char, colliding chars keep the smallest shift,
+     * which can only make the search skip less, never skip a match.
+     */
+    @Contract(pure = true)
+    private static int horspoolIndexOf(char @NotNull [] cs, int start, int end, char @NotNull [] cs1, int @NotNull [] shift) {
+        int m = cs1.length, last = m - 1;
+        char first = cs1[0], lastChar = cs1[last];
+
+        for (int i = start, max = end - m; i <= max; ) {
+            char c = cs[i + last];
+            if (c == lastChar && cs[i] == first && quickCompare(cs, i + 1, cs1, 1, m - 2)) return i;
+            i += shift[c & 0xFF];
+        }
+        return -1;
+    }
+
+    // the first/last char filter against a String needle, without copying it
+    @Contract(pure = true)
+    private static int filterIndexOf(char @NotNull [] cs, int start, int end, @NotNull String needle) {
+        int m = needle.length();
+        char first = needle.charAt(0), last = needle.charAt(m - 1);
+
+        for (int i = start, max = end - m; i <= max; i++) {
+            if (cs[i] == first && cs[i + m - 1] == last && regionMatches(cs, i + 1, needle, m - 1)) return i;
+        }
+        return -1;
+    }
+
+    @Contract(pure = true)
+    private static boolean regionMatches(char @NotNull [] cs, int from, @NotNull String needle, int to) {
+        for (int j = 1; j < to; j++, from++) if (cs[from] != needle.charAt(j)) return false;
+        return true;
+    }
+
+    @Contract(pure = true)
+    private static int @NotNull [] shiftTable(char @NotNull [] cs1) {
+        int m = cs1.length;
+        int[] shift = new int[256];
+        Arrays.fill(shift, m);
+        for (int i = 0; i < m - 1; i++) shift[cs1[i] & 0xFF] = m - 1 - i;
+        return shift;
+    }
+
+    // --------------------------------------------------------- Latin-1 kernels, the same as above for byte[] contents
+
+    @Contract(pure = true)
+    private static int indexOfRange(byte @NotNull [] bs, char c, int start, int end) {
+        Objects.checkFromToIndex(start, end, bs.length);
+        return c > 0xFF ? -1 : KERNELS.indexOf(bs, (byte) c, start, end);
+    }
+
+    @Contract(pure = true)
+    private static int lastIndexOfRange(byte @NotNull [] bs, char c, int start, int end) {
+        Objects.checkFromToIndex(start, end, bs.length);
+        if (c > 0xFF) return -1;
+
+        byte b = (byte) c;
+        for (int i = end - 1; i >= start; i--) if (bs[i] == b) return i;
+        return -1;
+    }
+
+    @Contract(pure = true)
+    private static boolean quickCompare(byte @NotNull [] a, int aFrom, byte @NotNull [] b, int bFrom, int length) {
+        return length <= 0 || KERNELS.equals(a, aFrom, b, bFrom, length);
+    }
+
+    @Contract(pure = true)
+    private static int[] indexesOf(byte @NotNull [] bs, char c, int start, int end) {
+        if (c > 0xFF) return new int[0];
+
+        byte b = (byte) c;
+        int count = KERNELS.count(bs, b, start, end);
+
+        int[] indexes = new int[count];
+        for (int i = start, j = 0; j < count; i++) indexes[j++] = i = KERNELS.indexOf(bs, b, i, end);
+
+        return indexes;
+    }
+
+    // a needle with chars outside of Latin-1 can never be found in Latin-1 contents, null for those
+    @Contract(pure = true)
+    private static byte @Nullable [] narrow(char @NotNull [] needle) {
+        if (!KERNELS.canEncode(needle, 0, needle.length)) return null;
+
+        byte[] bs = new byte[needle.length];
+        KERNELS.compress(needle, 0, bs, 0, bs.length);
+        return bs;
+    }
+
+    @Contract(pure = true)
+    private static int lastIndexOf(byte @NotNull [] bs, int start, int end, char @NotNull [] cs1) {
+        byte[] needle = narrow(cs1);
+        if (needle == null) return -1;
+
+        int m = needle.length;
+        if (m == 0) return end;
+        if (m == 1) return lastIndexOfRange(bs, cs1[0], start, end);
+
+        byte first = needle[0], last = needle[m - 1];
+
+        for (int i = end - m; i >= start; i--) {
+            if (bs[i] == first && bs[i + m - 1] == last && quickCompare(bs, i + 1, needle, 1, m - 2)) return i;
+        }
+        return -1;
+    }
+
+    @Contract(pure = true)
+    private static int filterIndexOf(byte @NotNull [] bs, int start, int end, byte @NotNull [] needle) {
+        int m = needle.length;
+        byte first = needle[0], last = needle[m - 1];
+
+        for (int i = start, max = end - m; i <= max; i++) {
+            if (bs[i] == first && bs[i + m - 1] == last && quickCompare(bs, i + 1, needle, 1, m - 2)) return i;
+        }
+        return -1;
+    }
+
+    // a needle char outside of Latin-1 never equals the unsigned value of a byte, so such a needle is never found
+    @Contract(pure = true)
+    private static int filterIndexOf(byte @NotNull [] bs, int start, int end, @NotNull String needle) {
+        int m = needle.length();
+        char first = needle.charAt(0), last = needle.charAt(m - 1);
+        if (first > 0xFF || last > 0xFF) return -1;
+
+        for (int i = start, max = end - m; i <= max; i++) {
+            if ((bs[i] & 0xFF) == first && (bs[i + m - 1] & 0xFF) == last && regionMatches(bs, i + 1, needle, m - 1)) return i;
+        }
+        return -1;
+    }
+
+    @Contract(pure = true)
+    private static boolean regionMatches(byte @NotNull [] bs, int from, @NotNull String needle, int to) {
+        for (int j = 1; j < to; j++, from++) if ((bs[from] & 0xFF) != needle.charAt(j)) return false;
+        return true;
+    }
+
+    // the table of the char needle fits as is, the low byte of a Latin-1 char is the char
+    @Contract(pure = true)
+    private static int horspoolIndexOf(byte @NotNull [] bs, int start, int end, byte @NotNull [] needle, int @NotNull [] shift) {
+        int m = needle.length, last = m - 1;
+        byte first = needle[0], lastByte = needle[last];
+
+        for (int i = start, max = end - m; i <= max; ) {
+            byte b = bs[i + last];
+            if (b == lastByte && bs[i] == first && quickCompare(bs, i + 1, needle, 1, m - 2)) return i;
+            i += shift[b & 0xFF];
+        }
+        return -1;
+    }
+
+    private static @NotNull String string(@NotNull Object buffer, int from, int to) {
+        return buffer instanceof byte[] bs
+                ? new String(bs, from, to - from, StandardCharsets.ISO_8859_1)
+                : String.valueOf((char[]) buffer, from, to - from);
+    }
+
+    private static void checkWindow(int size, int step) {
+        if (size <= 0) throw new IllegalArgumentException("Window size has to be positive: " + size);
+        if (step <= 0) throw new IllegalArgumentException("Window step has to be positive: " + step);
+    }
+
+    // windows start every step chars and stop at the first one reaching the end, or once they start past it
+    @Contract(pure = true)
+    private static int windowCount(int length, int size, int step) {
+        if (length == 0) return 0;
+        if (size >= length) return 1;
+        return Math.min(Math.ceilDiv(length - size, step) + 1, Math.ceilDiv(length, step));
+    }
+
+
+    // start and end of every piece inside the buffer, pairwise
+    private int @NotNull [] splitBounds(@NotNull String del, int limit) {
+        int[] bounds = new int[8];
+        int start = offset, end = offset + length;
+        int count = 0, index = start, i;
+        Searcher table = skipTable(del);
+
+        // bounds holds the start and end of every piece before the last one
+        while (del.length() > 0 && (limit <= 0 || count < limit - 1) && (i = search(del, table, index)) != -1) {
+            if (count * 2 == bounds.length) bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            bounds[count * 2] = index;
+            bounds[count * 2 + 1] = i;
+            count++;
+            index = i + del.length();
+        }
+
+        if (count == 0) return new int[]{start, end};
+
+        int total = count + 1;
+        int lastStart = index;
+
+        if (limit == 0) {
+            if (lastStart == end) {
+                total--;
+                while (total > 0 && bounds[(total - 1) * 2] == bounds[(total - 1) * 2 + 1]) total--;
+            }
+        }
+
+        int[] pieces = Arrays.copyOf(bounds, total * 2);
+        if (total > count) {
+            pieces[count * 2] = lastStart;
+            pieces[count * 2 + 1] = end;
+        }
+
+        return pieces;
     }
 
     private static char @NotNull [] matchLength(char @NotNull [] cs, char filler, int targetLength, boolean start) {
@@ -1943,6 +3494,632 @@ public final class StringType extends BaseType<String> implements Serializable,
 
     // --------------------------------------------------------- Helper class
 
+    /**
+     * A {@code Searcher} is a {@code String} precompiled for searching, created through {@link #searcher(String)}.
+     * Long needles get a <em>Boyer-Moore-Horspool</em> skip table, which lets the search jump over most of the
+     * input, short ones are searched for by checking their first and last character before anything else. Instances
+     * are immutable, can be shared between threads and searching with them does not allocate.
+     * <blockquote>
+     * <pre>{@code StringType.Searcher key = StringType.searcher("name: ");
+     * for (StringType line : lines) {
+     *     int i = line.indexOf(key);
+     *     // ...
+     * }}</pre>
+     * </blockquote>
+     *
+     * @see #searcher(String)
+     * @see #indexOf(Searcher)
+     * @since <code>1.7.0</code>
+     */
+    public static final class Searcher {
+        private final String string;
+        private final char[] needle;
+        private final byte @Nullable [] latin1Needle;
+        private final int @Nullable [] shift;
+
+        private Searcher(@NotNull String string) {
+            this.string = string;
+            needle = string.toCharArray();
+            latin1Needle = narrow(needle);
+            shift = needle.length > SHORT_NEEDLE ? shiftTable(needle) : null;
+        }
+
+        /**
+         * Returns the {@code String} this {@code Searcher} looks for.
+         *
+         * @return The {@code String} this {@code Searcher} looks for.
+         * @since <code>1.7.0</code>
+         */
+        public @NotNull String pattern() {
+            return string;
+        }
+
+        /**
+         * Returns the length of the {@code String} this {@code Searcher} looks for.
+         *
+         * @return The length of the {@code String} this {@code Searcher} looks for.
+         * @since <code>1.7.0</code>
+         */
+        public int length() {
+            return needle.length;
+        }
+
+        /**
+         * Returns the {@code index} of the first occurrence inside the given {@code StringType}.
+         *
+         * @param stringType The {@code StringType} to search through.
+         * @return The {@code index} of the first occurrence, or {@code -1} if there is none.
+         * @see StringType#indexOf(Searcher)
+         * @since <code>1.7.0</code>
+         */
+        public int indexIn(@NotNull StringType stringType) {
+            return stringType.indexOf(this);
+        }
+
+        /**
+         * Returns the {@code index} of the first occurrence inside the given range of a {@code char[]}.
+         *
+         * @param cs    The {@code char[]} to search through.
+         * @param start The {@code start} index, inclusive.
+         * @param end   The {@code end} index, exclusive.
+         * @return The {@code index} of the first occurrence, relative to the start of the array, or {@code -1} if
+         * there is none.
+         * @since <code>1.7.0</code>
+         */
+        public int indexIn(char @NotNull [] cs, int start, int end) {
+            Objects.checkFromToIndex(start, end, cs.length);
+
+            int m = needle.length;
+            if (m == 0) return start;
+            if (m == 1) return indexOfRange(cs, needle[0], start, end);
+            if (shift == null) return filterIndexOf(cs, start, end, needle);
+            return horspoolIndexOf(cs, start, end, needle, shift);
+        }
+
+        // the same for Latin-1 contents
+        private int indexIn(byte @NotNull [] bs, int start, int end) {
+            Objects.checkFromToIndex(start, end, bs.length);
+            if (latin1Needle == null) return -1;
+
+            int m = latin1Needle.length;
+            if (m == 0) return start;
+            if (m == 1) return indexOfRange(bs, needle[0], start, end);
+            if (shift == null) return filterIndexOf(bs, start, end, latin1Needle);
+            return horspoolIndexOf(bs, start, end, latin1Needle, shift);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return String.format("Searcher { pattern: %s }", string);
+        }
+    }
+
+    /*
+     * Yields the pieces of buffer[position, end) one at a time. Splitting searches for an occurrence of the delimiter
+     * from the middle on and hands everything before it to the new spliterator; the occurrence is only used if no
+     * other one starts within the delimiter length before it, otherwise a sequential search could have matched that
+     * one instead and continued behind it (think of "--" in "---"), in which case the next occurrence is tried.
+     */
+    private static final class SplitSpliterator implements Spliterator<StringType> {
+        // parts smaller than this are not worth handing to another thread
+        private static final int MIN_SPLIT = 1 << 12;
+
+        private final Object buffer;
+        private final Searcher delimiter;
+        private final int end;
+        private int position;
+        private boolean done;
+
+        SplitSpliterator(@NotNull Object buffer, int position, int end, @NotNull Searcher delimiter) {
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull java.util.function.Consumer<? super StringType> action) {
+            if (done) return false;
+
+            int i = delimiter.length() > 0 ? find(position) : -1;
+            if (i == -1) {
+                done = true;
+                action.accept(view(buffer, position, end));
+            } else {
+                action.accept(view(buffer, position, i));
+                position = i + delimiter.length();
+            }
+            return true;
+        }
+
+        @Override
+        public @Nullable Spliterator<StringType> trySplit() {
+            int m = delimiter.length();
+            if (done || m == 0 || end - position < MIN_SPLIT) return null;
+
+            for (int i = find(position + (end - position) / 2); i != -1; i = find(i + 1)) {
+                if (find(Math.max(position, i - m + 1)) != i) continue;
+
+                SplitSpliterator prefix = new SplitSpliterator(buffer, position, i, delimiter);
+                position = i + m;
+                return prefix;
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return done ? 0 : end - position + 1L;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        private int find(int from) {
+            return buffer instanceof byte[] bs
+                    ? delimiter.indexIn(bs, from, end)
+                    : delimiter.indexIn((char[]) buffer, from, end);
+        }
+    }
+
+    // the chars of the buffer of a StringType, read in place and split in halves, failing fast once it is modified
+    private static final class CharSpliterator implements Spliterator.OfInt {
+        static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL;
+
+        private final StringType source;
+        private final int expectedModCount;
+        private final Object buffer;
+        private final int end;
+        private int position;
+
+        CharSpliterator(@NotNull StringType source) {
+            this(source, source.modCount, source.buffer(), source.offset, source.offset + source.length);
+        }
+
+        private CharSpliterator(@NotNull StringType source, int expectedModCount, @NotNull Object buffer,
+                                int position, int end) {
+            this.source = source;
+            this.expectedModCount = expectedModCount;
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull java.util.function.IntConsumer action) {
+            Objects.requireNonNull(action);
+            if (position >= end) return false;
+            checkForComodification();
+            action.accept(charAt(position++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(@NotNull java.util.function.IntConsumer action) {
+            Objects.requireNonNull(action);
+            int i = position, end = this.end;
+            position = end;
+            if (buffer instanceof byte[] bs) for (; i < end; i++) action.accept(bs[i] & 0xFF);
+            else for (char[] cs = (char[]) buffer; i < end; i++) action.accept(cs[i]);
+            checkForComodification();
+        }
+
+        @Override
+        public @Nullable Spliterator.OfInt trySplit() {
+            int start = position, mid = (start + end) >>> 1;
+            if (start >= mid) return null;
+            position = mid;
+            return new CharSpliterator(source, expectedModCount, buffer, start, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        private void checkForComodification() {
+            if (source.modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        private int charAt(int index) {
+            return buffer instanceof byte[] bs ? bs[index] & 0xFF : ((char[]) buffer)[index];
+        }
+    }
+
+    // the elements gathered for a join, before its length is known
+    private static final class Parts {
+        private CharSequence[] items = new CharSequence[16];
+        private int count;
+
+        void add(@NotNull CharSequence item) {
+            Objects.requireNonNull(item);
+            if (count == items.length) items = Arrays.copyOf(items, count << 1);
+            items[count++] = item;
+        }
+
+        @NotNull Parts merge(@NotNull Parts other) {
+            int size = count + other.count;
+            if (size > items.length) items = Arrays.copyOf(items, Math.max(size, count << 1));
+            System.arraycopy(other.items, 0, items, count, other.count);
+            count = size;
+            return this;
+        }
+
+        @NotNull StringType join(@NotNull CharSequence delimiter, @NotNull CharSequence prefix,
+                                 @NotNull CharSequence suffix) {
+            return StringType.join(delimiter, prefix, suffix, items, count);
+        }
+    }
+
+    // a read-only view on buffer[start, start + length), moved from window to window
+    private static final class Window implements CharSequence {
+        private final Object buffer;
+        private int start;
+        private int length;
+
+        Window(@NotNull Object buffer) {
+            this.buffer = buffer;
+        }
+
+        Window(@NotNull Object buffer, int start, int length) {
+            this.buffer = buffer;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        @NotNull Window moveTo(int start, int length) {
+            this.start = start;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            int i = start + Objects.checkIndex(index, length);
+            return buffer instanceof byte[] bs ? (char) (bs[i] & 0xFF) : ((char[]) buffer)[i];
+        }
+
+        // a view of its own, the subsequence stays valid after this window moved on
+        @Override
+        public @NotNull CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, length);
+            return new Window(buffer, this.start + start, end - start);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return string(buffer, start, start + length);
+        }
+    }
+
+    // visits the windows [from, to) in order, halving the range until it is small enough
+    private static final class WindowTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // runs covering fewer chars than this are not worth handing to another thread
+        private static final int MIN_SPLIT = 1 << 12;
+
+        private final transient Object buffer;
+        private final int offset, length, size, step;
+        private final transient CharRangeIterator iterator;
+        private final AtomicBoolean stopped;
+        private final int from, to;
+
+        WindowTask(@NotNull Object buffer, int offset, int length, int size, int step,
+                   @NotNull CharRangeIterator iterator, @NotNull AtomicBoolean stopped, int from, int to) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+            this.size = size;
+            this.step = step;
+            this.iterator = iterator;
+            this.stopped = stopped;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (to - from) * Math.min(size, step) > MIN_SPLIT && to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new WindowTask(buffer, offset, length, size, step, iterator, stopped, from, mid),
+                        new WindowTask(buffer, offset, length, size, step, iterator, stopped, mid, to));
+                return;
+            }
+
+            Window window = new Window(buffer);
+            for (int k = from; k < to && !stopped.get(); k++) {
+                int start = k * step;
+                if (!iterator.apply(window.moveTo(offset + start, Math.min(size, length - start)), start)) {
+                    stopped.set(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Objects of the class {@code Cursor} read the characters of a {@code StringType} one at a time, the way a scanner
+     * does, without allocating anything per character. A {@code Cursor} can be {@link #reset(StringType) reset} onto
+     * another {@code StringType}, so a scanner needs a single one for all of its input:
+     * <blockquote>
+     * <pre>{@code StringType.Cursor cursor = new StringType.Cursor();
+     * for (StringType line : lines) {
+     *     cursor.reset(line);
+     *     while (cursor.peek() == ' ') cursor.skip(1);
+     *     // ...
+     * }}</pre>
+     * </blockquote>
+     * A {@code Cursor} reads the buffer of the {@code StringType} in place, nothing is copied. Once the
+     * {@code StringType} is modified, reading throws a {@link ConcurrentModificationException} until the
+     * {@code Cursor} is reset again. It can not be shared between threads.
+     *
+     * @version <code>1.0.0</code>
+     * @see StringType#cursor()
+     * @since <code>1.7.0</code>
+     */
+    public static final class Cursor {
+        private static final char[] EMPTY = {};
+
+        private StringType source;
+        private int expectedModCount;
+        private char[] chars = EMPTY;
+        private byte[] latin1;
+        private int start;
+        private int position;
+        private int end;
+
+        /**
+         * Creates a new {@code Cursor} over no characters at all, use {@link #reset(StringType)} to give it some.
+         *
+         * @since <code>1.7.0</code>
+         */
+        public Cursor() {
+        }
+
+        /**
+         * Moves this {@code Cursor} onto the start of the given {@code StringType}.
+         *
+         * @param stringType the {@code StringType} to read from now on.
+         * @return This {@code Cursor}.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Cursor reset(@NotNull StringType stringType) {
+            source = stringType;
+            expectedModCount = stringType.modCount;
+            Object buffer = stringType.buffer();
+            if (buffer instanceof byte[] bs) {
+                latin1 = bs;
+                chars = null;
+            } else {
+                chars = (char[]) buffer;
+                latin1 = null;
+            }
+            start = position = stringType.offset;
+            end = start + stringType.length;
+            return this;
+        }
+
+        /**
+         * Returns whether there are characters left to read.
+         *
+         * @return Whether {@link #next()} can be called.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(pure = true)
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        /**
+         * Returns the current character and moves on to the next one.
+         *
+         * @return The current character.
+         * @throws NoSuchElementException          if there are no characters left.
+         * @throws ConcurrentModificationException if the {@code StringType} was modified since the last reset.
+         * @since <code>1.7.0</code>
+         */
+        public char next() {
+            if (position >= end) throw new NoSuchElementException();
+            return at(position++);
+        }
+
+        /**
+         * Returns the current character without moving on, or {@code -1} if there are no characters left.
+         *
+         * @return The current character, or {@code -1}.
+         * @throws ConcurrentModificationException if the {@code StringType} was modified since the last reset.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(pure = true)
+        public int peek() {
+            return position < end ? at(position) : -1;
+        }
+
+        /**
+         * Returns the character {@code ahead} characters after the current one without moving on, or {@code -1} if
+         * that is past the end. {@code peek(0)} is the same as {@link #peek()}.
+         *
+         * @param ahead the distance to the current character, can not be negative.
+         * @return The character at that distance, or {@code -1}.
+         * @throws IllegalArgumentException        if {@code ahead} is negative.
+         * @throws ConcurrentModificationException if the {@code StringType} was modified since the last reset.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(pure = true)
+        public int peek(int ahead) {
+            if (ahead < 0) throw new IllegalArgumentException("Can not peek behind the cursor: " + ahead);
+            return ahead < end - position ? at(position + ahead) : -1;
+        }
+
+        /**
+         * Moves on by up to {@code count} characters, stopping at the end.
+         *
+         * @param count the number of characters to skip, can not be negative.
+         * @return The number of characters actually skipped.
+         * @throws IllegalArgumentException if {@code count} is negative.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(mutates = "this")
+        public int skip(int count) {
+            if (count < 0) throw new IllegalArgumentException("Can not skip backward: " + count);
+            int skipped = Math.min(count, end - position);
+            position += skipped;
+            return skipped;
+        }
+
+        /**
+         * Returns the index of the current character within the {@code StringType} this {@code Cursor} was reset onto.
+         *
+         * @return The current index.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(pure = true)
+        public int position() {
+            return position - start;
+        }
+
+        /**
+         * Moves this {@code Cursor} to the given index within the {@code StringType} it was reset onto.
+         *
+         * @param index the new index, may be the length of the {@code StringType} to move to the end.
+         * @return This {@code Cursor}.
+         * @throws IndexOutOfBoundsException if {@code index} is negative or past the end.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public @NotNull Cursor seek(int index) {
+            position = start + Objects.checkIndex(index, end - start + 1);
+            return this;
+        }
+
+        /**
+         * Returns the number of characters left to read.
+         *
+         * @return The number of characters left.
+         * @since <code>1.7.0</code>
+         */
+        @Contract(pure = true)
+        public int remaining() {
+            return end - position;
+        }
+
+        // only called once reset, as there is nothing to read before
+        private char at(int index) {
+            if (source.modCount != expectedModCount) throw new ConcurrentModificationException();
+            return latin1 != null ? (char) (latin1[index] & 0xFF) : chars[index];
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return String.format("Cursor { position: %d, remaining: %d }", position(), remaining());
+        }
+    }
+
+    /**
+     * Objects of the class {@code Scratch} lend out a {@code StringType} to build short-lived {@code Strings} in, which
+     * is cleared and kept for the next use instead of being allocated anew every time. Each platform thread keeps a
+     * single one, handed out by {@link #acquire()} and taken back by {@link #close()}:
+     * <blockquote>
+     * <pre>{@code try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+     *     StringType t = scratch.get();
+     *     t.append(key);
+     *     t.append(": ");
+     *     return t.getValue();
+     * }}</pre>
+     * </blockquote>
+     * If the scratch {@code StringType} of the current thread is already lent out, e.g. by a caller further up, or the
+     * current thread is a virtual one, which are too many and too short-lived to keep one each, a new
+     * {@code StringType} is handed out instead, which is simply dropped once closed. A scratch {@code StringType} which
+     * grew beyond {@link #MAX_RETAINED_CAPACITY} is dropped as well, so a single huge {@code String} does not keep its
+     * buffer reachable for as long as the thread lives.
+     * <hr/>
+     * Neither the {@code StringType} nor anything sharing its buffer, like a {@link StringType#substring(int, int)},
+     * may be used after {@code close()}.
+     *
+     * @version <code>1.0.0</code>
+     * @since <code>1.7.0</code>
+     */
+    public static final class Scratch implements AutoCloseable {
+        /**
+         * The largest capacity a scratch {@code StringType} may have to be kept for the next use.
+         *
+         * @since <code>1.7.0</code>
+         */
+        public static final int MAX_RETAINED_CAPACITY = 1 << 13;
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(() -> new Scratch(true));
+
+        private final boolean pooled;
+        private StringType stringType;
+        private boolean lent;
+
+        private Scratch(boolean pooled) {
+            this.pooled = pooled;
+            this.stringType = withCapacity(INITIAL_CAPACITY);
+        }
+
+        /**
+         * Lends out the scratch {@code StringType} of the current thread, empty, or a new one if that is not possible.
+         *
+         * @return A {@code Scratch} holding an empty {@code StringType}, to be closed once done.
+         * @since <code>1.7.0</code>
+         */
+        public static @NotNull Scratch acquire() {
+            if (Thread.currentThread().isVirtual()) return new Scratch(false);
+
+            Scratch scratch = LOCAL.get();
+            if (scratch.lent) return new Scratch(false);
+            scratch.lent = true;
+            return scratch;
+        }
+
+        /**
+         * Returns the lent {@code StringType}.
+         *
+         * @return The {@code StringType} to build in.
+         * @throws IllegalStateException if this {@code Scratch} was closed already.
+         * @since <code>1.7.0</code>
+         */
+        public @NotNull StringType get() {
+            if (pooled && !lent) throw new IllegalStateException("Scratch was closed already.");
+            return stringType;
+        }
+
+        /**
+         * Takes the lent {@code StringType} back, clearing it for the next use.
+         *
+         * @since <code>1.7.0</code>
+         */
+        @Override
+        public void close() {
+            if (!pooled || !lent) return;
+
+            lent = false;
+            if (stringType.shared() || stringType.bufferLength() > MAX_RETAINED_CAPACITY) {
+                stringType = withCapacity(INITIAL_CAPACITY);
+            } else {
+                stringType.clear();
+            }
+        }
+    }
+
     private class Itr implements Iterator<Character> {
         int cursor;
         int lastRet = -1;
@@ -1959,10 +4136,8 @@ public final class StringType extends BaseType<String> implements Serializable,
         public Character next() {
             int i = cursor;
             if (i >= length) throw new NoSuchElementException();
-            char[] value = StringType.this.value.toCharArray();
-            if (i >= value.length) throw new ConcurrentModificationException();
             cursor = i + 1;
-            return value[lastRet = i];
+            return at(offset + (lastRet = i));
         }
 
         @Override
@@ -1984,9 +4159,9 @@ public final class StringType extends BaseType<String> implements Serializable,
             int i = cursor;
 
             if (i < length) {
-                final char[] cs = chars;
-                if (i >= cs.length) throw new ConcurrentModificationException();
-                for (; i < length; i++) action.accept(charAt(cs, i));
+                final int offset = StringType.this.offset;
+                if (offset + length > bufferLength()) throw new ConcurrentModificationException();
+                for (; i < length; i++) action.accept(at(offset + i));
                 cursor = i;
                 lastRet = i - 1;
             }
@@ -0,0 +1,311 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The binary format behind {@link StringType#writeExternal(java.io.ObjectOutput)} and
+ * {@link StringType#writeTo(ByteBuffer)}, working on a range of a {@code StringType}'s buffer, either a {@code byte[]}
+ * holding <em>Latin-1</em> or a {@code char[]}. An encoded {@code StringType} is a header followed by its contents in
+ * <em>UTF-8</em>:
+ * <ul>
+ *     <li>the header, an unsigned varint (seven bits per byte, lowest first, the high bit set on all but the last
+ *     one) holding the number of <em>UTF-8</em> bytes shifted left by two, and the coder in the two low bits:
+ *     {@link #ASCII}, {@link #LATIN1} or {@link #UTF16};</li>
+ *     <li>unless the coder is {@code ASCII}, where both are the same, another unsigned varint holding the number of
+ *     characters;</li>
+ *     <li>the <em>UTF-8</em> bytes, surrogates without their other half are written as three bytes on their own, so
+ *     every {@code StringType} reads back unchanged.</li>
+ * </ul>
+ * A key of up to 31 <em>ASCII</em> characters thus takes a single byte more than its characters, and the coder lets the
+ * reader allocate the exact buffer up front; <em>ASCII</em> contents are even used as they were read.
+ */
+final class StringTypeCodec {
+    static final int ASCII = 0;
+    static final int LATIN1 = 1;
+    static final int UTF16 = 2;
+
+    // the most bytes allocated for contents read from a DataInput before any of them have arrived
+    private static final int READ_CHUNK = 1 << 13;
+
+    private StringTypeCodec() {
+    }
+
+    /**
+     * Returns the number of bytes {@code buffer[start, end)} is encoded into.
+     */
+    @Contract(pure = true)
+    static int encodedSize(@NotNull Object buffer, int start, int end) {
+        long header = header(buffer, start, end);
+        int size = varintSize(header) + (int) (header >>> 2);
+        return (header & 3) == ASCII ? size : size + varintSize(end - start);
+    }
+
+    static void write(@NotNull DataOutput out, @NotNull Object buffer, int start, int end) throws IOException {
+        long header = header(buffer, start, end);
+        int coder = (int) header & 3, size = (int) (header >>> 2);
+
+        writeVarint(out, header);
+        if (coder != ASCII) writeVarint(out, end - start);
+
+        if (buffer instanceof byte[] bs && coder == ASCII) out.write(bs, start, size);
+        else {
+            byte[] bs = new byte[size];
+            encode(buffer, start, end, bs, 0);
+            out.write(bs);
+        }
+    }
+
+    static void write(@NotNull ByteBuffer dst, @NotNull Object buffer, int start, int end) {
+        long header = header(buffer, start, end);
+        int coder = (int) header & 3, size = (int) (header >>> 2);
+
+        int count = varintSize(header) + size + (coder == ASCII ? 0 : varintSize(end - start));
+        if (dst.remaining() < count) throw new BufferOverflowException();
+
+        writeVarint(dst, header);
+        if (coder != ASCII) writeVarint(dst, end - start);
+
+        if (buffer instanceof byte[] bs && coder == ASCII) dst.put(bs, start, size);
+        else if (dst.hasArray()) {
+            int pos = dst.position();
+            encode(buffer, start, end, dst.array(), dst.arrayOffset() + pos);
+            dst.position(pos + size);
+        } else {
+            byte[] bs = new byte[size];
+            encode(buffer, start, end, bs, 0);
+            dst.put(bs);
+        }
+    }
+
+    /**
+     * Reads a single encoded {@code StringType}, returns its exactly sized buffer. As the header cannot be trusted, the
+     * bytes are read in chunks, into a buffer growing as they actually arrive, so a forged size fails on the end of
+     * the input instead of allocating up to two gigabytes up front.
+     */
+    static @NotNull Object read(@NotNull DataInput in) throws IOException {
+        long header = readVarint(in);
+        int coder = (int) header & 3;
+        long size = header >>> 2, count = coder == ASCII ? size : readVarint(in);
+        if (!plausible(coder, size, count)) throw new StreamCorruptedException("Invalid StringType header");
+
+        int n = (int) size;
+        byte[] bs = new byte[Math.min(n, READ_CHUNK)];
+        for (int read = 0; read < n; read = bs.length) {
+            if (read == bs.length) bs = Arrays.copyOf(bs, (int) Math.min(n, 2L * read));
+            in.readFully(bs, read, bs.length - read);
+        }
+        Object buffer = decode(bs, 0, bs.length, coder, (int) count);
+        if (buffer == null) throw new StreamCorruptedException("Malformed StringType contents");
+        return buffer;
+    }
+
+    /**
+     * Reads a single encoded {@code StringType}, returns its exactly sized buffer. The position of the given
+     * {@code ByteBuffer} is only moved once the whole {@code StringType} has been read.
+     */
+    static @NotNull Object read(@NotNull ByteBuffer src) {
+        int mark = src.position();
+        try {
+            long header = readVarint(src);
+            int coder = (int) header & 3;
+            long size = header >>> 2, count = coder == ASCII ? size : readVarint(src);
+            if (!plausible(coder, size, count)) throw new IllegalArgumentException("Invalid StringType header");
+            if (src.remaining() < size) throw new BufferUnderflowException();
+
+            int n = (int) size, c = (int) count;
+            Object buffer;
+            if (coder == ASCII) {
+                byte[] bs = new byte[n];
+                src.get(bs);
+                buffer = decode(bs, 0, n, coder, c);
+            } else if (src.hasArray()) {
+                int pos = src.position();
+                buffer = decode(src.array(), src.arrayOffset() + pos, n, coder, c);
+                src.position(pos + n);
+            } else {
+                byte[] bs = new byte[n];
+                src.get(bs);
+                buffer = decode(bs, 0, n, coder, c);
+            }
+            if (buffer == null) throw new IllegalArgumentException("Malformed StringType contents");
+            return buffer;
+        } catch (RuntimeException e) {
+            src.position(mark);
+            throw e;
+        }
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    // the number of UTF-8 bytes shifted left by two, the coder in the low bits
+    @Contract(pure = true)
+    private static long header(@NotNull Object buffer, int start, int end) {
+        if (buffer instanceof byte[] bs) {
+            int wide = 0;
+            for (int i = start; i < end; i++) wide += (bs[i] >>> 7) & 1;
+            return (long) (end - start + wide) << 2 | (wide == 0 ? ASCII : LATIN1);
+        }
+
+        char[] cs = (char[]) buffer;
+        long size = 0;
+        int bits = 0;
+        for (int i = start; i < end; i++) {
+            char c = cs[i];
+            bits |= c;
+            if (c < 0x80) size++;
+            else if (c < 0x800) size += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(cs[i + 1])) {
+                size += 4;
+                i++;
+            } else size += 3;
+        }
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Too large to encode: " + size + " bytes");
+        return size << 2 | (bits < 0x80 ? ASCII : bits < 0x100 ? LATIN1 : UTF16);
+    }
+
+    // the byte count has to have been computed by header(...) first
+    private static void encode(@NotNull Object buffer, int start, int end, byte @NotNull [] dst, int pos) {
+        if (buffer instanceof byte[] bs) {
+            for (int i = start; i < end; i++) {
+                int b = bs[i] & 0xFF;
+                if (b < 0x80) dst[pos++] = (byte) b;
+                else {
+                    dst[pos++] = (byte) (0xC0 | b >>> 6);
+                    dst[pos++] = (byte) (0x80 | b & 0x3F);
+                }
+            }
+            return;
+        }
+
+        char[] cs = (char[]) buffer;
+        for (int i = start; i < end; i++) {
+            char c = cs[i];
+            if (c < 0x80) dst[pos++] = (byte) c;
+            else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | c >>> 6);
+                dst[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(cs[i + 1])) {
+                int cp = Character.toCodePoint(c, cs[++i]);
+                dst[pos++] = (byte) (0xF0 | cp >>> 18);
+                dst[pos++] = (byte) (0x80 | cp >>> 12 & 0x3F);
+                dst[pos++] = (byte) (0x80 | cp >>> 6 & 0x3F);
+                dst[pos++] = (byte) (0x80 | cp & 0x3F);
+            } else {
+                dst[pos++] = (byte) (0xE0 | c >>> 12);
+                dst[pos++] = (byte) (0x80 | c >>> 6 & 0x3F);
+                dst[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    // a new byte[] for ASCII and LATIN1, a new char[] for UTF16, null if the bytes do not decode into count chars
+    private static @Nullable Object decode(byte @NotNull [] src, int pos, int n, int coder, int count) {
+        int end = pos + n;
+        if (coder == ASCII) {
+            byte[] bs = pos == 0 && n == src.length ? src : new byte[n];
+            for (int i = pos; i < end; i++) if (src[i] < 0) return null;
+            if (bs != src) System.arraycopy(src, pos, bs, 0, n);
+            return bs;
+        }
+
+        if (coder == LATIN1) {
+            byte[] bs = new byte[count];
+            int i = pos, j = 0;
+            while (i < end && j < count) {
+                int b = src[i++];
+                if (b >= 0) bs[j++] = (byte) b;
+                else if ((b & 0xFE) == 0xC2 && i < end && (src[i] & 0xC0) == 0x80)
+                    bs[j++] = (byte) ((b & 0x03) << 6 | src[i++] & 0x3F);
+                else return null;
+            }
+            return i == end && j == count ? bs : null;
+        }
+
+        char[] cs = new char[count];
+        int i = pos, j = 0;
+        while (i < end && j < count) {
+            int b = src[i++];
+            if (b >= 0) {
+                cs[j++] = (char) b;
+                continue;
+            }
+
+            int more = (b & 0xE0) == 0xC0 ? 1 : (b & 0xF0) == 0xE0 ? 2 : (b & 0xF8) == 0xF0 ? 3 : -1;
+            if (more < 0 || end - i < more) return null;
+            int cp = b & (0x3F >>> more);
+            for (int k = 0; k < more; k++) {
+                int c = src[i++];
+                if ((c & 0xC0) != 0x80) return null;
+                cp = cp << 6 | c & 0x3F;
+            }
+
+            if (more == 3) {
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT || count - j < 2) return null;
+                cs[j++] = Character.highSurrogate(cp);
+                cs[j++] = Character.lowSurrogate(cp);
+            } else if (cp < (more == 1 ? 0x80 : 0x800)) return null; // overlong
+            else cs[j++] = (char) cp;
+        }
+        return i == end && j == count ? cs : null;
+    }
+
+    // every char takes one to three bytes (LATIN1 ones up to two), which rules out lengths no writer produces
+    @Contract(pure = true)
+    private static boolean plausible(int coder, long size, long count) {
+        if (coder > UTF16 || size > Integer.MAX_VALUE || count > size) return false;
+        return coder == ASCII || size <= (coder == LATIN1 ? 2 : 3) * count;
+    }
+
+    @Contract(pure = true)
+    private static int varintSize(long v) {
+        return (63 - Long.numberOfLeadingZeros(v | 1)) / 7 + 1;
+    }
+
+    private static void writeVarint(@NotNull DataOutput out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static void writeVarint(@NotNull ByteBuffer dst, long v) {
+        while ((v & ~0x7FL) != 0) {
+            dst.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        dst.put((byte) v);
+    }
+
+    private static long readVarint(@NotNull DataInput in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) return v;
+        }
+        throw new StreamCorruptedException("Varint too long");
+    }
+
+    private static long readVarint(@NotNull ByteBuffer src) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = src.get() & 0xFF;
+            v |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) return v;
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+}
@@ -0,0 +1,265 @@
+package io.kitsuayaka.addon.types;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Objects of the class {@code StringTypePool} hold one {@code StringType} for every content interned into them, so
+ * keys which repeat throughout a document, like the keys of a list of mappings, are stored once instead of once per
+ * occurrence, and can be compared by identity afterward:
+ * <blockquote>
+ * <pre>{@code StringTypePool keys = new StringTypePool();
+ * StringType a = keys.intern("name");
+ * StringType b = keys.intern(new StringType("name"));
+ * assert a == b;}</pre>
+ * </blockquote>
+ * A pooled {@code StringType} is only referenced weakly, it is dropped from the pool once nothing else uses it
+ * anymore. Lookups use {@link StringType#hashCode()}, which is the content hash the {@code StringType} keeps once
+ * computed, and {@link #intern(char[], int, int)} looks up a range of characters without wrapping them first, so a
+ * content that is already pooled costs no allocation at all.
+ * <hr/>
+ * The pool is split into segments, each guarded by its own lock, so threads interning different contents rarely
+ * wait on each other. Pooled instances are shared by everyone who interns equal contents, thus must not be modified.
+ *
+ * @version <code>1.0.0</code>
+ * @see StringType#intern()
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Addon
+@StatusMarkers.Experimental
+public final class StringTypePool {
+    private static final StringTypePool SHARED = new StringTypePool();
+
+    private static final int SEGMENTS = 16;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Segment[] segments;
+
+    /**
+     * Creates a new, empty {@code StringTypePool}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public StringTypePool() {
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment();
+    }
+
+    /**
+     * Returns the pool used by {@link StringType#intern()}.
+     *
+     * @return The shared {@code StringTypePool}.
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public static @NotNull StringTypePool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled {@code StringType} with the same contents as the given one. If there is none yet, a
+     * {@link StringType#compact() compacted} copy of it is pooled, the given {@code StringType} is never pooled itself,
+     * so a builder reused for one key after another can be interned as is.
+     *
+     * @param stringType the {@code StringType} to intern.
+     * @return The pooled {@code StringType} equal to the given one.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull StringType intern(@NotNull StringType stringType) {
+        int h = stringType.hashCode();
+        Segment s = segment(h);
+        synchronized (s) {
+            StringType t = s.find(stringType, h);
+            if (t != null) return t;
+            return s.add(new StringType(stringType).compact(), h);
+        }
+    }
+
+    /**
+     * Returns the pooled {@code StringType} holding the given {@code String}, adding a new one if there is none yet.
+     *
+     * @param string the contents to intern.
+     * @return The pooled {@code StringType} holding the given contents.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull StringType intern(@NotNull String string) {
+        int h = string.hashCode();
+        Segment s = segment(h);
+        synchronized (s) {
+            StringType t = s.find(string, h);
+            if (t != null) return t;
+            return s.add(new StringType(string), h);
+        }
+    }
+
+    /**
+     * Returns the pooled {@code StringType} holding the characters {@code cs[start, end)}, adding a new one if there
+     * is none yet. The characters are only copied in the latter case.
+     *
+     * @param cs    the array holding the contents to intern.
+     * @param start the index of the first character, inclusive.
+     * @param end   the index of the last character, exclusive.
+     * @return The pooled {@code StringType} holding the given contents.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the given array.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull StringType intern(char @NotNull [] cs, int start, int end) {
+        Objects.checkFromToIndex(start, end, cs.length);
+
+        int h = StringKernels.INSTANCE.hash(cs, start, end);
+        Segment s = segment(h);
+        synchronized (s) {
+            StringType t = s.find(cs, start, end, h);
+            if (t != null) return t;
+            return s.add(new StringType(Arrays.copyOfRange(cs, start, end)), h);
+        }
+    }
+
+    /**
+     * Returns the number of {@code StringType}s held by this pool. Instances no longer used anywhere else might still
+     * be counted until the pool notices they are gone.
+     *
+     * @return The number of pooled {@code StringType}s.
+     * @since <code>1.7.0</code>
+     */
+    public int size() {
+        int size = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                s.expunge();
+                size += s.count;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes every {@code StringType} from this pool. Instances handed out before stay valid, they are just no longer
+     * returned for equal contents.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public void clear() {
+        for (Segment s : segments) {
+            synchronized (s) {
+                s.clear();
+            }
+        }
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    // the high bits pick the segment, the low ones the bucket within it
+    private @NotNull Segment segment(int h) {
+        return segments[spread(h) >>> 28];
+    }
+
+    @Contract(pure = true)
+    private static int spread(int h) {
+        return h ^ (h >>> 16) ^ (h << 7);
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    private static final class Entry extends WeakReference<StringType> {
+        final int hash;
+        Entry next;
+
+        Entry(@NotNull StringType referent, int hash, @Nullable Entry next, @NotNull ReferenceQueue<StringType> queue) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    // an open hash table of weak entries, only ever accessed while holding its lock
+    private static final class Segment {
+        private final ReferenceQueue<StringType> queue = new ReferenceQueue<>();
+        private Entry[] table = new Entry[INITIAL_CAPACITY];
+        private int count;
+
+        @Nullable StringType find(@NotNull StringType key, int h) {
+            expunge();
+            for (Entry e = table[h & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash != h) continue;
+                StringType t = e.get();
+                if (t != null && t.equals(key)) return t;
+            }
+            return null;
+        }
+
+        @Nullable StringType find(@NotNull String key, int h) {
+            expunge();
+            for (Entry e = table[h & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash != h) continue;
+                StringType t = e.get();
+                if (t != null && t.contentEquals(key)) return t;
+            }
+            return null;
+        }
+
+        @Nullable StringType find(char @NotNull [] cs, int start, int end, int h) {
+            expunge();
+            for (Entry e = table[h & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash != h) continue;
+                StringType t = e.get();
+                if (t != null && t.contentEquals(cs, start, end)) return t;
+            }
+            return null;
+        }
+
+        @NotNull StringType add(@NotNull StringType t, int h) {
+            if (count >= table.length - (table.length >>> 2)) resize();
+            int i = h & (table.length - 1);
+            table[i] = new Entry(t, h, table[i], queue);
+            count++;
+            return t;
+        }
+
+        // unlinks the entries whose StringType has been collected
+        void expunge() {
+            Object ref;
+            while ((ref = queue.poll()) != null) {
+                Entry dead = (Entry) ref;
+                int i = dead.hash & (table.length - 1);
+                Entry prev = null;
+                for (Entry e = table[i]; e != null; prev = e, e = e.next) {
+                    if (e != dead) continue;
+                    if (prev == null) table[i] = e.next;
+                    else prev.next = e.next;
+                    count--;
+                    break;
+                }
+            }
+        }
+
+        void clear() {
+            while (queue.poll() != null) ; // entries still queued belong to the old table
+            Arrays.fill(table, null);
+            count = 0;
+        }
+
+        private void resize() {
+            Entry[] old = table;
+            Entry[] table = new Entry[old.length << 1];
+            int mask = table.length - 1;
+            for (Entry head : old) {
+                for (Entry e = head, next; e != null; e = next) {
+                    next = e.next;
+                    int i = e.hash & mask;
+                    e.next = table[i];
+                    table[i] = e;
+                }
+            }
+            this.table = table;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package io.kitsuayaka.addon.types;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts arrays of {@code StringTypes} into their {@link StringType#compareTo(StringType) natural order}, which is
+ * what emitting mappings with sorted keys needs. Instead of comparing whole keys against each other, like
+ * {@link java.util.Arrays#sort(Object[])} does, the keys are partitioned by one character at a time using a
+ * <em>multikey quicksort</em> (three-way radix quicksort): every character of a common prefix is only looked at once
+ * per partitioning step, not once per comparison, which matters for keys like {@code spring.datasource.*} sharing long
+ * prefixes. Small partitions are finished with an insertion sort, comparing the remaining suffixes through
+ * {@link java.util.Arrays#mismatch(char[], int, int, char[], int, int)}.
+ * <blockquote>
+ * <pre>{@code StringType[] keys = mapping.keys();
+ * StringTypeSort.sort(keys);          // in the calling thread
+ * StringTypeSort.parallelSort(keys);  // in the common ForkJoinPool, for large arrays}</pre>
+ * </blockquote>
+ * The sort is <strong>not</strong> stable: {@code StringTypes} with equal contents may end up in any order relative to
+ * each other. The {@code StringTypes} must not be modified while they are being sorted.
+ *
+ * @version <code>1.0.0</code>
+ * @see StringType#compareTo(StringType)
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Addon
+@StatusMarkers.Experimental
+public final class StringTypeSort {
+    /**
+     * The smallest number of elements {@link #parallelSort(StringType[])} hands to other threads, smaller arrays and
+     * partitions are sorted in the calling one.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // partitions smaller than this are insertion sorted
+    private static final int INSERTION_THRESHOLD = 12;
+
+    private StringTypeSort() {
+    }
+
+    /**
+     * Sorts the given array into ascending order.
+     *
+     * @param a the array to sort.
+     * @see #parallelSort(StringType[])
+     * @since <code>1.7.0</code>
+     */
+    public static void sort(StringType @NotNull [] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the range {@code a[from, to)} of the given array into ascending order.
+     *
+     * @param a    the array to sort.
+     * @param from the index of the first element to sort, inclusive.
+     * @param to   the index of the last element to sort, exclusive.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     * @since <code>1.7.0</code>
+     */
+    public static void sort(StringType @NotNull [] a, int from, int to) {
+        Objects.checkFromToIndex(from, to, a.length);
+        multikey(a, from, to, 0);
+    }
+
+    /**
+     * Sorts the given array into ascending order, in the {@link ForkJoinPool#commonPool() common pool} if it holds at
+     * least {@link #PARALLEL_THRESHOLD} elements.
+     *
+     * @param a the array to sort.
+     * @see #sort(StringType[])
+     * @since <code>1.7.0</code>
+     */
+    public static void parallelSort(StringType @NotNull [] a) {
+        parallelSort(a, 0, a.length, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the range {@code a[from, to)} of the given array into ascending order, in the given {@code ForkJoinPool} if
+     * it holds at least {@link #PARALLEL_THRESHOLD} elements. Each partitioning step splits a range into the elements
+     * whose character at the current position is smaller, equal or larger than the pivot's, which are sorted
+     * independently of each other.
+     *
+     * @param a    the array to sort.
+     * @param from the index of the first element to sort, inclusive.
+     * @param to   the index of the last element to sort, exclusive.
+     * @param pool the {@code ForkJoinPool} to sort in.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     * @since <code>1.7.0</code>
+     */
+    public static void parallelSort(StringType @NotNull [] a, int from, int to, @NotNull ForkJoinPool pool) {
+        Objects.checkFromToIndex(from, to, a.length);
+        if (to - from < PARALLEL_THRESHOLD || pool.getParallelism() == 1) multikey(a, from, to, 0);
+        else pool.invoke(new SortTask(a, from, to, 0));
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    /*
+     * Sorts a[lo, hi), whose elements share their first d chars. The largest of the three partitions is continued in
+     * the loop and only the two others recursed into, each at most half of the range, so the stack stays logarithmic
+     * even for keys sharing long prefixes.
+     */
+    private static void multikey(StringType @NotNull [] a, int lo, int hi, int d) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            long bounds = partition(a, lo, hi, d);
+            int lt = (int) (bounds >>> 32), gt = (int) bounds;
+            boolean ended = a[lt].keyAt(d) < 0; // the equal ones are identical, nothing left to sort
+
+            int less = lt - lo, equal = ended ? 0 : gt - lt, greater = hi - gt;
+            if (less >= equal && less >= greater) {
+                if (!ended) multikey(a, lt, gt, d + 1);
+                multikey(a, gt, hi, d);
+                hi = lt;
+            } else if (greater >= equal) {
+                multikey(a, lo, lt, d);
+                if (!ended) multikey(a, lt, gt, d + 1);
+                lo = gt;
+            } else {
+                multikey(a, lo, lt, d);
+                multikey(a, gt, hi, d);
+                lo = lt;
+                hi = gt;
+                d++;
+            }
+        }
+        insertionSort(a, lo, hi, d);
+    }
+
+    /*
+     * Three-way partitions a[lo, hi) by the char at d around a median of three, returns the bounds lt and gt packed
+     * into a long: a[lo, lt) are smaller, a[lt, gt) equal and a[gt, hi) larger.
+     */
+    private static long partition(StringType @NotNull [] a, int lo, int hi, int d) {
+        swap(a, lo, median(a, lo, lo + (hi - lo >>> 1), hi - 1, d));
+        int pivot = a[lo].keyAt(d);
+
+        int lt = lo, gt = hi, i = lo + 1;
+        while (i < gt) {
+            int k = a[i].keyAt(d);
+            if (k < pivot) swap(a, lt++, i++);
+            else if (k > pivot) swap(a, i, --gt);
+            else i++;
+        }
+        return (long) lt << 32 | gt;
+    }
+
+    private static int median(StringType @NotNull [] a, int i, int j, int k, int d) {
+        int x = a[i].keyAt(d), y = a[j].keyAt(d), z = a[k].keyAt(d);
+        if (x < y) return y < z ? j : x < z ? k : i;
+        return x < z ? i : y < z ? k : j;
+    }
+
+    private static void insertionSort(StringType @NotNull [] a, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++) {
+            StringType t = a[i];
+            int j = i;
+            while (j > lo && a[j - 1].compareFrom(t, d) > 0) {
+                a[j] = a[j - 1];
+                j--;
+            }
+            a[j] = t;
+        }
+    }
+
+    private static void swap(StringType @NotNull [] a, int i, int j) {
+        StringType t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    // partitions a[lo, hi) once and sorts the three parts in parallel, small ranges sequentially
+    private static final class SortTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final StringType[] a;
+        private final int lo, hi, d;
+
+        SortTask(StringType @NotNull [] a, int lo, int hi, int d) {
+            this.a = a;
+            this.lo = lo;
+            this.hi = hi;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) {
+                multikey(a, lo, hi, d);
+                return;
+            }
+
+            long bounds = partition(a, lo, hi, d);
+            int lt = (int) (bounds >>> 32), gt = (int) bounds;
+            boolean ended = a[lt].keyAt(d) < 0;
+            if (ended) invokeAll(new SortTask(a, lo, lt, d), new SortTask(a, gt, hi, d));
+            else invokeAll(new SortTask(a, lo, lt, d), new SortTask(a, lt, gt, d + 1), new SortTask(a, gt, hi, d));
+        }
+    }
+}
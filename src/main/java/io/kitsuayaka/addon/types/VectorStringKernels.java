@@ -0,0 +1,252 @@
+package io.kitsuayaka.addon.types;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The {@code jdk.incubator.vector} implementation of {@link StringKernels}, processing as many chars per step as the
+ * preferred vector shape of the platform holds and finishing the remaining tail with the scalar loops. Only ever loaded
+ * reflectively by {@link StringKernels}, so the rest of the library works without the incubator module.
+ * <p/>
+ * All comparisons are done on the signed {@code short} lanes, which works since every constant compared against is
+ * below {@code 0x8000}: chars from {@code 0x8000} on turn negative and fall outside every range checked for. The same
+ * goes for the {@code byte} lanes of the Latin-1 kernels, where every range checked for lies below {@code 0x80}.
+ */
+final class VectorStringKernels extends StringKernels {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final int BYTE_LANES = BYTES.length();
+
+    VectorStringKernels() {
+    }
+
+    @Contract(pure = true)
+    @Override
+    int indexOf(char @NotNull [] cs, char c, int start, int end) {
+        int i = start;
+        for (int bound = end - LANES; i <= bound; i += LANES) {
+            VectorMask<Short> hits = ShortVector.fromCharArray(SPECIES, cs, i).eq((short) c);
+            if (hits.anyTrue()) return i + hits.firstTrue();
+        }
+        return super.indexOf(cs, c, i, end);
+    }
+
+    @Contract(pure = true)
+    @Override
+    int count(char @NotNull [] cs, char c, int start, int end) {
+        int i = start, count = 0;
+        for (int bound = end - LANES; i <= bound; i += LANES) {
+            count += ShortVector.fromCharArray(SPECIES, cs, i).eq((short) c).trueCount();
+        }
+        return count + super.count(cs, c, i, end);
+    }
+
+    @Contract(pure = true)
+    @Override
+    boolean isDigits(char @NotNull [] cs, int start, int end) {
+        int i = start;
+        for (int bound = end - LANES; i <= bound; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, cs, i);
+            if (v.lt((short) 0x30).or(v.compare(VectorOperators.GT, (short) 0x39)).anyTrue()) return false;
+        }
+        return super.isDigits(cs, i, end);
+    }
+
+    @Contract(mutates = "param1")
+    @Override
+    void toUpperCase(char @NotNull [] cs, int start, int end) {
+        shiftCase(cs, start, end, (short) 0x61, (short) 0x7A, (short) -0x20);
+    }
+
+    @Contract(mutates = "param1")
+    @Override
+    void toLowerCase(char @NotNull [] cs, int start, int end) {
+        shiftCase(cs, start, end, (short) 0x41, (short) 0x5A, (short) 0x20);
+    }
+
+    @Contract(pure = true)
+    @Override
+    boolean equals(char @NotNull [] a, int aFrom, char @NotNull [] b, int bFrom, int length) {
+        int i = 0;
+        for (int bound = length - LANES; i <= bound; i += LANES) {
+            ShortVector x = ShortVector.fromCharArray(SPECIES, a, aFrom + i);
+            ShortVector y = ShortVector.fromCharArray(SPECIES, b, bFrom + i);
+            if (x.compare(VectorOperators.NE, y).anyTrue()) return false;
+        }
+        return super.equals(a, aFrom + i, b, bFrom + i, length - i);
+    }
+
+    @Contract(pure = true)
+    @Override
+    int skipWhitespace(char @NotNull [] cs, int start, int end) {
+        if (start == end || !isWhitespace(cs[start])) return start; // most contents start with text right away
+        int i = start;
+        for (int bound = end - LANES; i <= bound; i += LANES) {
+            VectorMask<Short> text = whitespace(ShortVector.fromCharArray(SPECIES, cs, i)).not();
+            if (text.anyTrue()) return i + text.firstTrue();
+        }
+        return super.skipWhitespace(cs, i, end);
+    }
+
+    @Contract(pure = true)
+    @Override
+    int skipWhitespaceBackward(char @NotNull [] cs, int start, int end) {
+        if (start == end || !isWhitespace(cs[end - 1])) return end;
+        int i = end;
+        for (int bound = start + LANES; i >= bound; i -= LANES) {
+            VectorMask<Short> text = whitespace(ShortVector.fromCharArray(SPECIES, cs, i - LANES)).not();
+            if (text.anyTrue()) return i - LANES + text.lastTrue() + 1;
+        }
+        return super.skipWhitespaceBackward(cs, start, i);
+    }
+
+    // --------------------------------------------------------- Latin-1
+
+    @Contract(pure = true)
+    @Override
+    int indexOf(byte @NotNull [] bs, byte b, int start, int end) {
+        int i = start;
+        for (int bound = end - BYTE_LANES; i <= bound; i += BYTE_LANES) {
+            VectorMask<Byte> hits = ByteVector.fromArray(BYTES, bs, i).eq(b);
+            if (hits.anyTrue()) return i + hits.firstTrue();
+        }
+        return super.indexOf(bs, b, i, end);
+    }
+
+    @Contract(pure = true)
+    @Override
+    int count(byte @NotNull [] bs, byte b, int start, int end) {
+        int i = start, count = 0;
+        for (int bound = end - BYTE_LANES; i <= bound; i += BYTE_LANES) {
+            count += ByteVector.fromArray(BYTES, bs, i).eq(b).trueCount();
+        }
+        return count + super.count(bs, b, i, end);
+    }
+
+    @Contract(pure = true)
+    @Override
+    boolean isDigits(byte @NotNull [] bs, int start, int end) {
+        int i = start;
+        for (int bound = end - BYTE_LANES; i <= bound; i += BYTE_LANES) {
+            ByteVector v = ByteVector.fromArray(BYTES, bs, i);
+            if (v.lt((byte) 0x30).or(v.compare(VectorOperators.GT, (byte) 0x39)).anyTrue()) return false;
+        }
+        return super.isDigits(bs, i, end);
+    }
+
+    @Contract(mutates = "param1")
+    @Override
+    void toUpperCase(byte @NotNull [] bs, int start, int end) {
+        shiftCase(bs, start, end, (byte) 0x61, (byte) 0x7A, (byte) -0x20);
+    }
+
+    @Contract(mutates = "param1")
+    @Override
+    void toLowerCase(byte @NotNull [] bs, int start, int end) {
+        shiftCase(bs, start, end, (byte) 0x41, (byte) 0x5A, (byte) 0x20);
+    }
+
+    @Contract(pure = true)
+    @Override
+    boolean equals(byte @NotNull [] a, int aFrom, byte @NotNull [] b, int bFrom, int length) {
+        int i = 0;
+        for (int bound = length - BYTE_LANES; i <= bound; i += BYTE_LANES) {
+            ByteVector x = ByteVector.fromArray(BYTES, a, aFrom + i);
+            ByteVector y = ByteVector.fromArray(BYTES, b, bFrom + i);
+            if (x.compare(VectorOperators.NE, y).anyTrue()) return false;
+        }
+        return super.equals(a, aFrom + i, b, bFrom + i, length - i);
+    }
+
+    @Contract(pure = true)
+    @Override
+    int skipWhitespace(byte @NotNull [] bs, int start, int end) {
+        if (start == end || !isWhitespace((char) (bs[start] & 0xFF))) return start;
+        int i = start;
+        for (int bound = end - BYTE_LANES; i <= bound; i += BYTE_LANES) {
+            VectorMask<Byte> text = whitespace(ByteVector.fromArray(BYTES, bs, i)).not();
+            if (text.anyTrue()) return i + text.firstTrue();
+        }
+        return super.skipWhitespace(bs, i, end);
+    }
+
+    @Contract(pure = true)
+    @Override
+    int skipWhitespaceBackward(byte @NotNull [] bs, int start, int end) {
+        if (start == end || !isWhitespace((char) (bs[end - 1] & 0xFF))) return end;
+        int i = end;
+        for (int bound = start + BYTE_LANES; i >= bound; i -= BYTE_LANES) {
+            VectorMask<Byte> text = whitespace(ByteVector.fromArray(BYTES, bs, i - BYTE_LANES)).not();
+            if (text.anyTrue()) return i - BYTE_LANES + text.lastTrue() + 1;
+        }
+        return super.skipWhitespaceBackward(bs, start, i);
+    }
+
+    @Contract(pure = true)
+    @Override
+    boolean canEncode(char @NotNull [] cs, int start, int end) {
+        int i = start;
+        for (int bound = end - LANES; i <= bound; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, cs, i);
+            if (v.compare(VectorOperators.UNSIGNED_GT, (short) 0xFF).anyTrue()) return false;
+        }
+        return super.canEncode(cs, i, end);
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    private static void shiftCase(char @NotNull [] cs, int start, int end, short from, short to, short delta) {
+        int i = start;
+        for (int bound = end - LANES; i <= bound; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, cs, i);
+            VectorMask<Short> letters = v.compare(VectorOperators.GE, from).and(v.compare(VectorOperators.LE, to));
+            v.add(delta, letters).intoCharArray(cs, i);
+        }
+        for (; i < end; i++) {
+            char c = cs[i];
+            if (from <= c && c <= to) cs[i] = (char) (c + delta);
+        }
+    }
+
+    private static void shiftCase(byte @NotNull [] bs, int start, int end, byte from, byte to, byte delta) {
+        int i = start;
+        for (int bound = end - BYTE_LANES; i <= bound; i += BYTE_LANES) {
+            ByteVector v = ByteVector.fromArray(BYTES, bs, i);
+            VectorMask<Byte> letters = v.compare(VectorOperators.GE, from).and(v.compare(VectorOperators.LE, to));
+            v.add(delta, letters).intoArray(bs, i);
+        }
+        for (; i < end; i++) {
+            byte b = bs[i];
+            if (from <= b && b <= to) bs[i] = (byte) (b + delta);
+        }
+    }
+
+    // the same set of chars as StringKernels.isWhitespace(char)
+    private static @NotNull VectorMask<Short> whitespace(@NotNull ShortVector v) {
+        return v.compare(VectorOperators.GE, (short) 0x0009).and(v.compare(VectorOperators.LE, (short) 0x000D))
+                .or(v.compare(VectorOperators.GE, (short) 0x001C).and(v.compare(VectorOperators.LE, (short) 0x001F)))
+                .or(v.eq((short) 0x0020))
+                .or(v.eq((short) 0x1680))
+                .or(v.compare(VectorOperators.GE, (short) 0x2000).and(v.compare(VectorOperators.LE, (short) 0x2006)))
+                .or(v.compare(VectorOperators.GE, (short) 0x2008).and(v.compare(VectorOperators.LE, (short) 0x200A)))
+                .or(v.eq((short) 0x2028))
+                .or(v.eq((short) 0x2029))
+                .or(v.eq((short) 0x205F))
+                .or(v.eq((short) 0x3000));
+    }
+
+    // the Latin-1 part of the same set
+    private static @NotNull VectorMask<Byte> whitespace(@NotNull ByteVector v) {
+        return v.compare(VectorOperators.GE, (byte) 0x09).and(v.compare(VectorOperators.LE, (byte) 0x0D))
+                .or(v.compare(VectorOperators.GE, (byte) 0x1C).and(v.compare(VectorOperators.LE, (byte) 0x1F)))
+                .or(v.eq((byte) 0x20));
+    }
+}
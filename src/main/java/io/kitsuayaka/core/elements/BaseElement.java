@@ -1,4 +1,36 @@
 package io.kitsuayaka.core.elements;
 
-abstract class BaseElement<T> {
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The base of every node of a {@code YAML} document tree, as built by
+ * {@link io.kitsuayaka.core.parser.YamlTreeBuilder}: scalars ({@link StringElement}, {@link IntegerElement},
+ * {@link DecimalElement} and {@link NullElement}) and collections ({@link MappingElement} and
+ * {@link SequenceElement}).
+ *
+ * @param <T> the type of the value the element holds.
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public abstract class BaseElement<T> {
+    // only the elements of this package
+    BaseElement() {
+    }
+
+    /**
+     * Returns the value of this element.
+     *
+     * @return The value of this element.
+     * @since <code>1.7.0</code>
+     */
+    public abstract @Nullable T getValue();
+
+    @Override
+    public @NotNull String toString() {
+        return String.format("%s { value: %s }", getClass().getSimpleName(), getValue());
+    }
 }
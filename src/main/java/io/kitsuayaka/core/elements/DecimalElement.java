@@ -1,4 +1,30 @@
 package io.kitsuayaka.core.elements;
 
+import io.kitsuayaka.addon.types.NumberType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A floating point scalar, like {@code 4.2}, {@code 4.2e1} or {@code .inf}.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
 public final class DecimalElement extends NumberElement {
+    /**
+     * Creates a new {@code DecimalElement} holding the given value.
+     *
+     * @param value the value of the element.
+     * @since <code>1.7.0</code>
+     */
+    public DecimalElement(@NotNull NumberType value) {
+        super(value);
+    }
+
+    // a cursor on a node of the given arena
+    DecimalElement(@NotNull ElementArena arena, int node) {
+        super(arena, node);
+    }
 }
@@ -0,0 +1,443 @@
+package io.kitsuayaka.core.elements;
+
+import io.kitsuayaka.addon.types.NumberType;
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+import io.kitsuayaka.core.parser.ScalarStyle;
+import io.kitsuayaka.core.parser.YamlReader;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Objects of the class {@code ElementArena} hold a whole document tree in a few parallel primitive arrays, instead of
+ * one object per node wrapping a {@code StringType} or {@code NumberType}, which in turn wraps its value. Every node
+ * takes {@code 17} bytes: its kind, the indices of its first child and of its next sibling, and the offset and length
+ * of its contents. The contents of a scalar point into the source the document was parsed from, if they are a
+ * part of it as they are, or to the whole scalar there, quotes and block header included, to be decoded when it is
+ * read, or else into a buffer of decoded text kept by the arena. Numbers are only converted when they are read, and
+ * the style of a scalar still to be decoded is kept in spare bits of its kind. The children of a mapping are its keys
+ * and values, alternating.
+ * <blockquote>
+ * <pre>{@code ElementArena arena = YamlTreeBuilder.compact(new YamlReader(chars));
+ * MappingElement root = (MappingElement) arena.root();
+ * for (BaseElement<?> item : (SequenceElement) root.get("items")) {
+ *     ...
+ * }}</pre>
+ * </blockquote>
+ * The elements handed out by an arena are flyweight cursors, created on demand and holding nothing but the arena, the
+ * index of their node and, once it has been read, the value of a scalar, so they can be dropped right after use. The
+ * collections they represent cannot be modified; aliases are resolved to the very node of their anchor. An
+ * {@code ElementArena} is filled through a {@link Builder} and immutable afterward, the source it points into must
+ * not be modified.
+ *
+ * @version <code>1.0.0</code>
+ * @see io.kitsuayaka.core.parser.YamlTreeBuilder#compact(io.kitsuayaka.core.parser.YamlReader)
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public final class ElementArena {
+    /**
+     * The kind of a {@link NullElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final byte NULL = 0;
+
+    /**
+     * The kind of a {@link StringElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final byte STRING = 1;
+
+    /**
+     * The kind of an {@link IntegerElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final byte INTEGER = 2;
+
+    /**
+     * The kind of a {@link DecimalElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final byte DECIMAL = 3;
+
+    /**
+     * The kind of a {@link MappingElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final byte MAPPING = 4;
+
+    /**
+     * The kind of a {@link SequenceElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final byte SEQUENCE = 5;
+
+    // an alias, whose offset is the node it refers to
+    private static final byte ALIAS = 6;
+
+    // the bits of a kind above KIND hold the ordinal of the style of a scalar still to be decoded plus one, else 0
+    private static final int KIND = 0x07;
+    private static final int STYLE_SHIFT = 3;
+    private static final ScalarStyle[] STYLES = ScalarStyle.values();
+
+    private final char @Nullable [] source;
+    private final char[] text;
+    private final byte[] kinds;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    // an offset into the source, or the complement of one into the text
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int size;
+
+    private ElementArena(@NotNull Builder b) {
+        int n = b.size;
+        source = b.source;
+        text = Arrays.copyOf(b.text, b.textLength);
+        kinds = Arrays.copyOf(b.kinds, n);
+        firstChildren = Arrays.copyOf(b.firstChildren, n);
+        nextSiblings = Arrays.copyOf(b.nextSiblings, n);
+        offsets = Arrays.copyOf(b.offsets, n);
+        lengths = Arrays.copyOf(b.lengths, n);
+        size = n;
+    }
+
+    /**
+     * Returns the root of the document.
+     *
+     * @return A cursor on the root node.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull BaseElement<?> root() {
+        return element(0);
+    }
+
+    /**
+     * Returns the number of nodes of the document, keys and aliases included.
+     *
+     * @return The number of nodes.
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes the arrays of this arena take up, without the source it points into and without the
+     * headers of the arrays.
+     *
+     * @return The size of the arena in bytes.
+     * @since <code>1.7.0</code>
+     */
+    @Contract(pure = true)
+    public long footprint() {
+        return 17L * size + 2L * text.length;
+    }
+
+    // --------------------------------------------------------- Nodes
+
+    // the node an alias refers to, any other node itself
+    int resolve(int node) {
+        return kinds[node] == ALIAS ? offsets[node] : node;
+    }
+
+    byte kind(int node) {
+        return (byte) (kinds[resolve(node)] & KIND);
+    }
+
+    // -1 if there is none
+    int firstChild(int node) {
+        return firstChildren[resolve(node)];
+    }
+
+    // -1 if there is none
+    int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    int childCount(int node) {
+        int count = 0;
+        for (int c = firstChild(node); c >= 0; c = nextSiblings[c]) count++;
+        return count;
+    }
+
+    // a new cursor on the given node
+    @NotNull BaseElement<?> element(int node) {
+        int n = resolve(node);
+        return switch (kinds[n] & KIND) {
+            case NULL -> NullElement.NULL;
+            case STRING -> new StringElement(this, n);
+            case INTEGER -> new IntegerElement(this, n);
+            case DECIMAL -> new DecimalElement(this, n);
+            case MAPPING -> new MappingElement(this, n);
+            default -> new SequenceElement(this, n);
+        };
+    }
+
+    @NotNull StringType string(int node) {
+        int n = resolve(node), offset = offsets[n], style = kinds[n] >>> STYLE_SHIFT;
+        if (style > 0) {
+            return YamlReader.decode(Objects.requireNonNull(source), offset, offset + lengths[n], STYLES[style - 1]);
+        }
+        if (offset >= 0) return new StringType(Objects.requireNonNull(source), offset, offset + lengths[n]);
+        return new StringType(text, ~offset, ~offset + lengths[n]);
+    }
+
+    @NotNull NumberType number(int node) {
+        return NumberElement.valueOf(chars(resolve(node)));
+    }
+
+    boolean contentEquals(int node, @NotNull CharSequence cs) {
+        int n = resolve(node), length = lengths[n];
+        if ((kinds[n] & KIND) > DECIMAL) return false;
+        if (kinds[n] >>> STYLE_SHIFT > 0) return string(n).contentEquals(cs);
+        if (cs.length() != length) return false;
+
+        int offset = offsets[n];
+        char[] array = offset >= 0 ? source : text;
+        if (offset < 0) offset = ~offset;
+        for (int i = 0; i < length; i++) if (Objects.requireNonNull(array)[offset + i] != cs.charAt(i)) return false;
+        return true;
+    }
+
+    // the contents of a scalar, without copying them
+    private @NotNull CharSequence chars(int n) {
+        int offset = offsets[n];
+        if (offset >= 0) return CharBuffer.wrap(Objects.requireNonNull(source), offset, lengths[n]);
+        return CharBuffer.wrap(text, ~offset, lengths[n]);
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    /**
+     * Fills a new {@link ElementArena} with the nodes of a document, in document order: a collection is started, its
+     * children are added, then it is ended. The children of a mapping are added as key, value, key, value and so on.
+     * <blockquote>
+     * <pre>{@code ElementArena.Builder b = new ElementArena.Builder(null);
+     * b.startMapping();
+     * b.scalar(ElementArena.STRING, "answer");
+     * b.scalar(ElementArena.INTEGER, "42");
+     * b.end();
+     * ElementArena arena = b.build();}</pre>
+     * </blockquote>
+     *
+     * @version <code>1.0.0</code>
+     * @since <code>1.7.0</code>
+     */
+    public static final class Builder {
+        private final char @Nullable [] source;
+        private char[] text = new char[256];
+        private int textLength;
+
+        private byte[] kinds = new byte[64];
+        private int[] firstChildren = new int[64];
+        private int[] nextSiblings = new int[64];
+        private int[] offsets = new int[64];
+        private int[] lengths = new int[64];
+        private int size;
+
+        // the open collections, innermost last, and their last child
+        private int[] open = new int[16];
+        private int[] lastChildren = new int[16];
+        private int depth;
+
+        /**
+         * Creates a new {@code Builder} for an arena whose scalars may point into the given source, which must not be
+         * modified afterward.
+         *
+         * @param source the source the document is parsed from, {@code null} if scalars are always copied.
+         * @since <code>1.7.0</code>
+         */
+        public Builder(char @Nullable [] source) {
+            this.source = source;
+        }
+
+        /**
+         * Adds a new mapping, whose children are added until {@link #end()} is called.
+         *
+         * @return The index of the new node.
+         * @throws IllegalStateException if the document has a root already.
+         * @since <code>1.7.0</code>
+         */
+        public int startMapping() {
+            return start(MAPPING);
+        }
+
+        /**
+         * Adds a new sequence, whose children are added until {@link #end()} is called.
+         *
+         * @return The index of the new node.
+         * @throws IllegalStateException if the document has a root already.
+         * @since <code>1.7.0</code>
+         */
+        public int startSequence() {
+            return start(SEQUENCE);
+        }
+
+        /**
+         * Ends the collection started last.
+         *
+         * @throws IllegalStateException if there is no open collection.
+         * @since <code>1.7.0</code>
+         */
+        public void end() {
+            if (depth == 0) throw new IllegalStateException("No open collection");
+            depth--;
+        }
+
+        /**
+         * Adds a new scalar whose contents are the range {@code source[start, end)} of the source.
+         *
+         * @param kind  the kind of the scalar, {@link #NULL}, {@link #STRING}, {@link #INTEGER} or {@link #DECIMAL}.
+         * @param start the index of the first character, inclusive.
+         * @param end   the index of the last character, exclusive.
+         * @return The index of the new node.
+         * @throws IllegalArgumentException  if {@code kind} is not the kind of a scalar.
+         * @throws IndexOutOfBoundsException if the range is out of the bounds of the source.
+         * @throws IllegalStateException     if the document has a root already.
+         * @since <code>1.7.0</code>
+         */
+        public int scalar(byte kind, int start, int end) {
+            checkScalar(kind);
+            Objects.checkFromToIndex(start, end, source == null ? 0 : source.length);
+            return add(kind, start, end - start);
+        }
+
+        /**
+         * Adds a new scalar with the given contents, which are copied into the arena.
+         *
+         * @param kind  the kind of the scalar, {@link #NULL}, {@link #STRING}, {@link #INTEGER} or {@link #DECIMAL}.
+         * @param value the contents of the scalar.
+         * @return The index of the new node.
+         * @throws IllegalArgumentException if {@code kind} is not the kind of a scalar.
+         * @throws IllegalStateException    if the document has a root already.
+         * @since <code>1.7.0</code>
+         */
+        public int scalar(byte kind, @NotNull CharSequence value) {
+            checkScalar(kind);
+            int length = value.length();
+            if (textLength + length > text.length) {
+                text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+            }
+            for (int i = 0; i < length; i++) text[textLength + i] = value.charAt(i);
+            int node = add(kind, ~textLength, length);
+            textLength += length;
+            return node;
+        }
+
+        /**
+         * Adds a new {@link #STRING} scalar, which spans the range {@code source[start, end)} of the source, its quotes
+         * or block header included, and is decoded from it by {@link YamlReader#decode(char[], int, int, ScalarStyle)}
+         * whenever it is read.
+         *
+         * @param style the style of the scalar.
+         * @param start the index of the first character, inclusive.
+         * @param end   the index of the last character, exclusive.
+         * @return The index of the new node.
+         * @throws IndexOutOfBoundsException if the range is out of the bounds of the source.
+         * @throws IllegalStateException     if the document has a root already.
+         * @since <code>1.7.0</code>
+         */
+        public int scalar(@NotNull ScalarStyle style, int start, int end) {
+            Objects.checkFromToIndex(start, end, source == null ? 0 : source.length);
+            return add((byte) (STRING | style.ordinal() + 1 << STYLE_SHIFT), start, end - start);
+        }
+
+        /**
+         * Adds an alias of the given node, which reads as that node wherever it is used.
+         *
+         * @param target the index of the node the alias refers to.
+         * @return The index of the new node.
+         * @throws IndexOutOfBoundsException if there is no such node.
+         * @throws IllegalStateException     if the document has a root already.
+         * @since <code>1.7.0</code>
+         */
+        public int alias(int target) {
+            Objects.checkIndex(target, size);
+            return add(ALIAS, kinds[target] == ALIAS ? offsets[target] : target, 0);
+        }
+
+        /**
+         * Returns the kind of a node added so far, that of the node it refers to for an alias.
+         *
+         * @param node the index of the node.
+         * @return The kind of the node.
+         * @throws IndexOutOfBoundsException if there is no such node.
+         * @since <code>1.7.0</code>
+         */
+        public byte kind(int node) {
+            Objects.checkIndex(node, size);
+            return (byte) (kinds[kinds[node] == ALIAS ? offsets[node] : node] & KIND);
+        }
+
+        /**
+         * Returns the arena holding the nodes added so far, trimmed to their exact size.
+         *
+         * @return A new {@code ElementArena}.
+         * @throws IllegalStateException if there is no root, or a collection has not been ended.
+         * @since <code>1.7.0</code>
+         */
+        public @NotNull ElementArena build() {
+            if (size == 0 || depth > 0) throw new IllegalStateException(size == 0 ? "No root" : "Unended collection");
+            return new ElementArena(this);
+        }
+
+        private int start(byte kind) {
+            int node = add(kind, 0, 0);
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+                lastChildren = Arrays.copyOf(lastChildren, depth * 2);
+            }
+            open[depth] = node;
+            lastChildren[depth] = -1;
+            depth++;
+            return node;
+        }
+
+        private int add(byte kind, int offset, int length) {
+            if (depth == 0 && size > 0) throw new IllegalStateException("A document has a single root");
+            if (size == kinds.length) grow();
+
+            int node = size++;
+            kinds[node] = kind;
+            offsets[node] = offset;
+            lengths[node] = length;
+            firstChildren[node] = -1;
+            nextSiblings[node] = -1;
+            if (depth == 0) return node;
+
+            int parent = open[depth - 1], last = lastChildren[depth - 1];
+            if (last < 0) firstChildren[parent] = node;
+            else nextSiblings[last] = node;
+            lastChildren[depth - 1] = node;
+            return node;
+        }
+
+        private void grow() {
+            int n = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, n);
+            firstChildren = Arrays.copyOf(firstChildren, n);
+            nextSiblings = Arrays.copyOf(nextSiblings, n);
+            offsets = Arrays.copyOf(offsets, n);
+            lengths = Arrays.copyOf(lengths, n);
+        }
+
+        @Contract(pure = true)
+        private static void checkScalar(byte kind) {
+            if (kind < NULL || kind > DECIMAL) throw new IllegalArgumentException("Not a scalar kind: " + kind);
+        }
+    }
+}
@@ -1,4 +1,30 @@
 package io.kitsuayaka.core.elements;
 
+import io.kitsuayaka.addon.types.NumberType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An integer scalar, like {@code 42}, {@code 0x2A} or {@code 0o52}.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
 public final class IntegerElement extends NumberElement {
+    /**
+     * Creates a new {@code IntegerElement} holding the given value.
+     *
+     * @param value the value of the element.
+     * @since <code>1.7.0</code>
+     */
+    public IntegerElement(@NotNull NumberType value) {
+        super(value);
+    }
+
+    // a cursor on a node of the given arena
+    IntegerElement(@NotNull ElementArena arena, int node) {
+        super(arena, node);
+    }
 }
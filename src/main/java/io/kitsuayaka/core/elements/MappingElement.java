@@ -0,0 +1,120 @@
+package io.kitsuayaka.core.elements;
+
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A mapping of scalar keys to elements, keeping the order the keys were added in. A key added again replaces the
+ * value it had.
+ * <hr/>
+ * A mapping of an {@link ElementArena} cannot be modified, and is looked up by a scan of its keys. A key repeated in
+ * it counts as often as it appears in {@link #size()}, while {@link #get(CharSequence)} returns its last value.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public final class MappingElement extends BaseElement<Map<StringType, BaseElement<?>>> {
+    private final @Nullable Map<StringType, BaseElement<?>> entries;
+    private final @Nullable ElementArena arena;
+    private final int node;
+
+    /**
+     * Creates a new, empty {@code MappingElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public MappingElement() {
+        entries = new LinkedHashMap<>();
+        arena = null;
+        node = -1;
+    }
+
+    // a cursor on a node of the given arena
+    MappingElement(@NotNull ElementArena arena, int node) {
+        entries = null;
+        this.arena = arena;
+        this.node = node;
+    }
+
+    /**
+     * Adds the given entry to this mapping, replacing the value the key had.
+     *
+     * @param key   the key, which must not be modified afterward.
+     * @param value the value.
+     * @return The value the key had before, {@code null} if there was none.
+     * @throws UnsupportedOperationException if this mapping is a part of an {@link ElementArena}.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable BaseElement<?> put(@NotNull StringType key, @NotNull BaseElement<?> value) {
+        if (entries == null) throw new UnsupportedOperationException("An ElementArena cannot be modified");
+        return entries.put(key, value);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key to look up.
+     * @return The value of the key, {@code null} if this mapping does not contain it.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable BaseElement<?> get(@NotNull CharSequence key) {
+        if (entries != null) return entries.get(key instanceof StringType s ? s : new StringType(key.toString()));
+
+        ElementArena a = Objects.requireNonNull(arena);
+        int value = -1;
+        for (int k = a.firstChild(node); k >= 0; k = a.nextSibling(a.nextSibling(k))) {
+            if (a.contentEquals(k, key)) value = a.nextSibling(k);
+        }
+        return value < 0 ? null : a.element(value);
+    }
+
+    /**
+     * Returns the keys of this mapping, in the order they were added in.
+     *
+     * @return An unmodifiable view of the keys.
+     * @since <code>1.7.0</code>
+     */
+    public @UnmodifiableView @NotNull Set<StringType> keys() {
+        return getValue().keySet();
+    }
+
+    /**
+     * Returns the number of entries of this mapping.
+     *
+     * @return The number of entries.
+     * @since <code>1.7.0</code>
+     */
+    public int size() {
+        return entries != null ? entries.size() : Objects.requireNonNull(arena).childCount(node) / 2;
+    }
+
+    /**
+     * Returns the value of this element. The entries of a mapping of an {@link ElementArena} are copied out of it on
+     * every call.
+     *
+     * @return An unmodifiable view of the entries.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @UnmodifiableView @NotNull Map<StringType, BaseElement<?>> getValue() {
+        if (entries != null) return Collections.unmodifiableMap(entries);
+
+        ElementArena a = Objects.requireNonNull(arena);
+        Map<StringType, BaseElement<?>> copy = new LinkedHashMap<>();
+        for (int k = a.firstChild(node); k >= 0; k = a.nextSibling(a.nextSibling(k))) {
+            copy.put(a.string(k), a.element(a.nextSibling(k)));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+}
@@ -0,0 +1,32 @@
+package io.kitsuayaka.core.elements;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The scalar {@code null}, written as {@code null}, {@code ~} or not at all, as in {@code key:}. There is a single
+ * instance, {@link #NULL}.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public final class NullElement extends BaseElement<Void> {
+    /**
+     * The only {@code NullElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final NullElement NULL = new NullElement();
+
+    private NullElement() {
+    }
+
+    @Override
+    @Contract(pure = true)
+    public @Nullable Void getValue() {
+        return null;
+    }
+}
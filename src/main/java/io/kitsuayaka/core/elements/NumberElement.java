@@ -1,6 +1,85 @@
 package io.kitsuayaka.core.elements;
 
 import io.kitsuayaka.addon.types.NumberType;
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
 
-abstract class NumberElement extends BaseElement<NumberType> {
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * The base of the numeric scalars, {@link IntegerElement} and {@link DecimalElement}.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public abstract class NumberElement extends BaseElement<NumberType> {
+    // converted on first access, for an element of an arena
+    private @Nullable NumberType value;
+    private final @Nullable ElementArena arena;
+    private final int node;
+
+    NumberElement(@NotNull NumberType value) {
+        this.value = Objects.requireNonNull(value);
+        arena = null;
+        node = -1;
+    }
+
+    // a cursor on a node of the given arena
+    NumberElement(@NotNull ElementArena arena, int node) {
+        value = null;
+        this.arena = arena;
+        this.node = node;
+    }
+
+    @Override
+    public @NotNull NumberType getValue() {
+        if (value == null) value = Objects.requireNonNull(arena).number(node);
+        return value;
+    }
+
+    /**
+     * Converts the text of an integer or a floating point number of the <em>YAML 1.2</em> core schema into its value:
+     * integers in decimal, octal ({@code 0o}) and hexadecimal ({@code 0x}), and floating point numbers, {@code .inf}
+     * and {@code .nan} included. Integers too large for a {@code long} are approximated.
+     *
+     * @param text the text of the number.
+     * @return The value of the number.
+     * @throws NumberFormatException if the text is not a number.
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull NumberType valueOf(@NotNull CharSequence text) {
+        String s = text instanceof StringType t ? t.getValue() : text.toString();
+        int i = s.startsWith("+") || s.startsWith("-") ? 1 : 0;
+        switch (s.substring(i)) {
+            case ".inf", ".Inf", ".INF" -> {
+                return s.startsWith("-") ? NumberType.NEGATIVE_INFINITY : NumberType.POSITIVE_INFINITY;
+            }
+            case ".nan", ".NaN", ".NAN" -> {
+                if (i == 0) return NumberType.NaN;
+            }
+            default -> {
+            }
+        }
+
+        if (s.startsWith("0x")) return integer(s.substring(2), 16);
+        if (s.startsWith("0o")) return integer(s.substring(2), 8);
+        for (int k = i; k < s.length(); k++) {
+            char c = s.charAt(k);
+            if (c < '0' || c > '9') return new NumberType(Double.parseDouble(s));
+        }
+        return integer(s, 10);
+    }
+
+    private static @NotNull NumberType integer(@NotNull String digits, int radix) {
+        try {
+            return new NumberType(Long.parseLong(digits, radix));
+        } catch (NumberFormatException e) {
+            return new NumberType(new BigInteger(digits, radix).doubleValue()); // as close as a NumberType gets
+        }
+    }
 }
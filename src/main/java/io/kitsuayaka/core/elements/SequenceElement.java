@@ -0,0 +1,127 @@
+package io.kitsuayaka.core.elements;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A sequence of elements.
+ * <hr/>
+ * A sequence of an {@link ElementArena} cannot be modified, and is a linked list, best read through its
+ * {@link #iterator()}.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public final class SequenceElement extends BaseElement<List<BaseElement<?>>> implements Iterable<BaseElement<?>> {
+    private final @Nullable List<BaseElement<?>> items;
+    private final @Nullable ElementArena arena;
+    private final int node;
+
+    /**
+     * Creates a new, empty {@code SequenceElement}.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public SequenceElement() {
+        items = new ArrayList<>();
+        arena = null;
+        node = -1;
+    }
+
+    // a cursor on a node of the given arena
+    SequenceElement(@NotNull ElementArena arena, int node) {
+        items = null;
+        this.arena = arena;
+        this.node = node;
+    }
+
+    /**
+     * Appends the given element to this sequence.
+     *
+     * @param item the element to append.
+     * @throws UnsupportedOperationException if this sequence is a part of an {@link ElementArena}.
+     * @since <code>1.7.0</code>
+     */
+    public void add(@NotNull BaseElement<?> item) {
+        if (items == null) throw new UnsupportedOperationException("An ElementArena cannot be modified");
+        items.add(Objects.requireNonNull(item));
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index the index of the element.
+     * @return The element at the index.
+     * @throws IndexOutOfBoundsException if the index is out of the bounds of this sequence.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull BaseElement<?> get(int index) {
+        if (items != null) return items.get(index);
+
+        ElementArena a = Objects.requireNonNull(arena);
+        int c = index < 0 ? -1 : a.firstChild(node);
+        for (int i = 0; i < index && c >= 0; i++) c = a.nextSibling(c);
+        if (c < 0) throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        return a.element(c);
+    }
+
+    /**
+     * Returns the number of elements of this sequence.
+     *
+     * @return The number of elements.
+     * @since <code>1.7.0</code>
+     */
+    public int size() {
+        return items != null ? items.size() : Objects.requireNonNull(arena).childCount(node);
+    }
+
+    @Override
+    public @NotNull Iterator<BaseElement<?>> iterator() {
+        if (items != null) return getValue().iterator();
+
+        ElementArena a = Objects.requireNonNull(arena);
+        return new Iterator<>() {
+            private int next = a.firstChild(node);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public @NotNull BaseElement<?> next() {
+                if (next < 0) throw new NoSuchElementException();
+                int c = next;
+                next = a.nextSibling(c);
+                return a.element(c);
+            }
+        };
+    }
+
+    /**
+     * Returns the value of this element. The items of a sequence of an {@link ElementArena} are copied out of it on
+     * every call.
+     *
+     * @return An unmodifiable view of the items.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @UnmodifiableView @NotNull List<BaseElement<?>> getValue() {
+        if (items != null) return Collections.unmodifiableList(items);
+
+        List<BaseElement<?>> copy = new ArrayList<>();
+        for (BaseElement<?> item : this) copy.add(item);
+        return Collections.unmodifiableList(copy);
+    }
+}
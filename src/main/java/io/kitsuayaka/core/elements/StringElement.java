@@ -1,6 +1,55 @@
 package io.kitsuayaka.core.elements;
 
 import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A scalar which is neither a number nor {@code null}, or which is quoted.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
 public final class StringElement extends BaseElement<StringType> {
+    // read from the arena on first access, for an element of one
+    private @Nullable StringType value;
+    private final @Nullable ElementArena arena;
+    private final int node;
+
+    /**
+     * Creates a new {@code StringElement} holding the given value.
+     *
+     * @param value the value of the element.
+     * @since <code>1.7.0</code>
+     */
+    public StringElement(@NotNull StringType value) {
+        this.value = Objects.requireNonNull(value);
+        arena = null;
+        node = -1;
+    }
+
+    // a cursor on a node of the given arena
+    StringElement(@NotNull ElementArena arena, int node) {
+        value = null;
+        this.arena = arena;
+        this.node = node;
+    }
+
+    /**
+     * Returns the value of this element. The value of an element of an {@link ElementArena} is copied out of it, and
+     * decoded if need be, on the first call.
+     *
+     * @return The value of this element.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @NotNull StringType getValue() {
+        if (value == null) value = Objects.requireNonNull(arena).string(node);
+        return value;
+    }
 }
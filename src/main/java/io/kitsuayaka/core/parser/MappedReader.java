@@ -0,0 +1,145 @@
+package io.kitsuayaka.core.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A {@code Reader} over a memory-mapped <em>UTF-8</em> file, behind {@link YamlReader#open(Path)}. The file is mapped
+ * in windows of up to {@link #WINDOW} bytes and decoded straight into the array passed to
+ * {@link #read(char[], int, int)}, which is the buffer of the {@code YamlReader}, so there is neither a copy of the
+ * bytes onto the heap nor a read loop of an {@code InputStream} in between. Runs of <em>ASCII</em> are decoded eight
+ * bytes at a time. Malformed input is reported as a {@link MalformedInputException}, like
+ * {@link java.nio.file.Files#newBufferedReader(Path)} does.
+ * <hr/>
+ * A mapping stays valid until it is garbage collected, closing only closes the channel.
+ */
+final class MappedReader extends Reader {
+    // the largest number of bytes mapped at once
+    static final long WINDOW = 1L << 30;
+
+    private static final long NON_ASCII = 0x8080808080808080L;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean lastWindow;
+    // the low surrogate of a pair which did not fit into the previous read, -1 if none
+    private int pending = -1;
+    private boolean closed;
+
+    MappedReader(@NotNull Path file) throws IOException {
+        this(file, WINDOW);
+    }
+
+    MappedReader(@NotNull Path file, long windowSize) throws IOException {
+        this.windowSize = windowSize;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            size = channel.size();
+            map(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(char @NotNull [] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        if (closed) throw new IOException("Stream closed");
+        if (len == 0) return 0;
+
+        int n = 0;
+        if (pending >= 0) {
+            cbuf[off + n++] = (char) pending;
+            pending = -1;
+        }
+
+        fill:
+        while (n < len) {
+            int p = window.position(), lim = window.limit();
+            if (lim - p < 4 && !lastWindow) {
+                map(windowStart + p); // a sequence might be cut by the end of the window
+                continue;
+            }
+            if (p == lim) break;
+
+            // sequences starting before safe are complete, unless the input is truncated
+            int safe = lastWindow ? lim : lim - 3;
+            while (n < len && p < safe) {
+                if (len - n >= 8 && lim - p >= 8) {
+                    long w = window.getLong(p);
+                    if ((w & NON_ASCII) == 0) {
+                        for (int k = 0; k < 8; k++) cbuf[off + n + k] = (char) (w >>> (k << 3) & 0x7F);
+                        n += 8;
+                        p += 8;
+                        continue;
+                    }
+                }
+
+                int b = window.get(p);
+                if (b >= 0) {
+                    cbuf[off + n++] = (char) b;
+                    p++;
+                    continue;
+                }
+
+                int more = (b & 0xE0) == 0xC0 ? 1 : (b & 0xF0) == 0xE0 ? 2 : (b & 0xF8) == 0xF0 ? 3 : -1;
+                if (more < 0 || lim - p <= more) throw new MalformedInputException(1);
+                int cp = b & (0x3F >>> more);
+                for (int k = 1; k <= more; k++) {
+                    int c = window.get(p + k);
+                    if ((c & 0xC0) != 0x80) throw new MalformedInputException(1);
+                    cp = cp << 6 | c & 0x3F;
+                }
+
+                if (more == 1) {
+                    if (cp < 0x80) throw new MalformedInputException(1);
+                    cbuf[off + n++] = (char) cp;
+                } else if (more == 2) {
+                    if (cp < 0x800 || Character.isSurrogate((char) cp)) throw new MalformedInputException(1);
+                    cbuf[off + n++] = (char) cp;
+                } else {
+                    if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) throw new MalformedInputException(1);
+                    if (len - n < 2 && n > 0) {
+                        window.position(p);
+                        break fill; // the pair is left for the next read
+                    }
+                    cbuf[off + n++] = Character.highSurrogate(cp);
+                    if (n < len) cbuf[off + n++] = Character.lowSurrogate(cp);
+                    else pending = Character.lowSurrogate(cp);
+                }
+                p += more + 1;
+            }
+            window.position(p);
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    // maps the window starting at the given offset of the file
+    private void map(long start) throws IOException {
+        long length = Math.min(windowSize, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = start;
+        lastWindow = start + length == size;
+    }
+}
@@ -0,0 +1,35 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+/**
+ * The ways a scalar can be written in a {@code YAML} document. Only {@link #PLAIN} scalars are resolved to other types
+ * than strings, e.g. {@code 42} to a number, the other styles always hold strings.
+ *
+ * @version <code>1.0.0</code>
+ * @see YamlReader#style()
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public enum ScalarStyle {
+    /**
+     * Written without any quotes, e.g. {@code key: value}.
+     */
+    PLAIN,
+    /**
+     * Enclosed in {@code '}, which is escaped by doubling it.
+     */
+    SINGLE_QUOTED,
+    /**
+     * Enclosed in {@code "}, with escape sequences like {@code \n} or {@code \t}.
+     */
+    DOUBLE_QUOTED,
+    /**
+     * A block scalar introduced by {@code |}, keeping its line breaks.
+     */
+    LITERAL,
+    /**
+     * A block scalar introduced by {@code >}, folding its lines into one.
+     */
+    FOLDED
+}
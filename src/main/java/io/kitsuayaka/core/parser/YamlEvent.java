@@ -0,0 +1,83 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+/**
+ * The kinds of events a {@link YamlReader} reports while reading through a {@code YAML} stream. Every stream starts
+ * with {@link #STREAM_START} and ends with {@link #STREAM_END}, every document in between is enclosed in
+ * {@link #DOCUMENT_START} and {@link #DOCUMENT_END} and holds exactly one node: a {@link #SCALAR}, an {@link #ALIAS} or
+ * a collection, enclosed in {@link #MAPPING_START} and {@link #MAPPING_END} or {@link #SEQUENCE_START} and
+ * {@link #SEQUENCE_END}. A mapping holds its keys and values alternately, a sequence its entries.
+ * <blockquote>
+ * <pre>{@code name: AYML       STREAM_START, DOCUMENT_START, MAPPING_START,
+ * tags: [yaml]     SCALAR, SCALAR, SCALAR, SEQUENCE_START, SCALAR, SEQUENCE_END,
+ *                  MAPPING_END, DOCUMENT_END, STREAM_END}</pre>
+ * </blockquote>
+ *
+ * @version <code>1.0.0</code>
+ * @see YamlReader#next()
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public enum YamlEvent {
+    /**
+     * The start of the stream, always the first event.
+     */
+    STREAM_START,
+    /**
+     * The end of the stream, always the last event.
+     */
+    STREAM_END,
+    /**
+     * The start of a document, either marked by {@code ---} or implied by its content.
+     */
+    DOCUMENT_START,
+    /**
+     * The end of a document, either marked by {@code ...}, or implied by the next {@code ---} or the end of the stream.
+     */
+    DOCUMENT_END,
+    /**
+     * The start of a mapping, followed by its keys and values alternately.
+     */
+    MAPPING_START,
+    /**
+     * The end of the mapping started last.
+     */
+    MAPPING_END,
+    /**
+     * The start of a sequence, followed by its entries.
+     */
+    SEQUENCE_START,
+    /**
+     * The end of the sequence started last.
+     */
+    SEQUENCE_END,
+    /**
+     * A scalar, see {@link YamlReader#scalar()}.
+     */
+    SCALAR,
+    /**
+     * A reference to an anchored node, see {@link YamlReader#alias()}.
+     */
+    ALIAS;
+
+    /**
+     * Returns whether this event starts a collection, which ends with the matching end event.
+     *
+     * @return Whether this is {@link #MAPPING_START} or {@link #SEQUENCE_START}.
+     * @since <code>1.7.0</code>
+     */
+    public boolean isCollectionStart() {
+        return this == MAPPING_START || this == SEQUENCE_START;
+    }
+
+    /**
+     * Returns whether this event ends a collection.
+     *
+     * @return Whether this is {@link #MAPPING_END} or {@link #SEQUENCE_END}.
+     * @since <code>1.7.0</code>
+     */
+    public boolean isCollectionEnd() {
+        return this == MAPPING_END || this == SEQUENCE_END;
+    }
+}
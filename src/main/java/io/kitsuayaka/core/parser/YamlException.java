@@ -0,0 +1,58 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+
+/**
+ * Thrown by a {@link YamlReader} if its input is not a well-formed {@code YAML} stream, or uses a feature the reader
+ * does not support, and by {@link YamlTreeBuilder} if the events cannot be built into a tree. It carries the position
+ * the problem was found at.
+ *
+ * @version <code>1.0.0</code>
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public class YamlException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int line;
+    private final int column;
+
+    /**
+     * Creates a new {@code YamlException} for a problem at the given position.
+     *
+     * @param message the description of the problem.
+     * @param line    the line the problem was found in, starting at {@code 1}.
+     * @param column  the column the problem was found in, starting at {@code 1}.
+     * @since <code>1.7.0</code>
+     */
+    public YamlException(@NotNull String message, int line, int column) {
+        super(message + " (line " + line + ", column " + column + ")");
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Returns the line the problem was found in.
+     *
+     * @return The line, starting at {@code 1}.
+     * @since <code>1.7.0</code>
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the column the problem was found in.
+     *
+     * @return The column, starting at {@code 1}.
+     * @since <code>1.7.0</code>
+     */
+    public int getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,1365 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Objects of the class {@code YamlReader} read a {@code YAML} stream one {@link YamlEvent event} at a time, instead of
+ * building a tree of the whole document first. The input is scanned incrementally: a {@link Reader} is read in chunks
+ * into a buffer of {@link #DEFAULT_BUFFER_SIZE} characters, which only grows if a single line or scalar does not fit
+ * into it, so even very large files are read with bounded memory; files can also be {@link #open(Path) mapped} into
+ * memory instead of being read. After each call to {@link #next()} the details of the current event are available
+ * through {@link #scalar()}, {@link #style()}, {@link #anchor()}, {@link #tag()}, {@link #alias()}, {@link #line()}
+ * and {@link #column()}:
+ * <blockquote>
+ * <pre>{@code try (YamlReader reader = new YamlReader(Files.newBufferedReader(path))) {
+ *     while (reader.hasNext()) {
+ *         if (reader.next() == YamlEvent.SCALAR && reader.scalar().contentEquals("inventory")) {
+ *             reader.next();
+ *             reader.skip(); // the whole collection, without keeping any of it
+ *         }
+ *     }
+ * }}</pre>
+ * </blockquote>
+ * A tree can be built on top of the events using {@link YamlTreeBuilder}, but does not have to be.
+ * <hr/>
+ * Supported are block and flow collections, plain, quoted and block scalars with all of their folding, chomping and
+ * escaping rules, anchors, aliases and tags, comments, and streams of several documents separated by {@code ---} and
+ * {@code ...}. Directives are skipped, tags are reported as they are written, e.g. {@code !!str}. Explicit keys
+ * ({@code ? key}) and collections as keys of block mappings are not supported and reported as a
+ * {@link YamlException}, like any malformed input.
+ *
+ * @version <code>1.0.0</code>
+ * @see YamlEvent
+ * @see YamlTreeBuilder
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public final class YamlReader implements Iterator<YamlEvent>, Closeable {
+    /**
+     * The number of characters a {@code YamlReader} reads from a {@link Reader} at once, unless told otherwise.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int EOF = -1;
+
+    // the largest run of chars looked ahead before they are moved into the text buffer
+    private static final int CHUNK = 4096;
+
+    private static final int BLOCK_MAPPING = 0;
+    private static final int BLOCK_SEQUENCE = 1;
+    private static final int FLOW_MAPPING = 2;
+    private static final int FLOW_SEQUENCE = 3;
+    private static final int FLOW_PAIR = 4; // a single key: value pair inside a flow sequence
+
+    // the states of a mapping; a flow sequence is either at KEY, expecting an entry, or at NEXT
+    private static final int KEY = 0;
+    private static final int COLON = 1;
+    private static final int VALUE = 2;
+    private static final int NEXT = 3;
+
+    private static final int NO_DOCUMENT = 0;
+    private static final int IN_DOCUMENT = 1;
+    private static final int AFTER_ROOT = 2;
+
+    private static final int CLIP = 0;
+    private static final int KEEP = 1;
+    private static final int STRIP = 2;
+
+    // the input lives in buf[pos, limit), base is the offset of buf[0] in the stream
+    private final @Nullable Reader in;
+    private char[] buf;
+    private int pos;
+    private int limit;
+    private long base;
+    private boolean eof;
+    private int line;
+    private long lineOffset;
+
+    // the contents of the scalar being scanned, the range of the input it was scanned from, quotes and headers
+    // included, and whether the contents are that range as it is, quotes excluded
+    private char[] text = new char[64];
+    private int textLength;
+    private long scalarStart;
+    private long scalarEnd;
+    private boolean verbatim;
+
+    // the open collections, innermost last
+    private int[] kinds = new int[16];
+    private int[] indents = new int[16];
+    private int[] states = new int[16];
+    private int depth;
+    private int flowDepth;
+
+    private int document = NO_DOCUMENT;
+    private boolean started;
+    private boolean finished;
+    private boolean skipping;
+    // whether scalars are only scanned, to be decoded from their source range when needed
+    private boolean lazy;
+    // whether a node has to follow, and the indentation it has to exceed if it starts on a new line
+    private boolean expectNode;
+    private int nodeIndent;
+    // whether the next token is the first on its line, or follows a "- " on the same line
+    private boolean atLineStart = true;
+    private boolean compact;
+
+    // the properties read for the next node, propertiesLine is -1 if there are none
+    private @Nullable String anchor;
+    private @Nullable String tag;
+    private int propertiesLine = -1;
+    private int propertiesColumn;
+
+    // the events scanned but not yet returned, a ring of count slots starting at head
+    private YamlEvent[] queuedEvents = new YamlEvent[8];
+    private StringType[] queuedValues = new StringType[8];
+    private ScalarStyle[] queuedStyles = new ScalarStyle[8];
+    private String[] queuedAnchors = new String[8];
+    private String[] queuedTags = new String[8];
+    private int[] queuedLines = new int[8];
+    private int[] queuedColumns = new int[8];
+    private long[] queuedStarts = new long[8];
+    private long[] queuedEnds = new long[8];
+    private boolean[] queuedVerbatim = new boolean[8];
+    private int head;
+    private int count;
+
+    // the event returned last
+    private @Nullable YamlEvent event;
+    private @Nullable StringType value;
+    private @Nullable ScalarStyle style;
+    private @Nullable String eventAnchor;
+    private @Nullable String eventTag;
+    private int eventLine;
+    private int eventColumn;
+    private long eventStart;
+    private long eventEnd;
+    private boolean eventVerbatim;
+
+    /**
+     * Creates a new {@code YamlReader} reading from the given {@code Reader} in chunks of
+     * {@link #DEFAULT_BUFFER_SIZE} characters.
+     *
+     * @param in the {@code Reader} to read from, closed by {@link #close()}.
+     * @see #YamlReader(Reader, int)
+     * @since <code>1.7.0</code>
+     */
+    public YamlReader(@NotNull Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new {@code YamlReader} reading from the given {@code Reader} in chunks of {@code bufferSize}
+     * characters.
+     *
+     * @param in         the {@code Reader} to read from, closed by {@link #close()}.
+     * @param bufferSize the initial size of the buffer.
+     * @throws IllegalArgumentException if {@code bufferSize} is smaller than {@code 16}.
+     * @since <code>1.7.0</code>
+     */
+    public YamlReader(@NotNull Reader in, int bufferSize) {
+        if (bufferSize < 16) throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+        this.in = Objects.requireNonNull(in);
+        buf = new char[bufferSize];
+    }
+
+    /**
+     * Creates a new {@code YamlReader} reading the given characters, which must not be modified while reading.
+     *
+     * @param cs the characters to read.
+     * @see #YamlReader(char[], int, int)
+     * @since <code>1.7.0</code>
+     */
+    public YamlReader(char @NotNull [] cs) {
+        this(cs, 0, cs.length);
+    }
+
+    /**
+     * Creates a new {@code YamlReader} reading the characters {@code cs[start, end)}, which must not be modified while
+     * reading. They are read in place, without copying them into a buffer first.
+     *
+     * @param cs    the array holding the characters to read.
+     * @param start the index of the first character, inclusive.
+     * @param end   the index of the last character, exclusive.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     * @since <code>1.7.0</code>
+     */
+    public YamlReader(char @NotNull [] cs, int start, int end) {
+        this(cs, start, end, 0);
+    }
+
+    // a part of a larger stream, whose first line is the given one, counted from 0
+    YamlReader(char @NotNull [] cs, int start, int end, int line) {
+        Objects.checkFromToIndex(start, end, cs.length);
+        in = null;
+        buf = cs;
+        pos = start;
+        limit = end;
+        lineOffset = start;
+        eof = true;
+        this.line = line;
+    }
+
+    /**
+     * Creates a new {@code YamlReader} reading the given {@code String}.
+     *
+     * @param yaml the {@code YAML} stream to read.
+     * @since <code>1.7.0</code>
+     */
+    public YamlReader(@NotNull String yaml) {
+        this(yaml.toCharArray());
+    }
+
+    /**
+     * Creates a new {@code YamlReader} reading the given <em>UTF-8</em> file through a memory mapping: the file is
+     * mapped in windows of up to a gigabyte and decoded in chunks straight into the buffer of the
+     * {@code YamlReader}, without copying its bytes onto the heap first. Compared to reading the file through
+     * {@link java.nio.file.Files#newBufferedReader(Path)}, this mostly pays off for large files.
+     *
+     * @param file the file to read, which must not be truncated while it is read.
+     * @return A new {@code YamlReader}, whose {@link #close()} closes the file.
+     * @throws IOException if the file cannot be opened or mapped.
+     * @see #YamlReader(Reader)
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull YamlReader open(@NotNull Path file) throws IOException {
+        return new YamlReader(new MappedReader(file));
+    }
+
+    /**
+     * Decodes a single scalar of the given style from the characters {@code cs[start, end)} it spans, its quotes or
+     * block header included, resolving quotes, escapes and folding the way reading it as a part of a document does.
+     * Block scalars are decoded as if their parent node was not indented, which only matters for an explicit
+     * indentation indicator. This allows to keep only the range of a scalar and to decode it when it is needed.
+     *
+     * @param cs    the array holding the scalar.
+     * @param start the index of the first character of the scalar, inclusive.
+     * @param end   the index of the last character of the scalar, exclusive.
+     * @param style the style of the scalar.
+     * @return The contents of the scalar.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     * @throws YamlException             if the range is not a scalar of the given style.
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull StringType decode(char @NotNull [] cs, int start, int end, @NotNull ScalarStyle style) {
+        YamlReader r = new YamlReader(cs, start, end);
+        switch (style) {
+            case PLAIN -> r.plain(true, -1);
+            case SINGLE_QUOTED, DOUBLE_QUOTED -> r.quoted(style == ScalarStyle.DOUBLE_QUOTED);
+            case LITERAL, FOLDED -> {
+                r.nodeIndent = 0;
+                r.blockScalar(style == ScalarStyle.LITERAL, 0, 0);
+            }
+        }
+        if (r.peek(0) != EOF) throw r.error("Expected the end of the scalar");
+        return new StringType(r.text, 0, r.textLength);
+    }
+
+    // --------------------------------------------------------- Events
+
+    /**
+     * Returns whether there are events left, which is the case until {@link YamlEvent#STREAM_END} has been returned.
+     *
+     * @return Whether {@link #next()} can be called.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public boolean hasNext() {
+        return count > 0 || !finished;
+    }
+
+    /**
+     * Reads up to the next event and returns it. Its details are available through the other methods of this
+     * {@code YamlReader} until the next call.
+     *
+     * @return The next event.
+     * @throws NoSuchElementException if {@link YamlEvent#STREAM_END} has been returned already.
+     * @throws YamlException          if the input is malformed.
+     * @throws UncheckedIOException   if reading from the {@code Reader} fails.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public @NotNull YamlEvent next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        while (count == 0) step();
+
+        int i = head;
+        event = queuedEvents[i];
+        value = queuedValues[i];
+        style = queuedStyles[i];
+        eventAnchor = queuedAnchors[i];
+        eventTag = queuedTags[i];
+        eventLine = queuedLines[i];
+        eventColumn = queuedColumns[i];
+        eventStart = queuedStarts[i];
+        eventEnd = queuedEnds[i];
+        eventVerbatim = queuedVerbatim[i];
+        queuedValues[i] = null;
+        queuedAnchors[i] = null;
+        queuedTags[i] = null;
+        head = (i + 1) & (queuedEvents.length - 1);
+        count--;
+        return event;
+    }
+
+    /**
+     * Skips the node the current event starts: if it is {@link YamlEvent#MAPPING_START} or
+     * {@link YamlEvent#SEQUENCE_START}, everything up to and including the matching end event is read without
+     * building any scalars, otherwise nothing happens.
+     *
+     * @since <code>1.7.0</code>
+     */
+    public void skip() {
+        if (event == null || !event.isCollectionStart()) return;
+
+        skipping = true;
+        try {
+            for (int open = 1; open > 0; ) {
+                YamlEvent e = next();
+                if (e.isCollectionStart()) open++;
+                else if (e.isCollectionEnd()) open--;
+            }
+        } finally {
+            skipping = false;
+        }
+    }
+
+    /**
+     * Returns the event returned by the last call to {@link #next()}.
+     *
+     * @return The current event.
+     * @throws IllegalStateException if {@link #next()} has not been called yet.
+     * @since <code>1.7.0</code>
+     */
+    public @NotNull YamlEvent event() {
+        if (event == null) throw new IllegalStateException("next() has not been called yet");
+        return event;
+    }
+
+    /**
+     * Returns the contents of the current {@link YamlEvent#SCALAR}, with all quotes, escapes and folding resolved. A
+     * missing node, like the value of {@code key:}, is reported as an empty plain scalar.
+     *
+     * @return The contents of the current scalar, {@code null} for other events, or scalars read by {@link #skip()}.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable StringType scalar() {
+        if (value == null && event == YamlEvent.SCALAR) value = decoded(); // scanned lazily
+        return value;
+    }
+
+    /**
+     * Returns the style the current {@link YamlEvent#SCALAR} is written in.
+     *
+     * @return The style of the current scalar, {@code null} for other events.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable ScalarStyle style() {
+        return style;
+    }
+
+    /**
+     * Returns the anchor of the node the current event starts, as in {@code &name}.
+     *
+     * @return The name of the anchor, {@code null} if there is none.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable String anchor() {
+        return event == YamlEvent.ALIAS ? null : eventAnchor;
+    }
+
+    /**
+     * Returns the name of the anchor the current {@link YamlEvent#ALIAS} refers to, as in {@code *name}.
+     *
+     * @return The name of the anchor, {@code null} for other events.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable String alias() {
+        return event == YamlEvent.ALIAS ? eventAnchor : null;
+    }
+
+    /**
+     * Returns the tag of the node the current event starts, as it is written, e.g. {@code !!str}.
+     *
+     * @return The tag, {@code null} if there is none.
+     * @since <code>1.7.0</code>
+     */
+    public @Nullable String tag() {
+        return eventTag;
+    }
+
+    /**
+     * Returns the line the current event was found in.
+     *
+     * @return The line, starting at {@code 1}.
+     * @since <code>1.7.0</code>
+     */
+    public int line() {
+        return eventLine + 1;
+    }
+
+    /**
+     * Returns the column the current event was found in.
+     *
+     * @return The column, starting at {@code 1}.
+     * @since <code>1.7.0</code>
+     */
+    public int column() {
+        return eventColumn + 1;
+    }
+
+    // the array this YamlReader reads, null if it reads a Reader; offsets are indices into it
+    char @Nullable [] source() {
+        return in == null ? buf : null;
+    }
+
+    // the offset of the first char of the current scalar, its opening quote or block header included
+    long sourceStart() {
+        return eventStart;
+    }
+
+    // the offset after the last char of the current scalar, its closing quote included
+    long sourceEnd() {
+        return eventEnd;
+    }
+
+    // whether the current scalar is the source range as it is, quotes excluded
+    boolean isVerbatim() {
+        return eventVerbatim;
+    }
+
+    // whether the current scalar has been decoded already, rather than only scanned
+    boolean isDecoded() {
+        return value != null;
+    }
+
+    /*
+     * Whether scalars are only scanned from here on, to be decoded from their source range by scalar() if it is
+     * called, unless their contents depend on more than that range: block scalars with an explicit indentation
+     * indicator. Only for arrays.
+     */
+    void setLazy(boolean lazy) {
+        this.lazy = lazy && in == null;
+    }
+
+    /**
+     * Closes the {@code Reader} this {@code YamlReader} reads from, if any.
+     *
+     * @throws IOException if closing the {@code Reader} fails.
+     * @since <code>1.7.0</code>
+     */
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+
+    // --------------------------------------------------------- Scanning
+
+    // scans up to the next event, or the next few
+    private void step() {
+        if (!started) {
+            started = true;
+            if (peek(0) == '\uFEFF') skip(1);
+            emit(YamlEvent.STREAM_START, null, null, null, null, 0, 0);
+        } else if (flowDepth > 0) {
+            flowStep();
+        } else {
+            blockStep();
+        }
+    }
+
+    private void blockStep() {
+        skipSeparation();
+        int c = peek(0);
+        if (c == EOF) {
+            endDocument();
+            emit(YamlEvent.STREAM_END, null, null, null, null, line, col());
+            finished = true;
+            return;
+        }
+
+        int col = col();
+        if (col == 0 && atLineStart && isDocumentMarker()) {
+            documentMarker();
+            return;
+        }
+
+        if (document == NO_DOCUMENT) {
+            if (c == '%' && col == 0) skipComment(); // a directive, which applies to nothing supported here
+            else startDocument(line, col);
+            return;
+        }
+
+        if (expectNode) {
+            boolean entry = col == nodeIndent && depth > 0 && kinds[depth - 1] == BLOCK_MAPPING && isSequenceEntry();
+            if (atLineStart && col <= nodeIndent && !entry) emptyScalar(); // the node is missing, e.g. "key:"
+            else blockNode(col, false);
+            return;
+        }
+
+        if (!atLineStart) throw error("Unexpected content after the node");
+        if (depth == 0) throw error("Expected the end of the document, but found more content");
+
+        // leave the collections the next token is not indented far enough for
+        int kind = kinds[depth - 1], indent = indents[depth - 1];
+        if (indent > col || kind == BLOCK_SEQUENCE && indent == col && !isSequenceEntry()) {
+            endCollection();
+            return;
+        }
+
+        if (indent != col) throw error("Bad indentation of a " + (kind == BLOCK_SEQUENCE ? "sequence entry" : "mapping key"));
+        if (kind == BLOCK_SEQUENCE) {
+            skip(1);
+            atLineStart = false;
+            expectNode = true;
+            nodeIndent = col;
+            compact = true;
+        } else {
+            blockNode(col, true);
+        }
+    }
+
+    // a node starting at the given column in block context, or the next key of the innermost block mapping
+    private void blockNode(int col, boolean asKey) {
+        boolean inline = atLineStart || compact;
+        atLineStart = false;
+        compact = false;
+
+        properties();
+        int c = peek(0);
+        if (propertiesLine >= 0 && (c == '#' || isBreakOrEnd(c))) {
+            if (asKey) throw error("Expected a key after its properties");
+            return; // the node follows on the next lines
+        }
+
+        int l = line, tokenColumn = col();
+        if (c == '-' && isBlankOrEnd(peek(1))) {
+            if (asKey || !inline) throw error("Sequence entries are not allowed here");
+            push(BLOCK_SEQUENCE, tokenColumn);
+            emitNode(YamlEvent.SEQUENCE_START, null, null, l, tokenColumn);
+            skip(1);
+            expectNode = true;
+            nodeIndent = tokenColumn;
+            compact = true;
+            return;
+        }
+        if (c == '?' && isBlankOrEnd(peek(1))) throw error("Explicit keys are not supported");
+        if (c == '[' || c == '{') {
+            if (asKey) throw error("Flow collections are not supported as keys of block mappings");
+            push(c == '[' ? FLOW_SEQUENCE : FLOW_MAPPING, tokenColumn);
+            emitNode(c == '[' ? YamlEvent.SEQUENCE_START : YamlEvent.MAPPING_START, null, null, l, tokenColumn);
+            skip(1);
+            expectNode = false;
+            return;
+        }
+        if (c == '|' || c == '>') {
+            if (asKey) throw error("Block scalars cannot be keys");
+            blockScalar(c == '|', l, tokenColumn);
+            nodeDone();
+            return;
+        }
+
+        // scalars and aliases, which turn out to be keys if a ':' follows them on the same line
+        YamlEvent kind = YamlEvent.SCALAR;
+        ScalarStyle scalarStyle;
+        String aliasName = null;
+        boolean key;
+        if (c == '*') {
+            if (propertiesLine >= 0) throw error("An alias cannot have properties");
+            skip(1);
+            kind = YamlEvent.ALIAS;
+            scalarStyle = null;
+            aliasName = name("an alias");
+            key = isValueIndicatorAhead();
+        } else if (c == '\'' || c == '"') {
+            scalarStyle = c == '"' ? ScalarStyle.DOUBLE_QUOTED : ScalarStyle.SINGLE_QUOTED;
+            quoted(c == '"');
+            key = isValueIndicatorAhead();
+        } else if (c == ':' && isBlankOrEnd(peek(1))) {
+            scalarStyle = ScalarStyle.PLAIN;
+            startScalar();
+            key = true;
+        } else {
+            if (c == '@' || c == '`') throw error("'" + (char) c + "' is reserved and cannot start a plain scalar");
+            if (c == ',' || c == ']' || c == '}') throw error("Unexpected '" + (char) c + "'");
+            scalarStyle = ScalarStyle.PLAIN;
+            key = plain(!asKey, nodeIndent);
+        }
+
+        if (!key) {
+            if (asKey) throw error("Could not find the expected ':' after the key");
+            if (kind == YamlEvent.ALIAS) emitAlias(aliasName, l, tokenColumn);
+            else emitNode(kind, scanned(), scalarStyle, l, tokenColumn);
+            nodeDone();
+            return;
+        }
+
+        if (!inline && !asKey) throw error("Mapping values are not allowed here");
+        if (!asKey) {
+            push(BLOCK_MAPPING, col);
+            // properties on a line of their own belong to the mapping, the ones in front of the key to the key
+            if (propertiesLine >= 0 && propertiesLine < l) emitNode(YamlEvent.MAPPING_START, null, null, l, col);
+            else emit(YamlEvent.MAPPING_START, null, null, null, null, l, col);
+        }
+        if (kind == YamlEvent.ALIAS) emitAlias(aliasName, l, tokenColumn);
+        else emitNode(kind, scanned(), scalarStyle, l, tokenColumn);
+
+        skipBlanks();
+        skip(1);
+        states[depth - 1] = VALUE;
+        expectNode = true;
+        nodeIndent = indents[depth - 1];
+    }
+
+    private void flowStep() {
+        skipSeparation();
+        int c = peek(0);
+        // a document marker ends the document, and so any flow collection left open
+        if (c == EOF || isDocumentMarker()) throw error("Unterminated flow collection");
+
+        int d = depth - 1, kind = kinds[d], state = states[d];
+        if (kind == FLOW_PAIR) {
+            if (c == ',' || c == ']' || c == '}') emptyScalar();
+            else flowNode();
+            return;
+        }
+
+        if (c == ']' || c == '}') {
+            if (kind != (c == ']' ? FLOW_SEQUENCE : FLOW_MAPPING)) throw error("Unexpected '" + (char) c + "'");
+            if (state == COLON || state == VALUE) {
+                emptyScalar(); // a key without a value
+                return;
+            }
+            skip(1);
+            endCollection();
+            return;
+        }
+        if (c == ',') {
+            if (state == COLON || state == VALUE) {
+                emptyScalar();
+                return;
+            }
+            if (state != NEXT) throw error("Unexpected ','");
+            skip(1);
+            states[d] = KEY;
+            return;
+        }
+        if (c == ':' && (state == COLON || isBlankOrEnd(peek(1)) || isFlowIndicator(peek(1)))) {
+            if (kind == FLOW_MAPPING && state == KEY) {
+                emptyScalar(); // an empty key
+            } else if (kind == FLOW_MAPPING && state == COLON) {
+                skip(1);
+                states[d] = VALUE;
+            } else if (kind == FLOW_SEQUENCE && state == KEY) {
+                startScalar();
+                pair(YamlEvent.SCALAR, null, ScalarStyle.PLAIN, line, col());
+            } else {
+                throw error("Unexpected ':'");
+            }
+            return;
+        }
+
+        if (state == NEXT) throw error(kind == FLOW_SEQUENCE ? "Expected ',' or ']'" : "Expected ',' or '}'");
+        if (state == COLON) throw error("Expected ':' after the key");
+        flowNode();
+    }
+
+    // a node in flow context, keys of flow mappings included
+    private void flowNode() {
+        properties();
+        skipSeparation();
+        if (isDocumentMarker()) throw error("Unterminated flow collection"); // even right after the properties
+
+        int c = peek(0), l = line, tokenColumn = col();
+        if (c == ',' || c == ']' || c == '}') {
+            emptyScalar();
+            return;
+        }
+        if (c == '[' || c == '{') {
+            push(c == '[' ? FLOW_SEQUENCE : FLOW_MAPPING, tokenColumn);
+            emitNode(c == '[' ? YamlEvent.SEQUENCE_START : YamlEvent.MAPPING_START, null, null, l, tokenColumn);
+            skip(1);
+            return;
+        }
+        if (c == '|' || c == '>') throw error("Block scalars are not allowed in flow collections");
+
+        YamlEvent kind = YamlEvent.SCALAR;
+        ScalarStyle scalarStyle = ScalarStyle.PLAIN;
+        String aliasName = null;
+        boolean adjacent = false; // a ':' right after a quoted key, like in JSON, is a value indicator
+        if (c == '*') {
+            if (propertiesLine >= 0) throw error("An alias cannot have properties");
+            skip(1);
+            kind = YamlEvent.ALIAS;
+            scalarStyle = null;
+            aliasName = name("an alias");
+        } else if (c == '\'' || c == '"') {
+            scalarStyle = c == '"' ? ScalarStyle.DOUBLE_QUOTED : ScalarStyle.SINGLE_QUOTED;
+            quoted(c == '"');
+            adjacent = peek(0) == ':';
+        } else {
+            if (c == '@' || c == '`') throw error("'" + (char) c + "' is reserved and cannot start a plain scalar");
+            plain(true, -1);
+        }
+
+        int d = depth - 1;
+        if (kinds[d] == FLOW_SEQUENCE && states[d] == KEY && (adjacent || isValueIndicatorAhead())) {
+            pair(kind, aliasName, scalarStyle, l, tokenColumn);
+            return;
+        }
+        if (kind == YamlEvent.ALIAS) emitAlias(aliasName, l, tokenColumn);
+        else emitNode(kind, scanned(), scalarStyle, l, tokenColumn);
+        nodeDone();
+    }
+
+    // the key scanned last starts a single pair mapping inside a flow sequence, the ':' is next
+    private void pair(@NotNull YamlEvent kind, @Nullable String aliasName, @Nullable ScalarStyle scalarStyle,
+                      int l, int tokenColumn) {
+        push(FLOW_PAIR, tokenColumn);
+        emit(YamlEvent.MAPPING_START, null, null, null, null, l, tokenColumn);
+        if (kind == YamlEvent.ALIAS) emitAlias(aliasName, l, tokenColumn);
+        else emitNode(kind, scanned(), scalarStyle, l, tokenColumn);
+
+        skipBlanks();
+        skip(1);
+        states[depth - 1] = VALUE;
+    }
+
+    // --------------------------------------------------------- Documents and collections
+
+    private void startDocument(int l, int c) {
+        document = IN_DOCUMENT;
+        expectNode = true;
+        nodeIndent = -1;
+        compact = false;
+        emit(YamlEvent.DOCUMENT_START, null, null, null, null, l, c);
+    }
+
+    // closes the open document and everything in it, if there is one
+    private void endDocument() {
+        if (document == NO_DOCUMENT) return;
+        if (flowDepth > 0) throw error("Unterminated flow collection");
+
+        if (expectNode) emptyScalar();
+        while (depth > 0) endCollection();
+        emit(YamlEvent.DOCUMENT_END, null, null, null, null, line, col());
+        document = NO_DOCUMENT;
+    }
+
+    // "---" or "..." at the start of a line
+    private void documentMarker() {
+        boolean start = peek(0) == '-';
+        int l = line;
+        endDocument();
+        skip(3);
+        atLineStart = false;
+        if (start) startDocument(l, 0);
+    }
+
+    private void push(int kind, int indent) {
+        if (depth == kinds.length) {
+            kinds = Arrays.copyOf(kinds, depth * 2);
+            indents = Arrays.copyOf(indents, depth * 2);
+            states = Arrays.copyOf(states, depth * 2);
+        }
+        kinds[depth] = kind;
+        indents[depth] = indent;
+        states[depth] = KEY;
+        depth++;
+        if (kind == FLOW_MAPPING || kind == FLOW_SEQUENCE) flowDepth++;
+    }
+
+    private void endCollection() {
+        int kind = kinds[--depth];
+        if (kind == FLOW_MAPPING || kind == FLOW_SEQUENCE) flowDepth--;
+        YamlEvent end = kind == BLOCK_SEQUENCE || kind == FLOW_SEQUENCE ? YamlEvent.SEQUENCE_END : YamlEvent.MAPPING_END;
+        emit(end, null, null, null, null, line, col());
+        nodeDone();
+    }
+
+    // a node has been completed, which moves its parent on to the next one
+    private void nodeDone() {
+        expectNode = false;
+        if (depth == 0) {
+            document = AFTER_ROOT;
+            return;
+        }
+
+        int d = depth - 1;
+        switch (kinds[d]) {
+            case BLOCK_MAPPING -> states[d] = KEY;
+            case FLOW_SEQUENCE -> states[d] = NEXT;
+            case FLOW_MAPPING -> states[d] = states[d] == KEY ? COLON : NEXT;
+            case FLOW_PAIR -> endCollection();
+            default -> {
+            }
+        }
+    }
+
+    // --------------------------------------------------------- Scalars
+
+    // an empty plain scalar for a missing node, carrying the properties read for it
+    private void emptyScalar() {
+        startScalar();
+        emitNode(YamlEvent.SCALAR, scanned(), ScalarStyle.PLAIN, line, col());
+        nodeDone();
+    }
+
+    /*
+     * Scans a plain scalar into the text buffer and returns whether a ':' follows its first line, making it a key.
+     * Otherwise, if multiline, it continues on the following lines as long as they are indented further than minIndent
+     * (in block context), folding the line breaks between them.
+     */
+    private boolean plain(boolean multiline, int minIndent) {
+        startScalar();
+        segment();
+        boolean firstLine = true;
+        while (true) {
+            int n = 0;
+            while (isBlank(peek(n))) n++;
+            int c = peek(n);
+            if (!isBreak(c)) {
+                if (!startsSegment(c, peek(n + 1))) {
+                    if (firstLine && isValueIndicatorAhead()) return true;
+                    skip(n);
+                    break;
+                }
+                take(n); // blanks between two words are kept
+                segment();
+                continue;
+            }
+            if (!multiline) return false;
+
+            skip(n); // trailing blanks are not
+            int breaks = 0;
+            lineBreak();
+            atLineStart = true;
+            while (true) {
+                if (isDocumentMarker()) return false;
+                while (isBlank(peek(0))) skip(1);
+                if (!lineBreak()) break;
+                breaks++;
+            }
+
+            c = peek(0);
+            if (flowDepth == 0 && col() <= minIndent || !startsSegment(c, peek(1))) break;
+            if (breaks == 0) append(' ');
+            else while (breaks-- > 0) append('\n');
+            verbatim = false;
+            atLineStart = false;
+            firstLine = false;
+            segment();
+        }
+
+        if (flowDepth == 0 && peek(0) == ':' && isBlankOrEnd(peek(1))) throw error("Mapping values are not allowed here");
+        return false;
+    }
+
+    // appends the chars up to the next blank, line break or ": ", in flow context also up to a flow indicator
+    private void segment() {
+        int n = 0;
+        while (true) {
+            int c = peek(n);
+            if (c == EOF || c == ' ' || c == '\t' || c == '\n' || c == '\r') break;
+            if (c == ':') {
+                int d = peek(n + 1);
+                if (isBlankOrEnd(d) || flowDepth > 0 && isFlowIndicator(d)) break;
+            } else if (flowDepth > 0 && isFlowIndicator(c)) {
+                break;
+            }
+            if (++n == CHUNK) {
+                take(n);
+                n = 0;
+            }
+        }
+        take(n);
+        scalarEnd = base + pos;
+    }
+
+    // whether the char c, followed by next, continues a plain scalar
+    private boolean startsSegment(int c, int next) {
+        if (c == EOF || c == '#' || isBreak(c)) return false;
+        if (c == ':') return !isBlankOrEnd(next) && !(flowDepth > 0 && isFlowIndicator(next));
+        return flowDepth == 0 || !isFlowIndicator(c);
+    }
+
+    // scans a quoted scalar into the text buffer, the opening quote is next
+    private void quoted(boolean dbl) {
+        startScalar();
+        int quote = dbl ? '"' : '\'';
+        skip(1);
+        while (true) {
+            int n = 0, c;
+            while ((c = peek(n)) != EOF && c != quote && c != ' ' && c != '\t' && !isBreak(c) && !(dbl && c == '\\')) {
+                if (++n == CHUNK) {
+                    take(n);
+                    n = 0;
+                }
+            }
+            take(n);
+
+            if (c == EOF) throw error("Unterminated quoted scalar");
+            if (c == quote) {
+                skip(1);
+                scalarEnd = base + pos;
+                if (dbl || peek(0) != '\'') return;
+                skip(1);
+                append('\''); // '' is an escaped '
+                verbatim = false;
+            } else if (c == '\\') {
+                escape();
+                verbatim = false;
+            } else {
+                int b = 0;
+                while (isBlank(peek(b))) b++;
+                if (!isBreak(peek(b))) {
+                    take(b);
+                    continue;
+                }
+                skip(b);
+                fold(false);
+                verbatim = false;
+            }
+        }
+    }
+
+    // folds the line breaks at pos and the indentation after them into a space, or the line breaks beyond the first
+    private void fold(boolean escaped) {
+        int breaks = 0;
+        lineBreak();
+        while (true) {
+            if (isDocumentMarker()) throw error("Unterminated quoted scalar"); // the marker ends the document
+            while (isBlank(peek(0))) skip(1);
+            if (!lineBreak()) break;
+            breaks++;
+        }
+        if (breaks == 0 && !escaped) append(' ');
+        while (breaks-- > 0) append('\n');
+    }
+
+    // an escape sequence inside a double-quoted scalar, the backslash is next
+    private void escape() {
+        int c = peek(1);
+        char r;
+        switch (c) {
+            case '0' -> r = '\0';
+            case 'a' -> r = 0x07;
+            case 'b' -> r = '\b';
+            case 't', '\t' -> r = '\t';
+            case 'n' -> r = '\n';
+            case 'v' -> r = 0x0B;
+            case 'f' -> r = '\f';
+            case 'r' -> r = '\r';
+            case 'e' -> r = 0x1B;
+            case ' ' -> r = ' ';
+            case '"' -> r = '"';
+            case '/' -> r = '/';
+            case '\\' -> r = '\\';
+            case 'N' -> r = 0x85;
+            case '_' -> r = 0xA0;
+            case 'L' -> r = 0x2028;
+            case 'P' -> r = 0x2029;
+            case 'x', 'u', 'U' -> {
+                int digits = c == 'x' ? 2 : c == 'u' ? 4 : 8, cp = 0;
+                for (int i = 0; i < digits; i++) {
+                    int digit = Character.digit(peek(2 + i), 16);
+                    if (digit < 0) throw error("Expected " + digits + " hexadecimal digits in the escape sequence");
+                    cp = cp << 4 | digit;
+                }
+                if (!Character.isValidCodePoint(cp)) throw error("Invalid code point in the escape sequence");
+                skip(2 + digits);
+                if (Character.isBmpCodePoint(cp)) {
+                    append((char) cp);
+                } else {
+                    append(Character.highSurrogate(cp));
+                    append(Character.lowSurrogate(cp));
+                }
+                return;
+            }
+            case '\n', '\r' -> {
+                skip(1);
+                fold(true); // an escaped line break is dropped, with the indentation of the next line
+                return;
+            }
+            default -> throw error("Unknown escape sequence");
+        }
+        skip(2);
+        append(r);
+    }
+
+    // scans and emits a block scalar, the '|' or '>' is next
+    private void blockScalar(boolean literal, int l, int tokenColumn) {
+        startScalar();
+        verbatim = false;
+        skip(1);
+        int chomping = CLIP, increment = 0;
+        for (int i = 0; i < 2; i++) {
+            int c = peek(0);
+            if ((c == '+' || c == '-') && chomping == CLIP) {
+                chomping = c == '+' ? KEEP : STRIP;
+            } else if ('1' <= c && c <= '9' && increment == 0) {
+                increment = c - '0';
+            } else {
+                break;
+            }
+            skip(1);
+        }
+        skipBlanks();
+        if (peek(0) == '#') skipComment();
+        if (!lineBreak() && peek(0) != EOF) throw error("Expected a line break after the block scalar header");
+        atLineStart = true;
+        boolean eager = lazy && increment > 0; // its indentation depends on the parent node
+        lazy &= !eager;
+
+        int minIndent = Math.max(nodeIndent + 1, 1), indent, breaks = 0;
+        if (increment == 0) {
+            int max = 0;
+            while (true) {
+                if (peek(0) == ' ') {
+                    skip(1);
+                    max = Math.max(max, col());
+                } else if (lineBreak()) {
+                    breaks++;
+                } else {
+                    break;
+                }
+            }
+            indent = Math.max(minIndent, max);
+        } else {
+            indent = minIndent + increment - 1;
+            breaks = blockBreaks(indent);
+        }
+
+        boolean lineBreak = false;
+        while (col() == indent && peek(0) != EOF) {
+            while (breaks > 0) {
+                append('\n');
+                breaks--;
+            }
+            boolean leadingNonBlank = !isBlank(peek(0));
+            int n = 0;
+            while (!isBreakOrEnd(peek(n))) {
+                if (++n == CHUNK) {
+                    take(n);
+                    n = 0;
+                }
+            }
+            take(n);
+            lineBreak = lineBreak();
+            breaks = blockBreaks(indent);
+
+            if (col() != indent || peek(0) == EOF) break;
+            if (!literal && lineBreak && leadingNonBlank && !isBlank(peek(0))) {
+                if (breaks == 0) append(' '); // folded lines are joined, unless empty lines are in between
+            } else if (lineBreak) {
+                append('\n');
+            }
+        }
+
+        if (chomping != STRIP && lineBreak) append('\n');
+        if (chomping == KEEP) while (breaks-- > 0) append('\n');
+        scalarEnd = base + pos;
+        emitNode(YamlEvent.SCALAR, scanned(), literal ? ScalarStyle.LITERAL : ScalarStyle.FOLDED, l, tokenColumn);
+        lazy |= eager;
+    }
+
+    // skips the indentation of the following lines up to indent, returns the number of empty ones
+    private int blockBreaks(int indent) {
+        int breaks = 0;
+        while (col() < indent && peek(0) == ' ') skip(1);
+        while (lineBreak()) {
+            breaks++;
+            while (col() < indent && peek(0) == ' ') skip(1);
+        }
+        return breaks;
+    }
+
+    // --------------------------------------------------------- Properties
+
+    // anchors and tags in front of a node, in any order
+    private void properties() {
+        while (true) {
+            int c = peek(0);
+            if (c != '&' && c != '!') return;
+
+            if (propertiesLine < 0) {
+                propertiesLine = line;
+                propertiesColumn = col();
+            }
+            if (c == '&') {
+                if (anchor != null) throw error("A node can only have one anchor");
+                skip(1);
+                anchor = name("an anchor");
+            } else {
+                if (tag != null) throw error("A node can only have one tag");
+                tag = tagName();
+            }
+            skipBlanks();
+        }
+    }
+
+    // the name of an anchor or alias, the '&' or '*' has been skipped already
+    private @NotNull String name(@NotNull String of) {
+        int n = 0;
+        for (int c; !isBlankOrEnd(c = peek(n)) && !isFlowIndicator(c); n++) {
+            if (c == ':' && isBlankOrEnd(peek(n + 1))) break;
+        }
+        if (n == 0) throw error("Expected the name of " + of);
+        String s = new String(buf, pos, n);
+        skip(n);
+        return s;
+    }
+
+    private @NotNull String tagName() {
+        int n = 1, c;
+        if (peek(1) == '<') {
+            for (n = 2; (c = peek(n)) != '>'; n++) {
+                if (isBreakOrEnd(c)) throw error("Unterminated verbatim tag");
+            }
+            n++;
+        } else {
+            while (!isBlankOrEnd(c = peek(n)) && !(flowDepth > 0 && isFlowIndicator(c))) n++;
+        }
+        String s = new String(buf, pos, n);
+        skip(n);
+        return s;
+    }
+
+    // --------------------------------------------------------- Event queue
+
+    // emits an event for a node, carrying the properties read for it
+    private void emitNode(@NotNull YamlEvent e, @Nullable StringType v, @Nullable ScalarStyle s, int l, int c) {
+        emit(e, v, s, anchor, tag, l, c);
+        anchor = null;
+        tag = null;
+        propertiesLine = -1;
+    }
+
+    private void emitAlias(@NotNull String name, int l, int c) {
+        emit(YamlEvent.ALIAS, null, null, name, null, l, c);
+    }
+
+    private void emit(@NotNull YamlEvent e, @Nullable StringType v, @Nullable ScalarStyle s,
+                      @Nullable String a, @Nullable String t, int l, int c) {
+        if (count == queuedEvents.length) growQueue();
+
+        int i = (head + count) & (queuedEvents.length - 1);
+        queuedEvents[i] = e;
+        queuedValues[i] = v;
+        queuedStyles[i] = s;
+        queuedAnchors[i] = a;
+        queuedTags[i] = t;
+        queuedLines[i] = l;
+        queuedColumns[i] = c;
+        queuedStarts[i] = scalarStart;
+        queuedEnds[i] = scalarEnd;
+        queuedVerbatim[i] = verbatim;
+        count++;
+    }
+
+    private void growQueue() {
+        int n = queuedEvents.length;
+        queuedEvents = unwrap(queuedEvents, new YamlEvent[n * 2], n);
+        queuedValues = unwrap(queuedValues, new StringType[n * 2], n);
+        queuedStyles = unwrap(queuedStyles, new ScalarStyle[n * 2], n);
+        queuedAnchors = unwrap(queuedAnchors, new String[n * 2], n);
+        queuedTags = unwrap(queuedTags, new String[n * 2], n);
+        queuedLines = unwrap(queuedLines, new int[n * 2], n);
+        queuedColumns = unwrap(queuedColumns, new int[n * 2], n);
+        queuedStarts = unwrap(queuedStarts, new long[n * 2], n);
+        queuedEnds = unwrap(queuedEnds, new long[n * 2], n);
+        queuedVerbatim = unwrap(queuedVerbatim, new boolean[n * 2], n);
+        head = 0;
+    }
+
+    // the ring of n slots starting at head, copied to the start of the given larger array
+    private <A> @NotNull A unwrap(@NotNull A ring, @NotNull A dst, int n) {
+        System.arraycopy(ring, head, dst, 0, n - head);
+        System.arraycopy(ring, 0, dst, n - head, head);
+        return dst;
+    }
+
+    // starts scanning a scalar at pos
+    private void startScalar() {
+        textLength = 0;
+        scalarStart = scalarEnd = base + pos;
+        verbatim = true;
+    }
+
+    // the current scalar, scanned lazily, decoded from its source range
+    private @NotNull StringType decoded() {
+        int start = (int) eventStart, end = (int) eventEnd;
+        if (!eventVerbatim) return decode(buf, start, end, Objects.requireNonNull(style));
+
+        int quotes = style == ScalarStyle.PLAIN ? 0 : 1;
+        return new StringType(buf, start + quotes, end - quotes);
+    }
+
+    // the scanned scalar, unless it is being skipped or scanned lazily
+    private @Nullable StringType scanned() {
+        return skipping || lazy ? null : new StringType(text, 0, textLength);
+    }
+
+    // --------------------------------------------------------- Input
+
+    // the char k positions ahead, EOF past the end of the input
+    private int peek(int k) {
+        int i = pos + k;
+        if (i < limit) return buf[i];
+        return fill(k + 1) ? buf[pos + k] : EOF;
+    }
+
+    // makes n chars available from pos on, returns false if the input ends first
+    private boolean fill(int n) {
+        if (eof) return limit - pos >= n;
+
+        try {
+            while (limit - pos < n) {
+                if (pos > 0) {
+                    System.arraycopy(buf, pos, buf, 0, limit - pos);
+                    limit -= pos;
+                    base += pos;
+                    pos = 0;
+                }
+                if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+
+                int read = Objects.requireNonNull(in).read(buf, limit, buf.length - limit);
+                if (read < 0) {
+                    eof = true;
+                    return limit - pos >= n;
+                }
+                limit += read;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the chars have to have been peeked at, and must not be line breaks
+    private void skip(int n) {
+        pos += n;
+    }
+
+    // moves the next n chars into the text buffer, they have to have been peeked at
+    private void take(int n) {
+        if (lazy) {
+            pos += n;
+            return;
+        }
+        if (n == 0) return;
+        if (textLength + n > text.length) text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + n));
+        System.arraycopy(buf, pos, text, textLength, n);
+        textLength += n;
+        pos += n;
+    }
+
+    private void append(char c) {
+        if (lazy) return;
+        if (textLength == text.length) text = Arrays.copyOf(text, text.length * 2);
+        text[textLength++] = c;
+    }
+
+    // consumes a line break, CR LF counting as one, returns false if there is none
+    private boolean lineBreak() {
+        int c = peek(0);
+        if (c == '\r') skip(peek(1) == '\n' ? 2 : 1);
+        else if (c == '\n') skip(1);
+        else return false;
+
+        line++;
+        lineOffset = base + pos;
+        return true;
+    }
+
+    // blanks, comments and line breaks up to the next token
+    private void skipSeparation() {
+        while (true) {
+            int c = peek(0);
+            if (c == ' ' || c == '\t') skip(1);
+            else if (c == '#') skipComment();
+            else if (lineBreak()) atLineStart = true;
+            else return;
+        }
+    }
+
+    private void skipBlanks() {
+        while (isBlank(peek(0))) skip(1);
+    }
+
+    // up to the end of the line, the line break itself is left
+    private void skipComment() {
+        while (!isBreakOrEnd(peek(0))) skip(1);
+    }
+
+    private int col() {
+        return (int) (base + pos - lineOffset);
+    }
+
+    @Contract(pure = true)
+    private boolean isDocumentMarker() {
+        if (col() != 0) return false;
+        int c = peek(0);
+        return (c == '-' || c == '.') && peek(1) == c && peek(2) == c && isBlankOrEnd(peek(3));
+    }
+
+    private boolean isSequenceEntry() {
+        return peek(0) == '-' && isBlankOrEnd(peek(1));
+    }
+
+    // whether blanks and a ':' follow, which makes the node scanned last a key
+    private boolean isValueIndicatorAhead() {
+        int n = 0;
+        while (isBlank(peek(n))) n++;
+        if (peek(n) != ':') return false;
+        int c = peek(n + 1);
+        return isBlankOrEnd(c) || flowDepth > 0 && isFlowIndicator(c);
+    }
+
+    private @NotNull YamlException error(@NotNull String message) {
+        return new YamlException(message, line + 1, col() + 1);
+    }
+
+    @Contract(pure = true)
+    private static boolean isBlank(int c) {
+        return c == ' ' || c == '\t';
+    }
+
+    @Contract(pure = true)
+    private static boolean isBreak(int c) {
+        return c == '\n' || c == '\r';
+    }
+
+    @Contract(pure = true)
+    private static boolean isBreakOrEnd(int c) {
+        return c == '\n' || c == '\r' || c == EOF;
+    }
+
+    @Contract(pure = true)
+    private static boolean isBlankOrEnd(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == EOF;
+    }
+
+    @Contract(pure = true)
+    private static boolean isFlowIndicator(int c) {
+        return c == ',' || c == '[' || c == ']' || c == '{' || c == '}';
+    }
+}
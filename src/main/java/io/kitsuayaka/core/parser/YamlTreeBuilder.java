@@ -0,0 +1,408 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.annotations.StatusMarkers;
+import io.kitsuayaka.core.elements.BaseElement;
+import io.kitsuayaka.core.elements.DecimalElement;
+import io.kitsuayaka.core.elements.ElementArena;
+import io.kitsuayaka.core.elements.IntegerElement;
+import io.kitsuayaka.core.elements.MappingElement;
+import io.kitsuayaka.core.elements.NullElement;
+import io.kitsuayaka.core.elements.NumberElement;
+import io.kitsuayaka.core.elements.SequenceElement;
+import io.kitsuayaka.core.elements.StringElement;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Builds trees of {@link BaseElement elements} from the events of a {@link YamlReader}, one document at a time:
+ * <blockquote>
+ * <pre>{@code try (YamlReader reader = new YamlReader(Files.newBufferedReader(path))) {
+ *     BaseElement<?> root;
+ *     while ((root = YamlTreeBuilder.document(reader)) != null) {
+ *         ...
+ *     }
+ * }}</pre>
+ * </blockquote>
+ * Plain scalars are resolved by the <em>YAML 1.2</em> core schema: {@code null}, {@code ~} and empty ones into
+ * {@link NullElement#NULL}, integers in decimal, octal ({@code 0o}) and hexadecimal ({@code 0x}) into
+ * {@link IntegerElement}s, floating point numbers, {@code .inf} and {@code .nan} included, into
+ * {@link DecimalElement}s, everything else into {@link StringElement}s, as well as quoted and block scalars, and
+ * scalars tagged {@code !!str}. Aliases are resolved to the very element their anchor is on, within the same document.
+ * Mapping keys have to be scalars. Large documents are held more compactly by an {@link ElementArena}, as built by
+ * {@link #compact(YamlReader)}, and streams of many documents are read faster by
+ * {@link #parallelDocuments(char[])}.
+ *
+ * @version <code>1.0.0</code>
+ * @see YamlReader
+ * @since <code>1.7.0</code>
+ */
+@StatusMarkers.Experimental
+public final class YamlTreeBuilder {
+    private YamlTreeBuilder() {
+    }
+
+    /**
+     * Reads the next document from the given {@code YamlReader} and returns its root.
+     *
+     * @param reader the {@code YamlReader} to read from, positioned in between two documents.
+     * @return The root of the document, {@code null} if the stream has ended.
+     * @throws YamlException if the input is malformed or not supported.
+     * @since <code>1.7.0</code>
+     */
+    public static @Nullable BaseElement<?> document(@NotNull YamlReader reader) {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case DOCUMENT_START -> {
+                    BaseElement<?> root = node(reader, reader.next(), new Anchors());
+                    reader.next(); // DOCUMENT_END
+                    return root;
+                }
+                case STREAM_START, STREAM_END -> {
+                }
+                default -> throw new YamlException("Expected a document", reader.line(), reader.column());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads all remaining documents from the given {@code YamlReader} and returns their roots.
+     *
+     * @param reader the {@code YamlReader} to read from, positioned in between two documents.
+     * @return The roots of the documents, in order.
+     * @throws YamlException if the input is malformed or not supported.
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull List<BaseElement<?>> documents(@NotNull YamlReader reader) {
+        List<BaseElement<?>> roots = new ArrayList<>();
+        for (BaseElement<?> root; (root = document(reader)) != null; ) roots.add(root);
+        return roots;
+    }
+
+    /**
+     * Reads all documents of the given stream concurrently and returns their roots, in order. The stream is split in
+     * front of every line starting with {@code ---}, which always starts a new document, and the parts are read by
+     * their own {@code YamlReader}s in parallel, on the {@link java.util.concurrent.ForkJoinPool#commonPool() common
+     * pool}. As anchors and directives are scoped to their document, and a document marker cannot be a part of a
+     * scalar or flow collection, the result is the same as of {@link #documents(YamlReader)}. So are errors: the one
+     * thrown is that of the first malformed part in stream order, with line numbers referring to the whole stream. A
+     * stream of a single document is read by a single thread.
+     *
+     * @param cs the stream to read, which must not be modified while reading.
+     * @return The roots of the documents, in order, as an unmodifiable list.
+     * @throws YamlException if the input is malformed or not supported.
+     * @see #documents(YamlReader)
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull List<BaseElement<?>> parallelDocuments(char @NotNull [] cs) {
+        Parts parts = split(cs);
+        YamlException[] errors = new YamlException[parts.count];
+        List<List<BaseElement<?>>> roots = IntStream.range(0, parts.count)
+                .parallel()
+                .mapToObj(i -> {
+                    try {
+                        return documents(parts.reader(cs, i));
+                    } catch (YamlException e) {
+                        errors[i] = e; // rethrown below, unless an earlier part failed as well
+                        return List.<BaseElement<?>>of();
+                    }
+                })
+                .toList();
+        for (YamlException e : errors) if (e != null) throw e;
+        return roots.stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * Reads the next document from the given {@code YamlReader} into a new {@link ElementArena}, which holds it in a
+     * few arrays rather than one object per node. If the {@code YamlReader} reads an array, scalars are not copied but
+     * point into it, so it must not be modified as long as the arena is in use: those which are a part of it as they
+     * are, like most plain and quoted ones, point at their contents, all others at their whole range, to be decoded
+     * only when they are read. Parsing then costs little more than scanning the structure. Mapping keys are kept as
+     * strings.
+     *
+     * @param reader the {@code YamlReader} to read from, positioned in between two documents.
+     * @return The arena holding the document, {@code null} if the stream has ended.
+     * @throws YamlException if the input is malformed or not supported.
+     * @see #document(YamlReader)
+     * @since <code>1.7.0</code>
+     */
+    public static @Nullable ElementArena compact(@NotNull YamlReader reader) {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case DOCUMENT_START -> {
+                    reader.setLazy(true);
+                    try {
+                        ElementArena arena = compact(reader, new ElementArena.Builder(reader.source()));
+                        reader.next(); // DOCUMENT_END
+                        return arena;
+                    } finally {
+                        reader.setLazy(false);
+                    }
+                }
+                case STREAM_START, STREAM_END -> {
+                }
+                default -> throw new YamlException("Expected a document", reader.line(), reader.column());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves a plain scalar into the element it denotes by the <em>YAML 1.2</em> core schema.
+     *
+     * @param text the contents of the plain scalar.
+     * @return A {@link NullElement}, {@link IntegerElement}, {@link DecimalElement} or {@link StringElement}.
+     * @since <code>1.7.0</code>
+     */
+    public static @NotNull BaseElement<?> resolve(@NotNull StringType text) {
+        return switch (kindOf(text)) {
+            case ElementArena.NULL -> NullElement.NULL;
+            case ElementArena.INTEGER -> new IntegerElement(NumberElement.valueOf(text));
+            case ElementArena.DECIMAL -> new DecimalElement(NumberElement.valueOf(text));
+            default -> new StringElement(text);
+        };
+    }
+
+    // --------------------------------------------------------- Helper stuff
+
+    // the node the given event starts, with everything in it
+    private static @NotNull BaseElement<?> node(@NotNull YamlReader reader, @NotNull YamlEvent event,
+                                                @NotNull Anchors anchors) {
+        String anchor = reader.anchor();
+        switch (event) {
+            case SCALAR -> {
+                StringType text = reader.scalar();
+                boolean plain = reader.style() == ScalarStyle.PLAIN && !"!!str".equals(reader.tag());
+                BaseElement<?> element = plain ? resolve(text) : new StringElement(text);
+                if (anchor != null) anchors.put(anchor, element, text);
+                return element;
+            }
+            case ALIAS -> {
+                BaseElement<?> element = anchors.nodes.get(reader.alias());
+                if (element == null) {
+                    throw new YamlException("Undefined alias *" + reader.alias(), reader.line(), reader.column());
+                }
+                return element;
+            }
+            case SEQUENCE_START -> {
+                SequenceElement sequence = new SequenceElement();
+                if (anchor != null) anchors.put(anchor, sequence, null);
+                for (YamlEvent e; (e = reader.next()) != YamlEvent.SEQUENCE_END; ) sequence.add(node(reader, e, anchors));
+                return sequence;
+            }
+            case MAPPING_START -> {
+                MappingElement mapping = new MappingElement();
+                if (anchor != null) anchors.put(anchor, mapping, null);
+                for (YamlEvent e; (e = reader.next()) != YamlEvent.MAPPING_END; ) {
+                    StringType key = key(reader, e, anchors);
+                    mapping.put(key, node(reader, reader.next(), anchors));
+                }
+                return mapping;
+            }
+            default -> throw new YamlException("Unexpected " + event, reader.line(), reader.column());
+        }
+    }
+
+    // the text of a scalar key, or of the scalar an aliased key refers to
+    private static @NotNull StringType key(@NotNull YamlReader reader, @NotNull YamlEvent event,
+                                           @NotNull Anchors anchors) {
+        if (event == YamlEvent.SCALAR) {
+            node(reader, event, anchors); // for its anchor
+            return reader.scalar();
+        }
+        if (event == YamlEvent.ALIAS) {
+            StringType text = anchors.texts.get(reader.alias());
+            if (text != null) return text;
+        }
+        throw new YamlException("Only scalars are supported as mapping keys", reader.line(), reader.column());
+    }
+
+    // the document the next event starts, into the given builder, without recursion
+    private static @NotNull ElementArena compact(@NotNull YamlReader reader, @NotNull ElementArena.Builder b) {
+        Map<String, Integer> anchors = new HashMap<>();
+        // per open collection, whether it is a mapping, and the number of nodes in it
+        boolean[] mappings = new boolean[16];
+        int[] counts = new int[16];
+        int depth = 0;
+        do {
+            YamlEvent event = reader.next();
+            boolean closing = event == YamlEvent.MAPPING_END || event == YamlEvent.SEQUENCE_END;
+            boolean key = !closing && depth > 0 && mappings[depth - 1] && (counts[depth - 1] & 1) == 0;
+            if (!closing && depth > 0) counts[depth - 1]++;
+            String anchor = reader.anchor();
+            int node;
+            switch (event) {
+                case SCALAR -> {
+                    boolean plain = reader.style() == ScalarStyle.PLAIN && !"!!str".equals(reader.tag());
+                    char[] source = reader.source();
+                    int start = (int) reader.sourceStart(), end = (int) reader.sourceEnd();
+                    if (source != null && reader.isVerbatim()) {
+                        int quotes = reader.style() == ScalarStyle.PLAIN ? 0 : 1;
+                        CharSequence text = CharBuffer.wrap(source, start + quotes, end - start - 2 * quotes);
+                        byte kind = plain && !key ? kindOf(text) : ElementArena.STRING;
+                        node = b.scalar(kind, start + quotes, end - quotes);
+                    } else if (source != null && !reader.isDecoded()) {
+                        // folded plain scalars are never numbers nor null
+                        node = b.scalar(Objects.requireNonNull(reader.style()), start, end);
+                    } else {
+                        StringType text = Objects.requireNonNull(reader.scalar());
+                        node = b.scalar(plain && !key ? kindOf(text) : ElementArena.STRING, text);
+                    }
+                }
+                case ALIAS -> {
+                    Integer target = anchors.get(reader.alias());
+                    if (target == null) {
+                        throw new YamlException("Undefined alias *" + reader.alias(), reader.line(), reader.column());
+                    }
+                    node = b.alias(target);
+                }
+                case MAPPING_START, SEQUENCE_START -> {
+                    node = event == YamlEvent.MAPPING_START ? b.startMapping() : b.startSequence();
+                    if (depth == counts.length) {
+                        mappings = Arrays.copyOf(mappings, depth * 2);
+                        counts = Arrays.copyOf(counts, depth * 2);
+                    }
+                    mappings[depth] = event == YamlEvent.MAPPING_START;
+                    counts[depth++] = 0;
+                }
+                case MAPPING_END, SEQUENCE_END -> {
+                    b.end();
+                    depth--;
+                    continue;
+                }
+                default -> throw new YamlException("Unexpected " + event, reader.line(), reader.column());
+            }
+            if (key && b.kind(node) > ElementArena.DECIMAL) {
+                throw new YamlException("Only scalars are supported as mapping keys", reader.line(), reader.column());
+            }
+            if (anchor != null) anchors.put(anchor, node);
+        } while (depth > 0);
+        return b.build();
+    }
+
+    // the parts of a stream, each starting with a line starting with "---", but the first, which starts the stream
+    private static @NotNull Parts split(char @NotNull [] cs) {
+        Parts parts = new Parts();
+        parts.add(0, 0);
+        int n = cs.length, line = 0;
+        for (int i = 0; i < n; i++) {
+            char c = cs[i];
+            if (c != '\n' && (c != '\r' || i + 1 < n && cs[i + 1] == '\n')) continue;
+
+            line++;
+            int s = i + 1;
+            if (s + 3 <= n && cs[s] == '-' && cs[s + 1] == '-' && cs[s + 2] == '-'
+                    && (s + 3 == n || cs[s + 3] == ' ' || cs[s + 3] == '\t' || cs[s + 3] == '\n' || cs[s + 3] == '\r')) {
+                parts.add(s, line);
+            }
+        }
+        parts.add(n, line); // the end of the last part
+        parts.count--;
+        return parts;
+    }
+
+    // the kind of element a plain scalar denotes by the core schema
+    private static byte kindOf(@NotNull CharSequence text) {
+        int n = text.length();
+        if (n == 0) return ElementArena.NULL;
+
+        char c = text.charAt(0);
+        if (c == '~' || c == 'n' || c == 'N') {
+            return n == 1 && c == '~' || isAny(text, "null", "Null", "NULL") ? ElementArena.NULL : ElementArena.STRING;
+        }
+        if (c == '.' || (c == '+' || c == '-') && n > 1 && text.charAt(1) == '.') {
+            CharSequence s = text.subSequence(c == '.' ? 0 : 1, n);
+            if (isAny(s, ".inf", ".Inf", ".INF") || c == '.' && isAny(s, ".nan", ".NaN", ".NAN")) {
+                return ElementArena.DECIMAL;
+            }
+        }
+        if (!(c >= '0' && c <= '9' || c == '+' || c == '-' || c == '.')) return ElementArena.STRING;
+
+        if (c == '0' && n > 2 && (text.charAt(1) == 'x' || text.charAt(1) == 'o')) {
+            int radix = text.charAt(1) == 'x' ? 16 : 8, i = 2;
+            while (i < n && Character.digit(text.charAt(i), radix) >= 0) i++;
+            if (i == n) return ElementArena.INTEGER;
+        }
+
+        int i = c == '+' || c == '-' ? 1 : 0, digits = 0;
+        while (i < n && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i == n) return digits > 0 ? ElementArena.INTEGER : ElementArena.STRING;
+
+        if (text.charAt(i) == '.') {
+            i++;
+            while (i < n && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) return ElementArena.STRING;
+        if (i < n && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < n && (text.charAt(i) == '+' || text.charAt(i) == '-')) i++;
+            int exponent = i;
+            while (i < n && isDigit(text.charAt(i))) i++;
+            if (i == exponent) return ElementArena.STRING;
+        }
+        return i == n ? ElementArena.DECIMAL : ElementArena.STRING;
+    }
+
+    @Contract(pure = true)
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAny(@NotNull CharSequence text, @NotNull String @NotNull ... options) {
+        for (String o : options) if (o.contentEquals(text)) return true;
+        return false;
+    }
+
+    // --------------------------------------------------------- Helper class
+
+    // the starts of the parts of a stream, and their first lines, with the end of the stream last
+    private static final class Parts {
+        int[] starts = new int[16];
+        int[] lines = new int[16];
+        int count;
+
+        void add(int start, int line) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                lines = Arrays.copyOf(lines, count * 2);
+            }
+            starts[count] = start;
+            lines[count++] = line;
+        }
+
+        @NotNull YamlReader reader(char @NotNull [] cs, int part) {
+            return new YamlReader(cs, starts[part], starts[part + 1], lines[part]);
+        }
+    }
+
+    // the anchored nodes of a document, and the text of the anchored scalars, for aliases used as keys
+    private static final class Anchors {
+        final Map<String, BaseElement<?>> nodes = new HashMap<>();
+        final Map<String, StringType> texts = new HashMap<>();
+
+        // an anchor defined again refers to the new node from then on
+        void put(@NotNull String anchor, @NotNull BaseElement<?> node, @Nullable StringType text) {
+            nodes.put(anchor, node);
+            if (text == null) texts.remove(anchor);
+            else texts.put(anchor, text);
+        }
+    }
+}
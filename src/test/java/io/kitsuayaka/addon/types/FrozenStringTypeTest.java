@@ -0,0 +1,33 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a {@link FrozenStringType} is equal to every other string type holding the same characters the same way
+ * those are equal to it, with matching hash codes.
+ */
+class FrozenStringTypeTest {
+    @Test
+    void equalsSymmetrically() {
+        FrozenStringType frozen = new StringType("key: value").freeze();
+        FrozenStringType wide = new StringType("key: valuĀ").freeze();
+        BaseType<?>[] same = {
+                new StringType("key: value"), new StringType("key: value").freeze(), new RopeStringType("key: value")
+        };
+
+        for (BaseType<?> other : same) {
+            assertTrue(frozen.equals(other), () -> "frozen equals " + other.getClass().getSimpleName());
+            assertTrue(other.equals(frozen), () -> other.getClass().getSimpleName() + " equals frozen");
+            assertEquals(frozen.hashCode(), other.hashCode());
+
+            assertFalse(wide.equals(other), () -> "wide equals " + other.getClass().getSimpleName());
+            assertFalse(other.equals(wide), () -> other.getClass().getSimpleName() + " equals wide");
+        }
+        assertFalse(frozen.equals(new RopeStringType("key: valuE")));
+        assertFalse(frozen.equals("key: value"));
+    }
+}
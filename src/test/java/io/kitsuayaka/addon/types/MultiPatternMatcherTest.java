@@ -0,0 +1,27 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a {@link MultiPatternMatcher} only compiles patterns it can report under an {@code id} of their own.
+ */
+class MultiPatternMatcherTest {
+    @Test
+    void rejectsPatternsAppearingTwice() {
+        assertThrows(IllegalArgumentException.class, () -> MultiPatternMatcher.compile(": ", "- ", ": "));
+        assertThrows(IllegalArgumentException.class, () -> MultiPatternMatcher.compile(List.of("#", "#")));
+        assertThrows(IllegalArgumentException.class, () -> MultiPatternMatcher.compile("-", ""));
+    }
+
+    @Test
+    void replacesEveryPatternWithItsOwnReplacement() {
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile("- ", ": ", ":");
+        StringType replaced = new StringType("- key: a:b").replaceAll(matcher, "* ", " = ", "=");
+        assertEquals("* key = a=b", replaced.getValue());
+    }
+}
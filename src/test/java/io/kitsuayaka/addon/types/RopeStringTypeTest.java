@@ -0,0 +1,50 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a {@link RopeStringType} survives a round trip through Java serialization with its contents intact and
+ * its tree rebuilt, so it can still be edited afterward.
+ */
+class RopeStringTypeTest {
+    @Test
+    void serializesItsFlattenedContents() throws IOException, ClassNotFoundException {
+        RopeStringType rope = new RopeStringType("hello world");
+        rope.insert("X", 3);
+
+        RopeStringType read = roundTrip(rope);
+        assertEquals("helXlo world", read.getValue());
+        assertEquals(rope.length(), read.length());
+
+        read.insert("!", read.length());
+        assertEquals("helXlo world!", read.getValue());
+        assertEquals("helXlo world", rope.getValue());
+    }
+
+    @Test
+    void serializesLargeAndEmptyRopes() throws IOException, ClassNotFoundException {
+        String large = "key: value\n".repeat(1_000);
+        assertEquals(large, roundTrip(new RopeStringType(large)).getValue());
+        assertEquals("", roundTrip(new RopeStringType()).getValue());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static RopeStringType roundTrip(RopeStringType rope) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(rope);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (RopeStringType) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that {@link StringType.Scratch} reuses the {@code StringType} of a thread, and what it hands out instead when
+ * it can not, measuring the bytes the current thread allocates through {@link com.sun.management.ThreadMXBean}.
+ */
+class ScratchTest {
+    private static final int ROUNDS = 10_000;
+
+    // a new StringType with its buffer is well above this, a reused one allocates nothing
+    private static final long BYTES_PER_ROUND = 16;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeAll
+    static void allocationCounting() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "allocated bytes can not be measured on this JVM");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void reusesTheStringTypeOfTheThread() {
+        StringType first = use();
+        for (int i = 0; i < ROUNDS; i++) use();
+
+        long before = allocated();
+        for (int i = 0; i < ROUNDS; i++) assertSame(first, use());
+        long bytes = allocated() - before;
+
+        assertTrue(bytes < ROUNDS * BYTES_PER_ROUND, () -> bytes + " bytes allocated for " + ROUNDS + " reused scratches");
+    }
+
+    @Test
+    void handsOutANewStringTypeWhenNested() {
+        for (int i = 0; i < ROUNDS; i++) nested();
+
+        long before = allocated();
+        for (int i = 0; i < ROUNDS; i++) nested();
+        long bytes = allocated() - before;
+
+        assertTrue(bytes >= ROUNDS * BYTES_PER_ROUND, () -> "only " + bytes + " bytes allocated for " + ROUNDS + " nested scratches");
+
+        try (StringType.Scratch outer = StringType.Scratch.acquire()) {
+            outer.get().append("outer");
+            try (StringType.Scratch inner = StringType.Scratch.acquire()) {
+                assertNotSame(outer.get(), inner.get());
+                inner.get().append("inner");
+            }
+            assertEquals("outer", outer.get().getValue());
+        }
+    }
+
+    @Test
+    void handsOutANewStringTypeOnVirtualThreads() throws InterruptedException {
+        StringType pooled = use();
+        AtomicReference<StringType> first = new AtomicReference<>(), second = new AtomicReference<>();
+
+        Thread.ofVirtual().start(() -> {
+            first.set(use());
+            second.set(use());
+        }).join();
+
+        assertNotSame(first.get(), second.get());
+        assertNotSame(pooled, first.get());
+        assertSame(pooled, use());
+    }
+
+    @Test
+    void dropsStringTypesGrownTooLarge() {
+        StringType small;
+        try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+            small = scratch.get();
+            small.append("x".repeat(StringType.Scratch.MAX_RETAINED_CAPACITY / 2));
+        }
+        assertSame(small, use());
+
+        StringType large;
+        try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+            large = scratch.get();
+            large.append("x".repeat(StringType.Scratch.MAX_RETAINED_CAPACITY + 1));
+        }
+        StringType next = use();
+        assertNotSame(large, next);
+        assertTrue(next.capacity() <= StringType.Scratch.MAX_RETAINED_CAPACITY, () -> "capacity " + next.capacity());
+
+        for (int i = 0; i < ROUNDS; i++) use();
+        long before = allocated();
+        for (int i = 0; i < ROUNDS; i++) assertSame(next, use());
+        long bytes = allocated() - before;
+
+        assertTrue(bytes < ROUNDS * BYTES_PER_ROUND, () -> bytes + " bytes allocated for " + ROUNDS + " reused scratches");
+    }
+
+    @Test
+    void dropsStringTypesSharingTheirBuffer() {
+        StringType shared;
+        try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+            shared = scratch.get();
+            shared.append("key: value");
+            assertEquals("value", shared.substring(5).getValue());
+        }
+        assertNotSame(shared, use());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static StringType use() {
+        try (StringType.Scratch scratch = StringType.Scratch.acquire()) {
+            StringType t = scratch.get();
+            t.append("key");
+            t.append(": ");
+            t.append('v');
+            return t;
+        }
+    }
+
+    private static void nested() {
+        try (StringType.Scratch outer = StringType.Scratch.acquire()) {
+            outer.get().append('o');
+            use();
+        }
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
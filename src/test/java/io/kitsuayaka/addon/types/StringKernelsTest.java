@@ -0,0 +1,200 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs {@link VectorStringKernels} against the scalar {@link StringKernels} on random input, both have to return the
+ * exact same results. The inputs mix ASCII, whitespace, Latin-1 above {@code 0x7F}, which is negative as a
+ * {@code byte}, and chars from {@code 0x8000} on, which are negative as a {@code short}, at lengths around the vector
+ * width, so the vector loops and their scalar tails both get to run.
+ */
+class StringKernelsTest {
+    private static final int ROUNDS = 5_000;
+    private static final int MAX_LENGTH = 200;
+
+    // chars that stress the sign of a lane, the case folding tables or the whitespace masks
+    private static final char[] SPECIAL = {
+            0x00B5, 0x00C0, 0x00DF, 0x00E0, 0x00FF, 0x0130, 0x0131, 0x0178, 0x017F, 0x1680, 0x2007, 0x200B, 0x2028,
+            0x3000, 0x7FFF, 0x8000, 0xFEFF, 0xFF10, 0xFFFF
+    };
+
+    private static StringKernels scalar;
+    private static StringKernels vector;
+
+    @BeforeAll
+    static void kernels() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "jdk.incubator.vector has to be added to the test JVM");
+        scalar = new StringKernels();
+        vector = new VectorStringKernels();
+    }
+
+    @Test
+    void whitespaceMatchesCharacter() {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            assertEquals(Character.isWhitespace(ch), StringKernels.isWhitespace(ch), () -> hex(ch));
+        }
+    }
+
+    @Test
+    void chars() {
+        Random random = new Random(0x5EED);
+        for (int round = 0; round < ROUNDS; round++) {
+            char[] cs = chars(random);
+            int start = random.nextInt(cs.length + 1), end = start + random.nextInt(cs.length - start + 1);
+            char c = cs.length > 0 && random.nextBoolean() ? cs[random.nextInt(cs.length)] : anyChar(random);
+            String in = "round " + round + ": " + hex(cs) + " [" + start + ", " + end + ")";
+
+            assertEquals(scalar.indexOf(cs, c, start, end), vector.indexOf(cs, c, start, end), in);
+            assertEquals(scalar.count(cs, c, start, end), vector.count(cs, c, start, end), in);
+            assertEquals(scalar.isDigits(cs, start, end), vector.isDigits(cs, start, end), in);
+            assertEquals(scalar.hash(cs, start, end), vector.hash(cs, start, end), in);
+            assertEquals(scalar.skipWhitespace(cs, start, end), vector.skipWhitespace(cs, start, end), in);
+            assertEquals(scalar.skipWhitespaceBackward(cs, start, end), vector.skipWhitespaceBackward(cs, start, end), in);
+            assertEquals(scalar.canEncode(cs, start, end), vector.canEncode(cs, start, end), in);
+
+            char[] other = almost(cs, random);
+            int length = end - start;
+            assertEquals(scalar.equals(cs, start, other, start, length), vector.equals(cs, start, other, start, length), in);
+
+            char[] expected = cs.clone(), actual = cs.clone();
+            scalar.toUpperCase(expected, start, end);
+            vector.toUpperCase(actual, start, end);
+            assertArrayEquals(expected, actual, in);
+
+            expected = cs.clone();
+            actual = cs.clone();
+            scalar.toLowerCase(expected, start, end);
+            vector.toLowerCase(actual, start, end);
+            assertArrayEquals(expected, actual, in);
+
+            if (scalar.canEncode(cs, start, end)) {
+                byte[] bs = new byte[length], bs1 = new byte[length];
+                scalar.compress(cs, start, bs, 0, length);
+                vector.compress(cs, start, bs1, 0, length);
+                assertArrayEquals(bs, bs1, in);
+            }
+        }
+    }
+
+    @Test
+    void latin1() {
+        Random random = new Random(0x1A71);
+        for (int round = 0; round < ROUNDS; round++) {
+            byte[] bs = bytes(random);
+            int start = random.nextInt(bs.length + 1), end = start + random.nextInt(bs.length - start + 1);
+            byte b = bs.length > 0 && random.nextBoolean() ? bs[random.nextInt(bs.length)] : (byte) random.nextInt(256);
+            String in = "round " + round + ": " + Arrays.toString(bs) + " [" + start + ", " + end + ")";
+
+            assertEquals(scalar.indexOf(bs, b, start, end), vector.indexOf(bs, b, start, end), in);
+            assertEquals(scalar.count(bs, b, start, end), vector.count(bs, b, start, end), in);
+            assertEquals(scalar.isDigits(bs, start, end), vector.isDigits(bs, start, end), in);
+            assertEquals(scalar.hash(bs, start, end), vector.hash(bs, start, end), in);
+            assertEquals(scalar.hashIgnoreCase(bs, start, end), vector.hashIgnoreCase(bs, start, end), in);
+            assertEquals(scalar.skipWhitespace(bs, start, end), vector.skipWhitespace(bs, start, end), in);
+            assertEquals(scalar.skipWhitespaceBackward(bs, start, end), vector.skipWhitespaceBackward(bs, start, end), in);
+
+            byte[] other = almost(bs, random);
+            int length = end - start;
+            assertEquals(scalar.equals(bs, start, other, start, length), vector.equals(bs, start, other, start, length), in);
+            assertEquals(scalar.equalsIgnoreCase(bs, start, other, start, length),
+                    vector.equalsIgnoreCase(bs, start, other, start, length), in);
+
+            char[] cs = new char[bs.length];
+            scalar.inflate(bs, 0, cs, 0, bs.length);
+            char[] cs1 = new char[bs.length];
+            vector.inflate(bs, 0, cs1, 0, bs.length);
+            assertArrayEquals(cs, cs1, in);
+            if (length > 0 && random.nextBoolean()) cs[start + random.nextInt(length)] = anyChar(random);
+            assertEquals(scalar.equals(bs, start, cs, start, length), vector.equals(bs, start, cs, start, length), in);
+
+            byte[] expected = bs.clone(), actual = bs.clone();
+            scalar.toUpperCase(expected, start, end);
+            vector.toUpperCase(actual, start, end);
+            assertArrayEquals(expected, actual, in);
+
+            expected = bs.clone();
+            actual = bs.clone();
+            scalar.toLowerCase(expected, start, end);
+            vector.toLowerCase(actual, start, end);
+            assertArrayEquals(expected, actual, in);
+        }
+    }
+
+    // --------------------------------------------------------- Input
+
+    // runs of one kind of char, so that whitespace and digit checks do not fail on the first one every time
+    private static char @NotNull [] chars(@NotNull Random random) {
+        char[] cs = new char[random.nextInt(MAX_LENGTH + 1)];
+        for (int i = 0; i < cs.length; ) {
+            int kind = random.nextInt(7);
+            for (int run = 1 + random.nextInt(40); run > 0 && i < cs.length; run--) cs[i++] = charOf(kind, random);
+        }
+        return cs;
+    }
+
+    private static byte @NotNull [] bytes(@NotNull Random random) {
+        byte[] bs = new byte[random.nextInt(MAX_LENGTH + 1)];
+        for (int i = 0; i < bs.length; ) {
+            int kind = random.nextInt(4);
+            for (int run = 1 + random.nextInt(40); run > 0 && i < bs.length; run--) bs[i++] = (byte) charOf(kind, random);
+        }
+        return bs;
+    }
+
+    // kinds 0 to 3 are Latin-1
+    private static char charOf(int kind, @NotNull Random random) {
+        return switch (kind) {
+            case 0 -> (char) (0x20 + random.nextInt(0x5F));
+            case 1 -> random.nextInt(4) == 0 ? (char) (0x09 + random.nextInt(5)) : random.nextBoolean() ? ' ' : (char) (0x1C + random.nextInt(4));
+            case 2 -> (char) ('0' + random.nextInt(10));
+            case 3 -> (char) (0x80 + random.nextInt(0x80));
+            case 4 -> (char) (0x100 + random.nextInt(0x7F00));
+            case 5 -> (char) (0x8000 + random.nextInt(0x8000));
+            default -> SPECIAL[random.nextInt(SPECIAL.length)];
+        };
+    }
+
+    private static char anyChar(@NotNull Random random) {
+        return charOf(random.nextInt(7), random);
+    }
+
+    // a copy, now and then with one char changed or with the case of one ASCII letter flipped
+    private static char @NotNull [] almost(char @NotNull [] cs, @NotNull Random random) {
+        char[] copy = cs.clone();
+        if (copy.length > 0 && random.nextBoolean()) {
+            int i = random.nextInt(copy.length);
+            copy[i] = random.nextBoolean() ? (char) (copy[i] ^ 0x20) : anyChar(random);
+        }
+        return copy;
+    }
+
+    private static byte @NotNull [] almost(byte @NotNull [] bs, @NotNull Random random) {
+        byte[] copy = bs.clone();
+        if (copy.length > 0 && random.nextBoolean()) {
+            int i = random.nextInt(copy.length);
+            copy[i] = random.nextBoolean() ? (byte) (copy[i] ^ 0x20) : (byte) random.nextInt(256);
+        }
+        return copy;
+    }
+
+    private static @NotNull String hex(char c) {
+        return String.format("U+%04X", (int) c);
+    }
+
+    private static @NotNull String hex(char @NotNull [] cs) {
+        StringBuilder builder = new StringBuilder("[");
+        for (char c : cs) builder.append(builder.length() > 1 ? ", " : "").append(hex(c));
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,127 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link StringType#equalsIgnoreCase(StringType)} agrees with {@link String#equalsIgnoreCase(String)},
+ * except for the dotted and dotless i {@code U+0130} and {@code U+0131}, which simple case folding keeps apart from
+ * {@code i}, and that {@link StringType#compareToIgnoreCase(StringType)} and {@link StringType#hashCodeIgnoreCase()}
+ * are consistent with it, whether the contents are stored with one byte per char or two.
+ */
+class StringTypeCaseTest {
+    private static final int ROUNDS = 50_000;
+
+    // ASCII, Latin-1 folding out of it (µ, ÿ), Greek sigmas, the Kelvin sign, long s, a titlecase digraph and Deseret
+    private static final String[] ALPHABET = {
+            "a", "A", "i", "I", "k", "K", "s", "S", "é", "É", "µ", "Μ", "μ", "ÿ", "Ÿ", "ß", "σ", "ς", "Σ", "K",
+            "ſ", "ǅ", "ǆ", "Ǆ", "𐐀", "𐐨", "-"
+    };
+
+    @Test
+    void equalsLikeString() {
+        Random random = new Random(0xCA5E);
+        for (int round = 0; round < ROUNDS; round++) {
+            String a = text(random), b = random.nextInt(4) == 0 ? text(random) : swapCase(random, a);
+            StringType x = stored(random, a), y = stored(random, b);
+            String in = "\"" + a + "\" and \"" + b + "\"";
+
+            assertEquals(a.equalsIgnoreCase(b), x.equalsIgnoreCase(y), in);
+            assertEquals(a.equalsIgnoreCase(b), x.equalsIgnoreCase((CharSequence) b), in);
+            assertEquals(a.equalsIgnoreCase(b), x.equalsIgnoreCase(new StringBuilder(b)), in);
+            assertConsistent(x, y, in);
+        }
+    }
+
+    @Test
+    void keepsTheTurkishIsApartFromI() {
+        for (String i : new String[]{"i", "I"}) {
+            for (String turkish : new String[]{"İ", "ı"}) {
+                StringType a = new StringType("key" + i), b = new StringType("key" + turkish);
+                assertFalse(a.equalsIgnoreCase(b), i + " and " + turkish);
+                assertFalse(a.equalsIgnoreCase((CharSequence) ("KEY" + turkish)), i + " and " + turkish);
+                assertConsistent(a, b, i + " and " + turkish);
+            }
+        }
+        StringType dotted = new StringType("İ"), dotless = new StringType("ı");
+        assertTrue(dotted.equalsIgnoreCase(new StringType("İ")));
+        assertFalse(dotted.equalsIgnoreCase(dotless));
+        assertConsistent(dotted, dotless, "dotted and dotless");
+        assertConsistent(dotted, new StringType("İ"), "dotted");
+    }
+
+    @Test
+    void foldsLatin1IntoWiderChars() {
+        StringType micro = new StringType("µ"), mu = new StringType("Μ"), ydieresis = new StringType("ÿ");
+
+        assertTrue(micro.equalsIgnoreCase(mu));
+        assertTrue(ydieresis.equalsIgnoreCase(new StringType("Ÿ")));
+        assertEquals(micro.hashCodeIgnoreCase(), mu.hashCodeIgnoreCase());
+        assertEquals(micro.hashCodeIgnoreCase(), new StringType("μ").hashCodeIgnoreCase());
+        assertEquals(ydieresis.hashCodeIgnoreCase(), new StringType("Ÿ").hashCodeIgnoreCase());
+    }
+
+    @Test
+    void ordersKeysRegardlessOfTheirCasing() {
+        TreeMap<StringType, Integer> keys = new TreeMap<>(StringType.CASE_INSENSITIVE_ORDER);
+        keys.put(new StringType("Name"), 1);
+        keys.put(new StringType("NAME"), 2);
+        keys.put(new StringType("Ärger"), 3);
+        keys.put(new StringType("apple"), 4);
+
+        assertEquals(3, keys.size());
+        assertEquals(Integer.valueOf(2), keys.get(new StringType("name")));
+        assertEquals(Integer.valueOf(3), keys.get(new StringType("äRGER")));
+        assertEquals("apple", keys.firstKey().getValue());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static void assertConsistent(@NotNull StringType x, @NotNull StringType y, @NotNull String in) {
+        boolean equal = x.equalsIgnoreCase(y);
+        int compared = x.compareToIgnoreCase(y);
+
+        assertEquals(equal, y.equalsIgnoreCase(x), in);
+        assertEquals(equal, compared == 0, () -> in + " compared " + compared);
+        assertEquals(Integer.signum(compared), -Integer.signum(y.compareToIgnoreCase(x)), in);
+        if (equal) assertEquals(x.hashCodeIgnoreCase(), y.hashCodeIgnoreCase(), in);
+    }
+
+    private static @NotNull String text(@NotNull Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = random.nextInt(6); i > 0; i--) builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        return builder.toString();
+    }
+
+    // the same letters, each in upper, lower or title case
+    private static @NotNull String swapCase(@NotNull Random random, @NotNull String text) {
+        StringBuilder builder = new StringBuilder();
+        text.codePoints().forEach(cp -> builder.appendCodePoint(switch (random.nextInt(3)) {
+            case 0 -> Character.toUpperCase(cp);
+            case 1 -> Character.toLowerCase(cp);
+            default -> Character.toTitleCase(cp);
+        }));
+        return builder.toString();
+    }
+
+    // the text with one byte per char if it fits, or inflated to two, or as a view on a larger buffer
+    private static @NotNull StringType stored(@NotNull Random random, @NotNull String text) {
+        return switch (random.nextInt(3)) {
+            case 0 -> new StringType(text);
+            case 1 -> {
+                StringType t = new StringType(text);
+                t.append('Ā');
+                t.remove(t.length() - 1);
+                yield t;
+            }
+            default -> new StringType("<" + text + ">").substring(1, text.length() + 1);
+        };
+    }
+}
@@ -0,0 +1,227 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link StringType#writeTo(ByteBuffer)} and {@link StringType#writeExternal(java.io.ObjectOutput)} write
+ * what {@link StringType#readFrom(ByteBuffer)} and {@link StringType#readExternal(java.io.ObjectInput)} read back
+ * unchanged, lone surrogates included, and that both reject what is truncated, implausible or malformed without
+ * trusting the length in its header.
+ */
+class StringTypeCodecTest {
+    private static final int ROUNDS = 3_000;
+
+    @Test
+    void roundTripsThroughByteBuffers() {
+        Random random = new Random(0xC0DE);
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(1 << 16), ByteBuffer.allocateDirect(1 << 16)}) {
+            for (int round = 0; round < ROUNDS; round++) {
+                String text = text(random, random.nextInt(random.nextBoolean() ? 40 : 2_000));
+                StringType written = stored(random, text);
+                String in = "round " + round + ": " + hex(text);
+
+                buffer.clear().position(random.nextInt(8));
+                int start = buffer.position();
+                written.writeTo(buffer);
+                assertEquals(written.encodedSize(), buffer.position() - start, in);
+
+                buffer.flip().position(start);
+                StringType read = StringType.readFrom(buffer);
+                assertEquals(text, read.getValue(), in);
+                assertEquals(0, buffer.remaining(), in);
+                assertEquals(text.chars().allMatch(c -> c <= 0xFF), read.latin1Array() != null, in);
+            }
+        }
+    }
+
+    @Test
+    void roundTripsThroughObjectStreams() throws IOException, ClassNotFoundException {
+        Random random = new Random(0xC0DF);
+        // on both sides of the chunks contents read from a stream are allocated in
+        for (int length : new int[]{0, 1, 31, 32, 8_191, 8_192, 8_193, 40_000}) {
+            for (String alphabet : new String[]{"ab", "aé", "aé→", "a😀"}) {
+                String text = text(random, alphabet, length);
+                Object read = deserialize(serialize(stored(random, text)));
+                assertEquals(text, ((StringType) read).getValue(), () -> length + " of " + alphabet);
+            }
+        }
+    }
+
+    @Test
+    void writesAVarintHeaderAndUtf8() {
+        assertArrayEquals(concat(new byte[]{31 << 2}, "k".repeat(31).getBytes(StandardCharsets.US_ASCII)),
+                encode(new StringType("k".repeat(31))));
+        assertArrayEquals(concat(new byte[]{(byte) 0x80, 1}, "k".repeat(32).getBytes(StandardCharsets.US_ASCII)),
+                encode(new StringType("k".repeat(32))));
+        // the UTF-8 byte count and the coder, then the char count
+        assertArrayEquals(concat(new byte[]{3 << 2 | 1, 2}, "ké".getBytes(StandardCharsets.UTF_8)),
+                encode(new StringType("ké")));
+        assertArrayEquals(concat(new byte[]{5 << 2 | 2, 3}, "k😀".getBytes(StandardCharsets.UTF_8)),
+                encode(new StringType("k😀")));
+        assertArrayEquals(new byte[]{3 << 2 | 2, 1, (byte) 0xED, (byte) 0xA0, (byte) 0x80}, encode(new StringType("\uD800")));
+    }
+
+    @Test
+    void rejectsTruncatedInput() {
+        byte[] bytes = encode(new StringType("key: välue → 😀"));
+        for (int n = 0; n < bytes.length; n++) {
+            byte[] truncated = Arrays.copyOf(bytes, n);
+            ByteBuffer buffer = ByteBuffer.wrap(truncated);
+
+            assertThrows(BufferUnderflowException.class, () -> StringType.readFrom(buffer), "" + n);
+            assertEquals(0, buffer.position(), "left untouched");
+            assertThrows(EOFException.class, () -> readExternal(truncated), "" + n);
+        }
+    }
+
+    @Test
+    void doesNotTrustTheLengthInTheHeader() {
+        // a gibibyte of ASCII, followed by three bytes
+        byte[] forged = concat(varint(1L << 30 << 2), "abc".getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(BufferUnderflowException.class, () -> StringType.readFrom(ByteBuffer.wrap(forged)));
+        assertThrows(EOFException.class, () -> readExternal(forged));
+        // an array of this many bytes cannot be allocated at all, only ever read into in chunks
+        assertThrows(EOFException.class, () -> readExternal(concat(varint((long) Integer.MAX_VALUE << 2), forged)));
+        assertThrows(StreamCorruptedException.class, () -> readExternal(varint(1L << 31 << 2)));
+    }
+
+    @Test
+    void rejectsImplausibleOrMalformedInput() {
+        byte[][] invalid = {
+                {3, 0}, // no such coder
+                concat(varint(2 << 2 | 1), new byte[]{3, 'a', 'b'}), // more chars than bytes
+                concat(varint(4 << 2 | 1), new byte[]{1, (byte) 0xC3, (byte) 0xA9, (byte) 0xC3, (byte) 0xA9}), // too many bytes
+                concat(varint(2 << 2 | 1), new byte[]{1, (byte) 0xC4, (byte) 0x80}), // not Latin-1
+                {2 << 2, 'a', (byte) 0xE9}, // not ASCII
+                concat(varint(2 << 2 | 2), new byte[]{1, (byte) 0xC0, (byte) 0x80}), // overlong
+                concat(varint(4 << 2 | 2), new byte[]{2, (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80}), // too high
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                        (byte) 0xFF, (byte) 0xFF, 0} // a varint of more than 64 bits
+        };
+        for (byte[] bytes : invalid) {
+            String in = hex(bytes);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            assertThrows(IllegalArgumentException.class, () -> StringType.readFrom(buffer), in);
+            assertEquals(0, buffer.position(), in);
+            assertThrows(StreamCorruptedException.class, () -> readExternal(bytes), in);
+        }
+    }
+
+    @Test
+    void writesNothingWithoutRoomForAll() {
+        StringType key = new StringType("key: välue");
+        ByteBuffer buffer = ByteBuffer.allocate(key.encodedSize() - 1);
+
+        assertThrows(BufferOverflowException.class, () -> key.writeTo(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static byte @NotNull [] encode(@NotNull StringType stringType) {
+        ByteBuffer buffer = stringType.writeTo(ByteBuffer.allocate(stringType.encodedSize()));
+        assertEquals(0, buffer.remaining());
+        return buffer.array();
+    }
+
+    private static byte @NotNull [] serialize(@NotNull Object o) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(o);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static @NotNull Object deserialize(byte @NotNull [] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    // reads the given bytes through readExternal, from an ObjectInputStream holding nothing else
+    private static void readExternal(byte @NotNull [] bytes) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(stream)) {
+            out.write(bytes);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(stream.toByteArray()))) {
+            new StringType().readExternal(in);
+        }
+    }
+
+    private static byte @NotNull [] varint(long v) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (; (v & ~0x7FL) != 0; v >>>= 7) bytes.write((int) (v & 0x7F) | 0x80);
+        bytes.write((int) v);
+        return bytes.toByteArray();
+    }
+
+    private static byte @NotNull [] concat(byte @NotNull [] a, byte @NotNull [] b) {
+        byte[] bytes = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, bytes, a.length, b.length);
+        return bytes;
+    }
+
+    // ASCII, Latin-1, wider chars, surrogate pairs and surrogates without their other half
+    private static @NotNull String text(@NotNull Random random, int length) {
+        String alphabet = switch (random.nextInt(4)) {
+            case 0 -> "key: 1";
+            case 1 -> "key: é\u0080ÿ";
+            default -> "ké→😀𐀀";
+        };
+        return text(random, alphabet, length);
+    }
+
+    private static @NotNull String text(@NotNull Random random, @NotNull String alphabet, int length) {
+        char[] cs = new char[length];
+        for (int i = 0; i < length; i++) cs[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        return new String(cs);
+    }
+
+    // with one byte per char if it fits, inflated to two, or as a view on a larger buffer
+    private static @NotNull StringType stored(@NotNull Random random, @NotNull String text) {
+        StringType t = new StringType(text);
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                t.append('Ā');
+                t.remove(t.length() - 1);
+            }
+            case 1 -> t = new StringType("<" + text + ">").substring(1, text.length() + 1);
+            default -> {
+            }
+        }
+        return t;
+    }
+
+    private static @NotNull String hex(@NotNull String text) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < Math.min(text.length(), 40); i++) builder.append(String.format("%04X ", (int) text.charAt(i)));
+        return builder.toString().trim();
+    }
+
+    private static @NotNull String hex(byte @NotNull [] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) builder.append(String.format("%02X ", b));
+        return builder.toString().trim();
+    }
+}
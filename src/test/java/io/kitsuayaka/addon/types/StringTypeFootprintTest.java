@@ -0,0 +1,61 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the heap a million retained {@code StringTypes} take through the {@link Runtime} memory delta, once as
+ * created, with their {@code String} value not built yet, and once more after {@link StringType#getValue()} built and
+ * cached it for each of them.
+ */
+class StringTypeFootprintTest {
+    private static final int INSTANCES = 1_000_000;
+
+    // the smallest a String of a few Latin-1 chars takes with its byte[], two object headers and the array length
+    private static final long STRING_BYTES = 32;
+
+    @Test
+    void buildsTheStringValueOnlyOnDemand() {
+        StringType[] types = new StringType[INSTANCES];
+        long before = usedMemory();
+        for (int i = 0; i < INSTANCES; i++) types[i] = new StringType("key-" + i + ": some value");
+        long lazy = usedMemory() - before;
+
+        for (StringType t : types) t.getValue();
+        long materialized = usedMemory() - before;
+        Reference.reachabilityFence(types);
+
+        long lazyPerInstance = lazy / INSTANCES, stringPerInstance = (materialized - lazy) / INSTANCES;
+        assertTrue(stringPerInstance >= STRING_BYTES,
+                () -> "lazy: " + lazyPerInstance + " bytes per instance, materialized: " + materialized / INSTANCES);
+    }
+
+    @Test
+    void cachesTheStringValueUntilModified() {
+        StringType t = new StringType("key: value");
+        String value = t.getValue();
+        assertSame(value, t.getValue());
+
+        t.append('s');
+        assertEquals("key: values", t.getValue());
+        assertSame(t.getValue(), t.getValue());
+    }
+
+    // the used heap once a few collections in a row freed nothing more
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) return now;
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,191 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the gap buffer of {@code StringType}: edits at both ends stay amortized {@code O(1)} in any order, a slice
+ * grows without the room its parent keeps in front of it, and the methods rewritten on top of the buffer behave like
+ * their {@link String} and {@link StringBuilder} counterparts.
+ */
+class StringTypeGapBufferTest {
+    private static final int ROUNDS = 1_000_000;
+
+    // shifting all contents for every edit at the far end takes tens of seconds for ROUNDS edits, O(1) ones a few ms
+    private static final Duration LINEAR = Duration.ofSeconds(2);
+
+    @Test
+    void prependsAndAppendsInAnyOrderInLinearTime() {
+        StringType mixed = assertTimeout(LINEAR, () -> {
+            StringType t = new StringType();
+            for (int i = 0; i < ROUNDS; i++) {
+                if ((i & 1) == 0) t.append('a');
+                else t.push('b');
+            }
+            return t;
+        });
+        assertEquals("b".repeat(ROUNDS / 2) + "a".repeat(ROUNDS / 2), mixed.getValue());
+
+        StringType pushedFirst = assertTimeout(LINEAR, () -> {
+            StringType t = new StringType();
+            for (int i = 0; i < ROUNDS / 2; i++) t.push('b');
+            for (int i = 0; i < ROUNDS / 2; i++) t.append('a');
+            return t;
+        });
+        assertEquals(mixed.getValue(), pushedFirst.getValue());
+    }
+
+    @Test
+    void editsLikeAStringBuilder() {
+        Random random = new Random(0x6A9);
+        StringType t = new StringType();
+        StringBuilder expected = new StringBuilder();
+        for (int round = 0; round < 20_000; round++) {
+            int n = expected.length(), i = random.nextInt(n + 1);
+            String s = random.nextInt(10) == 0 ? "Āx" : "ab".substring(0, 1 + random.nextInt(2));
+            switch (random.nextInt(n > 200 ? 8 : 5)) {
+                case 0 -> { t.append(s); expected.append(s); }
+                case 1 -> { t.push(s); expected.insert(0, s); }
+                case 2 -> { t.insert(s, i); expected.insert(i, s); }
+                case 3 -> t.ensureCapacity(n + random.nextInt(64));
+                case 4 -> t.trimToSize();
+                case 5 -> { t.remove(0); expected.deleteCharAt(0); }
+                case 6 -> { t.remove(n - 1); expected.deleteCharAt(n - 1); }
+                default -> {
+                    int j = i + random.nextInt(n - i + 1);
+                    t.removeChars(i, j);
+                    expected.delete(i, j);
+                }
+            }
+            int round1 = round;
+            assertEquals(expected.toString(), t.getValue(), () -> "round " + round1);
+            assertTrue(t.capacity() >= t.length());
+        }
+    }
+
+    @Test
+    void growsASliceWithoutTheRoomInFrontOfIt() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocated bytes can not be measured on this JVM");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        StringType parent = new StringType("x".repeat(4_000_000) + "key: value");
+        StringType value = parent.substring(4_000_005);
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        value.ensureCapacity(64);
+        long bytes = threads.getThreadAllocatedBytes(Thread.currentThread().threadId()) - before;
+
+        assertTrue(bytes < 4_096, () -> bytes + " bytes allocated for a capacity of 64");
+        assertTrue(value.capacity() >= 64, () -> "capacity " + value.capacity());
+        value.append("s");
+        assertEquals("values", value.getValue());
+        assertTrue(parent.getValue().endsWith("key: value"));
+    }
+
+    // --------------------------------------------------------- Rewritten methods
+
+    @Test
+    void keepsTheCharsItIsCreatedFrom() {
+        char[] cs = {'k', 'e', 'y'};
+        StringType t = new StringType(cs);
+        cs[0] = 'x';
+
+        assertEquals("key", t.getValue());
+        assertEquals("ey", new StringType(cs, 1, 3).getValue());
+    }
+
+    @Test
+    void mapsIntoANewStringType() {
+        StringType t = new StringType("Key: Value");
+
+        assertEquals("KEY: VALUE", t.toUpperCase().getValue());
+        assertEquals("key: value", t.toLowerCase().getValue());
+        assertEquals("Kay: Value", t.replace('e', 'a').getValue());
+        assertEquals("Kay: Valua", t.replaceAll('e', 'a').getValue());
+        assertEquals("Key: Vlue", t.replace("Va", "V").getValue());
+        assertEquals("Key: Value", t.getValue());
+    }
+
+    @Test
+    void capitalizesOnlyTheFirstLetter() {
+        assertEquals("Key: value", new StringType("key: value").capitalize().getValue());
+        assertEquals("Key: Value", new StringType("Key: Value").capitalize().getValue());
+        assertEquals("", new StringType("").capitalize().getValue());
+    }
+
+    @Test
+    void comparesLikeString() {
+        String[] values = {"", "a", "ab", "abc", "b", "B", "key", "key: value", "é", "Ā", "０"};
+        for (String a : values)
+            for (String b : values)
+                assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(new StringType(a).compareTo(new StringType(b))),
+                        () -> a + " <> " + b);
+    }
+
+    @Test
+    void trimsItselfInPlace() {
+        StringType t = new StringType(" \t key: value \n");
+
+        assertSame(t, t.trim());
+        assertEquals("key: value", t.getValue());
+        assertEquals("", new StringType(" \t\n").trim().getValue());
+    }
+
+    @Test
+    void splitsLikeString() {
+        String[] values = {"", ",", "a", "a,b", ",a,,b,", "a,,b,,", "key: value, key: value"};
+        for (String value : values)
+            for (String delimiter : new String[]{",", ", ", "key"})
+                for (int limit : new int[]{-1, 0, 1, 2, 3}) {
+                    String[] split = Arrays.stream(new StringType(value).split(delimiter, limit))
+                            .map(StringType::getValue)
+                            .toArray(String[]::new);
+                    assertArrayEquals(value.split(delimiter, limit), split,
+                            () -> "\"" + value + "\" at \"" + delimiter + "\", " + limit + ": " + Arrays.toString(split));
+                }
+
+        assertArrayEquals(new String[]{"a", "b"}, Arrays.stream(new StringType("a,b,,").split(','))
+                .map(StringType::getValue)
+                .toArray(String[]::new));
+    }
+
+    @Test
+    void removesTheGivenChars() {
+        StringType t = new StringType("k-e-y: v_al!ue");
+
+        assertTrue(t.removeChars('-'));
+        assertEquals("key: v_al!ue", t.getValue());
+        assertTrue(t.removeChars('_', '!', '?'));
+        assertEquals("key: value", t.getValue());
+    }
+
+    @Test
+    void copiesItsContentsOut() {
+        StringType t = new StringType("key: value");
+        char[] cs = t.toCharArray(), buffer = t.toBuffer();
+        StringType copy = t.copy();
+
+        cs[0] = 'x';
+        buffer[0] = 'x';
+        copy.append('s');
+        t.insert('_', 3);
+
+        assertEquals("key_: value", t.getValue());
+        assertEquals("key: values", copy.getValue());
+        assertEquals(t.length(), t.toCharArray().length);
+        assertNotSame(t.toBuffer(), t.toBuffer());
+    }
+}
@@ -0,0 +1,121 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link StringType#join(String, String...)} and its overloads,
+ * {@link StringType#concat(Iterable, CharSequence, CharSequence, CharSequence)} and {@link StringType#joining} join
+ * like {@link String#join(CharSequence, CharSequence...)}, into a buffer of exactly the length of the result, with one
+ * byte per char if all of them fit into <em>Latin-1</em>, whatever the storage of the {@code StringType}s joined.
+ */
+class StringTypeJoinTest {
+    private static final int ROUNDS = 2_000;
+
+    @Test
+    void joinsLikeString() {
+        Random random = new Random(0x10);
+        for (int round = 0; round < ROUNDS; round++) {
+            String[] strings = strings(random, random.nextInt(8));
+            StringType[] stringTypes = stringTypes(random, strings);
+            String delimiter = text(random, random.nextInt(3));
+            String expected = String.join(delimiter, strings), in = "round " + round + ": " + List.of(strings);
+
+            assertPresized(expected, StringType.join(delimiter, strings), in);
+            assertPresized(expected, StringType.join(delimiter, stringTypes), in);
+            assertPresized(expected, StringType.join(new StringType(delimiter), strings), in);
+            assertPresized(expected, StringType.join(new StringType(delimiter), stringTypes), in);
+            if (delimiter.length() == 1) {
+                assertPresized(expected, StringType.join(delimiter.charAt(0), strings), in);
+                assertPresized(expected, StringType.join(delimiter.charAt(0), stringTypes), in);
+            }
+        }
+        assertPresized("", StringType.join(", ", new String[0]), "no strings");
+        assertPresized("", StringType.join(',', new StringType[0]), "no StringTypes");
+    }
+
+    @Test
+    void concatenatesAnyCharSequences() {
+        Random random = new Random(0x11);
+        for (int round = 0; round < ROUNDS; round++) {
+            String[] strings = strings(random, random.nextInt(8));
+            List<CharSequence> elements = new ArrayList<>();
+            for (String s : strings) {
+                switch (random.nextInt(4)) {
+                    case 0 -> elements.add(s);
+                    case 1 -> elements.add(new StringBuilder(s));
+                    case 2 -> elements.add(CharBuffer.wrap(s));
+                    default -> elements.add(stringTypes(random, s)[0]);
+                }
+            }
+            String prefix = random.nextBoolean() ? "[" : "→ ", suffix = random.nextBoolean() ? "]" : "";
+            String expected = prefix + String.join(", ", strings) + suffix;
+
+            assertPresized(expected, StringType.concat(elements, ", ", prefix, suffix), "round " + round);
+        }
+    }
+
+    @Test
+    void collectsLikeCollectorsJoining() {
+        Random random = new Random(0x12);
+        for (int round = 0; round < 200; round++) {
+            List<String> strings = List.of(strings(random, random.nextInt(3_000)));
+            String in = "round " + round + ": " + strings.size() + " elements";
+
+            assertPresized(String.join("; ", strings), strings.stream().collect(StringType.joining("; ")), in);
+            assertPresized(strings.stream().collect(Collectors.joining(",", "{", "}")),
+                    strings.parallelStream().collect(StringType.joining(",", "{", "}")), in);
+        }
+        assertEquals("0-1-2", IntStream.range(0, 3).mapToObj(String::valueOf)
+                .collect(StringType.joining("-")).getValue());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static void assertPresized(@NotNull String expected, @NotNull StringType actual, @NotNull String in) {
+        assertEquals(expected, actual.getValue(), in);
+        assertEquals(actual.length(), actual.capacity(), () -> in + ": allocated once, at the length of the result");
+        assertEquals(expected.chars().allMatch(c -> c <= 0xFF), actual.latin1Array() != null, in);
+    }
+
+    private static String @NotNull [] strings(@NotNull Random random, int count) {
+        boolean wide = random.nextInt(4) == 0;
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) strings[i] = text(random, random.nextInt(6)) + (wide && i == 0 ? "→" : "");
+        return strings;
+    }
+
+    // the same contents, stored with one or two bytes per char, or a view on the buffer of a larger StringType
+    private static StringType @NotNull [] stringTypes(@NotNull Random random, String @NotNull ... strings) {
+        StringType[] stringTypes = new StringType[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            StringType t = new StringType(strings[i]);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    t.append('→');
+                    t.remove(t.length() - 1);
+                }
+                case 1 -> t = new StringType("<" + strings[i] + ">").substring(1, strings[i].length() + 1);
+                default -> {
+                }
+            }
+            stringTypes[i] = t;
+        }
+        return stringTypes;
+    }
+
+    private static @NotNull String text(@NotNull Random random, int length) {
+        char[] cs = new char[length];
+        for (int i = 0; i < length; i++) cs[i] = "ab ,éÿ".charAt(random.nextInt(6));
+        return new String(cs);
+    }
+}
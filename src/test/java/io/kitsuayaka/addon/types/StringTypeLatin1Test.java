@@ -0,0 +1,159 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a {@link StringType} stores its contents with one byte per char as long as all of them are at most
+ * {@code 0xFF}, switches to two bytes in place once a wider char is added, and back with {@link StringType#compact()},
+ * without the contents or what they compare equal to changing on the way.
+ */
+class StringTypeLatin1Test {
+    private static final int ROUNDS = 2_000;
+
+    // the chars on both sides of the end of Latin-1, and one which is negative as a byte
+    private static final char[] CHARS = {'a', '-', 0x80, 0xFE, 0xFF, 0x100, 0x101, 0x20AC};
+
+    @Test
+    void storesLatin1WithOneBytePerChar() {
+        for (String latin1 : new String[]{"", "a", "\u0000", "key: ÿ", "ÿ".repeat(100)}) {
+            assertLatin1(new StringType(latin1), latin1);
+            assertLatin1(new StringType(latin1.toCharArray()), latin1);
+            assertLatin1(new StringType(new StringBuilder(latin1)), latin1);
+            assertLatin1(new StringType(("<" + latin1 + ">").toCharArray(), 1, latin1.length() + 1), latin1);
+        }
+        assertLatin1(new StringType('ÿ'), "ÿ");
+
+        for (String wide : new String[]{"Ā", "key: ÿĀ", "€uro", "😀"}) {
+            assertWide(new StringType(wide), wide);
+            assertWide(new StringType(wide.toCharArray()), wide);
+        }
+        assertWide(new StringType('Ā'), "Ā");
+    }
+
+    @Test
+    void switchesToTwoBytesOnlyForAWiderChar() {
+        StringType t = new StringType("key:");
+        t.append(' ');
+        t.append('ÿ');
+        t.insert("ÿ", 0);
+        assertLatin1(t, "ÿkey: ÿ");
+
+        t.append('Ā');
+        assertWide(t, "ÿkey: ÿĀ");
+
+        StringType inserted = new StringType("key"), pushed = new StringType("key"), appended = new StringType("key");
+        inserted.insert('Ā', 1);
+        pushed.push("Ā");
+        appended.append("aĀ");
+        assertWide(inserted, "kĀey");
+        assertWide(pushed, "Ākey");
+        assertWide(appended, "keyaĀ");
+        assertWide(new StringType("key").replace('e', 'Ā'), "kĀy");
+        assertWide(new StringType("a-a").replaceAll('a', '€'), "€-€");
+        assertLatin1(new StringType("key").replaceAll('e', 'ÿ'), "kÿy");
+
+        StringType set = new StringType("key");
+        set.set("Āy");
+        assertWide(set, "Āy");
+        set.set("ÿ");
+        assertLatin1(set, "ÿ");
+    }
+
+    @Test
+    void compactsBackOnceAllCharsFit() {
+        StringType t = new StringType("value: ");
+        t.append('Ā');
+        t.remove(t.length() - 1);
+        assertWide(t, "value: ");
+
+        assertLatin1(t.compact(), "value: ");
+
+        t.append("€");
+        assertWide(t.compact(), "value: €");
+        assertLatin1(new StringType("aĀb").substring(2).compact(), "b");
+    }
+
+    @Test
+    void comparesTheSameInEitherForm() {
+        for (String text : new String[]{"", "key", "KEY: ÿ", "\u0080ÿ"}) {
+            StringType latin1 = new StringType(text), wide = new StringType(text);
+            wide.append('Ā');
+            wide.remove(wide.length() - 1);
+            assertLatin1(latin1, text);
+            assertWide(wide, text);
+
+            assertTrue(latin1.equals(wide) && wide.equals(latin1), text);
+            assertEquals(latin1.hashCode(), wide.hashCode(), text);
+            assertEquals(0, latin1.compareTo(wide), text);
+            assertEquals(latin1.hashCodeIgnoreCase(), wide.hashCodeIgnoreCase(), text);
+            assertTrue(latin1.equalsIgnoreCase(wide.toLowerCase()), text);
+            assertEquals(latin1.toUpperCase().getValue(), wide.toUpperCase().getValue(), text);
+            assertEquals(latin1.indexOf("ÿ"), wide.indexOf("ÿ"), text);
+        }
+    }
+
+    @Test
+    void editsLikeAStringBuilder() {
+        Random random = new Random(0x1A71);
+        for (int round = 0; round < ROUNDS; round++) {
+            StringBuilder expected = new StringBuilder();
+            StringType t = new StringType();
+            for (int step = 0; step < 30; step++) {
+                char c = CHARS[random.nextInt(CHARS.length)];
+                int at = random.nextInt(expected.length() + 1);
+                switch (random.nextInt(6)) {
+                    case 0 -> {
+                        t.append(c);
+                        expected.append(c);
+                    }
+                    case 1 -> {
+                        t.insert(c, at);
+                        expected.insert(at, c);
+                    }
+                    case 2 -> {
+                        String s = "" + c + CHARS[random.nextInt(CHARS.length)];
+                        t.insert(s, at);
+                        expected.insert(at, s);
+                    }
+                    case 3 -> {
+                        int end = at + random.nextInt(expected.length() - at + 1);
+                        t.removeChars(at, end);
+                        expected.delete(at, end);
+                    }
+                    case 4 -> {
+                        t = t.substring(at);
+                        expected.delete(0, at);
+                    }
+                    default -> {
+                        t.compact();
+                        boolean fits = expected.chars().allMatch(ch -> ch <= 0xFF);
+                        assertEquals(fits, t.latin1Array() != null, "compacted " + expected);
+                    }
+                }
+                assertEquals(expected.toString(), t.getValue(), "round " + round);
+            }
+        }
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static void assertLatin1(@NotNull StringType t, @NotNull String expected) {
+        assertEquals(expected, t.getValue());
+        assertNotNull(t.latin1Array(), () -> "\"" + expected + "\" with one byte per char");
+        assertNull(t.array(), expected);
+    }
+
+    private static void assertWide(@NotNull StringType t, @NotNull String expected) {
+        assertEquals(expected, t.getValue());
+        assertNull(t.latin1Array(), () -> "\"" + expected + "\" with two bytes per char");
+        assertNotNull(t.array(), expected);
+    }
+}
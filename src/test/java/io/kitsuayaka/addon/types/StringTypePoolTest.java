@@ -0,0 +1,33 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that a {@link StringTypePool} hands out one instance per content, and never pools the {@code StringType}
+ * interned into it, so a key builder reused by a parser can be interned as is.
+ */
+class StringTypePoolTest {
+    @Test
+    void poolsACopyOfAReusedBuilder() {
+        StringTypePool pool = new StringTypePool();
+        StringType key = new StringType();
+
+        key.append("name");
+        StringType name = pool.intern(key);
+        assertNotSame(key, name);
+
+        key.clear();
+        key.append("kind");
+        StringType kind = pool.intern(key);
+
+        assertEquals("name", name.getValue());
+        assertEquals("kind", kind.getValue());
+        assertSame(name, pool.intern("name"));
+        assertSame(kind, pool.intern("kind".toCharArray(), 0, 4));
+        assertSame(name, pool.intern(new StringType("name")));
+    }
+}
@@ -0,0 +1,119 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link StringType#replace(String, String)} and {@link StringType#replaceAll(String, String)} replace
+ * what {@link String#replaceFirst(String, String)} and {@link String#replace(CharSequence, CharSequence)} do, and that
+ * {@link StringType#replaceAll(Map)} replaces the leftmost and, of those starting at the same index, the longest key
+ * wherever keys overlap, like a naive scan from left to right does.
+ */
+class StringTypeReplaceTest {
+    private static final int ROUNDS = 5_000;
+
+    @Test
+    void replacesLikeString() {
+        Random random = new Random(0x2E9);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = text(random, random.nextInt(100)), old = text(random, 1 + random.nextInt(3));
+            String replacement = text(random, random.nextInt(4));
+            StringType stringType = new StringType(text);
+            String in = "round " + round + ": \"" + old + "\" -> \"" + replacement + "\" in \"" + text + "\"";
+
+            assertEquals(text.replace(old, replacement), stringType.replaceAll(old, replacement).getValue(), in);
+            assertEquals(text.replaceFirst(Pattern.quote(old), Matcher.quoteReplacement(replacement)),
+                    stringType.replace(old, replacement).getValue(), in);
+            assertEquals(text, stringType.getValue(), in);
+        }
+        assertEquals("abc", new StringType("abc").replaceAll("", "-").getValue());
+    }
+
+    @Test
+    void replacesAllKeysLikeALeftmostLongestScan() {
+        Random random = new Random(0x2EA);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = text(random, random.nextInt(100));
+            Map<String, String> replacements = new HashMap<>();
+            for (int i = random.nextInt(6); i >= 0; i--) {
+                replacements.put(text(random, 1 + random.nextInt(4)), text(random, random.nextInt(4)));
+            }
+
+            assertEquals(leftmostLongest(text, replacements), new StringType(text).replaceAll(replacements).getValue(),
+                    () -> "\"" + text + "\" with " + replacements);
+        }
+    }
+
+    @Test
+    void resolvesOverlapsByStartThenLength() {
+        assertEquals("/home/ayaka and $", replaceAll("${HOME} and $", "$", "$", "${HOME}", "/home/ayaka"));
+        assertEquals("[ab]c", replaceAll("abc", "bc", "[bc]", "ab", "[ab]"));
+        assertEquals("Xa", replaceAll("aaa", "aa", "X"));
+        assertEquals("\n\\n", replaceAll("\\n\\\\n", "\\n", "\n", "\\\\", "\\"));
+        assertEquals("ba", replaceAll("ab", "a", "b", "b", "a")); // replaced text is not searched again
+        assertEquals("a-b", replaceAll("a-b", "", "x"));
+        assertEquals("a-b", new StringType("a-b").replaceAll(Map.of()).getValue());
+    }
+
+    @Test
+    void staysLatin1OnlyIfTheReplacementsAre() {
+        assertNotNull(new StringType("a-b-c").replaceAll("-", "é").latin1Array());
+        assertNull(new StringType("a-b-c").replaceAll("-", "→").latin1Array());
+        assertNotNull(new StringType("a-b").replaceAll(Map.of("-", "é", "x", "→")).latin1Array());
+        assertEquals("a→b", new StringType("a-b").replaceAll(Map.of("-", "→")).getValue());
+        assertEquals("a-b", new StringType("a→b").replaceAll("→", "-").getValue());
+    }
+
+    @Test
+    void needsOneReplacementPerPattern() {
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile("a", "b");
+        assertThrows(IllegalArgumentException.class, () -> new StringType("ab").replaceAll(matcher, "x"));
+        assertThrows(IllegalArgumentException.class, () -> new StringType("ab").replaceAll(matcher, "x", "y", "z"));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // replaces the given keys and values, in pairs, in the order given
+    private static @NotNull String replaceAll(@NotNull String text, @NotNull String @NotNull ... pairs) {
+        Map<String, String> replacements = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) replacements.put(pairs[i], pairs[i + 1]);
+        return new StringType(text).replaceAll(replacements).getValue();
+    }
+
+    // at every index, the longest key starting there, skipping over what was replaced
+    private static @NotNull String leftmostLongest(@NotNull String text, @NotNull Map<String, String> replacements) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            String longest = null;
+            for (String key : replacements.keySet()) {
+                if (text.startsWith(key, i) && (longest == null || key.length() > longest.length())) longest = key;
+            }
+            if (longest == null) {
+                builder.append(text.charAt(i++));
+            } else {
+                builder.append(replacements.get(longest));
+                i += longest.length();
+            }
+        }
+        return builder.toString();
+    }
+
+    // a small alphabet, so that keys and needles overlap often
+    private static @NotNull String text(@NotNull Random random, int length) {
+        char[] cs = new char[length];
+        for (int i = 0; i < length; i++) cs[i] = "aab$é→".charAt(random.nextInt(6));
+        return new String(cs);
+    }
+}
@@ -0,0 +1,124 @@
+package io.kitsuayaka.addon.types;
+
+import io.kitsuayaka.addon.tools.Range;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that substring search finds what {@link String#indexOf(String)} finds, with needles on both sides of the
+ * 16 chars from which on a {@link StringType.Searcher} gets a skip table, and contents on both sides of the 1 KiB from
+ * which on a one-shot search builds one. The contents are drawn from a small alphabet, so that partial matches are
+ * frequent, in which {@code 'a'} and {@code 'š'} share the low byte the skip table is indexed by.
+ */
+class StringTypeSearchTest {
+    private static final int ROUNDS = 3_000;
+
+    private static final String LATIN_1 = "aab-é";
+    private static final String UTF_16 = "aab-éš";
+
+    @Test
+    void findsWhatStringFinds() {
+        Random random = new Random(0x5EA);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = text(random, random.nextBoolean() ? LATIN_1 : UTF_16, random.nextInt(2_000));
+            String needle = needle(random, text);
+            StringType.Searcher searcher = StringType.searcher(needle);
+            String in = "round " + round + ": \"" + needle + "\" in " + text.length() + " chars";
+
+            StringType stringType = new StringType(text);
+            assertEquals(text.indexOf(needle), stringType.indexOf(needle), in);
+            assertEquals(text.lastIndexOf(needle), stringType.lastIndexOf(needle), in);
+            assertEquals(text.contains(needle), stringType.contains(needle), in);
+            assertEquals(text.indexOf(needle), stringType.indexOf(searcher), in);
+            assertEquals(text.contains(needle), stringType.contains(searcher), in);
+            assertEquals(range(text, needle), stringType.find(needle), in);
+            assertEquals(range(text, needle), stringType.find(searcher), in);
+
+            int from = random.nextInt(text.length() + 1);
+            assertEquals(text.indexOf(needle, from), stringType.indexOf(searcher, from), in + " from " + from);
+
+            char[] cs = text.toCharArray();
+            int start = random.nextInt(cs.length + 1), end = start + random.nextInt(cs.length - start + 1);
+            int expected = text.substring(start, end).indexOf(needle);
+            assertEquals(expected < 0 ? -1 : start + expected, searcher.indexIn(cs, start, end),
+                    in + " [" + start + ", " + end + ")");
+        }
+    }
+
+    @Test
+    void searchesOnlyTheContentsOfASubstring() {
+        Random random = new Random(0x5EB);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = text(random, random.nextBoolean() ? LATIN_1 : UTF_16, random.nextInt(3_000));
+            int start = random.nextInt(text.length() + 1), end = start + random.nextInt(text.length() - start + 1);
+            String expected = text.substring(start, end), needle = needle(random, text);
+            StringType substring = new StringType(text).substring(start, end);
+            String in = "round " + round + ": \"" + needle + "\" in [" + start + ", " + end + ")";
+
+            assertEquals(expected.indexOf(needle), substring.indexOf(needle), in);
+            assertEquals(expected.lastIndexOf(needle), substring.lastIndexOf(needle), in);
+            assertEquals(expected.indexOf(needle), substring.indexOf(StringType.searcher(needle)), in);
+        }
+    }
+
+    @Test
+    void findsLongNeedlesWithCollidingLowBytes() {
+        String needle = "š".repeat(20) + "a";
+        StringType.Searcher searcher = StringType.searcher(needle);
+        // every 'a' shifts the search like an 'š' would, which must not skip the match behind it
+        String text = "a".repeat(1_500) + needle + "a".repeat(100);
+
+        assertEquals(text.indexOf(needle), new StringType(text).indexOf(needle));
+        assertEquals(text.indexOf(needle), new StringType(text).indexOf(searcher));
+        assertEquals(-1, new StringType("a".repeat(2_000)).indexOf(searcher)); // a Latin-1 haystack
+        assertEquals(-1, new StringType("š".repeat(2_000)).indexOf(searcher));
+    }
+
+    @Test
+    void indexesOfFindsEveryOccurrence() {
+        for (String text : new String[]{"", "abc", "a-a--a", "é-é", "šaš", "-".repeat(100)}) {
+            for (char c : new char[]{'a', '-', 'é', 'š'}) {
+                int[] expected = IntStream.range(0, text.length()).filter(i -> text.charAt(i) == c).toArray();
+                assertArrayEquals(expected, new StringType(text).indexesOf(c), text + ", " + c);
+            }
+        }
+    }
+
+    @Test
+    void findsTheEmptyNeedleAtTheStart() {
+        StringType stringType = new StringType("key: value");
+
+        assertEquals(0, stringType.indexOf(""));
+        assertEquals(3, stringType.indexOf(StringType.searcher(""), 3));
+        assertEquals(10, stringType.indexOf(StringType.searcher(""), 10));
+        assertEquals(-1, new StringType("").indexOf("a"));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static @NotNull String text(@NotNull Random random, @NotNull String alphabet, int length) {
+        char[] cs = new char[length];
+        for (int i = 0; i < length; i++) cs[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        return new String(cs);
+    }
+
+    // mostly a part of the text, of up to 40 chars, sometimes one that is not in it
+    private static @NotNull String needle(@NotNull Random random, @NotNull String text) {
+        int length = 1 + random.nextInt(40);
+        if (text.length() < length || random.nextInt(4) == 0) return text(random, UTF_16, length);
+        int start = random.nextInt(text.length() - length + 1);
+        return text.substring(start, start + length);
+    }
+
+    private static @NotNull Range range(@NotNull String text, @NotNull String needle) {
+        int i = text.indexOf(needle);
+        return i < 0 ? Range.UNDEFINED : new Range(i, i + needle.length());
+    }
+}
@@ -0,0 +1,164 @@
+package io.kitsuayaka.addon.types;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ConcurrentModificationException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that a {@code StringType} sharing its buffer with slices taken from it, or read through
+ * {@link StringType#chars()} and {@link StringType.Cursor}, keeps appending in amortized {@code O(1)}, measuring the
+ * bytes the current thread allocates through {@link com.sun.management.ThreadMXBean}, and that neither side ever sees
+ * the writes of the other.
+ */
+class StringTypeSharingTest {
+    private static final int ROUNDS = 100_000;
+
+    // a slice and the share of the geometrically grown buffer are well below this, copying the buffer every round is not
+    private static final long BYTES_PER_ROUND = 256;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeAll
+    static void allocationCounting() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "allocated bytes can not be measured on this JVM");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void appendsAfterSlicingWithoutCopying() {
+        appendAndSlice(new StringType(), ROUNDS);
+
+        StringType t = new StringType();
+        long before = allocated();
+        StringType last = appendAndSlice(t, ROUNDS);
+        long bytes = allocated() - before;
+
+        assertEquals(ROUNDS, t.length());
+        assertEquals("x", last.getValue());
+        assertTrue(t.capacity() > t.length(), () -> "capacity " + t.capacity() + " for " + t.length() + " chars");
+        assertTrue(bytes < ROUNDS * BYTES_PER_ROUND, () -> bytes + " bytes allocated for " + ROUNDS + " appends");
+    }
+
+    @Test
+    void appendsAfterReadingWithoutCopying() {
+        StringType.Cursor cursor = new StringType.Cursor();
+        appendAndRead(new StringType(), cursor, ROUNDS);
+
+        StringType t = new StringType();
+        long before = allocated();
+        appendAndRead(t, cursor, ROUNDS);
+        long bytes = allocated() - before;
+
+        assertEquals(ROUNDS, t.length());
+        assertTrue(bytes < ROUNDS * BYTES_PER_ROUND, () -> bytes + " bytes allocated for " + ROUNDS + " appends");
+    }
+
+    @Test
+    void appendsPartOfAnotherStringTypeWithoutSharingIt() {
+        StringType source = new StringType("key: value, ".repeat(100));
+        appendParts(new StringType(), source, ROUNDS);
+
+        StringType t = new StringType();
+        long before = allocated();
+        appendParts(t, source, ROUNDS);
+        long bytes = allocated() - before;
+
+        assertEquals(ROUNDS * 5L, t.length());
+        assertTrue(bytes < ROUNDS * BYTES_PER_ROUND, () -> bytes + " bytes allocated for " + ROUNDS + " appends");
+
+        StringType self = new StringType("key: ");
+        for (int i = 0; i < 4; i++) self.append(self, 0, self.length());
+        assertEquals("key: ".repeat(16), self.getValue());
+    }
+
+    @Test
+    void failsFastWhenModifiedWhileReading() {
+        StringType t = new StringType("key: value");
+        IntStream chars = t.chars();
+        t.append('s');
+        assertEquals("key: values", new String(chars.toArray(), 0, t.length()));
+
+        assertThrows(ConcurrentModificationException.class, () -> t.chars().forEach(c -> t.append('!')));
+
+        StringType.Cursor cursor = t.cursor();
+        assertEquals('k', cursor.next());
+        t.remove(0);
+        assertThrows(ConcurrentModificationException.class, cursor::peek);
+        assertEquals('e', cursor.reset(t).next());
+    }
+
+    @Test
+    void keepsItsCapacityWhenWritingOverASlice() {
+        StringType t = StringType.withCapacity(64);
+        t.append("key: value");
+        StringType value = t.substring(5);
+
+        t.remove(t.length() - 1);
+        t.append('E');
+
+        assertEquals("value", value.getValue());
+        assertEquals("key: valuE", t.getValue());
+        assertEquals(64, t.capacity());
+    }
+
+    @Test
+    void neverSeesTheWritesOfTheOtherSide() {
+        StringType t = new StringType("key: value");
+        StringType key = t.substring(0, 3), value = t.substring(5);
+        FrozenStringType frozen = t.freeze();
+
+        t.append(", more");
+        t.insert('_', 3);
+        t.push("- ");
+        key.append("s");
+        value.insert("new ", 0);
+
+        assertEquals("- key_: value, more", t.getValue());
+        assertEquals("keys", key.getValue());
+        assertEquals("new value", value.getValue());
+        assertTrue(frozen.contentEquals("key: value"));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // appends one char after another, taking a slice of the last one after each
+    private static StringType appendAndSlice(StringType t, int rounds) {
+        StringType last = t;
+        for (int i = 0; i < rounds; i++) {
+            t.append('x');
+            last = t.substring(t.length() - 1);
+        }
+        return last;
+    }
+
+    // appends one char after another, reading through chars() and the cursor after each
+    private static void appendAndRead(StringType t, StringType.Cursor cursor, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            t.append('x');
+            assertEquals('x', t.chars().findFirst().orElseThrow());
+            assertEquals('x', cursor.reset(t).seek(i).next());
+        }
+    }
+
+    // appends a part of the source, which rewrites a char of that part after each
+    private static void appendParts(StringType t, StringType source, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            t.append(source, 5, 10);
+            source.remove(9);
+            source.insert('e', 9);
+        }
+    }
+
+    private static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
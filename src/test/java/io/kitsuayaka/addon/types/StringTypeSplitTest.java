@@ -0,0 +1,142 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link StringType#splitIterator(String)} and {@link StringType#splitStream(String)} yield the pieces
+ * {@link String#split(String, int) split(delimiter, -1)} does, one at a time from a snapshot of the contents, and that
+ * splitting their spliterator for a parallel stream never cuts the input at an occurrence a sequential search would
+ * have skipped, which is what self-overlapping delimiters like {@code "--"} in runs of {@code '-'} try to provoke.
+ */
+class StringTypeSplitTest {
+    private static final int ROUNDS = 2_000;
+
+    private static final String[] DELIMITERS = {"-", "--", "-a-", "\n", "é", "š", "--------------------x"};
+
+    @Test
+    void yieldsThePiecesOfSplit() {
+        Random random = new Random(0x5917);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = text(random, random.nextInt(200));
+            String delimiter = DELIMITERS[random.nextInt(DELIMITERS.length)];
+            List<String> expected = Arrays.asList(text.split(Pattern.quote(delimiter), -1));
+            StringType stringType = new StringType(text);
+            String in = "round " + round + ": \"" + delimiter + "\" in \"" + text + "\"";
+
+            assertEquals(expected, values(stringType.splitIterator(delimiter)), in);
+            assertEquals(expected, stringType.splitStream(delimiter).map(StringType::getValue).toList(), in);
+            assertEquals(expected, Arrays.stream(stringType.split(delimiter, -1)).map(StringType::getValue).toList(), in);
+            if (delimiter.length() == 1) {
+                assertEquals(expected, values(stringType.splitIterator(delimiter.charAt(0))), in);
+                assertEquals(expected, stringType.splitStream(delimiter.charAt(0)).map(StringType::getValue).toList(), in);
+            }
+        }
+    }
+
+    @Test
+    void keepsEmptyPiecesAtBothEnds() {
+        assertEquals(List.of(""), values(new StringType("").splitIterator(',')));
+        assertEquals(List.of("", ""), values(new StringType(",").splitIterator(',')));
+        assertEquals(List.of("", "a", "", "b", ""), values(new StringType(",a,,b,").splitIterator(',')));
+        assertEquals(List.of("", "-"), values(new StringType("---").splitIterator("--")));
+        assertEquals(List.of("a,b"), values(new StringType("a,b").splitIterator("")));
+        assertEquals(List.of("a,b"), values(new StringType("a,b").splitIterator(";")));
+        assertEquals(List.of("b", ""), values(new StringType("a,b,").substring(2).splitIterator(',')));
+    }
+
+    @Test
+    void iteratesOverTheContentsAsTheyWereWhenCalled() {
+        StringType stringType = new StringType("a,b,c");
+        Iterator<StringType> pieces = stringType.splitIterator(',');
+
+        assertEquals("a", pieces.next().getValue());
+        stringType.clear();
+        stringType.append("x,y");
+        assertEquals("b", pieces.next().getValue());
+        assertEquals("c", pieces.next().getValue());
+        assertFalse(pieces.hasNext());
+        assertEquals("x,y", stringType.getValue());
+    }
+
+    @Test
+    void searchesOnlyAsFarAsItIsIterated() {
+        StringType lines = new StringType("first\n" + "x".repeat(10_000_000));
+        Iterator<StringType> pieces = lines.splitIterator('\n');
+
+        assertEquals("first", pieces.next().getValue());
+        assertTrue(pieces.hasNext());
+        assertEquals(List.of("first"), lines.splitStream('\n').limit(1).map(StringType::getValue).toList());
+    }
+
+    @Test
+    void splitsForParallelStreamsWithoutMovingAPiece() {
+        Random random = new Random(0x591A);
+        for (int round = 0; round < 200; round++) {
+            String text = text(random, 4_096 + random.nextInt(40_000));
+            String delimiter = DELIMITERS[random.nextInt(3)];
+            List<String> expected = Arrays.asList(text.split(Pattern.quote(delimiter), -1));
+            StringType stringType = new StringType(text);
+            String in = "round " + round + ": \"" + delimiter + "\" in " + text.length() + " chars";
+
+            List<String> split = new ArrayList<>();
+            splitAll(stringType.splitStream(delimiter).spliterator(), split);
+            assertEquals(expected, split, in);
+            assertEquals(expected, stringType.splitStream(delimiter).parallel().map(StringType::getValue).toList(), in);
+        }
+    }
+
+    @Test
+    void doesNotSplitSmallOrUndelimitedInput() {
+        assertNull(new StringType("a-b-c".repeat(100)).splitStream("-").spliterator().trySplit());
+        assertNull(new StringType("x".repeat(100_000)).splitStream("-").spliterator().trySplit());
+        assertNull(new StringType("a-b".repeat(10_000)).splitStream("").spliterator().trySplit());
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // splits the spliterator as far as it goes, collecting the pieces of its prefixes first
+    private static void splitAll(@NotNull Spliterator<StringType> spliterator, @NotNull List<String> pieces) {
+        Spliterator<StringType> prefix = spliterator.trySplit();
+        if (prefix != null) {
+            splitAll(prefix, pieces);
+            splitAll(spliterator, pieces);
+        } else {
+            spliterator.forEachRemaining(piece -> pieces.add(piece.getValue()));
+        }
+    }
+
+    // mostly runs of '-', so that self-overlapping delimiters overlap
+    private static @NotNull String text(@NotNull Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            switch (random.nextInt(8)) {
+                case 0 -> builder.append('a');
+                case 1 -> builder.append('\n');
+                case 2 -> builder.append(random.nextBoolean() ? 'é' : 'š');
+                case 3 -> builder.append('x');
+                default -> builder.append("-".repeat(1 + random.nextInt(4)));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static @NotNull List<String> values(@NotNull Iterator<StringType> pieces) {
+        List<String> values = new ArrayList<>();
+        pieces.forEachRemaining(piece -> values.add(piece.getValue()));
+        return values;
+    }
+}
@@ -0,0 +1,141 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link StringType#strip()}, {@link StringType#stripLeading()}, {@link StringType#stripTrailing()},
+ * {@link StringType#trim()} and {@link StringType#stripIndent()} remove what the methods of {@link String} of the same
+ * names do, with blanks {@link Character#isWhitespace(char)} rejects, like the no-break spaces and the degree sign,
+ * mixed into the whitespaces, and that {@link StringType#stripIndent(int)} removes up to the given number of spaces
+ * from the start of every line and nothing else.
+ */
+class StringTypeStripTest {
+    private static final int ROUNDS = 20_000;
+
+    // whitespaces, including wide ones, chars that merely look like them and a few that are not blank at all
+    private static final String ALPHABET = " \t\n\u000B\f\r\u001C\u001F  　   \u0000\u0085°ké→";
+
+    @Test
+    void stripsLikeString() {
+        Random random = new Random(0x5791);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = text(random, random.nextInt(random.nextBoolean() ? 8 : 120));
+            StringType stringType = stored(random, text);
+            String in = "round " + round + ": " + hex(text);
+
+            assertEquals(text.strip(), stringType.strip().getValue(), in);
+            assertEquals(text.stripLeading(), stringType.stripLeading().getValue(), in);
+            assertEquals(text.stripTrailing(), stringType.stripTrailing().getValue(), in);
+            assertEquals(text, stringType.getValue(), in);
+            assertEquals(text.strip(), stringType.trim().getValue(), in);
+        }
+    }
+
+    @Test
+    void slicesWithoutCopying() {
+        StringType stringType = new StringType(" \t key: välue \n");
+        for (StringType stripped : new StringType[]{stringType.strip(), stringType.stripLeading(), stringType.stripTrailing()}) {
+            assertSame(stringType.latin1Array(), stripped.latin1Array());
+        }
+        StringType wide = new StringType("　key: → ");
+        assertSame(wide.array(), wide.strip().array());
+        assertSame(stringType, stringType.trim());
+        assertEquals("key: välue", stringType.getValue());
+    }
+
+    @Test
+    void stripsIndentLikeString() {
+        Random random = new Random(0x5792);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = lines(random);
+            String in = "round " + round + ": " + hex(text);
+            assertEquals(text.stripIndent(), stored(random, text).stripIndent().getValue(), in);
+        }
+        assertEquals("  a\n   b\n", new StringType("  a\r\n   b\r\n").stripIndent().getValue());
+        assertEquals("  a\n   b\n\n", new StringType("  a\n   b\n\n").stripIndent().getValue());
+        assertEquals("a\n\nb", new StringType("\ta  \n\t\n\tb").stripIndent().getValue());
+    }
+
+    @Test
+    void stripsAKnownIndentation() {
+        Random random = new Random(0x5793);
+        for (int round = 0; round < ROUNDS; round++) {
+            String text = lines(random);
+            int indentation = random.nextInt(5);
+            String in = "round " + round + ", " + indentation + ": " + hex(text);
+            assertEquals(stripSpaces(text, indentation), stored(random, text).stripIndent(indentation).getValue(), in);
+        }
+
+        StringType block = new StringType("  literal\n    nested\n\tkept\r\n");
+        assertEquals("literal\n  nested\n\tkept\r\n", block.stripIndent(2).getValue());
+        assertEquals("literal\nnested\n\tkept\r\n", block.stripIndent(8).getValue());
+        assertSame(block.latin1Array(), block.stripIndent(0).latin1Array());
+        StringType unindented = new StringType("\tno\nspaces");
+        assertSame(unindented.latin1Array(), unindented.stripIndent(2).latin1Array());
+        assertThrows(IllegalArgumentException.class, () -> block.stripIndent(-1));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // removes up to the given number of spaces from the start of every line, keeping every line terminator
+    private static @NotNull String stripSpaces(@NotNull String text, int indentation) {
+        StringBuilder builder = new StringBuilder();
+        boolean lineStart = true;
+        for (int i = 0, spaces = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (lineStart && ch == ' ' && spaces < indentation) {
+                spaces++;
+                continue;
+            }
+            builder.append(ch);
+            lineStart = ch == '\n' || ch == '\r';
+            if (lineStart) spaces = 0;
+        }
+        return builder.toString();
+    }
+
+    private static @NotNull String text(@NotNull Random random, int length) {
+        char[] cs = new char[length];
+        for (int i = 0; i < length; i++) cs[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        return new String(cs);
+    }
+
+    // lines indented with spaces and tabs, some of them blank, ended by any of the three line terminators, or not
+    private static @NotNull String lines(@NotNull Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int line = random.nextInt(6); line >= 0; line--) {
+            for (int i = random.nextInt(6); i > 0; i--) builder.append(random.nextInt(5) == 0 ? '\t' : ' ');
+            if (random.nextInt(4) > 0) builder.append("key: välue→".substring(random.nextInt(11)));
+            for (int i = random.nextInt(3); i > 0; i--) builder.append(random.nextBoolean() ? ' ' : ' ');
+            if (line > 0 || random.nextBoolean()) builder.append(new String[]{"\n", "\r", "\r\n"}[random.nextInt(3)]);
+        }
+        return builder.toString();
+    }
+
+    // the text with one byte per char if it fits, or inflated to two, or as a view on a larger buffer
+    private static @NotNull StringType stored(@NotNull Random random, @NotNull String text) {
+        return switch (random.nextInt(3)) {
+            case 0 -> new StringType(text);
+            case 1 -> {
+                StringType t = new StringType(text);
+                t.append('Ā');
+                t.remove(t.length() - 1);
+                yield t;
+            }
+            default -> new StringType("k " + text + " k").substring(2, text.length() + 2);
+        };
+    }
+
+    private static @NotNull String hex(@NotNull String text) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) builder.append(String.format("%04X ", (int) text.charAt(i)));
+        return builder.toString().trim();
+    }
+}
@@ -0,0 +1,144 @@
+package io.kitsuayaka.addon.types;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link StringType#forEachWindow(int, int, io.kitsuayaka.addon.functions.CharRangeIterator)} visits the
+ * windows a plain loop over the starts does, for every combination of small lengths, sizes and steps, whether they
+ * overlap, touch or skip chars, and that the parallel variant visits each of them exactly once, in a pool of several
+ * threads and with enough windows to be split up.
+ */
+class StringTypeWindowTest {
+    @Test
+    void visitsTheWindowsOfALoopOverTheStarts() {
+        for (int length = 0; length <= 30; length++) {
+            String text = text(length);
+            StringType stringType = new StringType(text);
+            for (int size = 1; size <= 12; size++) {
+                for (int step = 1; step <= 12; step++) {
+                    List<String> windows = new ArrayList<>();
+                    assertTrue(stringType.forEachWindow(size, step, (window, start) -> {
+                        assertEquals(text.substring(start, start + window.length()), window.toString());
+                        return windows.add(window.toString());
+                    }));
+                    int size1 = size, step1 = step;
+                    assertEquals(windows(text, size, step), windows, () -> text + ", " + size1 + ", " + step1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void visitsWhatForRangeRangeVisits() {
+        StringType stringType = new StringType("key: value, ключ: значение");
+        for (int size = 1; size <= 30; size++) {
+            List<String> windows = new ArrayList<>(), ranges = new ArrayList<>();
+            stringType.forEachWindow(size, (window, start) -> windows.add(window.toString()));
+            stringType.forRangeRange(size, ranges::add);
+            assertEquals(ranges, windows);
+        }
+    }
+
+    @Test
+    void reusesOneViewAndStopsWhenAsked() {
+        StringType stringType = new StringType("abcdefgh");
+        CharSequence[] first = new CharSequence[1];
+        AtomicInteger visited = new AtomicInteger();
+
+        assertFalse(stringType.forEachWindow(2, 1, (window, start) -> {
+            if (first[0] == null) first[0] = window;
+            assertSame(first[0], window);
+            return visited.incrementAndGet() < 3;
+        }));
+        assertEquals(3, visited.get());
+    }
+
+    @Test
+    void seesTheContentsAsTheyWereWhenCalled() {
+        StringType stringType = new StringType("abcdef");
+        List<String> windows = new ArrayList<>();
+
+        stringType.forEachWindow(2, (window, start) -> {
+            if (start == 0) stringType.insert("xy", 0);
+            return windows.add(window.toString());
+        });
+        assertEquals(List.of("ab", "cd", "ef"), windows);
+        assertEquals("xyabcdef", stringType.getValue());
+
+        List<String> ranges = new ArrayList<>();
+        stringType.forRangeRange(3, range -> {
+            stringType.clear();
+            ranges.add(range);
+        });
+        assertEquals(List.of("xya", "bcd", "ef"), ranges);
+    }
+
+    @Test
+    void visitsEveryWindowOnceInParallel() {
+        String text = text(20_000);
+        StringType stringType = new StringType(text).substring(7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int[] window : new int[][]{{1, 1}, {64, 1}, {16, 16}, {3, 5}, {100, 7}}) {
+                int size = window[0], step = window[1];
+                List<String> expected = windows(text.substring(7), size, step);
+                AtomicReferenceArray<String> visited = new AtomicReferenceArray<>(expected.size());
+
+                assertTrue(stringType.forEachWindowParallel(size, step, pool, (view, start) -> {
+                    assertEquals(0, start % step);
+                    return visited.compareAndSet(start / step, null, view.toString());
+                }));
+                List<String> windows = new ArrayList<>();
+                for (int i = 0; i < visited.length(); i++) windows.add(visited.get(i));
+                assertEquals(expected, windows, () -> size + ", " + step);
+            }
+
+            AtomicInteger visited = new AtomicInteger();
+            assertFalse(stringType.forEachWindowParallel(1, 1, pool, (view, start) -> visited.incrementAndGet() < 10));
+            assertTrue(visited.get() < text.length() / 2, () -> visited + " windows visited after stopping");
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(new StringType().forEachWindowParallel(4, 4, (view, start) -> false));
+    }
+
+    @Test
+    void rejectsEmptyWindowsAndSteps() {
+        StringType stringType = new StringType("abc");
+        assertThrows(IllegalArgumentException.class, () -> stringType.forEachWindow(0, (window, start) -> true));
+        assertThrows(IllegalArgumentException.class, () -> stringType.forEachWindow(2, 0, (window, start) -> true));
+        assertThrows(IllegalArgumentException.class, () -> stringType.forEachWindowParallel(2, -1, (window, start) -> true));
+        assertThrows(IllegalArgumentException.class, () -> stringType.forRangeRange(0, string -> {}));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // the windows starting every step chars, up to and including the first one that reaches the end
+    private static @NotNull List<String> windows(@NotNull String text, int size, int step) {
+        List<String> windows = new ArrayList<>();
+        for (int start = 0; start < text.length(); start += step) {
+            windows.add(text.substring(start, Math.min(start + size, text.length())));
+            if (start + size >= text.length()) break;
+        }
+        return windows;
+    }
+
+    private static @NotNull String text(int length) {
+        char[] cs = new char[length];
+        for (int i = 0; i < length; i++) cs[i] = (char) (i % 3 == 2 ? 'ä' + i % 5 : 'a' + i % 26);
+        return new String(cs);
+    }
+}
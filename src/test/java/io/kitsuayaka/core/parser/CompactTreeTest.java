@@ -0,0 +1,211 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.elements.BaseElement;
+import io.kitsuayaka.core.elements.DecimalElement;
+import io.kitsuayaka.core.elements.ElementArena;
+import io.kitsuayaka.core.elements.IntegerElement;
+import io.kitsuayaka.core.elements.MappingElement;
+import io.kitsuayaka.core.elements.NullElement;
+import io.kitsuayaka.core.elements.SequenceElement;
+import io.kitsuayaka.core.elements.StringElement;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the {@link ElementArena} {@link YamlTreeBuilder#compact(YamlReader)} builds reads the same as the tree
+ * {@link YamlTreeBuilder#document(YamlReader)} builds, for all of the {@link YamlSamples}, whether its scalars point
+ * into the array read or are copied out of a {@code Reader}, and that the scalars it only decodes when they are read
+ * decode the same as they do while reading.
+ */
+class CompactTreeTest {
+    @Test
+    void readsLikeTheTreeOfDocument() {
+        for (String yaml : YamlSamples.STREAMS) {
+            List<String> expected = trees(new YamlReader(new StringReader(yaml)), false);
+
+            assertEquals(expected, trees(new YamlReader(yaml.toCharArray()), true), () -> "arena of\n" + yaml);
+            assertEquals(expected, trees(new YamlReader(new StringReader(yaml), 16), true),
+                    () -> "arena read through a buffer of\n" + yaml);
+        }
+    }
+
+    @Test
+    void decodesScalarsLazilyLikeWhileReading() {
+        Random random = new Random(0x1A2);
+        for (int round = 0; round < 300; round++) {
+            String yaml = mapping(random, "", 0);
+            List<String> expected = trees(new YamlReader(new StringReader(yaml)), false);
+
+            assertEquals(1, expected.size(), () -> "documents of\n" + yaml);
+            assertEquals(expected, trees(new YamlReader(yaml.toCharArray()), true), () -> "arena of\n" + yaml);
+        }
+    }
+
+    @Test
+    void pointsIntoTheSourceInsteadOfCopying() {
+        String yaml = "plain: value\nfolded: plain\n  folded\nquoted: 'it''s'\n\"esc\\taped\": \"a\\u00e9\\\n  b\"\n"
+                + "literal: |-\n  one\n  two\nnumber: 0x1F\n";
+        ElementArena lazy = compact(yaml), copied = YamlTreeBuilder.compact(new YamlReader(new StringReader(yaml)));
+
+        assertEquals(17L * lazy.size(), lazy.footprint(), "nothing is copied out of the source");
+        assertTrue(Objects.requireNonNull(copied).footprint() > lazy.footprint());
+
+        MappingElement root = (MappingElement) lazy.root();
+        assertEquals("plain folded", text(root.get("folded")));
+        assertEquals("it's", text(root.get("quoted")));
+        assertEquals("aéb", text(root.get("esc\taped")));
+        assertEquals("one\ntwo", text(root.get("literal")));
+        assertEquals(text(root.get("literal")), text(root.get("literal"))); // decoded again
+        assertEquals(31.0, ((IntegerElement) Objects.requireNonNull(root.get("number"))).getValue().doubleValue());
+    }
+
+    @Test
+    void looksUpMappingsByScanningTheirKeys() {
+        ElementArena arena = compact("name: &n value\nnested: {list: [1, 2.5, ~]}\nname: again\n*n : aliased\n");
+        MappingElement root = (MappingElement) arena.root();
+
+        assertEquals(4, root.size()); // a repeated key counts as often as it appears
+        assertEquals("again", text(root.get("name")));
+        assertEquals("aliased", text(root.get("value")));
+        assertNull(root.get("missing"));
+        assertEquals(List.of("name", "nested", "value"), root.keys().stream().map(StringType::getValue).toList());
+        assertEquals(14, arena.size()); // keys, values and the alias
+
+        MappingElement nested = (MappingElement) Objects.requireNonNull(root.get("nested"));
+        SequenceElement list = (SequenceElement) nested.get("list");
+        assertEquals(3, Objects.requireNonNull(list).size());
+        assertEquals(2.5, ((DecimalElement) list.get(1)).getValue().doubleValue());
+        assertSame(NullElement.NULL, list.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> root.put(new StringType("key"), NullElement.NULL));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(NullElement.NULL));
+    }
+
+    @Test
+    void resolvesAliasesToTheAnchoredNode() {
+        MappingElement root = (MappingElement) compact("base: &b {x: [1]}\ncopy: *b\nlist: [*b, *b]\n").root();
+
+        assertEquals(YamlSamples.tree(root.get("base")), YamlSamples.tree(root.get("copy")));
+        for (BaseElement<?> item : (SequenceElement) Objects.requireNonNull(root.get("list"))) {
+            assertEquals(YamlSamples.tree(root.get("base")), YamlSamples.tree(item));
+        }
+        assertThrows(YamlException.class, () -> compact("a: *undefined\n"));
+        assertThrows(YamlException.class, () -> compact("{[a]: b}\n"));
+    }
+
+    @Test
+    void buildsASingleRoot() {
+        ElementArena.Builder b = new ElementArena.Builder(null);
+        assertThrows(IllegalStateException.class, b::build);
+        assertThrows(IllegalStateException.class, b::end);
+
+        b.startSequence();
+        b.scalar(ElementArena.INTEGER, "42");
+        assertThrows(IllegalStateException.class, b::build);
+        assertThrows(IllegalArgumentException.class, () -> b.scalar(ElementArena.MAPPING, "x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> b.scalar(ElementArena.STRING, 0, 1));
+        b.end();
+        assertThrows(IllegalStateException.class, () -> b.scalar(ElementArena.STRING, "second root"));
+
+        assertEquals("[int 42.0]", YamlSamples.tree(b.build().root()));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // a block mapping of scalars of all styles, and of nested mappings, at the given indentation
+    private static @NotNull String mapping(@NotNull Random random, @NotNull String indent, int depth) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0, n = 1 + random.nextInt(5); i < n; i++) {
+            builder.append(indent).append(random.nextBoolean() ? "k" + i : "\"k\\t" + i + "\"").append(':');
+            if (depth < 2 && random.nextInt(4) == 0) {
+                builder.append('\n').append(mapping(random, indent + "  ", depth + 1));
+            } else {
+                builder.append(' ').append(scalar(random, indent)).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    // a scalar of a random style, as the value of a key at the given indentation
+    private static @NotNull String scalar(@NotNull Random random, @NotNull String indent) {
+        String more = "\n" + indent + "  ";
+        StringBuilder builder = new StringBuilder();
+        switch (random.nextInt(5)) {
+            case 0 -> {
+                builder.append(pick(random, "value", "42", "2.5", "a-b", "é", "x_y"));
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    builder.append(pick(random, " ", more, "\n" + more)).append(pick(random, "value", "1", "é"));
+                }
+            }
+            case 1 -> {
+                builder.append('\'');
+                for (int i = random.nextInt(8); i > 0; i--) {
+                    builder.append(pick(random, "a", "it''s", " ", "  ", more, "\n" + more, "#", ": ", "\\"));
+                }
+                builder.append('\'');
+            }
+            case 2 -> {
+                builder.append('"');
+                for (int i = random.nextInt(8); i > 0; i--) {
+                    builder.append(pick(random, "a", " ", "\\t", "\\n", "\\\\", "\\\"", "\\x41", "\\u00e9",
+                            "\\U0001F600", "\\ ", "\\" + more, more, "\n" + more, "\t"));
+                }
+                builder.append('"');
+            }
+            default -> {
+                boolean indicated = random.nextBoolean();
+                builder.append(random.nextBoolean() ? '|' : '>').append(pick(random, "", "-", "+"));
+                if (indicated) builder.append('2');
+                for (int i = random.nextInt(6); i >= 0; i--) {
+                    // without an indicator, the first line sets the indentation
+                    boolean deeper = random.nextInt(3) == 0 && (indicated || builder.indexOf("\n") >= 0);
+                    builder.append(pick(random, more, more, "\n" + more)).append(deeper ? "  " : "")
+                            .append(pick(random, "line", "two words", "é", "# no comment"));
+                }
+                if (random.nextBoolean()) builder.append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static @NotNull String pick(@NotNull Random random, @NotNull String @NotNull ... options) {
+        return options[random.nextInt(options.length)];
+    }
+
+    private static @NotNull ElementArena compact(@NotNull String yaml) {
+        return Objects.requireNonNull(YamlTreeBuilder.compact(new YamlReader(yaml.toCharArray())));
+    }
+
+    // the trees of all documents of the given stream
+    private static @NotNull List<String> trees(@NotNull YamlReader reader, boolean compact) {
+        List<String> trees = new ArrayList<>();
+        while (true) {
+            BaseElement<?> root;
+            if (compact) {
+                ElementArena arena = YamlTreeBuilder.compact(reader);
+                root = arena == null ? null : arena.root();
+            } else {
+                root = YamlTreeBuilder.document(reader);
+            }
+            if (root == null) return trees;
+            trees.add(YamlSamples.tree(root));
+        }
+    }
+
+    private static @NotNull String text(BaseElement<?> element) {
+        return ((StringElement) Objects.requireNonNull(element)).getValue().getValue();
+    }
+}
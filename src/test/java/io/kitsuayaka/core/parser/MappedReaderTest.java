@@ -0,0 +1,170 @@
+package io.kitsuayaka.core.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a {@link MappedReader} decodes like {@link String#String(byte[], java.nio.charset.Charset)} with windows
+ * of only a few bytes, so that the eight byte <em>ASCII</em> runs, sequences cut by the end of a window, and surrogate
+ * pairs cut by the end of a read all happen within a small file, and that it rejects what is not <em>UTF-8</em>.
+ */
+class MappedReaderTest {
+    // a window has to hold the longest sequence; every window is a mapping of its own, released only once collected
+    private static final long[] WINDOWS = {4, 5, 7, 8, 9, 13, 16, MappedReader.WINDOW};
+    private static final int[] READS = {1, 3, 8, 9, 8192};
+
+    @Test
+    void decodesLikeString() throws IOException {
+        Random random = new Random(0x4D52);
+        for (int round = 0; round < 10; round++) {
+            String text = text(random, 1 + random.nextInt(60));
+            Path file = file(text.getBytes(StandardCharsets.UTF_8));
+            for (long window : WINDOWS) {
+                for (int read : READS) {
+                    int round1 = round;
+                    assertEquals(text, read(file, window, read),
+                            () -> "round " + round1 + ", window " + window + ", read " + read);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodesEightAsciiBytesAtATime() throws IOException {
+        String text = "key: value\n".repeat(100) + "ключ: значение\n" + "~".repeat(17);
+        Path file = file(text.getBytes(StandardCharsets.UTF_8));
+
+        for (long window : WINDOWS) assertEquals(text, read(file, window, 8192), () -> "window " + window);
+        assertEquals("", read(file(new byte[0]), 16, 8192));
+    }
+
+    @Test
+    void cutsSurrogatePairsBetweenReads() throws IOException {
+        String text = "a😀b😀😀";
+        Path file = file(text.getBytes(StandardCharsets.UTF_8));
+
+        try (MappedReader reader = new MappedReader(file, 16)) {
+            char[] cs = new char[2];
+            StringBuilder builder = new StringBuilder();
+            assertEquals(1, reader.read(cs, 0, 2)); // the pair does not fit behind 'a'
+            builder.append(cs, 0, 1);
+            assertEquals(1, reader.read(cs, 0, 1)); // only its high surrogate fits, the low one is pending
+            builder.append(cs, 0, 1);
+            assertEquals(2, reader.read(cs, 0, 2)); // the low surrogate and 'b'
+            builder.append(cs, 0, 2);
+            assertEquals(2, reader.read(cs, 0, 2));
+            builder.append(cs, 0, 2);
+            assertEquals(2, reader.read(cs, 0, 2));
+            builder.append(cs, 0, 2);
+            assertEquals(-1, reader.read(cs, 0, 2));
+            assertEquals(text, builder.toString());
+        }
+        for (long window : WINDOWS) assertEquals(text, read(file, window, 1), () -> "window " + window);
+    }
+
+    @Test
+    void readsSequencesCutByTheEndOfAWindow() throws IOException {
+        for (String sequence : new String[]{"é", "€", "😀"}) {
+            for (int before = 0; before < 8; before++) {
+                String text = "x".repeat(before) + sequence + "y".repeat(before);
+                Path file = file(text.getBytes(StandardCharsets.UTF_8));
+                for (long window = 4; window <= 9; window++) {
+                    long window1 = window;
+                    assertEquals(text, read(file, window, 8192), () -> "\"" + text + "\", window " + window1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedInput() throws IOException {
+        int[][] malformed = {
+                {0x80}, // continuation byte
+                {'a', 0xC3}, // truncated
+                {0xE2, 0x82, 'a'}, // truncated before more input
+                {0xC0, 0x80}, {0xE0, 0x80, 0x80}, {0xF0, 0x80, 0x80, 0x80}, // overlong
+                {0xED, 0xA0, 0x80}, {0xED, 0xBF, 0xBF}, // surrogates
+                {0xF4, 0x90, 0x80, 0x80}, // beyond U+10FFFF
+                {0xF8, 0x80, 0x80, 0x80, 0x80}, {0xFF}
+        };
+        for (int[] bytes : malformed) {
+            byte[] text = new byte[12 + bytes.length];
+            for (int i = 0; i < 12; i++) text[i] = 'a';
+            for (int i = 0; i < bytes.length; i++) text[12 + i] = (byte) bytes[i];
+            Path file = file(text);
+            for (long window : WINDOWS) {
+                assertThrows(MalformedInputException.class, () -> read(file, window, 8192),
+                        () -> hex(bytes) + ", window " + window);
+            }
+        }
+    }
+
+    @Test
+    void readsThroughAYamlReader() throws IOException {
+        String yaml = "ключ: значение\nlist:\n  - \"\\u00e9 😀\"\n  - |\n    " + "long line ".repeat(2_000) + "\n";
+        Path file = file(yaml.getBytes(StandardCharsets.UTF_8));
+
+        try (YamlReader reader = YamlReader.open(file)) {
+            assertEquals(YamlSamples.events(new YamlReader(new StringReader(yaml))), YamlSamples.events(reader));
+        }
+        assertEquals(YamlSamples.events(new YamlReader(yaml)),
+                YamlSamples.events(new YamlReader(new MappedReader(file, 7), 16)));
+    }
+
+    @Test
+    void failsOnceClosed() throws IOException {
+        MappedReader reader = new MappedReader(file("key: value".getBytes(StandardCharsets.UTF_8)), 16);
+        reader.close();
+        assertThrows(IOException.class, () -> reader.read(new char[4], 0, 4));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // reads the whole file, up to the given number of chars at a time
+    private static @NotNull String read(@NotNull Path file, long window, int read) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        try (MappedReader reader = new MappedReader(file, window)) {
+            char[] cs = new char[read + 2];
+            for (int n; (n = reader.read(cs, 1, read)) >= 0; ) builder.append(cs, 1, n);
+        }
+        return builder.toString();
+    }
+
+    // a file holding the given bytes, deleted on exit as a mapped file cannot be deleted on every platform
+    private static @NotNull Path file(byte @NotNull [] bytes) throws IOException {
+        Path file = Files.createTempFile("mapped", ".yml");
+        file.toFile().deleteOnExit();
+        return Files.write(file, bytes);
+    }
+
+    // runs of ASCII, mixed with two, three and four byte sequences
+    private static @NotNull String text(@NotNull Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < length) {
+            switch (random.nextInt(6)) {
+                case 0 -> builder.append("é");
+                case 1 -> builder.append("€");
+                case 2 -> builder.appendCodePoint(0x1F600 + random.nextInt(64));
+                default -> builder.append("key: value\n", 0, 1 + random.nextInt(11));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static @NotNull String hex(int @NotNull [] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (int b : bytes) builder.append(String.format("%02X ", b));
+        return builder.toString().trim();
+    }
+}
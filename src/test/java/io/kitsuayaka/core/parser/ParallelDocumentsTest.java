@@ -0,0 +1,96 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.core.elements.BaseElement;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that {@link YamlTreeBuilder#parallelDocuments(char[])} returns the same as
+ * {@link YamlTreeBuilder#documents(YamlReader)} for the same stream, or throws the same error, wherever the stream is
+ * split: in front of directives, after {@code ...}, and in front of a {@code ---} in the middle of a flow collection
+ * or quoted scalar.
+ */
+class ParallelDocumentsTest {
+    @Test
+    void readsTheSamplesLikeDocuments() {
+        for (String yaml : YamlSamples.STREAMS) assertSameOutcome(yaml);
+    }
+
+    @Test
+    void splitsInFrontOfEveryDocumentMarker() {
+        assertSameOutcome("%YAML 1.2\n---\na: 1\n...\n%YAML 1.2\n---\nb: 2\n");
+        assertSameOutcome("%TAG ! tag:example.com,2000:\n--- !x [a]\n--- !x {b: c}\n");
+        assertSameOutcome("a\n...\n---\nb\n...\n");
+        assertSameOutcome("a\n...\n# between\n...\n--- b\n");
+        assertSameOutcome("--- |\n  literal\n---\n--- >\n  folded\n...\n");
+        assertSameOutcome("key: |\n  ---\n  --- indented\nnot: ---\n---word: plain\n--- #comment\n");
+        assertSameOutcome("a: 1\r\n---\r\nb: 2\r\n...\r\n--- c\r\n");
+        assertSameOutcome("---\n---\n---\n");
+        assertSameOutcome("--- &a [x]\n--- {y: z}\n");
+    }
+
+    @Test
+    void rejectsMarkersInsideFlowCollectionsAndQuotedScalars() {
+        assertSameOutcome("[a,\n---\n]\n");
+        assertSameOutcome("key: {a: b,\n--- c: d}\n");
+        assertSameOutcome("'a\n---\nb'\n");
+        assertSameOutcome("\"a\n--- b\"\n");
+        assertSameOutcome("first\n---\nkey: [a, b\n---\n]\n---\nlast\n");
+    }
+
+    @Test
+    void throwsTheErrorOfTheFirstMalformedDocument() {
+        assertSameOutcome("a: 1\n---\nb: [\n---\nc: *undefined\n---\nd: 'x\n");
+        assertSameOutcome("a\n---\nb\n---\nc: *undefined\n---\n[d\n");
+        assertSameOutcome("--- &a x\n--- *a\n");
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            builder.append("--- ").append(i).append('\n').append(i % 3 == 2 ? "key: [unterminated\n" : "key: value\n");
+        }
+        String yaml = builder.toString().replace("--- 0\nkey: value", "---\nkey: value");
+        assertSameOutcome(builder.toString());
+        assertSameOutcome(yaml.replace("[unterminated", "value"));
+    }
+
+    @Test
+    void readsMutatedStreamsLikeDocuments() {
+        Random random = new Random(0x5917);
+        String markers = "-.\n '[\"#%";
+        for (int round = 0; round < 2_000; round++) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                builder.append(YamlSamples.STREAMS.get(random.nextInt(YamlSamples.STREAMS.size())));
+                if (i > 0) builder.append(random.nextBoolean() ? "---\n" : "...\n---\n");
+            }
+            for (int i = random.nextInt(3); i > 0; i--) {
+                int at = random.nextInt(builder.length() + 1);
+                builder.insert(at, random.nextBoolean() ? "\n---\n" : markers.charAt(random.nextInt(markers.length())));
+            }
+            assertSameOutcome(builder.toString());
+        }
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static void assertSameOutcome(@NotNull String yaml) {
+        assertEquals(outcome(() -> YamlTreeBuilder.documents(new YamlReader(yaml))),
+                outcome(() -> YamlTreeBuilder.parallelDocuments(yaml.toCharArray())), () -> "documents of\n" + yaml);
+    }
+
+    // the trees of the documents, or the error with its position
+    private static @NotNull String outcome(@NotNull Supplier<List<BaseElement<?>>> documents) {
+        try {
+            return documents.get().stream().map(YamlSamples::tree).toList().toString();
+        } catch (YamlException e) {
+            return e.getMessage() + " at " + e.getLine() + ":" + e.getColumn();
+        }
+    }
+}
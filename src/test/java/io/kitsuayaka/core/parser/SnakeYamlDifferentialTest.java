@@ -0,0 +1,167 @@
+package io.kitsuayaka.core.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reads every one of the {@link YamlSamples} with both {@link YamlReader} and <em>SnakeYAML</em>, whose scanner the
+ * folding, chomping and escaping rules follow, and expects the same events from both, in the canonical text form of
+ * {@link YamlSamples#events(YamlReader)}, the same errors for the malformed ones, and the same events again for the
+ * mutations of the samples both accept.
+ */
+class SnakeYamlDifferentialTest {
+    private static final String CORE_TAGS = "tag:yaml.org,2002:";
+
+    // the characters the mutations insert or replace with
+    private static final String MUTATIONS = " \n\t-:#'\"[]{},&*!|>?.\\a0";
+
+    /*
+     * Where the two are known to differ by design, SnakeYAML following YAML 1.1 and YamlReader YAML 1.2: tags are
+     * reported as written, with neither the non-specific tag dropped nor the %TAG handles resolved, flow keys are
+     * never explicit, and anchors, aliases and flow plain scalars may contain or start with a colon.
+     */
+    private static final Pattern DIFFERENT = Pattern.compile("[?!]|[&*]\\S*:|[\\[{,]\\s*(&\\S+\\s+)?:\\S");
+
+    @Test
+    void readsTheSameEventsAsSnakeYaml() {
+        for (String yaml : YamlSamples.STREAMS) {
+            assertEquals(snakeYaml(yaml), YamlSamples.events(new YamlReader(yaml)), () -> "events of\n" + yaml);
+        }
+    }
+
+    @Test
+    void readsTheSameEventsThroughASmallBuffer() {
+        for (String yaml : YamlSamples.STREAMS) {
+            assertEquals(snakeYaml(yaml), YamlSamples.events(new YamlReader(new StringReader(yaml), 16)),
+                    () -> "events of\n" + yaml);
+        }
+    }
+
+    @Test
+    void rejectsAtTheSamePositionAsSnakeYaml() {
+        for (String yaml : YamlSamples.MALFORMED) {
+            Mark mark = assertThrows(MarkedYAMLException.class, () -> snakeYaml(yaml)).getProblemMark();
+            YamlException e = assertThrows(YamlException.class, () -> YamlSamples.events(new YamlReader(yaml)),
+                    () -> "accepted\n" + yaml);
+
+            assertEquals((mark.getLine() + 1) + ":" + (mark.getColumn() + 1), e.getLine() + ":" + e.getColumn(),
+                    () -> e.getMessage() + " in\n" + yaml);
+        }
+    }
+
+    @Test
+    void readsTheSameEventsForMutatedSamples() {
+        Random random = new Random(0x5AE);
+        for (String sample : YamlSamples.STREAMS) {
+            for (int round = 0; round < 40; round++) {
+                String yaml = mutate(random, sample);
+                List<String> expected;
+                try {
+                    expected = snakeYaml(yaml);
+                } catch (MarkedYAMLException e) {
+                    continue;
+                }
+
+                List<String> actual;
+                try {
+                    actual = YamlSamples.events(new YamlReader(yaml));
+                } catch (YamlException e) {
+                    continue;
+                }
+                if (!DIFFERENT.matcher(yaml).find()) assertEquals(expected, actual, () -> "events of\n" + yaml);
+            }
+        }
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    // inserts, removes or replaces up to three characters of the given stream
+    private static @NotNull String mutate(@NotNull Random random, @NotNull String yaml) {
+        StringBuilder builder = new StringBuilder(yaml);
+        for (int edits = 1 + random.nextInt(3); edits > 0; edits--) {
+            int i = random.nextInt(builder.length() + 1);
+            char c = MUTATIONS.charAt(random.nextInt(MUTATIONS.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(i, c);
+                case 1 -> {
+                    if (i < builder.length()) builder.deleteCharAt(i);
+                }
+                default -> {
+                    if (i < builder.length()) builder.setCharAt(i, c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static @NotNull List<String> snakeYaml(@NotNull String yaml) {
+        List<String> events = new ArrayList<>();
+        for (Event e : new Yaml(new LoaderOptions()).parse(new StringReader(yaml))) events.add(event(e));
+        return events;
+    }
+
+    private static @NotNull String event(@NotNull Event e) {
+        return switch (e) {
+            case StreamStartEvent ignored -> "+STR";
+            case StreamEndEvent ignored -> "-STR";
+            case DocumentStartEvent ignored -> "+DOC";
+            case DocumentEndEvent ignored -> "-DOC";
+            case MappingStartEvent m -> "+MAP" + YamlSamples.properties(m.getAnchor(), tag(m));
+            case MappingEndEvent ignored -> "-MAP";
+            case CollectionStartEvent s -> "+SEQ" + YamlSamples.properties(s.getAnchor(), tag(s));
+            case SequenceEndEvent ignored -> "-SEQ";
+            case AliasEvent a -> "=ALI *" + a.getAnchor();
+            case ScalarEvent s -> "=VAL" + YamlSamples.properties(s.getAnchor(), tag(s)) + " "
+                    + YamlSamples.scalar(style(s), s.getValue());
+            default -> throw new IllegalArgumentException("Unexpected " + e);
+        };
+    }
+
+    // the tag as it is written, SnakeYAML reports the core ones resolved, and implicit ones as well
+    private static String tag(@NotNull CollectionStartEvent e) {
+        return e.getImplicit() ? null : written(e.getTag());
+    }
+
+    private static String tag(@NotNull ScalarEvent e) {
+        return e.getImplicit().canOmitTagInPlainScalar() || e.getImplicit().canOmitTagInNonPlainScalar()
+                ? null : written(e.getTag());
+    }
+
+    private static String written(String tag) {
+        return tag != null && tag.startsWith(CORE_TAGS) ? "!!" + tag.substring(CORE_TAGS.length()) : tag;
+    }
+
+    private static @NotNull ScalarStyle style(@NotNull ScalarEvent e) {
+        return switch (e.getScalarStyle()) {
+            case PLAIN -> ScalarStyle.PLAIN;
+            case SINGLE_QUOTED -> ScalarStyle.SINGLE_QUOTED;
+            case DOUBLE_QUOTED -> ScalarStyle.DOUBLE_QUOTED;
+            case LITERAL -> ScalarStyle.LITERAL;
+            case FOLDED -> ScalarStyle.FOLDED;
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package io.kitsuayaka.core.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks what {@link YamlReader} reports beyond the events <em>SnakeYAML</em> reports as well: the positions of events
+ * and errors, the escapes and separators of <em>YAML 1.2</em>, verbatim tags, {@link YamlReader#skip()},
+ * {@link YamlReader#decode(char[], int, int, ScalarStyle)}, and reading through a buffer smaller than a line.
+ */
+class YamlReaderTest {
+    @Test
+    void reportsWhereEachEventStarts() {
+        YamlReader reader = new YamlReader("key: value\nlist:\n  - [a, 'b']\n");
+        List<String> positions = new ArrayList<>();
+        while (reader.hasNext()) {
+            YamlEvent event = reader.next();
+            if (event == YamlEvent.SCALAR || event.isCollectionStart()) {
+                positions.add(reader.line() + ":" + reader.column() + " " + event
+                        + (event == YamlEvent.SCALAR ? " " + Objects.requireNonNull(reader.scalar()).getValue() : ""));
+            }
+        }
+
+        assertEquals(List.of(
+                "1:1 MAPPING_START", "1:1 SCALAR key", "1:6 SCALAR value", "2:1 SCALAR list",
+                "3:3 SEQUENCE_START", "3:5 SEQUENCE_START", "3:6 SCALAR a", "3:9 SCALAR b"
+        ), positions);
+    }
+
+    @Test
+    void readsYaml12EscapesAndSeparators() {
+        assertEquals(List.of("+STR", "+DOC", "=VAL \"a/b", "-DOC", "-STR"), events("\"a\\/b\"\n"));
+        assertEquals(List.of("+STR", "+DOC", "+MAP", "=VAL :tab", "=VAL :separated", "-MAP", "-DOC", "-STR"),
+                events("tab:\tseparated\n"));
+        assertEquals(List.of("+STR", "+DOC", "=VAL \"a\\tb", "-DOC", "-STR"), events("\"a\\\tb\"\n"));
+    }
+
+    @Test
+    void reportsTagsAsTheyAreWritten() {
+        assertEquals(List.of("+STR", "+DOC", "+SEQ", "=VAL <!<tag:example.com,2000:x>> :a", "=VAL <!local> :b",
+                        "=VAL <!!str> :c", "-SEQ", "-DOC", "-STR"),
+                events("- !<tag:example.com,2000:x> a\n- !local b\n- !!str c\n"));
+    }
+
+    @Test
+    void chompsBlockScalars() {
+        assertEquals("text", scalar("|-\n  text\n\n"));
+        assertEquals("text\n", scalar("|\n  text\n\n"));
+        assertEquals("text\n\n", scalar("|+\n  text\n\n"));
+        assertEquals("a b\nc\n", scalar(">\n  a\n  b\n\n  c\n"));
+        assertEquals("a\n  b\nc\n", scalar(">\n  a\n    b\n  c\n"));
+        assertEquals("  two\nbase\n", scalar("|2\n    two\n  base\n"));
+    }
+
+    @Test
+    void rejectsMalformedInputWhereItIs() {
+        assertError("key: \"bad \\q escape\"\n", 1, 11);
+        assertError("? explicit\n", 1, 1);
+        assertError("a: &x &y v\n", 1, 7);
+        assertError("[a, b\n", 2, 1);
+        assertError("key: |\n  text\n bad\n", 3, 2);
+        assertError("- a\nb: c\n", 2, 1);
+    }
+
+    @Test
+    void skipsWholeCollections() {
+        YamlReader reader = new YamlReader("skipped: {a: [1, 2], b: {c: d}}\nkept: [x]\n");
+        reader.next(); // STREAM_START
+        reader.next(); // DOCUMENT_START
+        reader.next(); // MAPPING_START
+        assertEquals(YamlEvent.SCALAR, reader.next());
+        assertEquals(YamlEvent.MAPPING_START, reader.next());
+        reader.skip();
+        assertEquals(YamlEvent.MAPPING_END, reader.event());
+
+        assertEquals(YamlEvent.SCALAR, reader.next());
+        assertEquals("kept", Objects.requireNonNull(reader.scalar()).getValue());
+        reader.skip(); // nothing to skip
+        assertEquals(YamlEvent.SEQUENCE_START, reader.next());
+        assertEquals(YamlEvent.SCALAR, reader.next());
+        assertEquals("x", Objects.requireNonNull(reader.scalar()).getValue());
+    }
+
+    @Test
+    void endsAfterTheStream() {
+        YamlReader reader = new YamlReader("");
+        assertThrows(IllegalStateException.class, reader::event);
+        assertEquals(YamlEvent.STREAM_START, reader.next());
+        assertNull(reader.scalar());
+        assertEquals(YamlEvent.STREAM_END, reader.next());
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    void decodesSingleScalars() {
+        assertDecoded("plain words", "plain\n  words", ScalarStyle.PLAIN);
+        assertDecoded("it's", "'it''s'", ScalarStyle.SINGLE_QUOTED);
+        assertDecoded("a\tb é", "\"a\\tb \\u00e9\"", ScalarStyle.DOUBLE_QUOTED);
+        assertDecoded("one\ntwo\n", "|\n  one\n  two\n", ScalarStyle.LITERAL);
+        assertDecoded("one two", ">-\n  one\n  two\n", ScalarStyle.FOLDED);
+
+        char[] cs = "key: 'value' # comment".toCharArray();
+        assertEquals("value", YamlReader.decode(cs, 5, 12, ScalarStyle.SINGLE_QUOTED).getValue());
+        assertThrows(YamlException.class, () -> YamlReader.decode(cs, 5, 14, ScalarStyle.SINGLE_QUOTED));
+    }
+
+    @Test
+    void readsLinesLongerThanItsBuffer() {
+        String yaml = "long: " + "x".repeat(1_000) + "\n\"quoted\": \"" + "y\\n".repeat(500) + "\"\nblock: |\n"
+                + ("  " + "z".repeat(100) + "\n").repeat(20);
+        List<String> expected = YamlSamples.events(new YamlReader(yaml.toCharArray()));
+
+        assertEquals(expected, YamlSamples.events(new YamlReader(new StringReader(yaml), 16)));
+        assertEquals(expected, YamlSamples.events(new YamlReader(new StringReader(yaml))));
+        assertThrows(IllegalArgumentException.class, () -> new YamlReader(new StringReader(yaml), 15));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static @NotNull List<String> events(@NotNull String yaml) {
+        return YamlSamples.events(new YamlReader(yaml));
+    }
+
+    // the contents of the only scalar of the given stream
+    private static @NotNull String scalar(@NotNull String yaml) {
+        YamlReader reader = new YamlReader(yaml);
+        while (reader.next() != YamlEvent.SCALAR) ;
+        return Objects.requireNonNull(reader.scalar()).getValue();
+    }
+
+    private static void assertError(@NotNull String yaml, int line, int column) {
+        YamlException e = assertThrows(YamlException.class, () -> events(yaml), () -> "accepted\n" + yaml);
+        assertEquals(line + ":" + column, e.getLine() + ":" + e.getColumn(), () -> e.getMessage() + " in\n" + yaml);
+    }
+
+    private static void assertDecoded(@NotNull String expected, @NotNull String scalar, @NotNull ScalarStyle style) {
+        char[] cs = ("[" + scalar + "]").toCharArray();
+        assertEquals(expected, YamlReader.decode(cs, 1, cs.length - 1, style).getValue(), () -> "decoded " + scalar);
+    }
+}
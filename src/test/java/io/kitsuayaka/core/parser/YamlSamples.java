@@ -0,0 +1,257 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.elements.BaseElement;
+import io.kitsuayaka.core.elements.DecimalElement;
+import io.kitsuayaka.core.elements.IntegerElement;
+import io.kitsuayaka.core.elements.MappingElement;
+import io.kitsuayaka.core.elements.NullElement;
+import io.kitsuayaka.core.elements.SequenceElement;
+import io.kitsuayaka.core.elements.StringElement;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * The {@code YAML} streams the parser tests share, and a canonical text form of the events a {@link YamlReader}
+ * reports for them, one line per event, close to the one of the <em>YAML test suite</em>:
+ * <blockquote>
+ * <pre>{@code +STR, +DOC, +MAP, =VAL :key, =VAL &a <!!str> "value, =ALI *a, -MAP, -DOC, -STR}</pre>
+ * </blockquote>
+ * Scalars are prefixed by their style: {@code :} plain, {@code '} single quoted, {@code "} double quoted, {@code |}
+ * literal and {@code >} folded, with their line breaks, tabs and backslashes escaped. Trees of elements have a
+ * canonical text form as well, which is the same whether they are held by objects or an arena.
+ */
+final class YamlSamples {
+    /**
+     * Well-formed streams, using all the features {@link YamlReader} supports.
+     */
+    static final List<String> STREAMS = List.of(
+            // plain scalars and block collections
+            "",
+            "# only a comment\n",
+            "plain",
+            "key: value\n",
+            "a: 1\nb: two\nc: 3.5\n",
+            "- a\n- b\n- c\n",
+            "- - nested\n  - sequence\n- last\n",
+            "outer:\n  inner:\n    deepest: value\n  sibling: 2\nnext: 3\n",
+            "list:\n- a\n- b\nafter: c\n",
+            "list:\n  - a\n  - b\n",
+            "- key: value\n  other: 2\n- second: entry\n",
+            "- a: 1\n  b:\n  - x\n  - y\n",
+            "empty:\nnull: ~\ntilde: null\n",
+            "key:    spaced value   \n",
+            "multi word plain scalar\n",
+            "plain scalar\n  continued on\n  more lines\n",
+            "key: plain value\n  continued\n\n  after an empty line\n",
+            "url: http://example.com:8080/path\n",
+            "colon:in:word: value\n",
+            "hash#inside: value # a comment\n",
+            "- -1\n- +2\n- 0x1F\n- 0o17\n- 1e3\n- .5\n- -.inf\n- .NaN\n",
+            "a: 'b: c'\n",
+            "\uFEFFbom: first\n",
+            "windows: line\r\nbreaks: too\r\n",
+            "trailing: spaces   \n",
+            // quoted scalars
+            "'single quoted'\n",
+            "'it''s quoted'\n",
+            "'folded\n  single\n\n  quoted'\n",
+            "\"double quoted\"\n",
+            "\"escapes: \\t \\n \\\\ \\\" \\0 \\a \\b \\e \\f \\r \\v \\N \\_ \\L \\P\"\n",
+            "\"unicode: \\x41 \\u00e9 \\U0001F600\"\n",
+            "\"folded\n  double\n\n  quoted\"\n",
+            "\"escaped \\\n  line break\"\n",
+            "\"trailing spaces   \n  are folded\"\n",
+            "key: 'single'\nother: \"double\"\n",
+            "'quoted key': value\n\"double key\": value\n",
+            "- ''\n- \"\"\n",
+            "\"# not a comment\"\n",
+            // block scalars
+            "literal: |\n  line one\n  line two\n",
+            "folded: >\n  folded line\n  continued\n\n  new paragraph\n",
+            "strip: |-\n  text\n\n",
+            "keep: |+\n  text\n\n",
+            "clip: |\n  text\n\n\n",
+            "indented: |2\n    two more\n  base\n",
+            "folded_more: >\n  normal\n    more indented\n  normal again\n",
+            "- |\n  in a sequence\n- >-\n  folded\n  stripped\n",
+            "empty_literal: |\nnext: value\n",
+            "literal: |\n  # not a comment\n  text\n",
+            "|\n  top level\n  literal\n",
+            "literal: |\n\n  leading empty line\n",
+            "folded: >\n  a\n  b\n\n\n  c\n",
+            // flow collections
+            "[a, b, c]\n",
+            "{a: 1, b: 2}\n",
+            "[]\n",
+            "{}\n",
+            "[a, [b, c], {d: e}]\n",
+            "{key: [1, 2], other: {nested: value}}\n",
+            "[a, b, ]\n",
+            "[\n  multi,\n  line,\n  flow\n]\n",
+            "{ spaced : value , other : 2 }\n",
+            "['quoted', \"double\", plain words]\n",
+            "[key: value, other]\n",
+            "{a, b: c}\n",
+            "{a: }\n",
+            "key: [a, b]\nother: {c: d}\n",
+            "- [a, b]\n- {c: d}\n",
+            "[a\n  continued, b]\n",
+            // anchors, aliases and tags
+            "anchor: &a value\nalias: *a\n",
+            "base: &b\n  x: 1\ncopy: *b\n",
+            "- &s [1, 2]\n- *s\n",
+            "&k key: value\n*k : again\n",
+            "first: &a one\nsecond: &a two\nthird: *a\n",
+            "tagged: !!str 42\n",
+            "custom: !mytag value\n",
+            "seq: !!seq\n- a\n",
+            "map: !!map {a: b}\n",
+            "both: &x !!str 1\nref: *x\n",
+            "- !!int 3\n- !!float 3\n- !!null ''\n",
+            "[&a a, *a]\n",
+            "{&a a: *a}\n",
+            "&root\nkey: value\n",
+            "!!map\nkey: value\n",
+            // comments and documents
+            "# comment\nkey: value # trailing\n# between\nother: 2\n",
+            "key:   # comment\n  value\n",
+            "- a # one\n# full line\n- b\n",
+            "---\na: 1\n",
+            "--- value\n",
+            "--- |\n  literal document\n",
+            "---\nfirst\n---\nsecond\n",
+            "first\n...\n---\nsecond\n",
+            "one\n...\n",
+            "%YAML 1.2\n---\nversion: directive\n",
+            "%TAG ! tag:example.com,2000:\n---\nkey: value\n",
+            "---\n---\n",
+            "--- [a, b]\n--- {c: d}\n",
+            "a: 1\n---\nb: 2\n...\n",
+            "---\n# only a comment\n...\n"
+    );
+
+    /**
+     * Malformed streams, each rejected by {@link YamlReader} at the same line and column as by <em>SnakeYAML</em>.
+     */
+    static final List<String> MALFORMED = List.of(
+            "key: - not a sequence\n",
+            "[a, b\n",
+            "{a: b\n",
+            "'unterminated\n",
+            "\"unterminated\n",
+            "a: 1\n b: 2\n",
+            "- a\nb: c\n",
+            "& anchor\n",
+            "a: &x &y v\n",
+            "a: !t !u v\n",
+            "[a]]\n",
+            "{a: b}}\n",
+            "key: |\n  text\n bad\n",
+            "a:\n  - b\n  c: d\n",
+            "\"a\" b\n",
+            "key: [a, b\n---\n]\n",
+            "'a\n---\nb'\n",
+            "a: b: c\n"
+    );
+
+    // the depth trees are cut off at
+    private static final int DEPTH = 16;
+
+    private YamlSamples() {
+    }
+
+    /**
+     * Returns the events of the given reader, up to the end of its stream, in the canonical text form.
+     *
+     * @param reader the reader to read.
+     * @return One line per event.
+     */
+    static @NotNull List<String> events(@NotNull YamlReader reader) {
+        List<String> events = new ArrayList<>();
+        while (reader.hasNext()) events.add(event(reader, reader.next()));
+        return events;
+    }
+
+    private static @NotNull String event(@NotNull YamlReader reader, @NotNull YamlEvent event) {
+        return switch (event) {
+            case STREAM_START -> "+STR";
+            case STREAM_END -> "-STR";
+            case DOCUMENT_START -> "+DOC";
+            case DOCUMENT_END -> "-DOC";
+            case MAPPING_START -> "+MAP" + properties(reader.anchor(), reader.tag());
+            case MAPPING_END -> "-MAP";
+            case SEQUENCE_START -> "+SEQ" + properties(reader.anchor(), reader.tag());
+            case SEQUENCE_END -> "-SEQ";
+            case ALIAS -> "=ALI *" + reader.alias();
+            case SCALAR -> "=VAL" + properties(reader.anchor(), reader.tag()) + " "
+                    + scalar(Objects.requireNonNull(reader.style()), Objects.requireNonNull(reader.scalar()));
+        };
+    }
+
+    /**
+     * Returns a canonical text form of the given tree, one which does not tell how it is held. An alias inside the
+     * node of its anchor makes a tree cyclic, so it is cut off at a depth of {@link #DEPTH}.
+     *
+     * @param element the root of the tree.
+     * @return Its text form, like {@code {"key": [int 1.0, null]}}.
+     */
+    static @NotNull String tree(BaseElement<?> element) {
+        return tree(element, 0);
+    }
+
+    private static @NotNull String tree(BaseElement<?> element, int depth) {
+        if (depth == DEPTH) return "...";
+        return switch (Objects.requireNonNull(element)) {
+            case NullElement ignored -> "null";
+            case StringElement s -> scalar(ScalarStyle.DOUBLE_QUOTED, s.getValue());
+            case IntegerElement i -> "int " + i.getValue().doubleValue();
+            case DecimalElement d -> "decimal " + d.getValue().doubleValue();
+            case MappingElement m -> {
+                StringJoiner joiner = new StringJoiner(", ", "{", "}");
+                for (Map.Entry<StringType, BaseElement<?>> e : m.getValue().entrySet()) {
+                    joiner.add(scalar(ScalarStyle.DOUBLE_QUOTED, e.getKey()) + ": " + tree(e.getValue(), depth + 1));
+                }
+                yield joiner.toString();
+            }
+            case SequenceElement s -> {
+                StringJoiner joiner = new StringJoiner(", ", "[", "]");
+                for (BaseElement<?> item : s) joiner.add(tree(item, depth + 1));
+                yield joiner.toString();
+            }
+            default -> throw new IllegalArgumentException("Unexpected " + element);
+        };
+    }
+
+    static @NotNull String properties(String anchor, String tag) {
+        return (anchor == null ? "" : " &" + anchor) + (tag == null ? "" : " <" + tag + ">");
+    }
+
+    static @NotNull String scalar(@NotNull ScalarStyle style, @NotNull CharSequence value) {
+        char prefix = switch (style) {
+            case PLAIN -> ':';
+            case SINGLE_QUOTED -> '\'';
+            case DOUBLE_QUOTED -> '"';
+            case LITERAL -> '|';
+            case FOLDED -> '>';
+        };
+        StringBuilder builder = new StringBuilder().append(prefix);
+        value.codePoints().forEach(c -> {
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                case 0 -> builder.append("\\0");
+                default -> builder.appendCodePoint(c);
+            }
+        });
+        return builder.toString();
+    }
+}
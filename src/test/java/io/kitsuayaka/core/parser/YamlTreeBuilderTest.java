@@ -0,0 +1,152 @@
+package io.kitsuayaka.core.parser;
+
+import io.kitsuayaka.addon.types.StringType;
+import io.kitsuayaka.core.elements.BaseElement;
+import io.kitsuayaka.core.elements.DecimalElement;
+import io.kitsuayaka.core.elements.IntegerElement;
+import io.kitsuayaka.core.elements.MappingElement;
+import io.kitsuayaka.core.elements.NullElement;
+import io.kitsuayaka.core.elements.NumberElement;
+import io.kitsuayaka.core.elements.SequenceElement;
+import io.kitsuayaka.core.elements.StringElement;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the trees {@link YamlTreeBuilder} builds: plain scalars resolved by the core schema, other scalars kept as
+ * strings, and aliases resolved to the element their anchor is on, as values and as keys.
+ */
+class YamlTreeBuilderTest {
+    @Test
+    void resolvesPlainScalarsByTheCoreSchema() {
+        for (String text : new String[]{"", "~", "null", "Null", "NULL"}) assertResolved(NullElement.class, text);
+        for (String text : new String[]{"0", "42", "-17", "+3", "0x1F", "0xff", "0o17"}) {
+            assertResolved(IntegerElement.class, text);
+        }
+        for (String text : new String[]{"1.5", "-.5", "+2.", "1e3", "1E-3", "2.5e+10", ".inf", "-.Inf", "+.INF",
+                ".nan", ".NaN"}) {
+            assertResolved(DecimalElement.class, text);
+        }
+        for (String text : new String[]{"nul", "~~", "none", "1e", "1.5e+", ".", "+", "0x", "0o", "0x1G", "0o8",
+                "-.nan", "+.nan", ".infinity", "1_000", "12:30", "1.2.3", "e3", "true", "value"}) {
+            assertResolved(StringElement.class, text);
+        }
+    }
+
+    @Test
+    void readsTheValuesOfNumbers() {
+        assertEquals(31.0, number("0x1F"));
+        assertEquals(15.0, number("0o17"));
+        assertEquals(-17.0, number("-17"));
+        assertEquals(1_000.0, number("1e3"));
+        assertEquals(-0.5, number("-.5"));
+        assertEquals(Double.POSITIVE_INFINITY, number(".inf"));
+        assertEquals(Double.NEGATIVE_INFINITY, number("-.inf"));
+        assertEquals(Double.NaN, number(".nan"));
+    }
+
+    @Test
+    void resolvesOnlyUntaggedPlainScalars() {
+        MappingElement root = mapping("plain: 42\nsingle: '42'\ndouble: \"null\"\nblock: |\n  1.5\ntagged: !!str 42\n"
+                + "custom: !mine 42\n");
+
+        assertInstanceOf(IntegerElement.class, root.get("plain"));
+        assertInstanceOf(IntegerElement.class, root.get("custom"));
+        for (String key : new String[]{"single", "double", "block", "tagged"}) {
+            assertInstanceOf(StringElement.class, root.get(key), key);
+        }
+        assertEquals("1.5\n", text(root.get("block")));
+    }
+
+    @Test
+    void resolvesAliasesToTheAnchoredElement() {
+        MappingElement root = mapping("base: &b {x: 1}\ncopy: *b\nlist: &l [*b]\nsame: *l\nvalue: &v 2\nagain: *v\n");
+
+        assertSame(root.get("base"), root.get("copy"));
+        assertSame(root.get("list"), root.get("same"));
+        assertSame(root.get("base"), ((SequenceElement) Objects.requireNonNull(root.get("list"))).get(0));
+        assertSame(root.get("value"), root.get("again"));
+        assertInstanceOf(IntegerElement.class, root.get("again"));
+    }
+
+    @Test
+    void usesAnAliasedScalarAsAKey() {
+        MappingElement root = mapping("&k key: first\n*k : second\n&n 42: x\n*n : y\n");
+
+        assertEquals(2, root.size());
+        assertEquals("second", text(root.get("key")));
+        assertEquals("y", text(root.get("42")));
+    }
+
+    @Test
+    void refersToTheLatestDefinitionOfAnAnchor() {
+        MappingElement root = mapping("first: &a one\nsecond: &a [two]\nthird: *a\n&a key: x\n*a : y\n");
+
+        assertSame(root.get("second"), root.get("third"));
+        assertEquals("y", text(root.get("key")));
+    }
+
+    @Test
+    void rejectsWhatItCannotBuild() {
+        assertError("a: 1\nb: *undefined\n", 2, 4);
+        assertError("{[a]: value}\n", 1, 2);
+        assertError("a: &m {x: 1}\n*m : value\n", 2, 1);
+        assertError("a: *x\n---\nb: &x 1\n", 1, 4); // anchors are scoped to their document
+        assertThrows(YamlException.class, () -> YamlTreeBuilder.document(new YamlReader("? explicit\n")));
+    }
+
+    @Test
+    void readsOneDocumentAtATime() {
+        YamlReader reader = new YamlReader("--- a\n--- [b]\n...\n---\n--- {c: d}\n");
+
+        assertEquals("a", text(YamlTreeBuilder.document(reader)));
+        assertInstanceOf(SequenceElement.class, YamlTreeBuilder.document(reader));
+        assertSame(NullElement.NULL, YamlTreeBuilder.document(reader));
+        assertInstanceOf(MappingElement.class, YamlTreeBuilder.document(reader));
+        assertNull(YamlTreeBuilder.document(reader));
+
+        List<BaseElement<?>> roots = YamlTreeBuilder.documents(new YamlReader("--- a\n--- [b]\n...\n---\n--- {c: d}\n"));
+        assertEquals(4, roots.size());
+        assertEquals(List.of(), YamlTreeBuilder.documents(new YamlReader("# nothing\n")));
+    }
+
+    // --------------------------------------------------------- Helper methods
+
+    private static void assertResolved(@NotNull Class<?> type, @NotNull String text) {
+        assertInstanceOf(type, YamlTreeBuilder.resolve(new StringType(text)), () -> "\"" + text + "\"");
+        assertInstanceOf(type, root("- " + text + "\n"), () -> "\"" + text + "\" in a document");
+    }
+
+    private static double number(@NotNull String text) {
+        return ((NumberElement) YamlTreeBuilder.resolve(new StringType(text))).getValue().doubleValue();
+    }
+
+    private static @NotNull MappingElement mapping(@NotNull String yaml) {
+        return (MappingElement) Objects.requireNonNull(YamlTreeBuilder.document(new YamlReader(yaml)));
+    }
+
+    // the element of the only item of the given sequence
+    private static @NotNull BaseElement<?> root(@NotNull String yaml) {
+        return ((SequenceElement) Objects.requireNonNull(YamlTreeBuilder.document(new YamlReader(yaml)))).get(0);
+    }
+
+    private static @NotNull String text(BaseElement<?> element) {
+        return ((StringElement) Objects.requireNonNull(element)).getValue().getValue();
+    }
+
+    private static void assertError(@NotNull String yaml, int line, int column) {
+        YamlException e = assertThrows(YamlException.class, () -> YamlTreeBuilder.documents(new YamlReader(yaml)),
+                () -> "accepted\n" + yaml);
+        assertEquals(line + ":" + column, e.getLine() + ":" + e.getColumn(), () -> e.getMessage() + " in\n" + yaml);
+    }
+}